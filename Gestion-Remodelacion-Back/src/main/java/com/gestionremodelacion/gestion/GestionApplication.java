@@ -4,10 +4,12 @@ import org.springdoc.core.configuration.SpringDocConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.context.support.StandardServletEnvironment;
 
 @SpringBootApplication(exclude = { SpringDocConfiguration.class }) // <-- MODIFICA ESTA LÍNEA
 @EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO)
+@EnableScheduling
 
 public class GestionApplication {
 
@@ -1,14 +1,11 @@
 package com.gestionremodelacion.gestion.cliente.controller;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,24 +14,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.gestionremodelacion.gestion.cliente.dto.request.ClienteRequest;
 import com.gestionremodelacion.gestion.cliente.dto.response.ClienteDropdownResponse;
-import com.gestionremodelacion.gestion.cliente.dto.response.ClienteExportDTO;
 import com.gestionremodelacion.gestion.cliente.dto.response.ClienteResponse;
 import com.gestionremodelacion.gestion.cliente.service.ClienteService;
 import com.gestionremodelacion.gestion.dto.response.ApiResponse;
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
 import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
 import com.gestionremodelacion.gestion.export.ExportType;
-import com.gestionremodelacion.gestion.export.ExporterService;
-import com.gestionremodelacion.gestion.model.User;
+import com.gestionremodelacion.gestion.export.ExportResultCache;
+import com.gestionremodelacion.gestion.export.job.ExportRecurso;
 import com.gestionremodelacion.gestion.security.annotations.RequiresPlan;
-import com.gestionremodelacion.gestion.service.user.UserService;
-import com.itextpdf.text.DocumentException;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
 
 import jakarta.validation.Valid;
 
@@ -43,13 +40,14 @@ import jakarta.validation.Valid;
 public class ClienteController {
 
     private final ClienteService clienteService;
-    private final ExporterService exporterService;
-    private final UserService userService;
+    private final ExportResultCache exportResultCache;
+    private final TenantContextService tenantContextService;
 
-    public ClienteController(ClienteService clienteService, ExporterService exporterService, UserService userService) {
+    public ClienteController(ClienteService clienteService, ExportResultCache exportResultCache,
+            TenantContextService tenantContextService) {
         this.clienteService = clienteService;
-        this.exporterService = exporterService;
-        this.userService = userService;
+        this.exportResultCache = exportResultCache;
+        this.tenantContextService = tenantContextService;
     }
 
     @GetMapping
@@ -102,57 +100,73 @@ public class ClienteController {
     @GetMapping("/export/excel")
     @PreAuthorize("hasAuthority('EXPORT_EXCEL')")
     @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
-    public ResponseEntity<byte[]> exportClientsToExcel(
+    public ResponseEntity<StreamingResponseBody> exportClientsToExcel(
             @RequestParam(name = "filter", required = false) String filter,
-            @RequestParam(name = "sort", required = false) String sort) throws IOException {
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        User currentUser = userService.getCurrentUser();
-        Empresa empresa = currentUser.getEmpresa();
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
 
-        List<ClienteExportDTO> clientes = clienteService.findClientesForExport(filter, sort);
-        ByteArrayOutputStream excelStream = exporterService.export(
+        return exportResultCache.export(
+                ExportRecurso.CLIENTES,
                 ExportType.EXCEL,
-                clientes,
-                "Reporte de Clientes",
-                empresa
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                null,
+                () -> clienteService.streamClientesForExport(empresaId, filter, sort)
         );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Reporte_Clientes.xlsx");
-        headers.setContentType(
-                MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-
-        return ResponseEntity.ok().headers(headers).body(excelStream.toByteArray());
     }
 
     // Nuevo endpoint para exportar a PDF
     @GetMapping("/export/pdf")
     @PreAuthorize("hasAuthority('EXPORT_PDF')")
     @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
-    public ResponseEntity<byte[]> exportClientsToPdf(
+    public ResponseEntity<StreamingResponseBody> exportClientsToPdf(
             @RequestParam(name = "filter", required = false) String filter,
-            @RequestParam(name = "sort", required = false) String sort) throws DocumentException, IOException {
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        User currentUser = userService.getCurrentUser();
-        Empresa empresa = currentUser.getEmpresa();
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
 
-        List<ClienteExportDTO> clientes = clienteService.findClientesForExport(filter, sort);
-        if (clientes.isEmpty()) {
-            // Devuelve una respuesta HTTP 404 Not Found o 204 No Content
-            return ResponseEntity.notFound().build();
-        }
-        ByteArrayOutputStream pdfStream = exporterService.export(
+        return exportResultCache.export(
+                ExportRecurso.CLIENTES,
                 ExportType.PDF,
-                clientes,
-                "Reporte de Clientes",
-                empresa
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                null,
+                () -> clienteService.streamClientesForExport(empresaId, filter, sort)
         );
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Reporte_Clientes.pdf");
-        headers.setContentType(MediaType.APPLICATION_PDF);
-
-        return ResponseEntity.ok().headers(headers).body(pdfStream.toByteArray());
+    // Endpoint para exportar a CSV
+    @GetMapping("/export/csv")
+    @PreAuthorize("hasAuthority('EXPORT_EXCEL')")
+    @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
+    public ResponseEntity<StreamingResponseBody> exportClientsToCsv(
+            @RequestParam(name = "filter", required = false) String filter,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
+
+        return exportResultCache.export(
+                ExportRecurso.CLIENTES,
+                ExportType.CSV,
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                acceptEncoding,
+                () -> clienteService.streamClientesForExport(empresaId, filter, sort)
+        );
     }
 
 }
@@ -1,15 +1,22 @@
 package com.gestionremodelacion.gestion.cliente.dto.response;
 
-import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
 
 import com.gestionremodelacion.gestion.cliente.model.Cliente;
+import com.gestionremodelacion.gestion.export.ExportColumn;
 import com.gestionremodelacion.gestion.export.Exportable;
 import com.gestionremodelacion.gestion.util.FormatUtils;
 
 public class ClienteExportDTO implements Exportable {
 
+    public static final List<ExportColumn> COLUMNS = List.of(
+            ExportColumn.texto("Nombre"),
+            ExportColumn.texto("Teléfono"),
+            ExportColumn.texto("Dirección"),
+            ExportColumn.texto("Notas"),
+            ExportColumn.fecha("Fecha de Registro"));
+
     private final Cliente cliente;
 
     public ClienteExportDTO(Cliente cliente) {
@@ -17,24 +24,20 @@ public class ClienteExportDTO implements Exportable {
     }
 
     @Override
-    public List<String> getExportHeaders() {
-        return Arrays.asList("Nombre", "Teléfono", "Dirección", "Notas", "Fecha de Registro");
+    public List<ExportColumn> getExportColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public List<List<String>> getExportData() {
-        String fechaFormateada = this.cliente.getFechaRegistro() != null
-                ? this.cliente.getFechaRegistro().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
-                : "";
-
+    public List<List<Object>> getExportData() {
         String telefonoFormateado = FormatUtils.formatPhoneNumber(this.cliente.getTelefonoContacto());
 
-        return Arrays.asList(Arrays.asList(
+        return List.of(Arrays.asList(
                 this.cliente.getNombreCliente(),
                 telefonoFormateado,
                 this.cliente.getDireccion(),
                 this.cliente.getNotas(),
-                fechaFormateada));
+                this.cliente.getFechaRegistro() != null ? this.cliente.getFechaRegistro().toLocalDate() : null));
     }
 
 }
@@ -1,15 +1,24 @@
 package com.gestionremodelacion.gestion.cliente.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
 import com.gestionremodelacion.gestion.cliente.model.Cliente;
+import com.gestionremodelacion.gestion.export.ExporterService;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
@@ -28,21 +37,28 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
    Page<Cliente> findByEmpresaIdAndNombreClienteContainingIgnoreCaseOrEmpresaIdAndTelefonoContactoContainingIgnoreCase(
          Long empresaId1, String nombreCliente, Long empresaId2, String telefonoContacto, Pageable pageable);
 
-   List<Cliente> findByEmpresaIdAndNombreClienteContainingIgnoreCaseOrEmpresaIdAndTelefonoContactoContainingIgnoreCase(
-         Long empresaId1, String nombreCliente, Long empresaId2, String telefonoContacto, Sort sort);
+   // Exportación: se lee como Stream (requiere una transacción abierta mientras se consume)
+   @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExporterService.FETCH_SIZE),
+         @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+   @Query("SELECT c FROM Cliente c WHERE c.empresa.id = :empresaId AND (:filter IS NULL OR "
+         + "LOWER(c.nombreCliente) LIKE LOWER(CONCAT('%', :filter, '%')) OR "
+         + "LOWER(c.telefonoContacto) LIKE LOWER(CONCAT('%', :filter, '%')))")
+   Stream<Cliente> streamForExport(@Param("empresaId") Long empresaId, @Param("filter") String filter, Sort sort);
 
    /* ======================================================================= */
    /* MÉTODOS EXCLUSIVOS PARA DashboardService (Agregaciones) */
    /* ======================================================================= */
-   // Cuenta clientes por mes para un año específico.
+   // Cuenta clientes por mes dentro del rango [desde, hasta) (normalmente un año).
+   // El filtro es por rango para usar el índice (id_empresa, fecha_registro).
    @Query("SELECT YEAR(c.fechaRegistro) AS anio, MONTH(c.fechaRegistro) AS mes, COUNT(c) FROM Cliente c " +
-         "WHERE c.empresa.id = :empresaId AND YEAR(c.fechaRegistro) = :year " +
+         "WHERE c.empresa.id = :empresaId AND c.fechaRegistro >= :desde AND c.fechaRegistro < :hasta " +
          "GROUP BY anio, mes ORDER BY anio, mes")
-   List<Object[]> countClientesByMonthForYearAndEmpresa(@Param("empresaId") Long empresaId, @Param("year") int year);
+   List<Object[]> countClientesByMonthForRangeAndEmpresa(@Param("empresaId") Long empresaId,
+         @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
 
-   // Cuenta clientes para un mes y año específicos.
+   // Cuenta clientes registrados dentro del rango [desde, hasta).
    @Query("SELECT COUNT(c) FROM Cliente c WHERE c.empresa.id = :empresaId AND " +
-         "YEAR(c.fechaRegistro) = :year AND MONTH(c.fechaRegistro) = :month")
-   Long countByYearAndMonthAndEmpresa(@Param("empresaId") Long empresaId, @Param("year") int year,
-         @Param("month") int month);
+         "c.fechaRegistro >= :desde AND c.fechaRegistro < :hasta")
+   Long countByRangeAndEmpresa(@Param("empresaId") Long empresaId, @Param("desde") LocalDateTime desde,
+         @Param("hasta") LocalDateTime hasta);
 }
@@ -2,7 +2,9 @@ package com.gestionremodelacion.gestion.cliente.service;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -18,27 +20,32 @@ import com.gestionremodelacion.gestion.cliente.repository.ClienteRepository;
 import com.gestionremodelacion.gestion.exception.ErrorCatalog;
 import com.gestionremodelacion.gestion.exception.ResourceNotFoundException;
 import com.gestionremodelacion.gestion.mapper.ClienteMapper;
-import com.gestionremodelacion.gestion.model.User;
-import com.gestionremodelacion.gestion.service.user.UserService;
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent.Seccion;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent;
 
 @Service
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
     private final ClienteMapper clienteMapper;
-    private final UserService userService;
+    private final TenantContextService tenantContextService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ClienteService(ClienteRepository clienteRepository, ClienteMapper clienteMapper, UserService userService) {
+    public ClienteService(ClienteRepository clienteRepository, ClienteMapper clienteMapper,
+            TenantContextService tenantContextService, ApplicationEventPublisher eventPublisher) {
         this.clienteRepository = clienteRepository;
         this.clienteMapper = clienteMapper;
-        this.userService = userService;
+        this.tenantContextService = tenantContextService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Metodo para obtener los clientes para ClienteDropdownResponse
     @Transactional(readOnly = true)
     public List<ClienteDropdownResponse> getClientesForDropdown() {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         // ordenamos por defecto nombre ASC
         Sort sort = Sort.by(Sort.Direction.ASC, "nombreCliente");
@@ -54,8 +61,8 @@ public class ClienteService {
 
     @Transactional(readOnly = true)
     public Page<ClienteResponse> getAllClientes(Pageable pageable, String filter) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         Page<Cliente> clientesPage = (filter != null && !filter.trim().isEmpty())
                 ? clienteRepository
@@ -67,8 +74,8 @@ public class ClienteService {
 
     @Transactional(readOnly = true)
     public ClienteResponse getClienteById(Long id) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         return clienteRepository.findByIdAndEmpresaId(id, empresaId)
                 .map(clienteMapper::toClienteResponse)
@@ -77,45 +84,49 @@ public class ClienteService {
 
     @Transactional
     public ClienteResponse createCliente(ClienteRequest clienteRequest) {
-        User currentUser = userService.getCurrentUser();
+        TenantContext tenant = tenantContextService.current();
 
         Cliente cliente = clienteMapper.toCliente(clienteRequest);
-        cliente.setEmpresa(currentUser.getEmpresa());
+        cliente.setEmpresa(tenantContextService.empresaReference());
 
         Cliente savedCliente = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(DashboardDataChangedEvent.of(tenant.empresaId(), Seccion.CLIENTES));
         return clienteMapper.toClienteResponse(savedCliente);
     }
 
     @Transactional
     public ClienteResponse updateCliente(Long id, ClienteRequest clienteRequest) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         Cliente cliente = clienteRepository.findByIdAndEmpresaId(id, empresaId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCatalog.RESOURCE_NOT_FOUND.getKey()));
 
         clienteMapper.updateClienteFromRequest(clienteRequest, cliente);
         Cliente updatedCliente = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(DashboardDataChangedEvent.of(empresaId, Seccion.CLIENTES));
         return clienteMapper.toClienteResponse(updatedCliente);
     }
 
     @Transactional
     public void deleteCliente(Long id) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         if (!clienteRepository.existsByIdAndEmpresaId(id, empresaId)) {
             throw new ResourceNotFoundException(ErrorCatalog.RESOURCE_NOT_FOUND.getKey());
         }
         clienteRepository.deleteById(id);
+        eventPublisher.publishEvent(DashboardDataChangedEvent.of(empresaId, Seccion.CLIENTES));
     }
 
-    // método para exportación
+    /**
+     * Método para exportación. Recibe la empresa explícitamente porque el
+     * reporte se escribe fuera del hilo de la petición. El Stream debe cerrarse
+     * y consumirse dentro de la transacción que abre ExporterService.
+     */
     @Transactional(readOnly = true)
-    public List<ClienteExportDTO> findClientesForExport(String filter, String sort) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
-
+    public Stream<ClienteExportDTO> streamClientesForExport(Long empresaId, String filter, String sort) {
         Sort sortObj = Sort.by(Sort.Direction.ASC, "nombreCliente"); // Orden por defecto
         if (sort != null && !sort.isEmpty()) {
             String[] sortParts = sort.split(",");
@@ -125,20 +136,9 @@ public class ClienteService {
             sortObj = Sort.by(sortDirection, sortProperty);
         }
 
-        List<Cliente> clientes;
-        if (filter != null && !filter.trim().isEmpty()) {
-            // Lógica de filtrado y ordenamiento en el repositorio.
-            // Es necesario añadir un método en ClienteRepository para esto.
-            clientes = clienteRepository
-                    .findByEmpresaIdAndNombreClienteContainingIgnoreCaseOrEmpresaIdAndTelefonoContactoContainingIgnoreCase(
-                            empresaId, filter, empresaId, filter, sortObj);
-        } else {
-            clientes = clienteRepository.findAll(sortObj);
-        }
-
-        return clientes.stream()
-                .map(ClienteExportDTO::new)
-                .collect(Collectors.toList());
+        String effectiveFilter = (filter != null && !filter.trim().isEmpty()) ? filter.trim() : null;
+        return clienteRepository.streamForExport(empresaId, effectiveFilter, sortObj)
+                .map(ClienteExportDTO::new);
     }
 
 }
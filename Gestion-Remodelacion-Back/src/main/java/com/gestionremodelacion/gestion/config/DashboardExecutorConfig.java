@@ -0,0 +1,47 @@
+package com.gestionremodelacion.gestion.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors del Dashboard: consulta en paralelo de los servicios de métricas y
+ * envío de eventos SSE. Ambos son acotados (hilos y cola) para que un pico de
+ * peticiones no agote el pool de conexiones de la base de datos.
+ *
+ * Cuando el runtime pase a JDK 21 se pueden sustituir por executors de hilos
+ * virtuales con un semáforo del mismo tamaño.
+ */
+@Configuration
+public class DashboardExecutorConfig {
+
+    @Bean(name = "dashboardMetricsExecutor")
+    public ThreadPoolTaskExecutor dashboardMetricsExecutor(DashboardProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMetricsPoolSize());
+        executor.setMaxPoolSize(properties.getMetricsPoolSize());
+        executor.setQueueCapacity(properties.getMetricsQueueCapacity());
+        executor.setThreadNamePrefix("dashboard-metrics-");
+        // Si la cola se llena la tarea se rechaza y DashboardService responde esa sección vacía;
+        // ejecutarla en el hilo de la petición se saltaría el límite de conexiones y el timeout
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    // Envía los eventos SSE; un cliente lento solo ocupa un hilo mientras se drena su cola
+    @Bean(name = "dashboardStreamExecutor")
+    public ThreadPoolTaskExecutor dashboardStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("dashboard-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,104 @@
+package com.gestionremodelacion.gestion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propiedades del Dashboard. Se cargan desde application.properties con el
+ * prefijo "dashboard".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "dashboard")
+public class DashboardProperties {
+
+    private long cacheMaxSize = 2000; // Entradas máximas en la caché de resultados
+    private long cacheTtlMinutes = 30; // Tiempo de vida de cada entrada
+    private int metricsPoolSize = 8; // Hilos para consultar las métricas en paralelo
+    private int metricsQueueCapacity = 64; // Tareas en espera antes de rechazar
+    private long metricsTimeoutMs = 5000; // Tiempo máximo por cada servicio de métricas
+    private int streamMaxSubscribersPerEmpresa = 50; // Conexiones SSE simultáneas por empresa
+    private int streamMaxPendingEvents = 32; // Eventos en cola por conexión antes de pedir resync
+    private long streamTimeoutMs = 1800000; // Vida máxima de una conexión SSE (el cliente reconecta)
+    private long streamHeartbeatMs = 20000; // Intervalo del heartbeat para mantener viva la conexión
+    private int trendMaxMonths = 120; // Meses máximos que puede abarcar la tendencia
+
+    public long getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    public void setCacheMaxSize(long cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
+    public long getCacheTtlMinutes() {
+        return cacheTtlMinutes;
+    }
+
+    public void setCacheTtlMinutes(long cacheTtlMinutes) {
+        this.cacheTtlMinutes = cacheTtlMinutes;
+    }
+
+    public int getMetricsPoolSize() {
+        return metricsPoolSize;
+    }
+
+    public void setMetricsPoolSize(int metricsPoolSize) {
+        this.metricsPoolSize = metricsPoolSize;
+    }
+
+    public int getMetricsQueueCapacity() {
+        return metricsQueueCapacity;
+    }
+
+    public void setMetricsQueueCapacity(int metricsQueueCapacity) {
+        this.metricsQueueCapacity = metricsQueueCapacity;
+    }
+
+    public long getMetricsTimeoutMs() {
+        return metricsTimeoutMs;
+    }
+
+    public void setMetricsTimeoutMs(long metricsTimeoutMs) {
+        this.metricsTimeoutMs = metricsTimeoutMs;
+    }
+
+    public int getStreamMaxSubscribersPerEmpresa() {
+        return streamMaxSubscribersPerEmpresa;
+    }
+
+    public void setStreamMaxSubscribersPerEmpresa(int streamMaxSubscribersPerEmpresa) {
+        this.streamMaxSubscribersPerEmpresa = streamMaxSubscribersPerEmpresa;
+    }
+
+    public int getStreamMaxPendingEvents() {
+        return streamMaxPendingEvents;
+    }
+
+    public void setStreamMaxPendingEvents(int streamMaxPendingEvents) {
+        this.streamMaxPendingEvents = streamMaxPendingEvents;
+    }
+
+    public long getStreamTimeoutMs() {
+        return streamTimeoutMs;
+    }
+
+    public void setStreamTimeoutMs(long streamTimeoutMs) {
+        this.streamTimeoutMs = streamTimeoutMs;
+    }
+
+    public long getStreamHeartbeatMs() {
+        return streamHeartbeatMs;
+    }
+
+    public void setStreamHeartbeatMs(long streamHeartbeatMs) {
+        this.streamHeartbeatMs = streamHeartbeatMs;
+    }
+
+    public int getTrendMaxMonths() {
+        return trendMaxMonths;
+    }
+
+    public void setTrendMaxMonths(int trendMaxMonths) {
+        this.trendMaxMonths = trendMaxMonths;
+    }
+}
@@ -0,0 +1,53 @@
+package com.gestionremodelacion.gestion.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Los reportes se escriben directo en la respuesta con StreamingResponseBody,
+ * que Spring MVC ejecuta en un hilo aparte. Este executor acotado limita cuántos
+ * reportes se generan a la vez, y con ello las conexiones a la BD que quedan
+ * abiertas mientras se descargan.
+ */
+@Configuration
+public class ExportConfig implements WebMvcConfigurer {
+
+    private final ExportProperties properties;
+
+    public ExportConfig(ExportProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("export-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Exportaciones en segundo plano: pocos hilos para no competir con las peticiones
+    @Bean(name = "exportJobExecutor")
+    public ThreadPoolTaskExecutor exportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getJobPoolSize());
+        executor.setMaxPoolSize(properties.getJobPoolSize());
+        executor.setQueueCapacity(properties.getJobQueueCapacity());
+        executor.setThreadNamePrefix("export-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Llamada al método @Bean: el proxy de @Configuration devuelve la misma instancia
+        configurer.setTaskExecutor(exportExecutor());
+        configurer.setDefaultTimeout(properties.getTimeoutMs());
+    }
+}
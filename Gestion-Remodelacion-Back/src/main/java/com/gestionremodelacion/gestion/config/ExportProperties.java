@@ -0,0 +1,144 @@
+package com.gestionremodelacion.gestion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propiedades de la exportación de reportes (Excel, PDF). Se cargan desde
+ * application.properties con el prefijo "export".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "export")
+public class ExportProperties {
+
+    private int poolSize = 4; // Reportes que se generan a la vez (cada uno ocupa una conexión)
+    private int queueCapacity = 16; // Descargas en espera antes de rechazar
+    private long timeoutMs = 600000; // Tiempo máximo de una descarga
+    private boolean gzipEnabled = true; // Comprimir los formatos de texto (CSV) si el cliente lo acepta
+    private boolean excelExactAutosize = false; // true: autoSizeColumn de POI (exacto pero lento)
+    private boolean resultCacheEnabled = true; // Reutilizar reportes generados mientras los datos no cambien
+
+    // --- Exportaciones en segundo plano (jobs) ---
+    private int jobPoolSize = 2; // Jobs que se procesan a la vez
+    private int jobQueueCapacity = 20; // Jobs en espera antes de rechazar nuevos
+    private long jobTtlMinutes = 60; // Tiempo que se conserva un archivo terminado
+    private String jobStorageDir = System.getProperty("java.io.tmpdir") + "/gestion-exports"; // Carpeta local
+
+    // --- Logos de empresa en los PDF ---
+    private int logoCacheMaxEntries = 200; // Logos distintos que se guardan en memoria
+    private long logoCacheTtlMinutes = 60; // Tiempo antes de volver a descargar un logo
+    private int logoMaxWidthPx = 600; // Ancho al que se reduce el logo antes de guardarlo
+    private int logoTimeoutMs = 5000; // Tiempo máximo de conexión y de lectura al descargar
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    public void setGzipEnabled(boolean gzipEnabled) {
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public boolean isExcelExactAutosize() {
+        return excelExactAutosize;
+    }
+
+    public void setExcelExactAutosize(boolean excelExactAutosize) {
+        this.excelExactAutosize = excelExactAutosize;
+    }
+
+    public boolean isResultCacheEnabled() {
+        return resultCacheEnabled;
+    }
+
+    public void setResultCacheEnabled(boolean resultCacheEnabled) {
+        this.resultCacheEnabled = resultCacheEnabled;
+    }
+
+    public int getJobPoolSize() {
+        return jobPoolSize;
+    }
+
+    public void setJobPoolSize(int jobPoolSize) {
+        this.jobPoolSize = jobPoolSize;
+    }
+
+    public int getJobQueueCapacity() {
+        return jobQueueCapacity;
+    }
+
+    public void setJobQueueCapacity(int jobQueueCapacity) {
+        this.jobQueueCapacity = jobQueueCapacity;
+    }
+
+    public long getJobTtlMinutes() {
+        return jobTtlMinutes;
+    }
+
+    public void setJobTtlMinutes(long jobTtlMinutes) {
+        this.jobTtlMinutes = jobTtlMinutes;
+    }
+
+    public String getJobStorageDir() {
+        return jobStorageDir;
+    }
+
+    public void setJobStorageDir(String jobStorageDir) {
+        this.jobStorageDir = jobStorageDir;
+    }
+
+    public int getLogoCacheMaxEntries() {
+        return logoCacheMaxEntries;
+    }
+
+    public void setLogoCacheMaxEntries(int logoCacheMaxEntries) {
+        this.logoCacheMaxEntries = logoCacheMaxEntries;
+    }
+
+    public long getLogoCacheTtlMinutes() {
+        return logoCacheTtlMinutes;
+    }
+
+    public void setLogoCacheTtlMinutes(long logoCacheTtlMinutes) {
+        this.logoCacheTtlMinutes = logoCacheTtlMinutes;
+    }
+
+    public int getLogoMaxWidthPx() {
+        return logoMaxWidthPx;
+    }
+
+    public void setLogoMaxWidthPx(int logoMaxWidthPx) {
+        this.logoMaxWidthPx = logoMaxWidthPx;
+    }
+
+    public int getLogoTimeoutMs() {
+        return logoTimeoutMs;
+    }
+
+    public void setLogoTimeoutMs(int logoTimeoutMs) {
+        this.logoTimeoutMs = logoTimeoutMs;
+    }
+}
@@ -18,6 +18,12 @@ public class JwtProperties {
     private String prefix;
     private long refreshExpirationMs;
     private long blacklistCleanupInterval = 3600000; // Valor por defecto
+    private boolean statelessPrincipal = true; // Armar el usuario autenticado con los claims, sin ir a la BD
+    private long userStateCacheSeconds = 30; // Tiempo que se reutiliza el estado (activo, versión) de un usuario
+    private long verifiedCacheMaxEntries = 10000; // Tokens verificados cuyos claims se guardan en memoria
+    private long revocationRefreshMs = 5000; // Cada cuánto se leen las revocaciones hechas en otras instancias
+    private int revocationBucketMinutes = 5; // Tamaño del intervalo de vencimiento de cada filtro de Bloom
+    private int revocationExpectedPerBucket = 10000; // Revocaciones esperadas por intervalo (dimensiona el filtro)
 
     public long getRefreshExpirationMs() {
         return refreshExpirationMs;
@@ -75,4 +81,52 @@ public class JwtProperties {
         this.blacklistCleanupInterval = blacklistCleanupInterval;
     }
 
+    public boolean isStatelessPrincipal() {
+        return statelessPrincipal;
+    }
+
+    public void setStatelessPrincipal(boolean statelessPrincipal) {
+        this.statelessPrincipal = statelessPrincipal;
+    }
+
+    public long getUserStateCacheSeconds() {
+        return userStateCacheSeconds;
+    }
+
+    public void setUserStateCacheSeconds(long userStateCacheSeconds) {
+        this.userStateCacheSeconds = userStateCacheSeconds;
+    }
+
+    public long getVerifiedCacheMaxEntries() {
+        return verifiedCacheMaxEntries;
+    }
+
+    public void setVerifiedCacheMaxEntries(long verifiedCacheMaxEntries) {
+        this.verifiedCacheMaxEntries = verifiedCacheMaxEntries;
+    }
+
+    public long getRevocationRefreshMs() {
+        return revocationRefreshMs;
+    }
+
+    public void setRevocationRefreshMs(long revocationRefreshMs) {
+        this.revocationRefreshMs = revocationRefreshMs;
+    }
+
+    public int getRevocationBucketMinutes() {
+        return revocationBucketMinutes;
+    }
+
+    public void setRevocationBucketMinutes(int revocationBucketMinutes) {
+        this.revocationBucketMinutes = revocationBucketMinutes;
+    }
+
+    public int getRevocationExpectedPerBucket() {
+        return revocationExpectedPerBucket;
+    }
+
+    public void setRevocationExpectedPerBucket(int revocationExpectedPerBucket) {
+        this.revocationExpectedPerBucket = revocationExpectedPerBucket;
+    }
+
 }
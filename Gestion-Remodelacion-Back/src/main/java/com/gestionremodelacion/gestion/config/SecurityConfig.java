@@ -32,6 +32,8 @@ import com.gestionremodelacion.gestion.security.exception.JwtAuthenticationEntry
 import com.gestionremodelacion.gestion.security.jwt.JwtAuthFilter;
 import com.gestionremodelacion.gestion.security.jwt.RateLimitFilter;
 
+import jakarta.servlet.DispatcherType;
+
 /**
  * Configuración centralizada de seguridad con: - Configuración CORS mejorada -
  * Protección CSRF - Manejo de excepciones - Políticas de sesión stateless -
@@ -68,6 +70,10 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Las respuestas en streaming (exportaciones, SSE) terminan en un dispatch ASYNC
+                        // que JwtAuthFilter no procesa (OncePerRequestFilter); la petición original ya se
+                        // autorizó. Lo mismo con el dispatch ERROR al renderizar un error.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/v3/api-docs/**",
@@ -76,6 +82,8 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers(EndpointRequest.to("health")).permitAll()
+                        // Métricas del actuator (ej. cache.gets con cache=dashboard): solo SUPER_ADMIN
+                        .requestMatchers(EndpointRequest.to("metrics")).hasRole("SUPER_ADMIN")
                         // --- Rutas protegidas por permisos/roles usando hasAuthority() ---
                         // Uso de HttpMethod.GET, HttpMethod.POST, etc. para evitar warnings futuros.
 
@@ -143,6 +151,9 @@ public class SecurityConfig {
                         // solicitud para invitar a un empleado a una empresa
                         .requestMatchers(HttpMethod.POST, "/api/invitations/**").hasAuthority("INVITE_USER")
                         .requestMatchers(HttpMethod.GET, "/api/invitations/validate").permitAll()
+
+                        // Exportaciones en segundo plano: el permiso exacto depende del formato
+                        .requestMatchers("/api/exports/**").hasAnyAuthority("EXPORT_EXCEL", "EXPORT_PDF")
                         // Cualquier otra solicitud debe estar autenticada
                         .anyRequest().authenticated())
                 .addFilterBefore(rateLimitFilter, LogoutFilter.class)
@@ -158,8 +169,9 @@ public class SecurityConfig {
 
         config.setAllowedOriginPatterns(List.of(allowedOrigins));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        config.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type", "Skip-Interceptor"));
-        config.setExposedHeaders(List.of("Authorization", "X-Refresh-Token"));
+        config.setAllowedHeaders(
+                List.of("Authorization", "Cache-Control", "Content-Type", "Skip-Interceptor", "If-None-Match"));
+        config.setExposedHeaders(List.of("Authorization", "X-Refresh-Token", "ETag"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
 
@@ -1,10 +1,13 @@
 package com.gestionremodelacion.gestion.controller.dashboard;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -12,6 +15,8 @@ import org.springframework.web.bind.annotation.RestController;
 import com.gestionremodelacion.gestion.dto.response.ApiResponse;
 import com.gestionremodelacion.gestion.dto.response.DashboardClientesResponse;
 import com.gestionremodelacion.gestion.dto.response.DashboardSummaryResponse;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardSummaryV2Response;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardTrendResponse;
 import com.gestionremodelacion.gestion.service.dashboard.DashboardService;
 
 @RestController
@@ -35,6 +40,29 @@ public class DashboardController {
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
 
+    // Versión columnar del resumen (arreglos paralelos + diccionario de nombres)
+    @GetMapping("/v2/summary")
+    @PreAuthorize("hasAuthority('DASHBOARD_VIEW')")
+    public ResponseEntity<ApiResponse<DashboardSummaryV2Response>> getDashboardSummaryV2(
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(name = "month", required = false) Integer month,
+            @RequestParam(name = "projectId", required = false) Long projectId) {
+        DashboardSummaryV2Response summary = dashboardService.getDashboardSummaryV2(year, month, projectId);
+
+        return ResponseEntity.ok(ApiResponse.success(summary));
+    }
+
+    // Tendencia mensual en un rango de fechas (una sola petición en lugar de una por mes)
+    @GetMapping("/trend")
+    @PreAuthorize("hasAuthority('DASHBOARD_VIEW')")
+    public ResponseEntity<ApiResponse<DashboardTrendResponse>> getDashboardTrend(
+            @RequestParam(name = "desde") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(name = "hasta") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        DashboardTrendResponse trend = dashboardService.getDashboardTrend(desde, hasta);
+
+        return ResponseEntity.ok(ApiResponse.success(trend));
+    }
+
     @GetMapping("/proyectos")
     @PreAuthorize("hasAuthority('DASHBOARD_VIEW')")
     public ResponseEntity<ApiResponse<List<Object[]>>> getProyectos(
@@ -61,4 +89,13 @@ public class DashboardController {
         List<Integer> years = dashboardService.getAvailableYears();
         return ResponseEntity.ok(ApiResponse.success(years));
     }
+
+    // Reconstruye el resumen mensual del dashboard desde las tablas origen
+    @PostMapping("/rollup/rebuild")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> rebuildRollup(
+            @RequestParam(name = "empresaId", required = false) Long empresaId) {
+        dashboardService.rebuildRollup(empresaId);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
 }
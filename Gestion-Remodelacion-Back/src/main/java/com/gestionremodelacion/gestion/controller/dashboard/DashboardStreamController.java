@@ -0,0 +1,58 @@
+package com.gestionremodelacion.gestion.controller.dashboard;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardStreamService;
+
+/**
+ * Stream SSE del Dashboard. Sustituye el polling de /summary: el cliente
+ * recibe un evento "dashboard-delta" cuando cambian datos de su empresa y
+ * solo entonces vuelve a pedir el resumen.
+ *
+ * Al completarse o vencer el emisor, el contenedor hace un dispatch ASYNC
+ * sin JWT; SecurityConfig lo deja pasar porque la suscripción ya se autorizó
+ * en la petición original.
+ *
+ * Limitaciones:
+ * <ul>
+ * <li>Autenticación: JwtAuthFilter solo lee el header "Authorization: Bearer",
+ * y el EventSource del navegador no permite enviar headers. El frontend debe
+ * abrir el stream con fetch (leyendo el body como stream) o con una librería
+ * SSE basada en fetch que mande el header; un EventSource nativo recibe
+ * 401/403.</li>
+ * <li>Una sola instancia: los eventos se reparten en memoria
+ * ({@link DashboardStreamService}) solo a los clientes conectados a la misma
+ * instancia que procesó el cambio. Con varias réplicas un cliente conectado
+ * a otra no recibe el delta (solo el heartbeat) y ve el cambio cuando el
+ * stream se reconecta o al recargar. Para escalar horizontalmente hace falta
+ * un canal compartido (ej. Redis pub/sub) que reenvíe los eventos a todas
+ * las instancias.</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardStreamController {
+
+    private final DashboardStreamService dashboardStreamService;
+    private final TenantContextService tenantContextService;
+
+    public DashboardStreamController(DashboardStreamService dashboardStreamService,
+            TenantContextService tenantContextService) {
+        this.dashboardStreamService = dashboardStreamService;
+        this.tenantContextService = tenantContextService;
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('DASHBOARD_VIEW')")
+    public SseEmitter stream() {
+        TenantContext tenant = tenantContextService.current();
+        return dashboardStreamService.subscribe(tenant.empresaId());
+    }
+}
@@ -0,0 +1,13 @@
+package com.gestionremodelacion.gestion.dto.response;
+
+import java.util.List;
+
+/**
+ * Página de un listado por cursor (keyset). A diferencia de {@code Page} no
+ * tiene número de página: para seguir se envía {@code nextCursor}.
+ *
+ * @param total total de registros; solo se calcula si el cliente lo pide
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor, Long total) {
+
+}
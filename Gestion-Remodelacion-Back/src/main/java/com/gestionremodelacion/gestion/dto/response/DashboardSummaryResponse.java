@@ -1,6 +1,7 @@
 package com.gestionremodelacion.gestion.dto.response;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 
 public class DashboardSummaryResponse {
@@ -18,12 +19,25 @@ public class DashboardSummaryResponse {
     private final List<Object[]> horasPorProyecto;
     private final List<Object[]> proyectosPorEstado;
     private final List<Object[]> horasPorEmpleadoProyecto;
+    // --- Secciones que no respondieron a tiempo (respuesta parcial) ---
+    private final List<String> seccionesNoDisponibles;
 
     public DashboardSummaryResponse(Long totalProyectos, Long empleadosActivos, BigDecimal balanceFinanciero,
             BigDecimal montoRecibido, BigDecimal costoMateriales, BigDecimal otrosGastos, 
             List<Object[]> empleadosPorRol,
             List<Object[]> horasPorProyecto,
             List<Object[]> proyectosPorEstado, List<Object[]> horasPorEmpleadoProyecto, BigDecimal costoManoDeObra) {
+        this(totalProyectos, empleadosActivos, balanceFinanciero, montoRecibido, costoMateriales, otrosGastos,
+                empleadosPorRol, horasPorProyecto, proyectosPorEstado, horasPorEmpleadoProyecto, costoManoDeObra,
+                Collections.emptyList());
+    }
+
+    public DashboardSummaryResponse(Long totalProyectos, Long empleadosActivos, BigDecimal balanceFinanciero,
+            BigDecimal montoRecibido, BigDecimal costoMateriales, BigDecimal otrosGastos,
+            List<Object[]> empleadosPorRol,
+            List<Object[]> horasPorProyecto,
+            List<Object[]> proyectosPorEstado, List<Object[]> horasPorEmpleadoProyecto, BigDecimal costoManoDeObra,
+            List<String> seccionesNoDisponibles) {
         this.totalProyectos = totalProyectos;
         this.empleadosActivos = empleadosActivos;
         this.balanceFinanciero = balanceFinanciero;
@@ -35,6 +49,7 @@ public class DashboardSummaryResponse {
         this.proyectosPorEstado = proyectosPorEstado;
         this.horasPorEmpleadoProyecto = horasPorEmpleadoProyecto;
         this.costoManoDeObra = costoManoDeObra;
+        this.seccionesNoDisponibles = seccionesNoDisponibles;
     }
 
     public Long getTotalProyectos() {
@@ -80,5 +95,13 @@ public class DashboardSummaryResponse {
     public BigDecimal getCostoManoDeObra() {
         return costoManoDeObra;
     }
+
+    public List<String> getSeccionesNoDisponibles() {
+        return seccionesNoDisponibles;
+    }
+
+    public boolean isParcial() {
+        return !seccionesNoDisponibles.isEmpty();
+    }
     
 }
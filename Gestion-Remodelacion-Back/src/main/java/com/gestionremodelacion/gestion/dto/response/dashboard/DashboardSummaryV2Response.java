@@ -0,0 +1,58 @@
+package com.gestionremodelacion.gestion.dto.response.dashboard;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Resumen del Dashboard, versión 2 (formato columnar).
+ *
+ * En lugar de una lista de filas {@code Object[]} cada sección se envía como
+ * arreglos paralelos del mismo largo. Los nombres de proyectos y empleados se
+ * envían una sola vez en {@link Diccionario}; las secciones solo guardan el
+ * índice dentro del diccionario.
+ */
+public record DashboardSummaryV2Response(
+        int version,
+        Totales totales,
+        Diccionario proyectos,
+        Diccionario empleados,
+        ConteoColumnas proyectosPorEstado,
+        ConteoColumnas empleadosPorRol,
+        HorasProyectoColumnas horasPorProyecto,
+        HorasEmpleadoProyectoColumnas horasPorEmpleadoProyecto,
+        List<String> seccionesNoDisponibles) {
+
+    public static final int VERSION = 2;
+
+    public record Totales(
+            long totalProyectos,
+            long empleadosActivos,
+            BigDecimal balanceFinanciero,
+            BigDecimal montoRecibido,
+            BigDecimal costoMateriales,
+            BigDecimal otrosGastos,
+            BigDecimal costoManoDeObra) {
+
+    }
+
+    // ids[i] y nombres[i] describen la misma entidad; las columnas guardan i
+    public record Diccionario(long[] ids, String[] nombres) {
+
+    }
+
+    // Conteo por etiqueta (estado del proyecto o rol del empleado)
+    public record ConteoColumnas(String[] etiquetas, long[] totales) {
+
+    }
+
+    // proyecto[i] es el índice en el diccionario de proyectos
+    public record HorasProyectoColumnas(int[] proyecto, BigDecimal[] horas) {
+
+    }
+
+    // empleado[i] y proyecto[i] son índices en los diccionarios respectivos
+    public record HorasEmpleadoProyectoColumnas(int[] empleado, int[] proyecto, BigDecimal[] horas,
+            BigDecimal[] costo) {
+
+    }
+}
@@ -0,0 +1,27 @@
+package com.gestionremodelacion.gestion.dto.response.dashboard;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Tendencia mensual del Dashboard. Contiene un punto por cada mes del rango
+ * solicitado, incluidos los meses sin datos (en cero), en orden cronológico.
+ */
+public record DashboardTrendResponse(List<Punto> meses) {
+
+    /**
+     * Ingresos, materiales y otros gastos se agrupan por el mes de inicio del
+     * proyecto; mano de obra y horas por el mes en que se trabajaron.
+     */
+    public record Punto(
+            int anio,
+            int mes,
+            long totalProyectos,
+            BigDecimal montoRecibido,
+            BigDecimal costoMateriales,
+            BigDecimal otrosGastos,
+            BigDecimal costoManoDeObra,
+            BigDecimal horas) {
+
+    }
+}
@@ -0,0 +1,16 @@
+package com.gestionremodelacion.gestion.dto.response.dashboard;
+
+import java.math.BigDecimal;
+
+/**
+ * Horas y costo por empleado y proyecto (proyección de
+ * DashboardRollupRepository).
+ */
+public record EmpleadoProyectoHoras(Long empleadoId, String nombreEmpleado, Long proyectoId, String nombreProyecto,
+        BigDecimal horas, BigDecimal costo) {
+
+    // Formato de la respuesta v1: [empleadoId, nombre, proyectoId, proyecto, horas, costo]
+    public Object[] toRow() {
+        return new Object[] { empleadoId, nombreEmpleado, proyectoId, nombreProyecto, horas, costo };
+    }
+}
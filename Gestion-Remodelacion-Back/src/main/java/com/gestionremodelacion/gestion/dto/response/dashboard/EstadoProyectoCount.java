@@ -0,0 +1,14 @@
+package com.gestionremodelacion.gestion.dto.response.dashboard;
+
+import com.gestionremodelacion.gestion.proyecto.model.Proyecto.EstadoProyecto;
+
+/**
+ * Proyectos por estado (proyección de DashboardRollupRepository).
+ */
+public record EstadoProyectoCount(EstadoProyecto estado, Long total) {
+
+    // Formato de la respuesta v1: [estado, total]
+    public Object[] toRow() {
+        return new Object[] { estado, total };
+    }
+}
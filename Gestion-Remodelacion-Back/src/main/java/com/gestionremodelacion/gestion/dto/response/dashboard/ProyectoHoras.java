@@ -0,0 +1,10 @@
+package com.gestionremodelacion.gestion.dto.response.dashboard;
+
+import java.math.BigDecimal;
+
+/**
+ * Horas trabajadas por proyecto (proyección de DashboardRollupRepository).
+ */
+public record ProyectoHoras(Long proyectoId, String nombreProyecto, BigDecimal horas) {
+
+}
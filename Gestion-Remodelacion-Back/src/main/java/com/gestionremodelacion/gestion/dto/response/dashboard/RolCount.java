@@ -0,0 +1,12 @@
+package com.gestionremodelacion.gestion.dto.response.dashboard;
+
+/**
+ * Empleados distintos por rol (proyección de DashboardRollupRepository).
+ */
+public record RolCount(String rol, Long total) {
+
+    // Formato de la respuesta v1: [rol, total]
+    public Object[] toRow() {
+        return new Object[] { rol, total };
+    }
+}
@@ -0,0 +1,11 @@
+package com.gestionremodelacion.gestion.dto.response.dashboard;
+
+import java.math.BigDecimal;
+
+/**
+ * Horas y costo de mano de obra de un mes (por fecha de trabajo), proyección de
+ * DashboardRollupRepository para la tendencia.
+ */
+public record TendenciaHorasMes(Integer anio, Integer mes, BigDecimal horas, BigDecimal costoManoDeObra) {
+
+}
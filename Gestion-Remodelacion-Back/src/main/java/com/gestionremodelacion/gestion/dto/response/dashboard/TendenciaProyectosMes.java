@@ -0,0 +1,12 @@
+package com.gestionremodelacion.gestion.dto.response.dashboard;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de proyectos de un mes (por fecha de inicio), proyección de
+ * DashboardRollupRepository para la tendencia.
+ */
+public record TendenciaProyectosMes(Integer anio, Integer mes, Long totalProyectos, BigDecimal montoRecibido,
+        BigDecimal costoMateriales, BigDecimal otrosGastos) {
+
+}
@@ -1,14 +1,11 @@
 package com.gestionremodelacion.gestion.empleado.controller;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,24 +15,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.gestionremodelacion.gestion.dto.response.ApiResponse;
 import com.gestionremodelacion.gestion.empleado.dto.request.EmpleadoRequest;
 import com.gestionremodelacion.gestion.empleado.dto.response.EmpleadoDropdownResponse;
-import com.gestionremodelacion.gestion.empleado.dto.response.EmpleadoExportDTO;
 import com.gestionremodelacion.gestion.empleado.dto.response.EmpleadoResponse;
 import com.gestionremodelacion.gestion.empleado.service.EmpleadoService;
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
 import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
 import com.gestionremodelacion.gestion.export.ExportType;
-import com.gestionremodelacion.gestion.export.ExporterService;
-import com.gestionremodelacion.gestion.model.User;
+import com.gestionremodelacion.gestion.export.ExportResultCache;
+import com.gestionremodelacion.gestion.export.job.ExportRecurso;
 import com.gestionremodelacion.gestion.security.annotations.RequiresPlan;
-import com.gestionremodelacion.gestion.service.user.UserService;
-import com.itextpdf.text.DocumentException;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
 
 import jakarta.validation.Valid;
 
@@ -44,14 +41,14 @@ import jakarta.validation.Valid;
 public class EmpleadoController {
 
     private final EmpleadoService empleadoService;
-    private final ExporterService exporterService;
-    private final UserService userService;
+    private final ExportResultCache exportResultCache;
+    private final TenantContextService tenantContextService;
 
-    public EmpleadoController(EmpleadoService empleadoService, ExporterService exporterService,
-            UserService userService) {
+    public EmpleadoController(EmpleadoService empleadoService, ExportResultCache exportResultCache,
+            TenantContextService tenantContextService) {
         this.empleadoService = empleadoService;
-        this.exporterService = exporterService;
-        this.userService = userService;
+        this.exportResultCache = exportResultCache;
+        this.tenantContextService = tenantContextService;
     }
 
     @GetMapping
@@ -115,58 +112,72 @@ public class EmpleadoController {
     @GetMapping("/export/excel")
     @PreAuthorize("hasAuthority('EXPORT_EXCEL')")
     @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
-    public ResponseEntity<byte[]> exportEmpleadosToExcel(
+    public ResponseEntity<StreamingResponseBody> exportEmpleadosToExcel(
             @RequestParam(name = "filter", required = false) String filter,
-            @RequestParam(name = "sort", required = false) String sort) throws IOException {
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        User currentUser = userService.getCurrentUser();
-        Empresa empresa = currentUser.getEmpresa();
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
 
-        List<EmpleadoExportDTO> empleados = empleadoService.findEmpleadosForExport(filter, sort);
-
-        ByteArrayOutputStream excelStream = exporterService.export(
+        return exportResultCache.export(
+                ExportRecurso.EMPLEADOS,
                 ExportType.EXCEL,
-                empleados,
-                "Reporte deEmpleados",
-                empresa
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                null,
+                () -> empleadoService.streamEmpleadosForExport(empresaId, filter, sort)
         );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Reporte_Empleados.xlsx");
-        headers.setContentType(
-                MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-
-        return ResponseEntity.ok().headers(headers).body(excelStream.toByteArray());
     }
 
     // Endpoint para exportar a PDF
     @GetMapping("/export/pdf")
     @PreAuthorize("hasAuthority('EXPORT_PDF')")
     @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
-    public ResponseEntity<byte[]> exportEmpleadosToPdf(
+    public ResponseEntity<StreamingResponseBody> exportEmpleadosToPdf(
             @RequestParam(name = "filter", required = false) String filter,
-            @RequestParam(name = "sort", required = false) String sort) throws DocumentException, IOException {
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        User currentUser = userService.getCurrentUser();
-        Empresa empresa = currentUser.getEmpresa();
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
 
-        List<EmpleadoExportDTO> empleados = empleadoService.findEmpleadosForExport(filter, sort);
-
-        if (empleados.isEmpty()) {
-            return ResponseEntity.noContent().build();
-        }
-
-        ByteArrayOutputStream pdfStream = exporterService.export(
+        return exportResultCache.export(
+                ExportRecurso.EMPLEADOS,
                 ExportType.PDF,
-                empleados,
-                "Reporte de Empleados",
-                empresa
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                null,
+                () -> empleadoService.streamEmpleadosForExport(empresaId, filter, sort)
         );
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Reporte_Empleados.pdf");
-        headers.setContentType(MediaType.APPLICATION_PDF);
-
-        return ResponseEntity.ok().headers(headers).body(pdfStream.toByteArray());
+    // Endpoint para exportar a CSV
+    @GetMapping("/export/csv")
+    @PreAuthorize("hasAuthority('EXPORT_EXCEL')")
+    @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
+    public ResponseEntity<StreamingResponseBody> exportEmpleadosToCsv(
+            @RequestParam(name = "filter", required = false) String filter,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
+
+        return exportResultCache.export(
+                ExportRecurso.EMPLEADOS,
+                ExportType.CSV,
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                acceptEncoding,
+                () -> empleadoService.streamEmpleadosForExport(empresaId, filter, sort)
+        );
     }
 }
@@ -1,16 +1,26 @@
 package com.gestionremodelacion.gestion.empleado.dto.response;
 
 import java.math.BigDecimal;
-import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
 
 import com.gestionremodelacion.gestion.empleado.model.Empleado;
+import com.gestionremodelacion.gestion.export.ExportColumn;
 import com.gestionremodelacion.gestion.export.Exportable;
 import com.gestionremodelacion.gestion.util.FormatUtils;
 
 public class EmpleadoExportDTO implements Exportable {
 
+    public static final List<ExportColumn> COLUMNS = List.of(
+            ExportColumn.texto("Nombre"),
+            ExportColumn.texto("Cargo"),
+            ExportColumn.texto("Telefono"),
+            ExportColumn.fecha("Fecha de Contratacion"),
+            ExportColumn.texto("Modelo Pago"),
+            ExportColumn.moneda("Costo"),
+            ExportColumn.texto("Activo"),
+            ExportColumn.fecha("Fecha Registro"));
+
     private final Empleado empleado;
 
     public EmpleadoExportDTO(Empleado empleado) {
@@ -18,20 +28,12 @@ public class EmpleadoExportDTO implements Exportable {
     }
 
     @Override
-    public List<String> getExportHeaders() {
-        return Arrays.asList("Nombre", "Cargo", "Telefono", "Fecha de Contratacion", "Modelo Pago", "Costo",
-                "Activo", "Fecha Registro");
+    public List<ExportColumn> getExportColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public List<List<String>> getExportData() {
-        String fechaFormateada = this.empleado.getFechaContratacion() != null
-                ? this.empleado.getFechaContratacion().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
-                : "";
-        String fechaRegistroFormateada = this.empleado.getFechaRegistro() != null
-                ? this.empleado.getFechaRegistro().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
-                : "";
-
+    public List<List<Object>> getExportData() {
         String estadoActivo = this.empleado.getActivo() ? "Activo" : "No Activo";
 
         String telefonoFormateado = FormatUtils.formatPhoneNumber(this.empleado.getTelefonoContacto());
@@ -45,19 +47,17 @@ public class EmpleadoExportDTO implements Exportable {
             montoDePago = this.empleado.getModeloDePago().calcularMontoDisplay(this.empleado.getCostoPorHora());
         }
 
-        // String montoFormateado = FormatUtils.formatCurrency(montoDePago);
-
         String modeloDePagoFormateado = FormatUtils.formatModeloDePago(this.empleado.getModeloDePago());
 
-        return Arrays.asList(Arrays.asList(
+        return List.of(Arrays.asList(
                 this.empleado.getNombreCompleto(),
                 this.empleado.getRolCargo(),
                 telefonoFormateado,
-                fechaFormateada,
+                this.empleado.getFechaContratacion(),
                 modeloDePagoFormateado,
-                montoDePago.toString(),
+                montoDePago,
                 estadoActivo,
-                fechaRegistroFormateada));
+                this.empleado.getFechaRegistro() != null ? this.empleado.getFechaRegistro().toLocalDate() : null));
     }
 
 }
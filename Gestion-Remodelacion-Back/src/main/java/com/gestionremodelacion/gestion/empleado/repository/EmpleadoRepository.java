@@ -1,18 +1,25 @@
 package com.gestionremodelacion.gestion.empleado.repository;
 
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestionremodelacion.gestion.empleado.model.Empleado;
+import com.gestionremodelacion.gestion.export.ExporterService;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
@@ -43,14 +50,24 @@ public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
             @Param("filter") String filter,
             Pageable pageable);
 
-    // Lista para exportar a excel y Pdf, Busca empleados de una empresa sin
-    // paginacion y filtro opcional. el filtro busca en nombreCompleto, rolCargo y
-    // telefonoContacto
+    // Igual que findByEmpresaIdAndFilter pero con el índice FULLTEXT ft_empleados_busqueda
+    @Query("SELECT e FROM Empleado e WHERE e.empresa.id = :empresaId AND "
+            + "function('fts_match3', e.nombreCompleto, e.rolCargo, e.telefonoContacto, :termino) > 0")
+    Page<Empleado> findByEmpresaIdAndFullText(
+            @Param("empresaId") Long empresaId,
+            @Param("termino") String termino,
+            Pageable pageable);
+
+    // Exportación a excel y Pdf, Busca empleados de una empresa sin paginacion y
+    // filtro opcional. el filtro busca en nombreCompleto, rolCargo y
+    // telefonoContacto. Se lee como Stream dentro de una transacción
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExporterService.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
     @Query("SELECT e FROM Empleado e WHERE e.empresa.id = :empresaId AND "
             + "(:filter IS NULL OR LOWER(e.nombreCompleto) LIKE LOWER(CONCAT('%', :filter, '%')) OR "
             + "LOWER(e.rolCargo) LIKE LOWER(CONCAT('%', :filter, '%')) OR "
             + "e.telefonoContacto LIKE %:filter%)")
-    List<Empleado> findByEmpresaIdAndFilter(
+    Stream<Empleado> streamForExport(
             @Param("empresaId") Long empresaId,
             @Param("filter") String filter,
             Sort sort);
@@ -65,10 +82,9 @@ public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
     @Query("SELECT COUNT(e) FROM Empleado e WHERE e.empresa.id = :empresaId AND e.activo = true")
     Long countByEmpresaIdAndActivo(@Param("empresaId") Long empresaId);
 
-    // ✅ NUEVO: Métodos para filtrar por año y mes (basado en fecha de contratación)
-    @Query("SELECT COUNT(e) FROM Empleado e WHERE YEAR(e.fechaContratacion) = :year")
-    Long countByYear(@Param("year") int year);
-
-    @Query("SELECT COUNT(e) FROM Empleado e WHERE YEAR(e.fechaContratacion) = :year AND MONTH(e.fechaContratacion) = :month")
-    Long countByYearAndMonth(@Param("year") int year, @Param("month") int month);
+    // Cuenta contrataciones de la empresa dentro del rango [desde, hasta) (año o mes)
+    @Query("SELECT COUNT(e) FROM Empleado e WHERE e.empresa.id = :empresaId "
+            + "AND e.fechaContratacion >= :desde AND e.fechaContratacion < :hasta")
+    Long countByEmpresaIdAndFechaContratacionRange(@Param("empresaId") Long empresaId,
+            @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
 }
@@ -5,7 +5,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -30,48 +32,59 @@ import com.gestionremodelacion.gestion.model.Role;
 import com.gestionremodelacion.gestion.model.User;
 import com.gestionremodelacion.gestion.repository.RoleRepository;
 import com.gestionremodelacion.gestion.repository.UserRepository;
+import com.gestionremodelacion.gestion.search.FullTextSearch;
 import com.gestionremodelacion.gestion.security.service.AuthorizationService;
-import com.gestionremodelacion.gestion.service.user.UserService;
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent.Seccion;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent;
 
 @Service
 public class EmpleadoService {
 
     private final EmpleadoRepository empleadoRepository;
     private final EmpleadoMapper empleadoMapper;
-    private final UserService userService;
+    private final TenantContextService tenantContextService;
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthorizationService authService;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String PERMISO_CREATE_ALL = "HORASTRABAJADAS_CREATE_ALL";
+    private final int permisoCreateAll;
 
     public EmpleadoService(EmpleadoRepository empleadoRepository, EmpleadoMapper empleadoMapper,
-            UserService userService, UserRepository userRepository, RoleRepository roleRepository,
-            PasswordEncoder passwordEncoder, AuthorizationService authService) {
+            TenantContextService tenantContextService, UserRepository userRepository, RoleRepository roleRepository,
+            PasswordEncoder passwordEncoder, AuthorizationService authService,
+            ApplicationEventPublisher eventPublisher) {
         this.empleadoRepository = empleadoRepository;
         this.empleadoMapper = empleadoMapper;
-        this.userService = userService;
+        this.tenantContextService = tenantContextService;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.authService = authService;
+        this.permisoCreateAll = authService.permissionId(PERMISO_CREATE_ALL);
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
     public List<EmpleadoDropdownResponse> getEmpleadosForDropdown() {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         List<Empleado> empleados;
 
         // 1. Verificamos si tiene permiso de Admin/Manager
-        if (authService.hasPermission(currentUser, PERMISO_CREATE_ALL)) {
+        if (authService.hasPermission(tenant, permisoCreateAll)) {
             // Admin: Ve todos los activos
             empleados = empleadoRepository.findByEmpresaIdAndActivo(empresaId, true);
         } else {
             // Empleado Normal: Solo se ve a sí mismo
-            Empleado empleadoVinculado = currentUser.getEmpleado();
+            Empleado empleadoVinculado = tenant.empleadoId() != null
+                    ? empleadoRepository.findByIdAndEmpresaId(tenant.empleadoId(), empresaId).orElse(null)
+                    : null;
             if (empleadoVinculado != null && Boolean.TRUE.equals(empleadoVinculado.getActivo())) {
                 empleados = Collections.singletonList(empleadoVinculado);
             } else {
@@ -87,18 +100,22 @@ public class EmpleadoService {
 
     @Transactional(readOnly = true)
     public Page<EmpleadoResponse> getAllEmpleados(Pageable pageable, String filter) {
-        User user = userService.getCurrentUser();
-        Long empresaId = user.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
-        Page<Empleado> empleadosPage = empleadoRepository.findByEmpresaIdAndFilter(empresaId, filter, pageable);
+        // Índice FULLTEXT si el término lo permite; LIKE para términos muy cortos
+        String termino = FullTextSearch.toBooleanQuery(filter);
+        Page<Empleado> empleadosPage = termino != null
+                ? empleadoRepository.findByEmpresaIdAndFullText(empresaId, termino, pageable)
+                : empleadoRepository.findByEmpresaIdAndFilter(empresaId, filter, pageable);
 
         return empleadosPage.map(empleadoMapper::toEmpleadoResponse);
     }
 
     @Transactional(readOnly = true)
     public EmpleadoResponse getEmpleadoById(Long id) {
-        User user = userService.getCurrentUser();
-        Long empresaId = user.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         return empleadoRepository.findByIdAndEmpresaId(id, empresaId)
                 .map(empleadoMapper::toEmpleadoResponse)
@@ -107,10 +124,10 @@ public class EmpleadoService {
 
     @Transactional
     public EmpleadoResponse createEmpleado(EmpleadoRequest empleadoRequest) {
-        User currentUser = userService.getCurrentUser();
+        TenantContext tenant = tenantContextService.current();
 
         Empleado empleado = empleadoMapper.toEmpleado(empleadoRequest);
-        empleado.setEmpresa(currentUser.getEmpresa());
+        empleado.setEmpresa(tenantContextService.empresaReference());
 
         // Obtener el Enum ModeloDePago
         ModeloDePago modeloDePago = ModeloDePago.valueOf(empleadoRequest.getModeloDePago().toUpperCase());
@@ -130,17 +147,18 @@ public class EmpleadoService {
 
         // Si el request incluye un username, crea el usuario asociado
         if (empleadoRequest.getUsername() != null && !empleadoRequest.getUsername().isEmpty()) {
-            User newUser = createAndLinkUser(empleadoRequest, savedEmpleado, currentUser.getEmpresa());
+            User newUser = createAndLinkUser(empleadoRequest, savedEmpleado, tenantContextService.empresaReference());
             savedEmpleado.setUser(newUser);
         }
+        eventPublisher.publishEvent(DashboardDataChangedEvent.of(tenant.empresaId(), Seccion.EMPLEADOS));
 
         return empleadoMapper.toEmpleadoResponse(savedEmpleado);
     }
 
     @Transactional
     public EmpleadoResponse updateEmpleado(Long id, EmpleadoRequest empleadoRequest) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         Empleado empleado = empleadoRepository.findByIdAndEmpresaId(id, empresaId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCatalog.RESOURCE_NOT_FOUND.getKey()));
@@ -156,13 +174,14 @@ public class EmpleadoService {
         empleado.setCostoPorHora(costoBasePorHora);
 
         Empleado updatedEmpleado = empleadoRepository.save(empleado);
+        eventPublisher.publishEvent(DashboardDataChangedEvent.of(empresaId, Seccion.EMPLEADOS));
         return empleadoMapper.toEmpleadoResponse(updatedEmpleado);
     }
 
     @Transactional
     public void changeEmpleadoStatus(Long id, Boolean activo) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         Empleado empleado = empleadoRepository.findByIdAndEmpresaId(id, empresaId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCatalog.RESOURCE_NOT_FOUND.getKey()));
@@ -171,17 +190,19 @@ public class EmpleadoService {
         }
         empleado.setActivo(activo);
         empleadoRepository.save(empleado);
+        eventPublisher.publishEvent(DashboardDataChangedEvent.of(empresaId, Seccion.EMPLEADOS));
     }
 
     @Transactional
     public void deleteEmpleado(Long id) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         if (!empleadoRepository.existsByIdAndEmpresaId(id, empresaId)) {
             throw new ResourceNotFoundException(ErrorCatalog.RESOURCE_NOT_FOUND.getKey());
         }
         empleadoRepository.deleteById(id);
+        eventPublisher.publishEvent(DashboardDataChangedEvent.of(empresaId, Seccion.EMPLEADOS));
     }
 
     /**
@@ -220,12 +241,10 @@ public class EmpleadoService {
         return userRepository.save(newUser);
     }
 
-    // Método para la exportación
+    // Método para la exportación. El Stream debe consumirse dentro de la
+    // transacción que abre ExporterService
     @Transactional(readOnly = true)
-    public List<EmpleadoExportDTO> findEmpleadosForExport(String filter, String sort) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
-
+    public Stream<EmpleadoExportDTO> streamEmpleadosForExport(Long empresaId, String filter, String sort) {
         Sort sortObj = Sort.by(Sort.Direction.ASC, "nombreCompleto"); // Orden por defecto
         if (sort != null && !sort.isEmpty()) {
             try {
@@ -241,11 +260,8 @@ public class EmpleadoService {
             }
         }
 
-        List<Empleado> empleados = empleadoRepository.findByEmpresaIdAndFilter(empresaId, filter, sortObj);
-
-        return empleados.stream()
-                .map(EmpleadoExportDTO::new)
-                .collect(Collectors.toList());
+        return empleadoRepository.streamForExport(empresaId, filter, sortObj)
+                .map(EmpleadoExportDTO::new);
     }
 
 }
@@ -5,8 +5,11 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
 
@@ -21,4 +24,13 @@ public interface EmpresaRepository extends JpaRepository<Empresa, Long> {
 
     @Query("SELECT e FROM Empresa e WHERE :filter IS NULL OR LOWER(e.nombreEmpresa) LIKE LOWER(CONCAT('%', :filter, '%'))")
     Page<Empresa> findByFilter(String filter, Pageable pageable);
+
+    // data_version no está mapeada en la entidad: guardar una Empresa nunca la pisa con un valor leído antes
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE empresas SET data_version = data_version + 1 WHERE id = :empresaId", nativeQuery = true)
+    int incrementDataVersion(@Param("empresaId") Long empresaId);
+
+    @Query(value = "SELECT data_version FROM empresas WHERE id = :empresaId", nativeQuery = true)
+    Optional<Long> findDataVersion(@Param("empresaId") Long empresaId);
 }
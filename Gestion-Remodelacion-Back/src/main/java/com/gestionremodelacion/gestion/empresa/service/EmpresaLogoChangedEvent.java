@@ -0,0 +1,13 @@
+package com.gestionremodelacion.gestion.empresa.service;
+
+/**
+ * Evento publicado cuando cambia el logo de una empresa. Se procesa después
+ * del commit para descartar la imagen cacheada de los reportes PDF.
+ *
+ * @param logoUrlAnterior URL que tenía la empresa antes del cambio (puede ser null)
+ * @param logoUrlNueva URL actual; se descarta también por si el archivo se
+ * reemplazó conservando la misma dirección
+ */
+public record EmpresaLogoChangedEvent(Long empresaId, String logoUrlAnterior, String logoUrlNueva) {
+
+}
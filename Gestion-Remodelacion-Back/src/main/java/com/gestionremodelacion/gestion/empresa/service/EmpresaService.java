@@ -3,9 +3,11 @@ package com.gestionremodelacion.gestion.empresa.service;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -42,16 +44,19 @@ public class EmpresaService {
     private final FileUploadService fileUploadService;
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EmpresaService(EmpresaRepository empresaRepository, UserRepository userRepository,
             EmpresaMapper empresaMapper, @Autowired(required = false) @Nullable FileUploadService fileUploadService,
-            RoleRepository roleRepository, PermissionRepository permissionRepository) {
+            RoleRepository roleRepository, PermissionRepository permissionRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.empresaRepository = empresaRepository;
         this.userRepository = userRepository;
         this.empresaMapper = empresaMapper;
         this.fileUploadService = fileUploadService;
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -113,8 +118,14 @@ public class EmpresaService {
                     }
                 });
 
+        String logoUrlAnterior = empresaExistente.getLogoUrl();
         empresaMapper.updateEntityFromDto(empresaRequest, empresaExistente);
-        return empresaMapper.toDto(empresaRepository.save(empresaExistente));
+        Empresa empresaActualizada = empresaRepository.save(empresaExistente);
+        if (!Objects.equals(logoUrlAnterior, empresaActualizada.getLogoUrl())) {
+            eventPublisher.publishEvent(new EmpresaLogoChangedEvent(id, logoUrlAnterior,
+                    empresaActualizada.getLogoUrl()));
+        }
+        return empresaMapper.toDto(empresaActualizada);
     }
 
     @Transactional
@@ -169,8 +180,11 @@ public class EmpresaService {
         // errores.
         String logoUrl = fileUploadService.uploadFile(file);
 
+        String logoUrlAnterior = empresa.getLogoUrl();
         empresa.setLogoUrl(logoUrl);
         empresaRepository.save(empresa);
+        // Siempre se publica: el archivo nuevo pudo quedar en la misma URL que el anterior
+        eventPublisher.publishEvent(new EmpresaLogoChangedEvent(empresaId, logoUrlAnterior, logoUrl));
 
         return logoUrl;
     }
@@ -10,6 +10,7 @@ public enum ErrorCatalog {
     DUPLICATE_RESOURCE("error.duplicate.resource"),
     VALIDATION_ERROR("error.validation"),
     UNEXPECTED_ERROR("error.unexpected"),
+    INVALID_CURSOR("error.pagination.invalidCursor"),
 
     // --- Errores de Clientes ---
     CLIENT_HAS_DEPENDENCIES("error.client.hasDependencies"),
@@ -56,6 +57,14 @@ public enum ErrorCatalog {
     COMPANY_NAME_ALREADY_EXISTS("error.company.nameExists"),
     COMPANY_ID_REQUIRED("error.company.idRequired"),
 
+    // --- Errores de Dashboard ---
+    DASHBOARD_STREAM_LIMIT("error.dashboard.streamLimit"),
+    DASHBOARD_INVALID_RANGE("error.dashboard.invalidRange"),
+
+    // --- Errores de Exportación ---
+    EXPORT_QUEUE_FULL("error.export.queueFull"),
+    EXPORT_JOB_NOT_READY("error.export.jobNotReady"),
+
     // --- Errores de Subida de Archivos ---
     FILE_UPLOAD_ERROR("error.file.upload"),
     FILE_EMPTY("error.file.empty"),
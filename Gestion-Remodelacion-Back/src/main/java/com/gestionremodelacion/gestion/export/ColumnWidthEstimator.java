@@ -0,0 +1,95 @@
+package com.gestionremodelacion.gestion.export;
+
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Calcula el ancho de las columnas de Excel a partir del largo de los textos,
+ * en lugar de medir cada celda con las métricas de la fuente como hace
+ * autoSizeColumn. Las primeras filas se miden todas y después solo una de
+ * cada {@link #SAMPLE_EVERY}; los anchos se aplican una sola vez al final.
+ * Las columnas con ancho sugerido (widthHint) no se miden.
+ */
+final class ColumnWidthEstimator {
+
+    // Filas que siempre se miden antes de empezar a muestrear
+    private static final int FULL_SAMPLE_ROWS = 1000;
+    private static final int SAMPLE_EVERY = 10;
+
+    private static final int MIN_CHARS = 8;
+    // Un texto muy largo (ej. una descripción) no debe dejar la columna ilegible
+    private static final int MAX_CHARS = 80;
+    // Unidades de ancho de POI: 1/256 del ancho de un carácter
+    private static final int CHAR_WIDTH = 256;
+    // Margen para la fuente en negrita de los encabezados y los bordes de la celda
+    private static final double HEADER_FACTOR = 1.15;
+    private static final int PADDING_CHARS = 2;
+
+    private final List<ExportColumn> columns;
+    private final int[] maxChars;
+    private long rows;
+
+    ColumnWidthEstimator(List<ExportColumn> columns) {
+        this.columns = columns;
+        this.maxChars = new int[columns.size()];
+        for (int col = 0; col < columns.size(); col++) {
+            ExportColumn column = columns.get(col);
+            maxChars[col] = column.widthHint() > 0
+                    ? column.widthHint()
+                    : (int) Math.ceil(length(column.header()) * HEADER_FACTOR);
+        }
+    }
+
+    /**
+     * Registra una fila de datos; solo mide las que caen en la muestra.
+     */
+    void sample(List<Object> rowData) {
+        long row = rows++;
+        if (row >= FULL_SAMPLE_ROWS && row % SAMPLE_EVERY != 0) {
+            return;
+        }
+        int count = Math.min(rowData.size(), maxChars.length);
+        for (int col = 0; col < count; col++) {
+            ExportColumn column = columns.get(col);
+            if (column.widthHint() > 0) {
+                continue;
+            }
+            int chars = estimate(column, rowData.get(col));
+            if (chars > maxChars[col]) {
+                maxChars[col] = chars;
+            }
+        }
+    }
+
+    void applyTo(Sheet sheet) {
+        for (int col = 0; col < maxChars.length; col++) {
+            int chars = Math.max(MIN_CHARS, Math.min(MAX_CHARS, maxChars[col])) + PADDING_CHARS;
+            sheet.setColumnWidth(col, chars * CHAR_WIDTH);
+        }
+    }
+
+    // Largo aproximado del valor tal como lo muestra Excel con el formato de la columna
+    private static int estimate(ExportColumn column, Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String text) {
+            return text.length();
+        }
+        return switch (column.tipo()) {
+            case FECHA -> 10;
+            case MONEDA -> {
+                // Símbolo, separadores de miles y dos decimales
+                int digits = value.toString().length();
+                yield digits + digits / 3 + 4;
+            }
+            case PORCENTAJE -> value.toString().length() + 1;
+            default -> value.toString().length();
+        };
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,185 @@
+package com.gestionremodelacion.gestion.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
+
+/**
+ * CSV según RFC 4180: separador coma, fin de línea CRLF y comillas dobles solo
+ * en los campos que lo necesitan. No lleva título ni encabezado de empresa
+ * para que el archivo se pueda importar tal cual; la primera línea son los
+ * nombres de las columnas, aunque no haya filas. Números y fechas van sin
+ * formato de presentación (ver {@link ExportFormats#plain}).
+ *
+ * Los textos que empiezan con =, +, -, @, tabulador o retorno de carro llevan
+ * delante un apóstrofo: Excel y LibreOffice los tomarían como fórmulas (CSV
+ * injection). Los números no se tocan, así un negativo sigue siendo número.
+ */
+@Component
+public class CsvExportStrategy implements ExportStrategy {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    // BOM de UTF-8: sin él Excel abre el archivo como ANSI y rompe los acentos
+    private static final char BOM = '\uFEFF';
+    private static final int BUFFER_SIZE = 8192;
+
+    @Override
+    public ExportType getType() {
+        return ExportType.CSV;
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return TEXT_CSV;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "csv";
+    }
+
+    @Override
+    public boolean isCompressible() {
+        return true;
+    }
+
+    @Override
+    public void writeReport(Stream<? extends Exportable> data, List<ExportColumn> columns, String title,
+            Empresa empresa, OutputStream out) throws IOException {
+        CsvWriter csv = new CsvWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.append(BOM);
+        csv.writeHeaders(columns);
+
+        Iterator<? extends Exportable> items = data.iterator();
+        while (items.hasNext()) {
+            for (List<Object> row : items.next().getExportData()) {
+                csv.writeValues(row);
+            }
+        }
+        csv.flush();
+    }
+
+    /**
+     * Escribe las filas en un único buffer de caracteres que se reutiliza
+     * durante todo el archivo; los campos se copian directo al buffer (con el
+     * escapado aplicado) sin armar un String por línea.
+     */
+    private static final class CsvWriter {
+
+        private final Writer writer;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int pos;
+
+        CsvWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        void writeValues(List<Object> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    append(',');
+                }
+                Object value = values.get(i);
+                writeField(ExportFormats.plain(value), !(value instanceof Number));
+            }
+            append('\r');
+            append('\n');
+        }
+
+        void writeHeaders(List<ExportColumn> columns) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    append(',');
+                }
+                writeField(columns.get(i).header(), true);
+            }
+            append('\r');
+            append('\n');
+        }
+
+        private void writeField(String value, boolean text) throws IOException {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            boolean formula = text && startsLikeFormula(value);
+            if (!needsQuotes(value)) {
+                if (formula) {
+                    append('\'');
+                }
+                append(value);
+                return;
+            }
+            append('"');
+            if (formula) {
+                append('\'');
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    append('"');
+                }
+                append(c);
+            }
+            append('"');
+        }
+
+        private static boolean startsLikeFormula(String value) {
+            char first = value.charAt(0);
+            return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                    return true;
+                }
+            }
+            // Excel recorta los espacios de los extremos si el campo no va entre comillas
+            return value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ';
+        }
+
+        void append(char c) throws IOException {
+            if (pos == buffer.length) {
+                drain();
+            }
+            buffer[pos++] = c;
+        }
+
+        private void append(String value) throws IOException {
+            int offset = 0;
+            int length = value.length();
+            while (offset < length) {
+                if (pos == buffer.length) {
+                    drain();
+                }
+                int count = Math.min(buffer.length - pos, length - offset);
+                value.getChars(offset, offset + count, buffer, pos);
+                pos += count;
+                offset += count;
+            }
+        }
+
+        private void drain() throws IOException {
+            writer.write(buffer, 0, pos);
+            pos = 0;
+        }
+
+        // Vacía el buffer sin cerrar la respuesta
+        void flush() throws IOException {
+            drain();
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.gestionremodelacion.gestion.export;
+
+import org.hibernate.Session;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.conf.RuntimeProperty;
+import com.mysql.cj.jdbc.JdbcConnection;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Lectura por cursor de MySQL (useCursorFetch) solo para la conexión de una
+ * exportación. Con el cursor activo, las consultas con fetch size
+ * ({@link ExporterService#FETCH_SIZE}) traen las filas por bloques en lugar
+ * de todo el resultado a la vez; a diferencia del streaming fila por fila, la
+ * conexión puede ejecutar otras consultas mientras tanto.
+ *
+ * Requiere sentencias preparadas en el servidor, que cuestan un viaje extra
+ * por consulta; por eso no se activa en la URL para toda la aplicación. La
+ * conexión vuelve al pool con sus valores originales.
+ */
+final class CursorFetch implements AutoCloseable {
+
+    private static final CursorFetch NINGUNO = new CursorFetch(null, null, false, false);
+
+    private final RuntimeProperty<Boolean> cursor;
+    private final RuntimeProperty<Boolean> serverPrepStmts;
+    private final boolean cursorOriginal;
+    private final boolean serverPrepStmtsOriginal;
+
+    private CursorFetch(RuntimeProperty<Boolean> cursor, RuntimeProperty<Boolean> serverPrepStmts,
+            boolean cursorOriginal, boolean serverPrepStmtsOriginal) {
+        this.cursor = cursor;
+        this.serverPrepStmts = serverPrepStmts;
+        this.cursorOriginal = cursorOriginal;
+        this.serverPrepStmtsOriginal = serverPrepStmtsOriginal;
+    }
+
+    /**
+     * Activa el cursor en la conexión de la transacción actual. Con otro
+     * driver no hace nada.
+     */
+    static CursorFetch enable(EntityManager entityManager) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            if (!connection.isWrapperFor(JdbcConnection.class)) {
+                return NINGUNO;
+            }
+            PropertySet properties = connection.unwrap(JdbcConnection.class).getPropertySet();
+            RuntimeProperty<Boolean> cursor = properties.getBooleanProperty(PropertyKey.useCursorFetch);
+            RuntimeProperty<Boolean> serverPrepStmts = properties.getBooleanProperty(PropertyKey.useServerPrepStmts);
+            CursorFetch estado = new CursorFetch(cursor, serverPrepStmts, cursor.getValue(),
+                    serverPrepStmts.getValue());
+            // Solo aplica a las sentencias que se preparen desde ahora
+            serverPrepStmts.setValue(true);
+            cursor.setValue(true);
+            return estado;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (cursor != null) {
+            cursor.setValue(cursorOriginal);
+            serverPrepStmts.setValue(serverPrepStmtsOriginal);
+        }
+    }
+}
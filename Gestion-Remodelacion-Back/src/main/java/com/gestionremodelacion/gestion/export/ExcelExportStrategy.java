@@ -1,12 +1,16 @@
 package com.gestionremodelacion.gestion.export;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
@@ -15,29 +19,51 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
+import com.gestionremodelacion.gestion.config.ExportProperties;
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
 
 @Component
 public class ExcelExportStrategy implements ExportStrategy {
 
+    private static final MediaType XLSX = MediaType
+            .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final ExportProperties properties;
+
+    public ExcelExportStrategy(ExportProperties properties) {
+        this.properties = properties;
+    }
+
     @Override
     public ExportType getType() {
         return ExportType.EXCEL;
     }
 
     @Override
-    public ByteArrayOutputStream generateReport(List<? extends Exportable> data, String title, Empresa empresa) {
-        // 1. Creamos el stream fuera del try para tener control manual
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        // 2. SXSSFWorkbook dentro del try para asegurar que se limpie la memoria temporal al terminar
+    public MediaType getMediaType() {
+        return XLSX;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "xlsx";
+    }
+
+    @Override
+    public void writeReport(Stream<? extends Exportable> data, List<ExportColumn> columns, String title,
+            Empresa empresa, OutputStream out) throws IOException {
+        // SXSSFWorkbook mantiene solo 100 filas en memoria; el resto va a un archivo temporal
         try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
 
             Sheet sheet = workbook.createSheet(title);
 
-            // Le decimos a SXSSF que rastree el ancho de las columnas aunque los datos estén en disco.
-            if (sheet instanceof SXSSFSheet) {
+            // Modo exacto: SXSSF rastrea las métricas de cada celda para autoSizeColumn.
+            // Es lento en reportes grandes; por defecto se estima el ancho con ColumnWidthEstimator.
+            boolean exactAutosize = properties.isExcelExactAutosize();
+            if (exactAutosize && sheet instanceof SXSSFSheet) {
                 ((SXSSFSheet) sheet).trackAllColumnsForAutoSizing();
             }
 
@@ -70,8 +96,8 @@ public class ExcelExportStrategy implements ExportStrategy {
                 Cell companyCell = companyRow.createCell(0);
                 companyCell.setCellValue(empresa.getNombreEmpresa());
                 companyCell.setCellStyle(titleStyle);
-                // Unimos celdas si hay datos, si no, asumimos un ancho de 5 columnas por defecto
-                int colSpan = (data != null && !data.isEmpty()) ? data.get(0).getExportHeaders().size() - 1 : 5;
+                // El nombre de la empresa ocupa el ancho de la tabla
+                int colSpan = columns.size() - 1;
                 if (colSpan > 0) {
                     sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, colSpan));
                 }
@@ -80,39 +106,71 @@ public class ExcelExportStrategy implements ExportStrategy {
             // Fila vacía
             rowIdx++;
 
-            if (data != null && !data.isEmpty()) {
-                // Headers de la Tabla
-                List<String> headers = data.get(0).getExportHeaders();
-                Row headerRow = sheet.createRow(rowIdx++);
-                for (int col = 0; col < headers.size(); col++) {
-                    Cell cell = headerRow.createCell(col);
-                    cell.setCellValue(headers.get(col));
-                    cell.setCellStyle(headerStyle);
+            // Headers de la Tabla (se escriben aunque no haya filas)
+            Row headerRow = sheet.createRow(rowIdx++);
+            for (int col = 0; col < columns.size(); col++) {
+                Cell cell = headerRow.createCell(col);
+                cell.setCellValue(columns.get(col).header());
+                cell.setCellStyle(headerStyle);
+            }
+            ColumnWidthEstimator widths = exactAutosize ? null : new ColumnWidthEstimator(columns);
+
+            // Un estilo por columna (no por celda) con el formato numérico o de fecha de su tipo
+            CellStyle[] columnStyles = new CellStyle[columns.size()];
+            DataFormat dataFormat = workbook.createDataFormat();
+            for (int col = 0; col < columns.size(); col++) {
+                String format = columns.get(col).tipo().getExcelFormat();
+                if (format == null) {
+                    columnStyles[col] = cellStyle;
+                } else {
+                    CellStyle style = workbook.createCellStyle();
+                    style.cloneStyleFrom(cellStyle);
+                    style.setDataFormat(dataFormat.getFormat(format));
+                    columnStyles[col] = style;
                 }
+            }
 
-                // Datos
-                for (Exportable item : data) {
-                    for (List<String> rowData : item.getExportData()) {
-                        Row row = sheet.createRow(rowIdx++);
-                        for (int col = 0; col < rowData.size(); col++) {
-                            Cell cell = row.createCell(col);
-                            cell.setCellValue(rowData.get(col));
-                            cell.setCellStyle(cellStyle);
-                        }
+            // Datos: se consumen del stream uno a uno
+            Iterator<? extends Exportable> items = data.iterator();
+            while (items.hasNext()) {
+                Exportable item = items.next();
+                for (List<Object> rowData : item.getExportData()) {
+                    if (widths != null) {
+                        widths.sample(rowData);
+                    }
+                    Row row = sheet.createRow(rowIdx++);
+                    for (int col = 0; col < rowData.size(); col++) {
+                        Cell cell = row.createCell(col);
+                        setCellValue(cell, rowData.get(col));
+                        cell.setCellStyle(col < columnStyles.length ? columnStyles[col] : cellStyle);
                     }
                 }
+            }
 
+            if (widths != null) {
+                widths.applyTo(sheet);
+            } else {
                 // Autoajustar columnas (Cuidado: esto es lento en reportes masivos, úsalo con precaución)
-                for (int i = 0; i < headers.size(); i++) {
+                for (int i = 0; i < columns.size(); i++) {
                     sheet.autoSizeColumn(i);
                 }
             }
 
             workbook.write(out);
-            return out;
+        }
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Error al generar el archivo Excel", e);
+    // Números y fechas se guardan como tales para que Excel pueda sumarlos y ordenarlos
+    private static void setCellValue(Cell cell, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+        } else if (value instanceof LocalDate fecha) {
+            cell.setCellValue(fecha);
+        } else {
+            cell.setCellValue(value.toString());
         }
     }
 
@@ -0,0 +1,69 @@
+package com.gestionremodelacion.gestion.export;
+
+/**
+ * Descripción de una columna exportable: encabezado, tipo de dato y ancho
+ * sugerido. Cada estrategia decide cómo representar el tipo (Excel guarda
+ * números y fechas como tales, PDF los formatea para lectura y CSV los escribe
+ * sin símbolos para que se puedan importar).
+ *
+ * @param widthHint ancho fijo en caracteres para Excel; 0 para estimarlo
+ */
+public record ExportColumn(String header, Tipo tipo, int widthHint) {
+
+    /**
+     * Valores esperados por tipo: TEXTO cualquier objeto (se usa toString),
+     * ENTERO/DECIMAL/MONEDA un {@link Number}, PORCENTAJE un entero de 0 a
+     * 100 y FECHA un {@link java.time.LocalDate}.
+     */
+    public enum Tipo {
+        TEXTO(null),
+        ENTERO("0"),
+        DECIMAL("General"),
+        MONEDA("$#,##0.00"),
+        PORCENTAJE("0\"%\""),
+        FECHA("yyyy-mm-dd");
+
+        private final String excelFormat;
+
+        Tipo(String excelFormat) {
+            this.excelFormat = excelFormat;
+        }
+
+        // Formato de celda de Excel; null para texto
+        public String getExcelFormat() {
+            return excelFormat;
+        }
+
+        public boolean isNumerico() {
+            return this == ENTERO || this == DECIMAL || this == MONEDA || this == PORCENTAJE;
+        }
+    }
+
+    public static ExportColumn texto(String header) {
+        return new ExportColumn(header, Tipo.TEXTO, 0);
+    }
+
+    public static ExportColumn entero(String header) {
+        return new ExportColumn(header, Tipo.ENTERO, 0);
+    }
+
+    public static ExportColumn decimal(String header) {
+        return new ExportColumn(header, Tipo.DECIMAL, 0);
+    }
+
+    public static ExportColumn moneda(String header) {
+        return new ExportColumn(header, Tipo.MONEDA, 0);
+    }
+
+    public static ExportColumn porcentaje(String header) {
+        return new ExportColumn(header, Tipo.PORCENTAJE, 0);
+    }
+
+    public static ExportColumn fecha(String header) {
+        return new ExportColumn(header, Tipo.FECHA, 0);
+    }
+
+    public ExportColumn withWidth(int chars) {
+        return new ExportColumn(header, tipo, chars);
+    }
+}
@@ -0,0 +1,62 @@
+package com.gestionremodelacion.gestion.export;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import com.gestionremodelacion.gestion.util.FormatUtils;
+
+/**
+ * Conversión de valores de celda a texto para los formatos que no tienen
+ * tipos propios (PDF y CSV). Los formateadores se comparten: DateTimeFormatter
+ * es inmutable y DecimalFormat se guarda uno por hilo.
+ */
+final class ExportFormats {
+
+    static final DateTimeFormatter FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final ThreadLocal<DecimalFormat> DECIMAL = ThreadLocal
+            .withInitial(() -> new DecimalFormat("0.##", DecimalFormatSymbols.getInstance(Locale.US)));
+
+    private ExportFormats() {
+    }
+
+    /**
+     * Texto para leer (PDF): moneda con símbolo y separador de miles, decimales
+     * sin ceros de más, porcentaje con "%".
+     */
+    static String display(ExportColumn column, Object value) {
+        if (value == null) {
+            return "";
+        }
+        return switch (column.tipo()) {
+            case MONEDA -> value instanceof BigDecimal decimal
+                    ? FormatUtils.formatCurrency(decimal)
+                    : FormatUtils.formatCurrency(new BigDecimal(value.toString()));
+            case DECIMAL -> DECIMAL.get().format(value);
+            case PORCENTAJE -> value + "%";
+            case FECHA -> value instanceof LocalDate fecha ? FECHA.format(fecha) : value.toString();
+            default -> value.toString();
+        };
+    }
+
+    /**
+     * Texto para importar (CSV): números sin símbolos ni separador de miles y
+     * fechas ISO, para que otra herramienta los reconozca como tales.
+     */
+    static String plain(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof LocalDate fecha) {
+            return FECHA.format(fecha);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,225 @@
+package com.gestionremodelacion.gestion.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.gestionremodelacion.gestion.config.ExportProperties;
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
+import com.gestionremodelacion.gestion.empresa.repository.EmpresaRepository;
+import com.gestionremodelacion.gestion.empresa.service.EmpresaLogoChangedEvent;
+import com.gestionremodelacion.gestion.export.job.ExportRecurso;
+import com.gestionremodelacion.gestion.export.job.storage.ExportArtifactStorage;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent;
+import com.google.common.hash.Hashing;
+
+/**
+ * Caché en disco de los reportes ya generados. La llave combina empresa,
+ * listado, formato, filtro, orden y la versión de datos de la empresa
+ * (columna empresas.data_version). La versión sube dentro de la misma
+ * transacción que cada escritura (los servicios publican
+ * {@link DashboardDataChangedEvent}), así que todas las instancias la ven en
+ * cuanto se confirma: un reporte cacheado no se entrega después de un cambio
+ * y no hace falta borrar nada al invalidar.
+ *
+ * La misma llave es el ETag de la respuesta: si el cliente envía
+ * If-None-Match con el ETag vigente se responde 304 leyendo solo la versión
+ * (una consulta por llave primaria), sin consultar el listado.
+ *
+ * Los archivos se guardan en el mismo almacenamiento que las exportaciones en
+ * segundo plano y se borran con su limpieza (export.job-ttl-minutes).
+ */
+@Service
+public class ExportResultCache {
+
+    private static final String KEY_PREFIX = "cache-";
+
+    private final ExporterService exporterService;
+    private final ExportArtifactStorage storage;
+    private final ExportProperties properties;
+    private final EmpresaRepository empresaRepository;
+
+    public ExportResultCache(ExporterService exporterService, ExportArtifactStorage storage,
+            ExportProperties properties, EmpresaRepository empresaRepository) {
+        this.exporterService = exporterService;
+        this.storage = storage;
+        this.properties = properties;
+        this.empresaRepository = empresaRepository;
+    }
+
+    /**
+     * Igual que {@link ExporterService#export}, pero entrega el archivo
+     * cacheado si los datos no cambiaron desde que se generó, o 304 si el
+     * cliente ya lo tiene. {@code data} solo se consulta cuando hay que generar
+     * el reporte.
+     */
+    public ResponseEntity<StreamingResponseBody> export(ExportRecurso recurso, ExportType type, Empresa empresa,
+            String filter, String sort, String ifNoneMatch, String acceptEncoding,
+            Supplier<? extends Stream<? extends Exportable>> data) {
+        if (!properties.isResultCacheEnabled()) {
+            return exporterService.export(type, recurso.getFileName(), recurso.getTitle(), recurso.getColumns(type),
+                    empresa, data, acceptEncoding);
+        }
+
+        String hash = hash(recurso, type, empresa, filter, sort);
+        String etag = "W/\"" + hash + "\"";
+        if (matches(ifNoneMatch, hash)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        boolean gzip = exporterService.shouldGzip(type, acceptEncoding);
+        String key = KEY_PREFIX + hash + "." + exporterService.getFileExtension(type);
+        Resource cached = storage.load(key);
+
+        StreamingResponseBody body = cached != null
+                ? out -> copy(cached, out, gzip)
+                : out -> generate(key, recurso, type, empresa, data, out, gzip);
+
+        return exporterService.responseFor(type, recurso.getFileName(), gzip)
+                .eTag(etag)
+                // El navegador puede guardar el archivo, pero debe revalidarlo en cada descarga
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body);
+    }
+
+    // Antes del commit: la versión se confirma (o se revierte) junto con la escritura
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDataChanged(DashboardDataChangedEvent event) {
+        bumpVersion(event.empresaId());
+    }
+
+    // El logo pudo reemplazarse conservando la URL, que es lo único que entra en la llave
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onLogoChanged(EmpresaLogoChangedEvent event) {
+        bumpVersion(event.empresaId());
+    }
+
+    private void bumpVersion(Long empresaId) {
+        if (empresaId != null) {
+            empresaRepository.incrementDataVersion(empresaId);
+        }
+    }
+
+    private long version(Long empresaId) {
+        return empresaRepository.findDataVersion(empresaId).orElse(0L);
+    }
+
+    /**
+     * Llave del reporte. Incluye los datos de la empresa que salen en el
+     * encabezado y la fecha, porque el PDF muestra "Generado el".
+     */
+    private String hash(ExportRecurso recurso, ExportType type, Empresa empresa, String filter, String sort) {
+        String effectiveFilter = (filter != null && !filter.trim().isEmpty()) ? filter.trim() : null;
+        String effectiveSort = (sort != null && !sort.isEmpty()) ? sort : null;
+        String clave = String.join("|", String.valueOf(empresa.getId()), recurso.name(), type.name(),
+                String.valueOf(effectiveFilter), String.valueOf(effectiveSort),
+                String.valueOf(version(empresa.getId())), String.valueOf(empresa.getNombreEmpresa()),
+                String.valueOf(empresa.getTelefono()), String.valueOf(empresa.getLogoUrl()),
+                LocalDate.now().toString());
+        // 128 bits bastan para que dos llaves distintas no coincidan
+        return Hashing.sha256().hashString(clave, StandardCharsets.UTF_8).toString().substring(0, 32);
+    }
+
+    // Comparación débil: se ignora el prefijo W/ que el cliente pudo conservar o quitar
+    private static boolean matches(String ifNoneMatch, String hash) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("\"" + hash + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void copy(Resource cached, OutputStream out, boolean gzip) throws IOException {
+        try (InputStream in = cached.getInputStream()) {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                in.transferTo(gzipOut);
+                gzipOut.finish();
+            } else {
+                in.transferTo(out);
+            }
+        }
+    }
+
+    /**
+     * Genera el reporte escribiéndolo a la vez en la respuesta y en un archivo
+     * temporal; el archivo solo se publica con su llave si se completó. Si el
+     * cliente corta la descarga, el temporal se descarta. En disco se guarda
+     * sin comprimir.
+     */
+    private void generate(String key, ExportRecurso recurso, ExportType type, Empresa empresa,
+            Supplier<? extends Stream<? extends Exportable>> data, OutputStream out, boolean gzip)
+            throws IOException {
+        String parcial = key + "." + UUID.randomUUID() + ".part";
+        try {
+            try (OutputStream archivo = storage.create(parcial)) {
+                OutputStream response = gzip ? new GZIPOutputStream(out, 8192) : out;
+                exporterService.writeTo(type, recurso.getTitle(), recurso.getColumns(type), empresa, data,
+                        new TeeOutputStream(response, archivo), null);
+                if (response instanceof GZIPOutputStream gzipOut) {
+                    gzipOut.finish();
+                }
+            }
+            storage.move(parcial, key);
+        } catch (IOException | RuntimeException e) {
+            storage.delete(parcial);
+            throw e;
+        }
+    }
+
+    // Copia lo escrito a dos destinos; no cierra ninguno de los dos
+    private static final class TeeOutputStream extends OutputStream {
+
+        private final OutputStream primary;
+        private final OutputStream copy;
+
+        TeeOutputStream(OutputStream primary, OutputStream copy) {
+            this.primary = primary;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            primary.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            primary.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+            copy.flush();
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.gestionremodelacion.gestion.export;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
 
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
 
@@ -13,7 +17,29 @@ public interface ExportStrategy {
     ExportType getType();
 
     /**
-     * Genera el archivo binario.
+     * Tipo MIME del archivo generado (Content-Type de la respuesta).
+     */
+    MediaType getMediaType();
+
+    /**
+     * Extensión del archivo, sin punto.
+     */
+    String getFileExtension();
+
+    /**
+     * Indica si vale la pena comprimir el archivo con gzip. XLSX y PDF ya van
+     * comprimidos; los formatos de texto plano no.
+     */
+    default boolean isCompressible() {
+        return false;
+    }
+
+    /**
+     * Escribe el archivo en {@code out} a medida que consume {@code data}; no
+     * debe acumular todas las filas en memoria. No cierra {@code out}.
+     * {@code columns} son las columnas del reporte: están disponibles aunque
+     * {@code data} venga vacío.
      */
-    ByteArrayOutputStream generateReport(List<? extends Exportable> data, String title, Empresa empresa);
+    void writeReport(Stream<? extends Exportable> data, List<ExportColumn> columns, String title, Empresa empresa,
+            OutputStream out) throws IOException;
 }
@@ -4,9 +4,22 @@ import java.util.List;
 
 public interface Exportable {
 
-    List<String> getExportHeaders();
+    /**
+     * Columnas del reporte, en orden. Debe ser la misma lista constante que
+     * devuelve {@code ExportRecurso#getColumns} para el formato: las
+     * estrategias escriben el encabezado con aquella, porque también hace
+     * falta cuando el listado no tiene filas.
+     */
+    List<ExportColumn> getExportColumns();
 
-    List<List<String>> getExportData();
-    //List<List<Object>> getExportData(); 
+    /**
+     * Filas con los valores sin formatear (String, Number, LocalDate o null),
+     * en el mismo orden que {@link #getExportColumns()}. El formato lo aplica
+     * cada estrategia según el tipo de la columna.
+     */
+    List<List<Object>> getExportData();
 
+    default List<String> getExportHeaders() {
+        return getExportColumns().stream().map(ExportColumn::header).toList();
+    }
 }
@@ -1,37 +1,219 @@
 package com.gestionremodelacion.gestion.export;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.gestionremodelacion.gestion.config.ExportProperties;
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
 
+import jakarta.persistence.EntityManager;
+
 @Service
 public class ExporterService {
 
+    /**
+     * Tamaño de fetch para las consultas de exportación que devuelven
+     * {@code Stream}. Durante una exportación la conexión lee por cursor
+     * ({@link CursorFetch}), así las filas llegan en bloques de este tamaño en
+     * lugar de todas a la vez.
+     */
+    public static final String FETCH_SIZE = "500";
+
+    // Cada cuántas filas se vacía el contexto de persistencia durante un reporte
+    private static final int CLEAR_EVERY = 500;
+
     private final Map<ExportType, ExportStrategy> strategies;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EntityManager entityManager;
+    private final ExportProperties properties;
 
     // Spring inyecta automáticamente todas las clases que implementan ExportStrategy
-    // (ExcelExportStrategy y PdfExportStrategy)
-    public ExporterService(List<ExportStrategy> strategyList) {
+    // (ExcelExportStrategy, PdfExportStrategy y CsvExportStrategy)
+    public ExporterService(List<ExportStrategy> strategyList, PlatformTransactionManager transactionManager,
+            EntityManager entityManager, ExportProperties properties) {
         this.strategies = strategyList.stream()
                 .collect(Collectors.toMap(ExportStrategy::getType, Function.identity()));
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.properties = properties;
+    }
+
+    /**
+     * Método único para exportar. El "ExportType" decide si es Excel, PDF o CSV.
+     *
+     * El archivo se escribe directo en la respuesta HTTP mientras se leen las
+     * filas de la BD; nunca se arma completo en memoria. {@code data} se invoca
+     * ya dentro de la transacción, en el hilo que escribe la respuesta.
+     *
+     * @param fileName nombre del archivo sin extensión
+     * @param columns columnas del reporte (el encabezado sale aunque no haya filas)
+     */
+    public ResponseEntity<StreamingResponseBody> export(ExportType type, String fileName, String title,
+            List<ExportColumn> columns, Empresa empresa, Supplier<? extends Stream<? extends Exportable>> data) {
+        return export(type, fileName, title, columns, empresa, data, null);
+    }
+
+    /**
+     * Igual que {@link #export(ExportType, String, String, List, Empresa, Supplier)},
+     * pero si el formato es de texto y el cliente acepta gzip (cabecera
+     * Accept-Encoding) la respuesta se envía comprimida.
+     */
+    public ResponseEntity<StreamingResponseBody> export(ExportType type, String fileName, String title,
+            List<ExportColumn> columns, Empresa empresa, Supplier<? extends Stream<? extends Exportable>> data,
+            String acceptEncoding) {
+        ExportStrategy strategy = getStrategy(type);
+        boolean gzip = shouldGzip(type, acceptEncoding);
+
+        StreamingResponseBody body = gzip
+                ? out -> writeGzip(strategy, data, columns, title, empresa, out)
+                : out -> write(strategy, data, columns, title, empresa, out, null);
+
+        return responseFor(type, fileName, gzip).body(body);
     }
 
     /**
-     * Método único para exportar. El "ExportType" decide si es Excel o PDF.
+     * Indica si la respuesta en este formato se debe enviar comprimida según la
+     * cabecera Accept-Encoding del cliente.
      */
-    public ByteArrayOutputStream export(ExportType type, List<? extends Exportable> data, String title, Empresa empresa) {
+    boolean shouldGzip(ExportType type, String acceptEncoding) {
+        return getStrategy(type).isCompressible() && properties.isGzipEnabled() && acceptsGzip(acceptEncoding);
+    }
+
+    // Cabeceras comunes de una descarga: nombre del archivo, tipo y codificación
+    ResponseEntity.BodyBuilder responseFor(ExportType type, String fileName, boolean gzip) {
+        ExportStrategy strategy = getStrategy(type);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + fileName + "." + strategy.getFileExtension())
+                .contentType(strategy.getMediaType());
+        if (strategy.isCompressible()) {
+            response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" significa que el cliente lo rechaza explícitamente
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Escribe el reporte en {@code out} (por ejemplo, un archivo en disco para
+     * las exportaciones en segundo plano). {@code progreso} se incrementa con
+     * cada elemento leído. No cierra {@code out}.
+     */
+    public void writeTo(ExportType type, String title, List<ExportColumn> columns, Empresa empresa,
+            Supplier<? extends Stream<? extends Exportable>> data, OutputStream out, AtomicLong progreso)
+            throws IOException {
+        write(getStrategy(type), data, columns, title, empresa, out, progreso);
+    }
+
+    public String getFileExtension(ExportType type) {
+        return getStrategy(type).getFileExtension();
+    }
+
+    public MediaType getMediaType(ExportType type) {
+        return getStrategy(type).getMediaType();
+    }
+
+    private ExportStrategy getStrategy(ExportType type) {
         ExportStrategy strategy = strategies.get(type);
 
         if (strategy == null) {
             throw new IllegalArgumentException("Formato de exportación no soportado: " + type);
         }
+        return strategy;
+    }
+
+    private void writeGzip(ExportStrategy strategy, Supplier<? extends Stream<? extends Exportable>> data,
+            List<ExportColumn> columns, String title, Empresa empresa, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+        write(strategy, data, columns, title, empresa, gzip, null);
+        // finish() escribe el trailer de gzip sin cerrar la respuesta
+        gzip.finish();
+    }
+
+    // El Stream de JPA necesita la conexión abierta mientras se escribe el archivo; el Stream se
+    // cierra antes de restaurar el cursor
+    private void write(ExportStrategy strategy, Supplier<? extends Stream<? extends Exportable>> data,
+            List<ExportColumn> columns, String title, Empresa empresa, OutputStream out, AtomicLong progreso)
+            throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (CursorFetch cursor = CursorFetch.enable(entityManager);
+                        Stream<? extends Exportable> rows = data.get()) {
+                    strategy.writeReport(clearingEvery(rows, progreso), columns, title, empresa, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Las entidades leídas quedan en el contexto de persistencia hasta el final
+     * de la transacción. Se vacía cada {@link #CLEAR_EVERY} filas para que la
+     * memoria no crezca con el tamaño del reporte; las filas ya escritas no se
+     * vuelven a usar. Si se indica {@code progreso}, cuenta las filas leídas.
+     */
+    private <T> Stream<T> clearingEvery(Stream<T> rows, AtomicLong progreso) {
+        Iterator<T> source = rows.iterator();
+        Iterator<T> iterator = new Iterator<>() {
+            private int leidas;
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
 
-        return strategy.generateReport(data, title, empresa);
+            @Override
+            public T next() {
+                T row = source.next();
+                if (progreso != null) {
+                    progreso.incrementAndGet();
+                }
+                if (++leidas % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                }
+                return row;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
     }
 }
@@ -1,14 +1,20 @@
 package com.gestionremodelacion.gestion.export;
 
-import java.io.ByteArrayOutputStream;
-import java.net.URL;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
+import com.gestionremodelacion.gestion.export.logo.CompanyLogoCache;
 import com.itextpdf.text.BaseColor;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
@@ -25,12 +31,22 @@ import com.itextpdf.text.pdf.PdfWriter;
 @Component
 public class PdfExportStrategy implements ExportStrategy {
 
+    private static final Logger logger = LoggerFactory.getLogger(PdfExportStrategy.class);
+
     // --- CONSTANTES DE ESTILO (Performance: Se crean una sola vez) ---
     private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20, Font.BOLD, BaseColor.DARK_GRAY);
     private static final Font SUBTITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA, 12, Font.ITALIC, BaseColor.GRAY);
     private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
     private static final Font CELL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.BLACK);
     private static final BaseColor HEADER_BG_COLOR = new BaseColor(18, 18, 18);
+    // Filas que se acumulan en la tabla antes de escribirlas al documento
+    private static final int ROWS_PER_CHUNK = 200;
+
+    private final CompanyLogoCache logoCache;
+
+    public PdfExportStrategy(CompanyLogoCache logoCache) {
+        this.logoCache = logoCache;
+    }
 
     @Override
     public ExportType getType() {
@@ -38,12 +54,23 @@ public class PdfExportStrategy implements ExportStrategy {
     }
 
     @Override
-    public ByteArrayOutputStream generateReport(List<? extends Exportable> data, String title, Empresa empresa) {
-// Usamos try-with-resources para asegurar que el Stream se cierre (Memory Management)
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    public MediaType getMediaType() {
+        return MediaType.APPLICATION_PDF;
+    }
 
+    @Override
+    public String getFileExtension() {
+        return "pdf";
+    }
+
+    @Override
+    public void writeReport(Stream<? extends Exportable> data, List<ExportColumn> columns, String title,
+            Empresa empresa, OutputStream out) throws IOException {
+        try {
             Document document = new Document();
-            PdfWriter.getInstance(document, out);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            // La respuesta HTTP la cierra el contenedor, no iText
+            writer.setCloseStream(false);
             document.open();
 
             // 1. Agregar Logo (Manejo de errores aislado)
@@ -56,12 +83,11 @@ public class PdfExportStrategy implements ExportStrategy {
             addCompanyHeader(document, title, empresa);
 
             // 3. Generar Tabla de Datos
-            addDataTable(document, data);
+            addDataTable(document, data, columns);
 
             document.close();
-            return out;
 
-        } catch (Exception e) {
+        } catch (DocumentException e) {
             // Loguear el error y relanzar como RuntimeException para que el Controller lo maneje
             throw new RuntimeException("Error al generar el reporte PDF: " + e.getMessage(), e);
         }
@@ -72,10 +98,13 @@ public class PdfExportStrategy implements ExportStrategy {
         if (empresa == null || empresa.getLogoUrl() == null || empresa.getLogoUrl().isEmpty()) {
             return;
         }
+        // La imagen sale de la caché (ya descargada y reducida); null si no se pudo obtener
+        byte[] logoBytes = logoCache.get(empresa.getLogoUrl());
+        if (logoBytes == null) {
+            return;
+        }
         try {
-            // Performance: Cargar imágenes por URL es lento. 
-            // En un futuro, considera cachear estas imágenes en el servidor.
-            Image logo = Image.getInstance(new URL(empresa.getLogoUrl()));
+            Image logo = Image.getInstance(logoBytes);
 
             float logoWidth = document.getPageSize().getWidth() * 0.30f;
             float logoHeight = (logo.getHeight() / logo.getWidth()) * logoWidth;
@@ -89,8 +118,8 @@ public class PdfExportStrategy implements ExportStrategy {
 
             document.add(logo);
         } catch (Exception e) {
-            // Fail-safe: Si la imagen falla (404, timeout), el reporte se genera SIN logo.
-            System.err.println("Advertencia: No se pudo cargar el logo: " + e.getMessage());
+            // Fail-safe: Si la imagen no se puede dibujar, el reporte se genera SIN logo.
+            logger.warn("No se pudo agregar el logo al PDF: {}", e.getMessage());
         }
     }
 
@@ -122,26 +151,29 @@ public class PdfExportStrategy implements ExportStrategy {
         document.add(headerTable);
     }
 
-    private void addDataTable(Document document, List<? extends Exportable> data) throws DocumentException {
-        if (data == null || data.isEmpty()) {
+    private void addDataTable(Document document, Stream<? extends Exportable> data, List<ExportColumn> columns)
+            throws DocumentException {
+        Iterator<? extends Exportable> items = data.iterator();
+        if (!items.hasNext()) {
             document.add(new Paragraph("No hay datos para mostrar."));
             return;
         }
-
-        // Obtener headers del primer elemento
-        List<String> headers = data.get(0).getExportHeaders();
-        if (headers == null || headers.isEmpty()) {
+        if (columns == null || columns.isEmpty()) {
             return;
         }
 
-        PdfPTable table = new PdfPTable(headers.size());
+        PdfPTable table = new PdfPTable(columns.size());
         table.setWidthPercentage(100);
         table.setSpacingBefore(10f);
-        table.setSpacingAfter(10f);
+        // La tabla se escribe por bloques: con complete=false iText dibuja las filas
+        // ya completas y las descarta, así en memoria solo queda el bloque actual.
+        // El encabezado (headerRows) se conserva y se repite en cada página.
+        table.setHeaderRows(1);
+        table.setComplete(false);
 
         // 3.1 Renderizar Encabezados de Tabla
-        for (String header : headers) {
-            PdfPCell cell = new PdfPCell(new Phrase(header, HEADER_FONT));
+        for (ExportColumn column : columns) {
+            PdfPCell cell = new PdfPCell(new Phrase(column.header(), HEADER_FONT));
             cell.setBackgroundColor(HEADER_BG_COLOR);
             cell.setPadding(8);
             cell.setHorizontalAlignment(Element.ALIGN_CENTER);
@@ -149,20 +181,35 @@ public class PdfExportStrategy implements ExportStrategy {
             table.addCell(cell);
         }
 
-        // 3.2 Renderizar Datos (Streams implicitos en el foreach)
-        for (Exportable item : data) {
-            List<List<String>> rowData = item.getExportData();
+        // 3.2 Renderizar Datos: se consumen del stream uno a uno
+        int pendingRows = 0;
+        while (items.hasNext()) {
+            List<List<Object>> rowData = items.next().getExportData();
             if (rowData != null) {
-                for (List<String> row : rowData) {
-                    for (String cellText : row) {
-                        PdfPCell cell = new PdfPCell(new Phrase(cellText, CELL_FONT));
+                for (List<Object> row : rowData) {
+                    for (int col = 0; col < row.size(); col++) {
+                        ExportColumn column = columns.get(col);
+                        PdfPCell cell = new PdfPCell(
+                                new Phrase(ExportFormats.display(column, row.get(col)), CELL_FONT));
                         cell.setPadding(5);
                         cell.setBorderColor(BaseColor.LIGHT_GRAY);
+                        // Los números se alinean a la derecha para poder compararlos
+                        if (column.tipo().isNumerico()) {
+                            cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+                        }
                         table.addCell(cell);
                     }
+                    if (++pendingRows == ROWS_PER_CHUNK) {
+                        document.add(table);
+                        // El espacio superior solo antes del primer bloque
+                        table.setSpacingBefore(0f);
+                        pendingRows = 0;
+                    }
                 }
             }
         }
+        table.setComplete(true);
+        table.setSpacingAfter(10f);
         document.add(table);
     }
 
@@ -0,0 +1,87 @@
+package com.gestionremodelacion.gestion.export.controller;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gestionremodelacion.gestion.dto.response.ApiResponse;
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
+import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
+import com.gestionremodelacion.gestion.export.ExporterService;
+import com.gestionremodelacion.gestion.export.dto.request.ExportJobRequest;
+import com.gestionremodelacion.gestion.export.dto.response.ExportJobResponse;
+import com.gestionremodelacion.gestion.export.job.ExportJob;
+import com.gestionremodelacion.gestion.export.job.ExportJobService;
+import com.gestionremodelacion.gestion.security.annotations.RequiresPlan;
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
+
+import jakarta.validation.Valid;
+
+/**
+ * Exportaciones en segundo plano. Flujo: POST /jobs devuelve el id, GET
+ * /jobs/{id} informa el avance y GET /jobs/{id}/download entrega el archivo
+ * cuando el estado es COMPLETADO.
+ */
+@RestController
+@RequestMapping("/api/exports")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+    private final ExporterService exporterService;
+    private final TenantContextService tenantContextService;
+
+    public ExportJobController(ExportJobService exportJobService, ExporterService exporterService,
+            TenantContextService tenantContextService) {
+        this.exportJobService = exportJobService;
+        this.exporterService = exporterService;
+        this.tenantContextService = tenantContextService;
+    }
+
+    // El permiso depende del formato, igual que en los endpoints /export de cada módulo
+    @PostMapping("/jobs")
+    @PreAuthorize("#request.formato == T(com.gestionremodelacion.gestion.export.ExportType).PDF"
+            + " ? hasAuthority('EXPORT_PDF') : hasAuthority('EXPORT_EXCEL')")
+    @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
+    public ResponseEntity<ApiResponse<ExportJobResponse>> submitJob(@Valid @RequestBody ExportJobRequest request) {
+        Empresa empresa = tenantContextService.currentEmpresa();
+
+        ExportJob job = exportJobService.submit(empresa, request.getRecurso(), request.getFormato(),
+                request.getFilter(), request.getSort());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse<>(HttpStatus.ACCEPTED.value(), "Exportación en proceso",
+                        ExportJobResponse.from(job)));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasAnyAuthority('EXPORT_EXCEL', 'EXPORT_PDF')")
+    @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
+    public ResponseEntity<ApiResponse<ExportJobResponse>> getJob(@PathVariable String id) {
+        TenantContext tenant = tenantContextService.current();
+        ExportJob job = exportJobService.getJob(tenant.empresaId(), id);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Estado de la exportación",
+                ExportJobResponse.from(job)));
+    }
+
+    @GetMapping("/jobs/{id}/download")
+    @PreAuthorize("hasAnyAuthority('EXPORT_EXCEL', 'EXPORT_PDF')")
+    @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
+    public ResponseEntity<Resource> downloadJob(@PathVariable String id) {
+        TenantContext tenant = tenantContextService.current();
+        ExportJob job = exportJobService.getJob(tenant.empresaId(), id);
+        Resource archivo = exportJobService.getArtifact(job);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getNombreArchivo())
+                .contentType(exporterService.getMediaType(job.getFormato()))
+                .body(archivo);
+    }
+}
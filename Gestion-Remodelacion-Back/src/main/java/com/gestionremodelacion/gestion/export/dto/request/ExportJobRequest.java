@@ -0,0 +1,58 @@
+package com.gestionremodelacion.gestion.export.dto.request;
+
+import com.gestionremodelacion.gestion.export.ExportType;
+import com.gestionremodelacion.gestion.export.job.ExportRecurso;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Solicitud de exportación en segundo plano. {@code filter} y {@code sort}
+ * tienen el mismo formato que en los endpoints /export de cada módulo.
+ */
+public class ExportJobRequest {
+
+    @NotNull(message = "El recurso es obligatorio")
+    private ExportRecurso recurso;
+
+    @NotNull(message = "El formato es obligatorio")
+    private ExportType formato;
+
+    private String filter;
+
+    private String sort;
+
+    public ExportJobRequest() {
+    }
+
+    public ExportRecurso getRecurso() {
+        return recurso;
+    }
+
+    public void setRecurso(ExportRecurso recurso) {
+        this.recurso = recurso;
+    }
+
+    public ExportType getFormato() {
+        return formato;
+    }
+
+    public void setFormato(ExportType formato) {
+        this.formato = formato;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gestionremodelacion.gestion.export.dto.response;
+
+import java.time.Instant;
+
+import com.gestionremodelacion.gestion.export.ExportType;
+import com.gestionremodelacion.gestion.export.job.ExportJob;
+import com.gestionremodelacion.gestion.export.job.ExportRecurso;
+
+/**
+ * Estado de un job de exportación. {@code filasProcesadas} es el avance: el
+ * total no se conoce de antemano porque las filas se leen como stream.
+ */
+public record ExportJobResponse(
+        String id,
+        ExportRecurso recurso,
+        ExportType formato,
+        ExportJob.Estado estado,
+        long filasProcesadas,
+        String nombreArchivo,
+        Instant creadoEn,
+        Instant finalizadoEn) {
+
+    public static ExportJobResponse from(ExportJob job) {
+        return new ExportJobResponse(
+                job.getId(),
+                job.getRecurso(),
+                job.getFormato(),
+                job.getEstado(),
+                job.getFilasProcesadas().get(),
+                job.getNombreArchivo(),
+                job.getCreadoEn(),
+                job.getFinalizadoEn());
+    }
+}
@@ -0,0 +1,103 @@
+package com.gestionremodelacion.gestion.export.job;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.gestionremodelacion.gestion.export.ExportType;
+
+/**
+ * Estado de una exportación en segundo plano. Vive en memoria mientras dura
+ * el job y hasta que vence su archivo; el hilo del worker lo actualiza y los
+ * endpoints de consulta lo leen, por eso los campos mutables son volatile.
+ */
+public class ExportJob {
+
+    public enum Estado {
+        PENDIENTE, EN_PROCESO, COMPLETADO, ERROR
+    }
+
+    private final String id;
+    private final Long empresaId;
+    private final String clave;
+    private final ExportRecurso recurso;
+    private final ExportType formato;
+    private final String nombreArchivo;
+    private final Instant creadoEn = Instant.now();
+    private final AtomicLong filasProcesadas = new AtomicLong();
+
+    private volatile Estado estado = Estado.PENDIENTE;
+    private volatile Instant finalizadoEn;
+
+    public ExportJob(String id, Long empresaId, String clave, ExportRecurso recurso, ExportType formato,
+            String nombreArchivo) {
+        this.id = id;
+        this.empresaId = empresaId;
+        this.clave = clave;
+        this.recurso = recurso;
+        this.formato = formato;
+        this.nombreArchivo = nombreArchivo;
+    }
+
+    void iniciar() {
+        estado = Estado.EN_PROCESO;
+    }
+
+    void completar() {
+        finalizadoEn = Instant.now();
+        estado = Estado.COMPLETADO;
+    }
+
+    void fallar() {
+        finalizadoEn = Instant.now();
+        estado = Estado.ERROR;
+    }
+
+    public boolean isTerminado() {
+        return estado == Estado.COMPLETADO || estado == Estado.ERROR;
+    }
+
+    // El archivo en el almacenamiento se nombra con el id del job
+    String getStorageKey() {
+        return id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+
+    String getClave() {
+        return clave;
+    }
+
+    public ExportRecurso getRecurso() {
+        return recurso;
+    }
+
+    public ExportType getFormato() {
+        return formato;
+    }
+
+    public String getNombreArchivo() {
+        return nombreArchivo;
+    }
+
+    public Instant getCreadoEn() {
+        return creadoEn;
+    }
+
+    public AtomicLong getFilasProcesadas() {
+        return filasProcesadas;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public Instant getFinalizadoEn() {
+        return finalizadoEn;
+    }
+}
@@ -0,0 +1,186 @@
+package com.gestionremodelacion.gestion.export.job;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.gestionremodelacion.gestion.cliente.service.ClienteService;
+import com.gestionremodelacion.gestion.config.ExportProperties;
+import com.gestionremodelacion.gestion.empleado.service.EmpleadoService;
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
+import com.gestionremodelacion.gestion.exception.BusinessRuleException;
+import com.gestionremodelacion.gestion.exception.ErrorCatalog;
+import com.gestionremodelacion.gestion.exception.ResourceNotFoundException;
+import com.gestionremodelacion.gestion.export.ExportType;
+import com.gestionremodelacion.gestion.export.Exportable;
+import com.gestionremodelacion.gestion.export.ExporterService;
+import com.gestionremodelacion.gestion.export.job.storage.ExportArtifactStorage;
+import com.gestionremodelacion.gestion.horastrabajadas.service.HorasTrabajadasService;
+import com.gestionremodelacion.gestion.proyecto.service.ProyectoService;
+
+/**
+ * Exportaciones en segundo plano: el cliente recibe un id de job, consulta el
+ * avance y descarga el archivo cuando termina, sin ocupar un hilo de Tomcat
+ * mientras se genera.
+ *
+ * Características: - Pool acotado (exportJobExecutor); si la cola está llena
+ * se rechaza la solicitud - Solicitudes idénticas de la misma empresa que
+ * llegan mientras otra está en curso comparten el mismo job - Los archivos
+ * terminados se borran al vencer su TTL (export.job-ttl-minutes)
+ *
+ * El registro de jobs vive en memoria: con varias instancias, la consulta y
+ * la descarga deben llegar a la misma que recibió la solicitud.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    // Jobs pendientes o en proceso por clave de solicitud, para deduplicar
+    private final Map<String, ExportJob> enCurso = new ConcurrentHashMap<>();
+
+    private final ExporterService exporterService;
+    private final ExportArtifactStorage storage;
+    private final TaskExecutor jobExecutor;
+    private final ExportProperties properties;
+    private final ClienteService clienteService;
+    private final ProyectoService proyectoService;
+    private final EmpleadoService empleadoService;
+    private final HorasTrabajadasService horasTrabajadasService;
+
+    public ExportJobService(ExporterService exporterService, ExportArtifactStorage storage,
+            @Qualifier("exportJobExecutor") TaskExecutor jobExecutor, ExportProperties properties,
+            ClienteService clienteService, ProyectoService proyectoService, EmpleadoService empleadoService,
+            HorasTrabajadasService horasTrabajadasService) {
+        this.exporterService = exporterService;
+        this.storage = storage;
+        this.jobExecutor = jobExecutor;
+        this.properties = properties;
+        this.clienteService = clienteService;
+        this.proyectoService = proyectoService;
+        this.empleadoService = empleadoService;
+        this.horasTrabajadasService = horasTrabajadasService;
+    }
+
+    /**
+     * Encola una exportación, o devuelve el job en curso si ya hay uno con los
+     * mismos parámetros para la empresa.
+     */
+    public ExportJob submit(Empresa empresa, ExportRecurso recurso, ExportType formato, String filter, String sort) {
+        Long empresaId = empresa.getId();
+        String effectiveFilter = (filter != null && !filter.trim().isEmpty()) ? filter.trim() : null;
+        String effectiveSort = (sort != null && !sort.isEmpty()) ? sort : null;
+        String clave = String.join("|", String.valueOf(empresaId), recurso.name(), formato.name(),
+                String.valueOf(effectiveFilter), String.valueOf(effectiveSort));
+
+        boolean[] creado = { false };
+        ExportJob job = enCurso.computeIfAbsent(clave, key -> {
+            creado[0] = true;
+            ExportJob nuevo = new ExportJob(UUID.randomUUID().toString(), empresaId, key, recurso, formato,
+                    recurso.getFileName() + "." + exporterService.getFileExtension(formato));
+            jobs.put(nuevo.getId(), nuevo);
+            return nuevo;
+        });
+        if (!creado[0]) {
+            return job;
+        }
+
+        Supplier<Stream<? extends Exportable>> data = dataFor(recurso, formato, empresaId, effectiveFilter,
+                effectiveSort);
+        try {
+            jobExecutor.execute(() -> run(job, empresa, data));
+        } catch (TaskRejectedException e) {
+            enCurso.remove(clave, job);
+            jobs.remove(job.getId());
+            throw new BusinessRuleException(ErrorCatalog.EXPORT_QUEUE_FULL.getKey());
+        }
+        return job;
+    }
+
+    public ExportJob getJob(Long empresaId, String jobId) {
+        ExportJob job = jobs.get(jobId);
+        // Un job de otra empresa se trata igual que uno inexistente
+        if (job == null || !job.getEmpresaId().equals(empresaId)) {
+            throw new ResourceNotFoundException(ErrorCatalog.RESOURCE_NOT_FOUND.getKey());
+        }
+        return job;
+    }
+
+    /**
+     * Archivo de un job terminado. Falla si el job sigue en curso o terminó con
+     * error.
+     */
+    public Resource getArtifact(ExportJob job) {
+        if (job.getEstado() != ExportJob.Estado.COMPLETADO) {
+            throw new BusinessRuleException(ErrorCatalog.EXPORT_JOB_NOT_READY.getKey());
+        }
+        Resource resource = storage.load(job.getStorageKey());
+        if (resource == null) {
+            throw new ResourceNotFoundException(ErrorCatalog.RESOURCE_NOT_FOUND.getKey());
+        }
+        return resource;
+    }
+
+    /**
+     * Quita los jobs terminados cuyo archivo venció y borra del almacenamiento
+     * lo que haya quedado huérfano (por ejemplo, tras un reinicio).
+     */
+    @Scheduled(fixedDelayString = "${export.job-cleanup-interval-ms:300000}")
+    public void cleanup() {
+        Instant limite = Instant.now().minus(Duration.ofMinutes(properties.getJobTtlMinutes()));
+        jobs.values().removeIf(job -> {
+            if (job.isTerminado() && job.getFinalizadoEn().isBefore(limite)) {
+                storage.delete(job.getStorageKey());
+                return true;
+            }
+            return false;
+        });
+        storage.deleteOlderThan(limite);
+    }
+
+    private void run(ExportJob job, Empresa empresa, Supplier<Stream<? extends Exportable>> data) {
+        job.iniciar();
+        try (OutputStream out = storage.create(job.getStorageKey())) {
+            exporterService.writeTo(job.getFormato(), job.getRecurso().getTitle(),
+                    job.getRecurso().getColumns(job.getFormato()), empresa, data, out, job.getFilasProcesadas());
+            job.completar();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Falló la exportación {} ({} {}) de la empresa {}", job.getId(), job.getRecurso(),
+                    job.getFormato(), job.getEmpresaId(), e);
+            job.fallar();
+            storage.delete(job.getStorageKey());
+        } finally {
+            enCurso.remove(job.getClave(), job);
+        }
+    }
+
+    // Mismo origen de datos que los endpoints de exportación directa de cada módulo
+    private Supplier<Stream<? extends Exportable>> dataFor(ExportRecurso recurso, ExportType formato,
+            Long empresaId, String filter, String sort) {
+        return switch (recurso) {
+            case CLIENTES -> () -> clienteService.streamClientesForExport(empresaId, filter, sort);
+            case PROYECTOS -> formato == ExportType.PDF
+                    ? () -> proyectoService.streamProyectosForPdfExport(empresaId, filter, sort)
+                    : () -> proyectoService.streamProyectosForExcelExport(empresaId, filter, sort);
+            case EMPLEADOS -> () -> empleadoService.streamEmpleadosForExport(empresaId, filter, sort);
+            case HORAS_TRABAJADAS -> () -> horasTrabajadasService.streamHorasTrabajadasForExport(empresaId, filter,
+                    sort);
+        };
+    }
+}
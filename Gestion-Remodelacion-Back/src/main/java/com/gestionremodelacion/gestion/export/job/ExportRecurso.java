@@ -0,0 +1,51 @@
+package com.gestionremodelacion.gestion.export.job;
+
+import java.util.List;
+
+import com.gestionremodelacion.gestion.cliente.dto.response.ClienteExportDTO;
+import com.gestionremodelacion.gestion.empleado.dto.response.EmpleadoExportDTO;
+import com.gestionremodelacion.gestion.export.ExportColumn;
+import com.gestionremodelacion.gestion.export.ExportType;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasExportDTO;
+import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoExcelDTO;
+import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoPdfDTO;
+
+/**
+ * Listados que se pueden exportar en segundo plano, con el nombre de archivo
+ * y el título que usan sus endpoints de exportación directa.
+ */
+public enum ExportRecurso {
+    CLIENTES("Reporte_Clientes", "Reporte de Clientes"),
+    PROYECTOS("Reporte_Proyectos", "Reporte de Proyectos"),
+    EMPLEADOS("Reporte_Empleados", "Reporte de Empleados"),
+    HORAS_TRABAJADAS("Reporte_Horas_Trabajadas", "Reporte de Horas Trabajadas");
+
+    private final String fileName;
+    private final String title;
+
+    ExportRecurso(String fileName, String title) {
+        this.fileName = fileName;
+        this.title = title;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Columnas del reporte en el formato indicado. Las estrategias las usan
+     * para escribir el encabezado aunque el listado no tenga filas.
+     */
+    public List<ExportColumn> getColumns(ExportType formato) {
+        return switch (this) {
+            case CLIENTES -> ClienteExportDTO.COLUMNS;
+            case PROYECTOS -> formato == ExportType.PDF ? ProyectoPdfDTO.COLUMNS : ProyectoExcelDTO.COLUMNS;
+            case EMPLEADOS -> EmpleadoExportDTO.COLUMNS;
+            case HORAS_TRABAJADAS -> HorasTrabajadasExportDTO.COLUMNS;
+        };
+    }
+}
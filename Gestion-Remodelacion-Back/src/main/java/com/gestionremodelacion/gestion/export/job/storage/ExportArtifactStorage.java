@@ -0,0 +1,39 @@
+package com.gestionremodelacion.gestion.export.job.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Dónde se guardan los archivos generados por las exportaciones en segundo
+ * plano. La implementación por defecto usa el disco local; se puede sustituir
+ * (por ejemplo, por un bucket) declarando otro bean @Primary de este tipo.
+ */
+public interface ExportArtifactStorage {
+
+    /**
+     * Abre un archivo nuevo para escritura. Quien lo llama debe cerrarlo.
+     */
+    OutputStream create(String key) throws IOException;
+
+    /**
+     * Devuelve el archivo para descargarlo, o {@code null} si ya no existe.
+     */
+    Resource load(String key);
+
+    void delete(String key);
+
+    /**
+     * Renombra un archivo ya escrito (reemplaza el destino si existe). Permite
+     * escribir con un nombre temporal y publicarlo solo cuando está completo.
+     */
+    void move(String origen, String destino) throws IOException;
+
+    /**
+     * Borra los archivos creados antes de {@code limite}, incluidos los que
+     * quedaron de una ejecución anterior de la aplicación.
+     */
+    void deleteOlderThan(Instant limite);
+}
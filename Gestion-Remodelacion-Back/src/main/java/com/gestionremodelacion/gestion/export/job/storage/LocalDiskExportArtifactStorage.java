@@ -0,0 +1,100 @@
+package com.gestionremodelacion.gestion.export.job.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.gestionremodelacion.gestion.config.ExportProperties;
+
+/**
+ * Guarda los archivos en una carpeta local (export.job-storage-dir). Sirve
+ * para una sola instancia; con varias réplicas hay que usar un almacenamiento
+ * compartido.
+ */
+@Component
+public class LocalDiskExportArtifactStorage implements ExportArtifactStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalDiskExportArtifactStorage.class);
+
+    private final Path directorio;
+
+    public LocalDiskExportArtifactStorage(ExportProperties properties) {
+        this.directorio = Paths.get(properties.getJobStorageDir()).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear la carpeta de exportaciones " + directorio, e);
+        }
+    }
+
+    @Override
+    public OutputStream create(String key) throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(resolve(key)));
+    }
+
+    @Override
+    public Resource load(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? new FileSystemResource(path) : null;
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el archivo de exportación {}", key, e);
+        }
+    }
+
+    @Override
+    public void move(String origen, String destino) throws IOException {
+        Path source = resolve(origen);
+        Path target = resolve(destino);
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void deleteOlderThan(Instant limite) {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.filter(Files::isRegularFile).forEach(path -> {
+                try {
+                    if (Files.getLastModifiedTime(path).toInstant().isBefore(limite)) {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (IOException e) {
+                    logger.warn("No se pudo borrar el archivo de exportación {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("No se pudo listar la carpeta de exportaciones {}", directorio, e);
+        }
+    }
+
+    // Las claves las generan ExportJobService y ExportResultCache; se valida que no salgan de la carpeta
+    private Path resolve(String key) {
+        Path path = directorio.resolve(key).normalize();
+        if (!directorio.equals(path.getParent())) {
+            throw new IllegalArgumentException("Clave de archivo inválida: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,124 @@
+package com.gestionremodelacion.gestion.export.logo;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.gestionremodelacion.gestion.config.ExportProperties;
+import com.gestionremodelacion.gestion.empresa.service.EmpresaLogoChangedEvent;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Caché acotada (LRU por tamaño y TTL) de los logos que se dibujan en los PDF,
+ * indexada por URL. Guarda los bytes de la imagen ya reducida al ancho máximo,
+ * no el objeto de iText: una Image de iText guarda posición y escala, así que
+ * no se puede compartir entre reportes que se generan a la vez.
+ *
+ * Si la descarga falla, la URL se recuerda un minuto para no pagar el tiempo
+ * de espera en cada reporte mientras el servidor del logo no responde. Las
+ * métricas se publican en el actuator como "cache.*" con tag cache=pdf-logo.
+ */
+@Component
+public class CompanyLogoCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyLogoCache.class);
+
+    private static final long FAILURE_TTL_MINUTES = 1;
+
+    private final LogoFetcher fetcher;
+    private final int maxWidthPx;
+    private final Cache<String, byte[]> logos;
+    private final Cache<String, Boolean> fallidos;
+
+    public CompanyLogoCache(LogoFetcher fetcher, ExportProperties properties, MeterRegistry meterRegistry) {
+        this.fetcher = fetcher;
+        this.maxWidthPx = properties.getLogoMaxWidthPx();
+        this.logos = CacheBuilder.newBuilder()
+                .maximumSize(properties.getLogoCacheMaxEntries())
+                .expireAfterWrite(properties.getLogoCacheTtlMinutes(), TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        this.fallidos = CacheBuilder.newBuilder()
+                .maximumSize(properties.getLogoCacheMaxEntries())
+                .expireAfterWrite(FAILURE_TTL_MINUTES, TimeUnit.MINUTES)
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, logos, "pdf-logo");
+    }
+
+    /**
+     * Devuelve la imagen del logo lista para iText, o {@code null} si no se
+     * pudo obtener (el reporte se genera sin logo). Si varios reportes piden
+     * la misma URL a la vez, solo uno la descarga.
+     */
+    public byte[] get(String url) {
+        if (url == null || url.isBlank() || fallidos.getIfPresent(url) != null) {
+            return null;
+        }
+        try {
+            return logos.get(url, () -> load(url));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            fallidos.put(url, Boolean.TRUE);
+            logger.warn("No se pudo cargar el logo {}: {}", url, e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    public void invalidate(String url) {
+        if (url != null) {
+            logos.invalidate(url);
+            fallidos.invalidate(url);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLogoChanged(EmpresaLogoChangedEvent event) {
+        invalidate(event.logoUrlAnterior());
+        invalidate(event.logoUrlNueva());
+    }
+
+    private byte[] load(String url) throws IOException {
+        return scale(fetcher.fetch(url));
+    }
+
+    /**
+     * Reduce la imagen al ancho máximo y la guarda como PNG (conserva la
+     * transparencia). Si el formato no lo reconoce ImageIO o la imagen ya es
+     * pequeña, se guardan los bytes originales y que iText los interprete.
+     */
+    private byte[] scale(byte[] original) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(original));
+        if (source == null || source.getWidth() <= maxWidthPx) {
+            return original;
+        }
+        int height = Math.max(1, Math.round((float) source.getHeight() * maxWidthPx / source.getWidth()));
+        BufferedImage scaled = new BufferedImage(maxWidthPx, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, maxWidthPx, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "png", out);
+        return out.toByteArray();
+    }
+}
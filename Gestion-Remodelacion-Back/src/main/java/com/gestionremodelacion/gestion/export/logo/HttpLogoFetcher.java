@@ -0,0 +1,58 @@
+package com.gestionremodelacion.gestion.export.logo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import org.springframework.stereotype.Component;
+
+import com.gestionremodelacion.gestion.config.ExportProperties;
+
+/**
+ * Descarga logos por HTTP con tiempo máximo de conexión y de lectura, para
+ * que un servidor lento no detenga la generación del PDF.
+ */
+@Component
+public class HttpLogoFetcher implements LogoFetcher {
+
+    // Un logo más grande que esto no es un logo; se descarta en lugar de leerlo completo
+    private static final int MAX_BYTES = 5 * 1024 * 1024;
+
+    private final HttpClient client;
+    private final Duration timeout;
+
+    public HttpLogoFetcher(ExportProperties properties) {
+        this.timeout = Duration.ofMillis(properties.getLogoTimeoutMs());
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public byte[] fetch(String url) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Descarga del logo interrumpida", e);
+        }
+
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("El servidor respondió " + response.statusCode() + " para " + url);
+            }
+            byte[] bytes = body.readNBytes(MAX_BYTES + 1);
+            if (bytes.length > MAX_BYTES) {
+                throw new IOException("El logo supera " + MAX_BYTES + " bytes: " + url);
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.gestionremodelacion.gestion.export.logo;
+
+import java.io.IOException;
+
+/**
+ * Descarga la imagen original de un logo. La implementación por defecto usa
+ * HTTP; se puede sustituir (por ejemplo, por una que lea archivos locales en
+ * pruebas) declarando otro bean @Primary de este tipo.
+ */
+public interface LogoFetcher {
+
+    /**
+     * Devuelve los bytes de la imagen tal como los entrega el origen.
+     *
+     * @throws IOException si la imagen no se puede obtener
+     */
+    byte[] fetch(String url) throws IOException;
+}
@@ -1,14 +1,9 @@
 package com.gestionremodelacion.gestion.horastrabajadas.controller;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.util.List;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,23 +12,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.gestionremodelacion.gestion.dto.response.ApiResponse;
+import com.gestionremodelacion.gestion.dto.response.CursorPage;
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
 import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
 import com.gestionremodelacion.gestion.export.ExportType;
-import com.gestionremodelacion.gestion.export.ExporterService;
+import com.gestionremodelacion.gestion.export.ExportResultCache;
+import com.gestionremodelacion.gestion.export.job.ExportRecurso;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.request.HorasTrabajadasBatchRequest;
 import com.gestionremodelacion.gestion.horastrabajadas.dto.request.HorasTrabajadasRequest;
-import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasExportDTO;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasBatchResponse;
 import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasResponse;
 import com.gestionremodelacion.gestion.horastrabajadas.service.HorasTrabajadasService;
-import com.gestionremodelacion.gestion.model.User;
 import com.gestionremodelacion.gestion.security.annotations.RequiresPlan;
-import com.gestionremodelacion.gestion.service.user.UserService;
-import com.itextpdf.text.DocumentException;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
 
 import jakarta.validation.Valid;
 
@@ -42,14 +40,14 @@ import jakarta.validation.Valid;
 public class HorasTrabajadasController {
 
     private final HorasTrabajadasService horasTrabajadasService;
-    private final ExporterService exporterService;
-    private final UserService userService;
+    private final ExportResultCache exportResultCache;
+    private final TenantContextService tenantContextService;
 
-    public HorasTrabajadasController(HorasTrabajadasService horasTrabajadasService, ExporterService exportService,
-            UserService userService) {
+    public HorasTrabajadasController(HorasTrabajadasService horasTrabajadasService, ExportResultCache exportResultCache,
+            TenantContextService tenantContextService) {
         this.horasTrabajadasService = horasTrabajadasService;
-        this.exporterService = exportService;
-        this.userService = userService;
+        this.exportResultCache = exportResultCache;
+        this.tenantContextService = tenantContextService;
     }
 
     @GetMapping
@@ -61,6 +59,23 @@ public class HorasTrabajadasController {
                 .ok(new ApiResponse<>(HttpStatus.OK.value(), "Registros de horas obtenidos con éxito", page));
     }
 
+    /**
+     * Listado por cursor para scroll infinito. La primera página se pide sin
+     * cursor; las siguientes con el {@code nextCursor} de la respuesta anterior.
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAuthority('HORASTRABAJADAS_READ')")
+    public ResponseEntity<ApiResponse<CursorPage<HorasTrabajadasResponse>>> getHorasTrabajadasCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "filter", required = false) String filter,
+            @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        CursorPage<HorasTrabajadasResponse> page = horasTrabajadasService.getHorasTrabajadasCursor(cursor, size,
+                filter, includeTotal);
+        return ResponseEntity
+                .ok(new ApiResponse<>(HttpStatus.OK.value(), "Registros de horas obtenidos con éxito", page));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('HORASTRABAJADAS_READ')")
     public ResponseEntity<ApiResponse<HorasTrabajadasResponse>> getHorasTrabajadasById(@PathVariable Long id) {
@@ -78,6 +93,20 @@ public class HorasTrabajadasController {
                 .body(new ApiResponse<>(HttpStatus.CREATED.value(), "Registro de horas creado con éxito", response));
     }
 
+    /**
+     * Carga masiva: responde 207 si algún registro fue rechazado, con el detalle
+     * por posición.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('HORASTRABAJADAS_CREATE')")
+    public ResponseEntity<ApiResponse<HorasTrabajadasBatchResponse>> createHorasTrabajadasBatch(
+            @Valid @RequestBody HorasTrabajadasBatchRequest batchRequest) {
+        HorasTrabajadasBatchResponse response = horasTrabajadasService.createHorasTrabajadasBatch(batchRequest);
+        HttpStatus status = response.rechazados() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status)
+                .body(new ApiResponse<>(status.value(), "Carga masiva de horas procesada", response));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('HORASTRABAJADAS_UPDATE')")
     public ResponseEntity<ApiResponse<HorasTrabajadasResponse>> updateHorasTrabajadas(@PathVariable Long id,
@@ -98,27 +127,24 @@ public class HorasTrabajadasController {
     @GetMapping("/export/excel")
     @PreAuthorize("hasAuthority('EXPORT_EXCEL')")
     @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
-    public ResponseEntity<byte[]> exportToExcel(
+    public ResponseEntity<StreamingResponseBody> exportToExcel(
             @RequestParam(name = "filter", required = false) String filter,
-            @RequestParam(name = "sort", required = false) String sort) throws IOException {
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        User currentUser = userService.getCurrentUser();
-        Empresa empresa = currentUser.getEmpresa();
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
 
-        List<HorasTrabajadasExportDTO> horasTrabajadas = horasTrabajadasService.findHorasTrabajadasForExport(filter, sort);
-        ByteArrayOutputStream stream = exporterService.export(
+        return exportResultCache.export(
+                ExportRecurso.HORAS_TRABAJADAS,
                 ExportType.EXCEL,
-                horasTrabajadas,
-                "Reporte deHoras Trabajadas",
-                empresa
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                null,
+                () -> horasTrabajadasService.streamHorasTrabajadasForExport(empresaId, filter, sort)
         );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Reporte_Horas_Trabajadas.xlsx");
-        headers.setContentType(
-                MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-
-        return ResponseEntity.ok().headers(headers).body(stream.toByteArray());
     }
 
     /**
@@ -127,29 +153,51 @@ public class HorasTrabajadasController {
     @GetMapping("/export/pdf")
     @PreAuthorize("hasAuthority('EXPORT_PDF')")
     @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
-    public ResponseEntity<byte[]> exportToPdf(
+    public ResponseEntity<StreamingResponseBody> exportToPdf(
             @RequestParam(name = "filter", required = false) String filter,
-            @RequestParam(name = "sort", required = false) String sort) throws DocumentException, IOException {
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        User currentUser = userService.getCurrentUser();
-        Empresa empresa = currentUser.getEmpresa();
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
 
-        List<HorasTrabajadasExportDTO> horasTrabajadas = horasTrabajadasService.findHorasTrabajadasForExport(filter, sort);
-        if (horasTrabajadas.isEmpty()) {
-            return ResponseEntity.noContent().build();
-        }
-        ByteArrayOutputStream stream = exporterService.export(
+        return exportResultCache.export(
+                ExportRecurso.HORAS_TRABAJADAS,
                 ExportType.PDF,
-                horasTrabajadas,
-                "Reporte de Horas Trabajadas",
-                empresa
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                null,
+                () -> horasTrabajadasService.streamHorasTrabajadasForExport(empresaId, filter, sort)
         );
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Reporte_Horas_Trabajadas.pdf");
-        headers.setContentType(MediaType.APPLICATION_PDF);
-
-        return ResponseEntity.ok().headers(headers).body(stream.toByteArray());
+    /**
+     * Endpoint para exportar a CSV.
+     */
+    @GetMapping("/export/csv")
+    @PreAuthorize("hasAuthority('EXPORT_EXCEL')")
+    @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
+    public ResponseEntity<StreamingResponseBody> exportToCsv(
+            @RequestParam(name = "filter", required = false) String filter,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
+
+        return exportResultCache.export(
+                ExportRecurso.HORAS_TRABAJADAS,
+                ExportType.CSV,
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                acceptEncoding,
+                () -> horasTrabajadasService.streamHorasTrabajadasForExport(empresaId, filter, sort)
+        );
     }
 
 }
@@ -0,0 +1,31 @@
+package com.gestionremodelacion.gestion.horastrabajadas.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Carga masiva de registros de horas (ej. la semana completa de una
+ * cuadrilla). Los registros no se validan con @Valid a propósito: cada fila se
+ * valida en el servicio para devolver sus errores sin rechazar el lote entero.
+ */
+public class HorasTrabajadasBatchRequest {
+
+    public static final int MAX_REGISTROS = 500;
+
+    @NotEmpty(message = "El lote debe contener al menos un registro")
+    @Size(max = MAX_REGISTROS, message = "El lote no puede contener más de " + MAX_REGISTROS + " registros")
+    private List<HorasTrabajadasRequest> registros;
+
+    public HorasTrabajadasBatchRequest() {
+    }
+
+    public List<HorasTrabajadasRequest> getRegistros() {
+        return registros;
+    }
+
+    public void setRegistros(List<HorasTrabajadasRequest> registros) {
+        this.registros = registros;
+    }
+}
@@ -0,0 +1,26 @@
+package com.gestionremodelacion.gestion.horastrabajadas.dto.response;
+
+import java.util.List;
+
+/**
+ * Resultado de una carga masiva: un resultado por registro, en el mismo orden
+ * del request.
+ */
+public record HorasTrabajadasBatchResponse(int total, int creados, int rechazados, List<Resultado> resultados) {
+
+    /**
+     * @param indice posición del registro en el request
+     * @param id id del registro creado (null si fue rechazado)
+     * @param error clave de error o mensaje de validación (null si se creó)
+     */
+    public record Resultado(int indice, Long id, String error) {
+
+        public static Resultado creado(int indice, Long id) {
+            return new Resultado(indice, id, null);
+        }
+
+        public static Resultado rechazado(int indice, String error) {
+            return new Resultado(indice, null, error);
+        }
+    }
+}
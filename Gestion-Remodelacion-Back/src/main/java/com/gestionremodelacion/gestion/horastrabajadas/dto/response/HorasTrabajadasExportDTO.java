@@ -1,17 +1,24 @@
 package com.gestionremodelacion.gestion.horastrabajadas.dto.response;
 
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
 
+import com.gestionremodelacion.gestion.export.ExportColumn;
 import com.gestionremodelacion.gestion.export.Exportable;
 import com.gestionremodelacion.gestion.horastrabajadas.model.HorasTrabajadas;
-import com.gestionremodelacion.gestion.util.FormatUtils;
 
 public class HorasTrabajadasExportDTO implements Exportable {
 
+        public static final List<ExportColumn> COLUMNS = List.of(
+                        ExportColumn.texto("Empleado"),
+                        ExportColumn.texto("Proyecto"),
+                        ExportColumn.fecha("Fecha"),
+                        ExportColumn.decimal("Cantidad"),
+                        ExportColumn.texto("Unidad"),
+                        ExportColumn.moneda("Costo Total"),
+                        ExportColumn.texto("Actividad Realizada"));
+
         private final HorasTrabajadas horasTrabajadas;
 
         public HorasTrabajadasExportDTO(HorasTrabajadas horasTrabajadas) {
@@ -19,19 +26,12 @@ public class HorasTrabajadasExportDTO implements Exportable {
         }
 
         @Override
-        public List<String> getExportHeaders() {
-                return Arrays.asList(
-                                "Empleado", "Proyecto", "Fecha", "Cantidad", "Unidad", "Costo Total",
-                                "Actividad Realizada");
+        public List<ExportColumn> getExportColumns() {
+                return COLUMNS;
         }
 
         @Override
-        public List<List<String>> getExportData() {
-                // Formateamos la fecha y manejamos posibles nulos
-                String fecha = horasTrabajadas.getFecha() != null
-                                ? horasTrabajadas.getFecha().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
-                                : "N/A";
-
+        public List<List<Object>> getExportData() {
                 String empleadoNombre = horasTrabajadas.getEmpleado() != null
                                 ? horasTrabajadas.getNombreEmpleado()
                                 : "N/A";
@@ -44,26 +44,23 @@ public class HorasTrabajadasExportDTO implements Exportable {
                                 ? horasTrabajadas.getUnidad()
                                 : "N/A";
 
-                // Lógica de formato
-                DecimalFormat df = new DecimalFormat("0.##");
-                String cantidad = horasTrabajadas.getCantidad() != null
-                                ? df.format(horasTrabajadas.getCantidad())
-                                : "0";
+                BigDecimal cantidad = horasTrabajadas.getCantidad() != null
+                                ? horasTrabajadas.getCantidad()
+                                : BigDecimal.ZERO;
 
-                // Se calcula y formatea el costo total
+                // Se calcula el costo total; el formato lo aplica cada estrategia
                 BigDecimal costoTotal = BigDecimal.ZERO;
                 if (horasTrabajadas.getCostoPorHoraActual() != null && horasTrabajadas.getHoras() != null) {
                         costoTotal = horasTrabajadas.getCostoPorHoraActual().multiply(horasTrabajadas.getHoras());
                 }
-                String montoFormateado = FormatUtils.formatCurrency(costoTotal);
 
-                return Arrays.asList(Arrays.asList(
+                return List.of(Arrays.asList(
                                 empleadoNombre,
                                 proyectoNombre,
-                                fecha,
+                                horasTrabajadas.getFecha(),
                                 cantidad,
                                 unidad,
-                                montoFormateado,
+                                costoTotal,
                                 horasTrabajadas.getActividadRealizada()));
 
         }
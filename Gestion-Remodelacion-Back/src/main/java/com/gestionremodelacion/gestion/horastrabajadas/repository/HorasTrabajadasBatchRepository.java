@@ -0,0 +1,17 @@
+package com.gestionremodelacion.gestion.horastrabajadas.repository;
+
+import java.util.List;
+
+import com.gestionremodelacion.gestion.horastrabajadas.model.HorasTrabajadas;
+
+/**
+ * Fragmento de repositorio para inserciones masivas de horas trabajadas.
+ */
+public interface HorasTrabajadasBatchRepository {
+
+    /**
+     * Inserta los registros con sentencias JDBC por lotes y asigna a cada uno
+     * el id generado.
+     */
+    void insertBatch(List<HorasTrabajadas> registros);
+}
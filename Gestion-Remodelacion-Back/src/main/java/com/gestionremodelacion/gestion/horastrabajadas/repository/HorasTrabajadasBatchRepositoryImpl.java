@@ -0,0 +1,85 @@
+package com.gestionremodelacion.gestion.horastrabajadas.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.gestionremodelacion.gestion.horastrabajadas.model.HorasTrabajadas;
+
+/**
+ * Implementación JDBC de {@link HorasTrabajadasBatchRepository}.
+ *
+ * La entidad usa IDENTITY, y con esa estrategia Hibernate desactiva el batching
+ * de INSERT (necesita el id de cada fila al persistirla). Por eso la carga
+ * masiva se hace con JdbcTemplate.batchUpdate, que con
+ * rewriteBatchedStatements=true se envía como un INSERT multi-fila.
+ */
+public class HorasTrabajadasBatchRepositoryImpl implements HorasTrabajadasBatchRepository {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String INSERT_SQL = "INSERT INTO horas_trabajadas (id_empresa, id_empleado, id_proyecto, "
+            + "fecha, horas, costo_por_hora_actual, cantidad, unidad, nombre_empleado, nombre_proyecto, "
+            + "actividad_realizada, fecha_registro) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HorasTrabajadasBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertBatch(List<HorasTrabajadas> registros) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (int desde = 0; desde < registros.size(); desde += BATCH_SIZE) {
+            List<HorasTrabajadas> lote = registros.subList(desde, Math.min(desde + BATCH_SIZE, registros.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            HorasTrabajadas h = lote.get(i);
+                            if (h.getFechaRegistro() == null) {
+                                h.setFechaRegistro(ahora);
+                            }
+                            ps.setLong(1, h.getEmpresa().getId());
+                            ps.setLong(2, h.getEmpleado().getId());
+                            ps.setLong(3, h.getProyecto().getId());
+                            ps.setDate(4, Date.valueOf(h.getFecha()));
+                            ps.setBigDecimal(5, h.getHoras());
+                            ps.setBigDecimal(6, h.getCostoPorHoraActual());
+                            ps.setBigDecimal(7, h.getCantidad());
+                            ps.setString(8, h.getUnidad());
+                            ps.setString(9, h.getNombreEmpleado());
+                            ps.setString(10, h.getNombreProyecto());
+                            ps.setString(11, h.getActividadRealizada());
+                            ps.setTimestamp(12, Timestamp.valueOf(h.getFechaRegistro()));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return lote.size();
+                        }
+                    },
+                    keyHolder);
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < keys.size() && i < lote.size(); i++) {
+                Object id = keys.get(i).values().iterator().next();
+                lote.get(i).setId(((Number) id).longValue());
+            }
+        }
+    }
+}
@@ -1,22 +1,31 @@
 package com.gestionremodelacion.gestion.horastrabajadas.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.gestionremodelacion.gestion.export.ExporterService;
 import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasResponse;
 import com.gestionremodelacion.gestion.horastrabajadas.model.HorasTrabajadas;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface HorasTrabajadasRepository extends JpaRepository<HorasTrabajadas, Long> {
+public interface HorasTrabajadasRepository
+                extends JpaRepository<HorasTrabajadas, Long>, HorasTrabajadasBatchRepository {
 
         Optional<HorasTrabajadas> findByIdAndEmpresaId(Long id, Long empresaId);
 
@@ -45,6 +54,16 @@ public interface HorasTrabajadasRepository extends JpaRepository<HorasTrabajadas
         Page<HorasTrabajadasResponse> findByFilterWithDetails(@Param("empresaId") Long empresaId,
                         @Param("filter") String filter, Pageable pageable);
 
+        // Búsqueda FULLTEXT (índice ft_horas_busqueda); :termino viene de FullTextSearch
+        @Query("SELECT new com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasResponse("
+                        + "h.id, h.empleado.id, h.nombreEmpleado, h.proyecto.id, h.proyecto.nombreProyecto, "
+                        + "h.fecha, h.horas, h.costoPorHoraActual, h.actividadRealizada, h.fechaRegistro, "
+                        + "h.cantidad, h.unidad) "
+                        + "FROM HorasTrabajadas h WHERE h.empresa.id = :empresaId "
+                        + "AND function('fts_match2', h.nombreEmpleado, h.nombreProyecto, :termino) > 0")
+        Page<HorasTrabajadasResponse> findByFullTextWithDetails(@Param("empresaId") Long empresaId,
+                        @Param("termino") String termino, Pageable pageable);
+
         /**
          * Obtiene todos los registros de un empleado específico.
          */
@@ -70,12 +89,64 @@ public interface HorasTrabajadasRepository extends JpaRepository<HorasTrabajadas
                         @Param("empleadoId") Long empleadoId,
                         @Param("filter") String filter, Pageable pageable);
 
-        // Consulta para la exportación que devuelve la entidad completa.
+        // Búsqueda FULLTEXT sobre los registros de un empleado específico
+        @Query("SELECT new com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasResponse("
+                        + "h.id, h.empleado.id, h.nombreEmpleado, h.proyecto.id, h.nombreProyecto, "
+                        + "h.fecha, h.horas, h.costoPorHoraActual, h.actividadRealizada, h.fechaRegistro, "
+                        + "h.cantidad, h.unidad) "
+                        + "FROM HorasTrabajadas h WHERE h.empresa.id = :empresaId AND h.empleado.id = :empleadoId "
+                        + "AND function('fts_match2', h.nombreEmpleado, h.nombreProyecto, :termino) > 0")
+        Page<HorasTrabajadasResponse> findByFullTextWithDetailsByEmpleado(@Param("empresaId") Long empresaId,
+                        @Param("empleadoId") Long empleadoId, @Param("termino") String termino, Pageable pageable);
+
+        // --- Paginación por cursor (keyset) sobre (fecha DESC, id DESC) ---
+        // Se posiciona directo en el índice (id_empresa, fecha) en lugar de saltar OFFSET filas.
+
+        @Query("SELECT new com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasResponse("
+                        + "h.id, h.empleado.id, h.nombreEmpleado, h.proyecto.id, h.nombreProyecto, "
+                        + "h.fecha, h.horas, h.costoPorHoraActual, h.actividadRealizada, h.fechaRegistro, "
+                        + "h.cantidad, h.unidad) "
+                        + "FROM HorasTrabajadas h WHERE h.empresa.id = :empresaId "
+                        + "AND h.fecha <= :fecha AND (h.fecha < :fecha OR h.id < :id) "
+                        + "AND (:filter IS NULL OR "
+                        + "LOWER(h.nombreEmpleado) LIKE LOWER(CONCAT('%', :filter, '%')) OR "
+                        + "LOWER(h.nombreProyecto) LIKE LOWER(CONCAT('%', :filter, '%'))) "
+                        + "ORDER BY h.fecha DESC, h.id DESC")
+        List<HorasTrabajadasResponse> findPageAfter(@Param("empresaId") Long empresaId,
+                        @Param("fecha") LocalDate fecha, @Param("id") Long id, @Param("filter") String filter,
+                        Limit limit);
+
+        @Query("SELECT new com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasResponse("
+                        + "h.id, h.empleado.id, h.nombreEmpleado, h.proyecto.id, h.nombreProyecto, "
+                        + "h.fecha, h.horas, h.costoPorHoraActual, h.actividadRealizada, h.fechaRegistro, "
+                        + "h.cantidad, h.unidad) "
+                        + "FROM HorasTrabajadas h WHERE h.empresa.id = :empresaId AND h.empleado.id = :empleadoId "
+                        + "AND h.fecha <= :fecha AND (h.fecha < :fecha OR h.id < :id) "
+                        + "AND (:filter IS NULL OR "
+                        + "LOWER(h.nombreEmpleado) LIKE LOWER(CONCAT('%', :filter, '%')) OR "
+                        + "LOWER(h.nombreProyecto) LIKE LOWER(CONCAT('%', :filter, '%'))) "
+                        + "ORDER BY h.fecha DESC, h.id DESC")
+        List<HorasTrabajadasResponse> findPageAfterByEmpleado(@Param("empresaId") Long empresaId,
+                        @Param("empleadoId") Long empleadoId, @Param("fecha") LocalDate fecha, @Param("id") Long id,
+                        @Param("filter") String filter, Limit limit);
+
+        // Total opcional del listado por cursor (solo si el cliente lo pide)
+        @Query("SELECT COUNT(h) FROM HorasTrabajadas h WHERE h.empresa.id = :empresaId "
+                        + "AND (:empleadoId IS NULL OR h.empleado.id = :empleadoId) AND (:filter IS NULL OR "
+                        + "LOWER(h.nombreEmpleado) LIKE LOWER(CONCAT('%', :filter, '%')) OR "
+                        + "LOWER(h.nombreProyecto) LIKE LOWER(CONCAT('%', :filter, '%')))")
+        long countForListado(@Param("empresaId") Long empresaId, @Param("empleadoId") Long empleadoId,
+                        @Param("filter") String filter);
+
+        // Consulta para la exportación que devuelve la entidad completa. Se lee como
+        // Stream, así que debe consumirse dentro de una transacción.
+        @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExporterService.FETCH_SIZE),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
         @Query("SELECT h FROM HorasTrabajadas h JOIN FETCH h.empleado e JOIN FETCH h.proyecto p "
                         + "WHERE h.empresa.id = :empresaId AND (:filter IS NULL OR "
                         + "LOWER(h.nombreEmpleado) LIKE LOWER(CONCAT('%', :filter, '%')) OR "
                         + "LOWER(h.nombreProyecto) LIKE LOWER(CONCAT('%', :filter, '%')))")
-        List<HorasTrabajadas> findByFilterForExport(@Param("empresaId") Long empresaId, @Param("filter") String filter,
+        Stream<HorasTrabajadas> streamForExport(@Param("empresaId") Long empresaId, @Param("filter") String filter,
                         Sort sort);
 
         /**
@@ -85,64 +156,4 @@ public interface HorasTrabajadasRepository extends JpaRepository<HorasTrabajadas
                         "WHERE h.proyecto.id = :proyectoId AND h.empresa.id = :empresaId")
         BigDecimal sumCostoManoDeObraByProyectoId(@Param("proyectoId") Long proyectoId,
                         @Param("empresaId") Long empresaId);
-
-        /* ======================================================================= */
-        /* MÉTODOS EXCLUSIVOS PARA DashboardService (Agregaciones) */
-        /* ======================================================================= */
-        // -- Consultas filtradas por AÑO --
-        @Query("SELECT e.rolCargo, COUNT(DISTINCT e.id) FROM HorasTrabajadas h JOIN h.empleado e " +
-                        "WHERE h.empresa.id = :empresaId AND YEAR(h.fecha) = :year GROUP BY e.rolCargo")
-        List<Object[]> countEmpleadosByRolByYear(@Param("empresaId") Long empresaId, @Param("year") int year);
-
-        @Query("SELECT h.proyecto.nombreProyecto, SUM(h.horas) FROM HorasTrabajadas h " +
-                        "WHERE h.empresa.id = :empresaId AND YEAR(h.proyecto.fechaInicio) = :year GROUP BY h.proyecto.nombreProyecto")
-        List<Object[]> sumHorasByProyectoByYear(@Param("empresaId") Long empresaId, @Param("year") int year);
-
-        @Query("SELECT h.empleado.id, h.empleado.nombreCompleto, h.proyecto.id, h.proyecto.nombreProyecto, SUM(h.horas), SUM(h.horas * h.costoPorHoraActual) "
-                        +
-                        "FROM HorasTrabajadas h WHERE h.empresa.id = :empresaId AND YEAR(h.proyecto.fechaInicio) = :year "
-                        +
-                        "GROUP BY h.empleado.id, h.empleado.nombreCompleto, h.proyecto.id, h.proyecto.nombreProyecto")
-        List<Object[]> sumHorasByEmpleadoAndProyectoByYear(@Param("empresaId") Long empresaId, @Param("year") int year);
-
-        // --- Consultas filtradas por AÑO Y MES ---
-
-        @Query("SELECT e.rolCargo, COUNT(DISTINCT e.id) FROM HorasTrabajadas h JOIN h.empleado e " +
-                        "WHERE h.empresa.id = :empresaId AND YEAR(h.fecha) = :year AND MONTH(h.fecha) = :month GROUP BY e.rolCargo")
-        List<Object[]> countEmpleadosByRolByYearAndMonth(@Param("empresaId") Long empresaId, @Param("year") int year,
-                        @Param("month") int month);
-
-        @Query("SELECT h.proyecto.nombreProyecto, SUM(h.horas) FROM HorasTrabajadas h " +
-                        "WHERE h.empresa.id = :empresaId AND YEAR(h.proyecto.fechaInicio) = :year AND MONTH(h.proyecto.fechaInicio) = :month "
-                        +
-                        "GROUP BY h.proyecto.nombreProyecto")
-        List<Object[]> sumHorasByProyectoByYearAndMonth(@Param("empresaId") Long empresaId, @Param("year") int year,
-                        @Param("month") int month);
-
-        @Query("SELECT h.empleado.id, h.empleado.nombreCompleto, h.proyecto.id, h.proyecto.nombreProyecto, SUM(h.horas), SUM(h.horas * h.costoPorHoraActual) "
-                        +
-                        "FROM HorasTrabajadas h WHERE h.empresa.id = :empresaId AND YEAR(h.proyecto.fechaInicio) = :year AND MONTH(h.proyecto.fechaInicio) = :month "
-                        +
-                        "GROUP BY h.empleado.id, h.empleado.nombreCompleto, h.proyecto.id, h.proyecto.nombreProyecto")
-        List<Object[]> sumHorasByEmpleadoAndProyectoByYearAndMonth(@Param("empresaId") Long empresaId,
-                        @Param("year") int year, @Param("month") int month);
-
-        // --- Consultas filtradas por ID de Proyecto ---
-
-        @Query("SELECT e.rolCargo, COUNT(DISTINCT e.id) FROM HorasTrabajadas h JOIN h.empleado e " +
-                        "WHERE h.empresa.id = :empresaId AND h.proyecto.id = :projectId GROUP BY e.rolCargo")
-        List<Object[]> countEmpleadosByRolByProjectId(@Param("empresaId") Long empresaId,
-                        @Param("projectId") Long projectId);
-
-        @Query("SELECT h.proyecto.nombreProyecto, SUM(h.horas) FROM HorasTrabajadas h " +
-                        "WHERE h.empresa.id = :empresaId AND h.proyecto.id = :projectId GROUP BY h.proyecto.nombreProyecto")
-        List<Object[]> sumHorasByProyectoByProjectId(@Param("empresaId") Long empresaId,
-                        @Param("projectId") Long projectId);
-
-        @Query("SELECT h.empleado.id, h.empleado.nombreCompleto, h.proyecto.id, h.proyecto.nombreProyecto, SUM(h.horas), SUM(h.horas * h.costoPorHoraActual) "
-                        +
-                        "FROM HorasTrabajadas h WHERE h.empresa.id = :empresaId AND h.proyecto.id = :projectId " +
-                        "GROUP BY h.empleado.id, h.empleado.nombreCompleto, h.proyecto.id, h.proyecto.nombreProyecto")
-        List<Object[]> sumHorasByEmpleadoAndProyectoByProjectId(@Param("empresaId") Long empresaId,
-                        @Param("projectId") Long projectId);
 }
@@ -0,0 +1,84 @@
+package com.gestionremodelacion.gestion.horastrabajadas.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
+import com.gestionremodelacion.gestion.empresa.repository.EmpresaRepository;
+import com.gestionremodelacion.gestion.proyecto.repository.ProyectoRepository;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent.Seccion;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardRollupService;
+
+/**
+ * Conciliación del costo de mano de obra de los proyectos.
+ *
+ * El costo se mantiene con ajustes incrementales en cada alta, edición o
+ * baja de horas. Este proceso compara periódicamente el valor guardado con la
+ * suma real de las horas y corrige los proyectos que no cuadren (redondeos
+ * acumulados, cambios hechos directamente en la BD, etc.).
+ */
+@Service
+public class CostoManoDeObraReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CostoManoDeObraReconciliationService.class);
+
+    private final ProyectoRepository proyectoRepository;
+    private final EmpresaRepository empresaRepository;
+    private final DashboardRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public CostoManoDeObraReconciliationService(ProyectoRepository proyectoRepository,
+            EmpresaRepository empresaRepository, DashboardRollupService rollupService,
+            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate) {
+        this.proyectoRepository = proyectoRepository;
+        this.empresaRepository = empresaRepository;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Por defecto corre todos los días a las 3:30. Cada empresa se procesa en su
+     * propia transacción; un error en una no detiene a las demás.
+     */
+    @Scheduled(cron = "${horas-trabajadas.conciliacion-costo-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        int corregidos = 0;
+        for (Empresa empresa : empresaRepository.findAll()) {
+            Long empresaId = empresa.getId();
+            try {
+                Integer total = transactionTemplate.execute(status -> reconcile(empresaId));
+                corregidos += total != null ? total : 0;
+            } catch (RuntimeException e) {
+                logger.error("No se pudo conciliar el costo de mano de obra de la empresa {}", empresaId, e);
+            }
+        }
+        if (corregidos > 0) {
+            logger.warn("Conciliación de mano de obra: {} proyectos corregidos", corregidos);
+        }
+    }
+
+    // Corrige los proyectos descuadrados de una empresa y devuelve cuántos fueron
+    private int reconcile(Long empresaId) {
+        List<Object[]> descuadrados = proyectoRepository.findCostoManoDeObraDescuadrado(empresaId);
+        for (Object[] fila : descuadrados) {
+            Long proyectoId = ((Number) fila[0]).longValue();
+            logger.info("Costo de mano de obra descuadrado en proyecto {} (empresa {}): guardado {}, calculado {}",
+                    proyectoId, empresaId, fila[1], fila[2]);
+
+            proyectoRepository.recalcularCostoManoDeObra(empresaId, proyectoId);
+            rollupService.refreshProyecto(empresaId, proyectoId);
+            eventPublisher.publishEvent(
+                    new DashboardDataChangedEvent(empresaId, Seccion.PROYECTOS, proyectoId, null));
+        }
+        return descuadrados.size();
+    }
+}
@@ -1,31 +1,55 @@
 package com.gestionremodelacion.gestion.horastrabajadas.service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.gestionremodelacion.gestion.dto.response.CursorPage;
 import com.gestionremodelacion.gestion.empleado.model.Empleado;
 import com.gestionremodelacion.gestion.empleado.repository.EmpleadoRepository;
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
 import com.gestionremodelacion.gestion.exception.BusinessRuleException;
 import com.gestionremodelacion.gestion.exception.ErrorCatalog;
 import com.gestionremodelacion.gestion.exception.ResourceNotFoundException;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.request.HorasTrabajadasBatchRequest;
 import com.gestionremodelacion.gestion.horastrabajadas.dto.request.HorasTrabajadasRequest;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasBatchResponse;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasBatchResponse.Resultado;
 import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasExportDTO;
 import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasResponse;
 import com.gestionremodelacion.gestion.horastrabajadas.model.HorasTrabajadas;
 import com.gestionremodelacion.gestion.horastrabajadas.repository.HorasTrabajadasRepository;
 import com.gestionremodelacion.gestion.mapper.HorasTrabajadasMapper;
-import com.gestionremodelacion.gestion.model.User;
 import com.gestionremodelacion.gestion.proyecto.model.Proyecto;
 import com.gestionremodelacion.gestion.proyecto.repository.ProyectoRepository;
+import com.gestionremodelacion.gestion.search.FullTextSearch;
 import com.gestionremodelacion.gestion.security.service.AuthorizationService;
-import com.gestionremodelacion.gestion.service.user.UserService;
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent.Seccion;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardRollupService;
+import com.gestionremodelacion.gestion.util.FechaIdCursor;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
 public class HorasTrabajadasService {
@@ -34,68 +58,135 @@ public class HorasTrabajadasService {
     private final HorasTrabajadasMapper horasTrabajadasMapper;
     private final EmpleadoRepository empleadoRepository;
     private final ProyectoRepository proyectoRepository;
-    private final UserService userService;
+    private final TenantContextService tenantContextService;
     private final AuthorizationService authService;
+    private final DashboardRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
 
     private static final String PERMISO_READ_ALL = "HORASTRABAJADAS_READ_ALL";
     private static final String PERMISO_CREATE_ALL = "HORASTRABAJADAS_CREATE_ALL";
     private static final String PERMISO_UPDATE_ALL = "HORASTRABAJADAS_UPDATE_ALL";
     private static final String PERMISO_DELETE_ALL = "HORASTRABAJADAS_DELETE_ALL";
+    private final int permisoReadAll;
+    private final int permisoCreateAll;
+    private final int permisoUpdateAll;
+    private final int permisoDeleteAll;
+
+    private static final int CURSOR_MAX_SIZE = 100;
 
     public HorasTrabajadasService(HorasTrabajadasRepository horasTrabajadasRepository,
             HorasTrabajadasMapper horasTrabajadasMapper, EmpleadoRepository empleadoRepository,
-            ProyectoRepository proyectoRepository, UserService userService, AuthorizationService authService) {
+            ProyectoRepository proyectoRepository, TenantContextService tenantContextService,
+            AuthorizationService authService, DashboardRollupService rollupService,
+            ApplicationEventPublisher eventPublisher, Validator validator) {
         this.horasTrabajadasRepository = horasTrabajadasRepository;
         this.horasTrabajadasMapper = horasTrabajadasMapper;
         this.empleadoRepository = empleadoRepository;
         this.proyectoRepository = proyectoRepository;
-        this.userService = userService;
+        this.tenantContextService = tenantContextService;
         this.authService = authService;
+        this.permisoReadAll = authService.permissionId(PERMISO_READ_ALL);
+        this.permisoCreateAll = authService.permissionId(PERMISO_CREATE_ALL);
+        this.permisoUpdateAll = authService.permissionId(PERMISO_UPDATE_ALL);
+        this.permisoDeleteAll = authService.permissionId(PERMISO_DELETE_ALL);
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
     }
 
     @Transactional(readOnly = true)
     public Page<HorasTrabajadasResponse> getAllHorasTrabajadas(Pageable pageable, String filter) {
 
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         // Logica de seguridad
-        boolean canReadAll = authService.hasPermission(currentUser, PERMISO_READ_ALL);
+        boolean canReadAll = authService.hasPermission(tenant, permisoReadAll);
+        // Índice FULLTEXT si el término lo permite; LIKE para términos muy cortos
+        String termino = FullTextSearch.toBooleanQuery(filter);
 
         if (canReadAll) {
             // El usuario es Admin/Manager, usa la consulta antigua (ver todo)
+            if (termino != null) {
+                return horasTrabajadasRepository.findByFullTextWithDetails(empresaId, termino, pageable);
+            }
             return (filter != null && !filter.trim().isEmpty())
                     ? horasTrabajadasRepository.findByFilterWithDetails(empresaId, filter, pageable)
                     : horasTrabajadasRepository.findAllWithDetails(empresaId, pageable);
         } else {
             // El usuario es un trabajador, usa la nueva consulta (ver solo lo suyo)
-            Empleado empleadoVinculado = getEmpleadoVinculado(currentUser); // Método helper
+            Long empleadoVinculadoId = getEmpleadoVinculadoId(tenant); // Método helper
 
+            if (termino != null) {
+                return horasTrabajadasRepository.findByFullTextWithDetailsByEmpleado(empresaId,
+                        empleadoVinculadoId, termino, pageable);
+            }
             return (filter != null && !filter.trim().isEmpty())
-                    ? horasTrabajadasRepository.findByFilterWithDetailsByEmpleado(empresaId, empleadoVinculado.getId(),
+                    ? horasTrabajadasRepository.findByFilterWithDetailsByEmpleado(empresaId, empleadoVinculadoId,
                             filter, pageable)
-                    : horasTrabajadasRepository.findAllWithDetailsByEmpleado(empresaId, empleadoVinculado.getId(),
+                    : horasTrabajadasRepository.findAllWithDetailsByEmpleado(empresaId, empleadoVinculadoId,
                             pageable);
         }
     }
 
+    /**
+     * Listado por cursor ordenado por fecha y id descendentes. Cada página cuesta
+     * lo mismo sin importar qué tan profundo esté el cliente, y el COUNT solo se
+     * ejecuta si se pide {@code includeTotal}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<HorasTrabajadasResponse> getHorasTrabajadasCursor(String cursor, int size, String filter,
+            boolean includeTotal) {
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
+
+        FechaIdCursor posicion = FechaIdCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, CURSOR_MAX_SIZE));
+        String effectiveFilter = (filter != null && !filter.trim().isEmpty()) ? filter.trim() : null;
+        // Se pide un registro de más para saber si hay página siguiente sin contar
+        Limit limit = Limit.of(pageSize + 1);
+
+        // Logica de seguridad: sin READ_ALL solo se listan los registros propios
+        Long empleadoId = authService.hasPermission(tenant, permisoReadAll) ? null
+                : getEmpleadoVinculadoId(tenant);
+
+        List<HorasTrabajadasResponse> registros = empleadoId == null
+                ? horasTrabajadasRepository.findPageAfter(empresaId, posicion.fecha(), posicion.id(),
+                        effectiveFilter, limit)
+                : horasTrabajadasRepository.findPageAfterByEmpleado(empresaId, empleadoId, posicion.fecha(),
+                        posicion.id(), effectiveFilter, limit);
+
+        boolean hasNext = registros.size() > pageSize;
+        List<HorasTrabajadasResponse> content = hasNext ? registros.subList(0, pageSize) : registros;
+        String nextCursor = null;
+        if (hasNext) {
+            HorasTrabajadasResponse ultimo = content.get(content.size() - 1);
+            nextCursor = new FechaIdCursor(ultimo.getFecha(), ultimo.getId()).encode();
+        }
+        Long total = includeTotal ? horasTrabajadasRepository.countForListado(empresaId, empleadoId, effectiveFilter)
+                : null;
+
+        return new CursorPage<>(List.copyOf(content), pageSize, hasNext, nextCursor, total);
+    }
+
     @Transactional(readOnly = true)
     public HorasTrabajadasResponse getHorasTrabajadasById(Long id) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         HorasTrabajadas horasTrabajadas = horasTrabajadasRepository.findByIdAndEmpresaId(id, empresaId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCatalog.RESOURCE_NOT_FOUND.getKey()));
 
         // --- LÓGICA DE SEGURIDAD CORREGIDA ---
-        boolean canReadAll = authService.hasPermission(currentUser, PERMISO_READ_ALL);
+        boolean canReadAll = authService.hasPermission(tenant, permisoReadAll);
 
         if (canReadAll) {
             return horasTrabajadasMapper.toHorasTrabajadasResponse(horasTrabajadas);
         }
 
-        Empleado empleadoVinculado = getEmpleadoVinculado(currentUser);
-        if (horasTrabajadas.getEmpleado().getId().equals(empleadoVinculado.getId())) {
+        Long empleadoVinculadoId = getEmpleadoVinculadoId(tenant);
+        if (horasTrabajadas.getEmpleado().getId().equals(empleadoVinculadoId)) {
             return horasTrabajadasMapper.toHorasTrabajadasResponse(horasTrabajadas);
         }
 
@@ -105,11 +196,11 @@ public class HorasTrabajadasService {
 
     @Transactional
     public HorasTrabajadasResponse createHorasTrabajadas(HorasTrabajadasRequest horasTrabajadasRequest) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         // --- LÓGICA DE SEGURIDAD ---
-        boolean canCreateForAll = authService.hasPermission(currentUser, PERMISO_CREATE_ALL);
+        boolean canCreateForAll = authService.hasPermission(tenant, permisoCreateAll);
 
         Long empleadoIdParaRegistro;
 
@@ -118,7 +209,7 @@ public class HorasTrabajadasService {
             empleadoIdParaRegistro = horasTrabajadasRequest.getIdEmpleado();
         } else {
             // Trabajador usa su propio ID, ignorando el request
-            empleadoIdParaRegistro = getEmpleadoVinculado(currentUser).getId();
+            empleadoIdParaRegistro = getEmpleadoVinculadoId(tenant);
         }
 
         // Validar entidades
@@ -137,7 +228,7 @@ public class HorasTrabajadasService {
 
         HorasTrabajadas horasTrabajadas = horasTrabajadasMapper.toHorasTrabajadas(horasTrabajadasRequest);
 
-        horasTrabajadas.setEmpresa(currentUser.getEmpresa());
+        horasTrabajadas.setEmpresa(tenantContextService.empresaReference());
         horasTrabajadas.setEmpleado(empleado);
         horasTrabajadas.setProyecto(proyecto);
 
@@ -151,22 +242,165 @@ public class HorasTrabajadasService {
 
         HorasTrabajadas savedHorasTrabajadas = horasTrabajadasRepository.save(horasTrabajadas);
 
-        actualizarCostoManoDeObraProyecto(proyecto);
+        ajustarCostoManoDeObraProyecto(empresaId, proyecto.getId(), costoDe(savedHorasTrabajadas));
+        rollupService.refreshHoras(savedHorasTrabajadas);
+        eventPublisher.publishEvent(new DashboardDataChangedEvent(empresaId, Seccion.HORAS, proyecto.getId(),
+                savedHorasTrabajadas.getFecha()));
 
         return horasTrabajadasMapper.toHorasTrabajadasResponse(savedHorasTrabajadas);
     }
 
+    /**
+     * Carga masiva de registros de horas. Empleados y proyectos se resuelven con
+     * una consulta IN cada uno, los registros válidos se insertan por lotes y
+     * el costo de mano de obra se recalcula una sola vez por proyecto afectado.
+     * Un registro inválido no aborta el lote: su error se devuelve en la
+     * respuesta, en la misma posición del request.
+     */
+    @Transactional
+    public HorasTrabajadasBatchResponse createHorasTrabajadasBatch(HorasTrabajadasBatchRequest batchRequest) {
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
+        List<HorasTrabajadasRequest> registros = batchRequest.getRegistros();
+
+        // --- LÓGICA DE SEGURIDAD --- (igual que en el alta individual)
+        boolean canCreateForAll = authService.hasPermission(tenant, permisoCreateAll);
+        Long empleadoVinculadoId = canCreateForAll ? null : getEmpleadoVinculadoId(tenant);
+        Empresa empresa = tenantContextService.empresaReference();
+
+        // Resolver todas las entidades referenciadas con una consulta por tipo
+        Set<Long> empleadoIds = new LinkedHashSet<>();
+        Set<Long> proyectoIds = new LinkedHashSet<>();
+        for (HorasTrabajadasRequest registro : registros) {
+            if (registro == null) {
+                continue;
+            }
+            Long empleadoId = canCreateForAll ? registro.getIdEmpleado() : empleadoVinculadoId;
+            if (empleadoId != null) {
+                empleadoIds.add(empleadoId);
+            }
+            if (registro.getIdProyecto() != null) {
+                proyectoIds.add(registro.getIdProyecto());
+            }
+        }
+        Map<Long, Empleado> empleados = empleadoIds.isEmpty() ? Map.of()
+                : empleadoRepository.findByIdInAndEmpresaId(empleadoIds, empresaId).stream()
+                        .collect(Collectors.toMap(Empleado::getId, Function.identity()));
+        Map<Long, Proyecto> proyectos = proyectoIds.isEmpty() ? Map.of()
+                : proyectoRepository.findByIdInAndEmpresaId(proyectoIds, empresaId).stream()
+                        .collect(Collectors.toMap(Proyecto::getId, Function.identity()));
+
+        // Validar fila por fila; los errores se acumulan en lugar de lanzarse
+        Resultado[] resultados = new Resultado[registros.size()];
+        List<HorasTrabajadas> nuevos = new ArrayList<>();
+        List<Integer> indicesNuevos = new ArrayList<>();
+        for (int i = 0; i < registros.size(); i++) {
+            HorasTrabajadasRequest registro = registros.get(i);
+            String error = validarRegistro(registro);
+            if (error != null) {
+                resultados[i] = Resultado.rechazado(i, error);
+                continue;
+            }
+
+            Empleado empleado = empleados.get(canCreateForAll ? registro.getIdEmpleado() : empleadoVinculadoId);
+            if (empleado == null) {
+                resultados[i] = Resultado.rechazado(i, ErrorCatalog.INVALID_EMPLOYEE_FOR_COMPANY.getKey());
+                continue;
+            }
+            Proyecto proyecto = proyectos.get(registro.getIdProyecto());
+            if (proyecto == null) {
+                resultados[i] = Resultado.rechazado(i, ErrorCatalog.INVALID_PROJECT_FOR_COMPANY.getKey());
+                continue;
+            }
+
+            BigDecimal horasReales;
+            try {
+                horasReales = this.convertirUnidadAHoras(registro.getCantidad(), registro.getUnidad());
+            } catch (BusinessRuleException e) {
+                resultados[i] = Resultado.rechazado(i, e.getMessage());
+                continue;
+            }
+
+            HorasTrabajadas horasTrabajadas = horasTrabajadasMapper.toHorasTrabajadas(registro);
+            horasTrabajadas.setEmpresa(empresa);
+            horasTrabajadas.setEmpleado(empleado);
+            horasTrabajadas.setProyecto(proyecto);
+            horasTrabajadas.setHoras(horasReales);
+            horasTrabajadas.setCostoPorHoraActual(empleado.getCostoPorHora());
+            horasTrabajadas.setCantidad(registro.getCantidad());
+            horasTrabajadas.setUnidad(registro.getUnidad());
+            horasTrabajadas.setNombreEmpleado(empleado.getNombreCompleto());
+            horasTrabajadas.setNombreProyecto(proyecto.getNombreProyecto());
+            nuevos.add(horasTrabajadas);
+            indicesNuevos.add(i);
+        }
+
+        if (!nuevos.isEmpty()) {
+            horasTrabajadasRepository.insertBatch(nuevos);
+            for (int j = 0; j < nuevos.size(); j++) {
+                int indice = indicesNuevos.get(j);
+                resultados[indice] = Resultado.creado(indice, nuevos.get(j).getId());
+            }
+            actualizarDerivadosBatch(empresaId, nuevos);
+        }
+
+        return new HorasTrabajadasBatchResponse(registros.size(), nuevos.size(),
+                registros.size() - nuevos.size(), List.of(resultados));
+    }
+
+    /**
+     * Ajusta costo de mano de obra y resúmenes una vez por proyecto (y por
+     * mes/empleado en el caso de las horas) en lugar de una vez por registro.
+     */
+    private void actualizarDerivadosBatch(Long empresaId, List<HorasTrabajadas> nuevos) {
+        Map<Long, BigDecimal> deltas = new LinkedHashMap<>();
+        Map<BucketHoras, LocalDate> buckets = new LinkedHashMap<>();
+        for (HorasTrabajadas h : nuevos) {
+            deltas.merge(h.getProyecto().getId(), costoDe(h), BigDecimal::add);
+            buckets.putIfAbsent(new BucketHoras(h.getProyecto().getId(), h.getEmpleado().getId(),
+                    h.getFecha().withDayOfMonth(1)), h.getFecha());
+        }
+
+        deltas.forEach((proyectoId, delta) -> ajustarCostoManoDeObraProyecto(empresaId, proyectoId, delta));
+        buckets.forEach((bucket, fecha) -> rollupService.refreshHoras(empresaId, bucket.proyectoId(),
+                bucket.empleadoId(), fecha));
+        // Un evento por proyecto y mes, sin importar cuántos empleados cambiaron
+        buckets.keySet().stream()
+                .map(bucket -> new BucketHoras(bucket.proyectoId(), null, bucket.mes()))
+                .distinct()
+                .forEach(bucket -> eventPublisher.publishEvent(new DashboardDataChangedEvent(empresaId,
+                        Seccion.HORAS, bucket.proyectoId(), bucket.mes())));
+    }
+
+    // Devuelve el primer error de validación del registro, o null si es válido
+    private String validarRegistro(HorasTrabajadasRequest registro) {
+        if (registro == null) {
+            return "El registro no puede ser nulo";
+        }
+        Set<ConstraintViolation<HorasTrabajadasRequest>> violaciones = validator.validate(registro);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<HorasTrabajadasRequest> violacion = violaciones.iterator().next();
+        return violacion.getPropertyPath() + ": " + violacion.getMessage();
+    }
+
+    // Llave del resumen mensual de horas (proyecto, empleado, mes)
+    private record BucketHoras(Long proyectoId, Long empleadoId, LocalDate mes) {
+
+    }
+
     @Transactional
     public HorasTrabajadasResponse updateHorasTrabajadas(Long id, HorasTrabajadasRequest horasTrabajadasRequest) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         HorasTrabajadas horasTrabajadas = horasTrabajadasRepository.findByIdAndEmpresaId(id, empresaId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                 ErrorCatalog.WORK_LOG_NOT_FOUND.getKey()));
 
         // --- LÓGICA DE SEGURIDAD ---
-        boolean canUpdateAll = authService.hasPermission(currentUser, PERMISO_UPDATE_ALL);
+        boolean canUpdateAll = authService.hasPermission(tenant, permisoUpdateAll);
 
         Long empleadoIdParaActualizar;
 
@@ -174,14 +408,18 @@ public class HorasTrabajadasService {
             empleadoIdParaActualizar = horasTrabajadasRequest.getIdEmpleado();
         } else {
             // Si no es admin, solo puede editar sus propios registros
-            Empleado empleadoVinculado = getEmpleadoVinculado(currentUser);
-            if (!horasTrabajadas.getEmpleado().getId().equals(empleadoVinculado.getId())) {
+            Long empleadoVinculadoId = getEmpleadoVinculadoId(tenant);
+            if (!horasTrabajadas.getEmpleado().getId().equals(empleadoVinculadoId)) {
                 throw new ResourceNotFoundException(ErrorCatalog.WORK_LOG_NOT_FOUND.getKey()); // Lanza error
             }
-            empleadoIdParaActualizar = empleadoVinculado.getId();
+            empleadoIdParaActualizar = empleadoVinculadoId;
         }
 
         Proyecto proyectoOriginal = horasTrabajadas.getProyecto();
+        BigDecimal costoOriginal = costoDe(horasTrabajadas);
+        // Llave anterior del resumen mensual (el registro puede cambiar de mes, proyecto o empleado)
+        Long empleadoOriginalId = horasTrabajadas.getEmpleado().getId();
+        LocalDate fechaOriginal = horasTrabajadas.getFecha();
 
         Empleado nuevoEmpleado = empleadoRepository
                 .findByIdAndEmpresaId(empleadoIdParaActualizar, empresaId)
@@ -212,56 +450,88 @@ public class HorasTrabajadasService {
 
         HorasTrabajadas updatedHorasTrabajadas = horasTrabajadasRepository.save(horasTrabajadas);
 
-        actualizarCostoManoDeObraProyecto(proyectoOriginal);
-        if (!proyectoOriginal.getId().equals(updatedHorasTrabajadas.getProyecto().getId())) {
-            actualizarCostoManoDeObraProyecto(updatedHorasTrabajadas.getProyecto());
+        BigDecimal costoNuevo = costoDe(updatedHorasTrabajadas);
+        if (proyectoOriginal.getId().equals(updatedHorasTrabajadas.getProyecto().getId())) {
+            ajustarCostoManoDeObraProyecto(empresaId, proyectoOriginal.getId(), costoNuevo.subtract(costoOriginal));
+        } else {
+            // El registro cambió de proyecto: se resta del anterior y se suma al nuevo
+            ajustarCostoManoDeObraProyecto(empresaId, proyectoOriginal.getId(), costoOriginal.negate());
+            ajustarCostoManoDeObraProyecto(empresaId, updatedHorasTrabajadas.getProyecto().getId(), costoNuevo);
         }
+        rollupService.refreshHoras(empresaId, proyectoOriginal.getId(), empleadoOriginalId, fechaOriginal);
+        rollupService.refreshHoras(updatedHorasTrabajadas);
+        eventPublisher.publishEvent(new DashboardDataChangedEvent(empresaId, Seccion.HORAS,
+                updatedHorasTrabajadas.getProyecto().getId(), updatedHorasTrabajadas.getFecha()));
 
         return horasTrabajadasMapper.toHorasTrabajadasResponse(updatedHorasTrabajadas);
     }
 
     @Transactional
     public void deleteHorasTrabajadas(Long id) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         HorasTrabajadas horasTrabajadas = horasTrabajadasRepository.findByIdAndEmpresaId(id, empresaId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                 ErrorCatalog.WORK_LOG_NOT_FOUND.getKey()));
 
         // --- LÓGICA DE SEGURIDAD ---
-        boolean canDeleteAll = authService.hasPermission(currentUser, PERMISO_DELETE_ALL);
+        boolean canDeleteAll = authService.hasPermission(tenant, permisoDeleteAll);
 
         if (!canDeleteAll) {
-            Empleado empleadoVinculado = getEmpleadoVinculado(currentUser);
-            if (!horasTrabajadas.getEmpleado().getId().equals(empleadoVinculado.getId())) {
+            Long empleadoVinculadoId = getEmpleadoVinculadoId(tenant);
+            if (!horasTrabajadas.getEmpleado().getId().equals(empleadoVinculadoId)) {
                 throw new ResourceNotFoundException(ErrorCatalog.WORK_LOG_NOT_FOUND.getKey()); // Lanza error
             }
         }
 
         Proyecto proyectoAfectado = horasTrabajadas.getProyecto();
+        Long empleadoId = horasTrabajadas.getEmpleado().getId();
+        LocalDate fecha = horasTrabajadas.getFecha();
+        BigDecimal costo = costoDe(horasTrabajadas);
         horasTrabajadasRepository.delete(horasTrabajadas);
 
         if (proyectoAfectado != null) {
-            actualizarCostoManoDeObraProyecto(proyectoAfectado);
+            ajustarCostoManoDeObraProyecto(empresaId, proyectoAfectado.getId(), costo.negate());
+            rollupService.refreshHoras(empresaId, proyectoAfectado.getId(), empleadoId, fecha);
         }
+        eventPublisher.publishEvent(new DashboardDataChangedEvent(empresaId, Seccion.HORAS,
+                proyectoAfectado != null ? proyectoAfectado.getId() : null, fecha));
     }
 
-    private void actualizarCostoManoDeObraProyecto(Proyecto proyecto) {
-        // Llama a la consulta para calcular el costo total
-        BigDecimal nuevoCostoTotal = horasTrabajadasRepository
-                .sumCostoManoDeObraByProyectoId(proyecto.getId(), proyecto.getEmpresa().getId());
+    /**
+     * Aplica al proyecto la diferencia de costo de mano de obra con un UPDATE
+     * atómico, sin volver a sumar todo su historial de horas. Las diferencias
+     * que pudieran acumularse las corrige la conciliación programada
+     * ({@link CostoManoDeObraReconciliationService}).
+     */
+    private void ajustarCostoManoDeObraProyecto(Long empresaId, Long proyectoId, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        proyectoRepository.incrementCostoManoDeObra(empresaId, proyectoId, delta);
+        rollupService.refreshProyecto(empresaId, proyectoId);
+    }
 
-        // Maneja el caso de que no haya registros (SUM puede devoler Null)
-        proyecto.setCostoManoDeObra(nuevoCostoTotal != null ? nuevoCostoTotal : BigDecimal.ZERO);
-        proyectoRepository.save(proyecto);
+    /**
+     * Costo de mano de obra que aporta un registro (horas x costo por hora del
+     * snapshot), redondeado a centavos igual que la columna del proyecto. La
+     * conciliación suma los mismos valores redondeados por registro, así los
+     * ajustes incrementales y el recálculo coinciden al centavo.
+     */
+    static BigDecimal costoDe(HorasTrabajadas horasTrabajadas) {
+        if (horasTrabajadas.getHoras() == null || horasTrabajadas.getCostoPorHoraActual() == null) {
+            return BigDecimal.ZERO;
+        }
+        return horasTrabajadas.getHoras().multiply(horasTrabajadas.getCostoPorHoraActual())
+                .setScale(2, RoundingMode.HALF_UP);
     }
 
+    // Exportación: el Stream debe consumirse dentro de la transacción que abre
+    // ExporterService
     @Transactional(readOnly = true)
-    public List<HorasTrabajadasExportDTO> findHorasTrabajadasForExport(String filter, String sort) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
-
+    public Stream<HorasTrabajadasExportDTO> streamHorasTrabajadasForExport(Long empresaId, String filter,
+            String sort) {
         Sort sortObj = Sort.by(Sort.Direction.DESC, "fecha"); // Ordenar por fecha por defecto
         if (sort != null && !sort.isEmpty()) {
             String[] sortParts = sort.split(",");
@@ -274,12 +544,8 @@ public class HorasTrabajadasService {
         }
 
         String effectiveFilter = (filter != null && !filter.trim().isEmpty()) ? filter.trim().toLowerCase() : null;
-        List<HorasTrabajadas> horas = horasTrabajadasRepository.findByFilterForExport(empresaId, effectiveFilter,
-                sortObj);
-
-        return horas.stream()
-                .map(HorasTrabajadasExportDTO::new)
-                .collect(Collectors.toList());
+        return horasTrabajadasRepository.streamForExport(empresaId, effectiveFilter, sortObj)
+                .map(HorasTrabajadasExportDTO::new);
     }
 
     /**
@@ -304,16 +570,16 @@ public class HorasTrabajadasService {
     }
 
     /**
-     * Método helper privado para obtener el empleado vinculado a un usuario y
-     * manejar la excepción si no existe.
+     * Método helper privado para obtener el id del empleado vinculado a un
+     * usuario y manejar la excepción si no existe.
      */
-    private Empleado getEmpleadoVinculado(User currentUser) {
-        Empleado empleadoVinculado = currentUser.getEmpleado();
-        if (empleadoVinculado == null) {
+    private Long getEmpleadoVinculadoId(TenantContext tenant) {
+        Long empleadoVinculadoId = tenant.empleadoId();
+        if (empleadoVinculadoId == null) {
 
             throw new BusinessRuleException(ErrorCatalog.USER_NOT_LINKED_TO_EMPLOYEE.getKey());
         }
-        return empleadoVinculado;
+        return empleadoVinculadoId;
     }
 
 }
@@ -14,8 +14,8 @@ import com.gestionremodelacion.gestion.exception.BusinessRuleException;
 import com.gestionremodelacion.gestion.invitation.request.InvitationRequest;
 import com.gestionremodelacion.gestion.invitation.response.InvitationDetailsResponse;
 import com.gestionremodelacion.gestion.invitation.service.InvitationService;
-import com.gestionremodelacion.gestion.model.User;
-import com.gestionremodelacion.gestion.service.user.UserService;
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
 
 import jakarta.validation.Valid;
 
@@ -24,11 +24,11 @@ import jakarta.validation.Valid;
 public class InvitationController {
 
     private final InvitationService invitationService;
-    private final UserService userService;
+    private final TenantContextService tenantContextService;
 
-    public InvitationController(InvitationService invitationService, UserService userService) {
+    public InvitationController(InvitationService invitationService, TenantContextService tenantContextService) {
         this.invitationService = invitationService;
-        this.userService = userService;
+        this.tenantContextService = tenantContextService;
     }
 
     @PostMapping("/super")
@@ -43,12 +43,12 @@ public class InvitationController {
     @PostMapping
     @PreAuthorize("hasAuthority('INVITE_USER')")
     public ResponseEntity<ApiResponse<Void>> createInvitationByAdmin(@Valid @RequestBody InvitationRequest request) {
-        User currentUser = userService.getCurrentUser();
-        if (currentUser.getEmpresa() == null) {
+        TenantContext tenant = tenantContextService.current();
+        if (tenant.empresaId() == null) {
             throw new BusinessRuleException("No perteneces a ninguna empresa para poder invitar usuarios.");
         }
         // El rol se fija a "ROLE_USER" por seguridad.
-        invitationService.createAndSendInvitation(request.getEmail(), currentUser.getEmpresa().getId(),
+        invitationService.createAndSendInvitation(request.getEmail(), tenant.empresaId(),
                 request.getRolAAsignar(), request.getEmpleadoId());
         return ResponseEntity.ok(new ApiResponse<>(200, "Invitación enviada.", null));
     }
@@ -0,0 +1,132 @@
+package com.gestionremodelacion.gestion.model;
+
+import java.math.BigDecimal;
+
+import com.gestionremodelacion.gestion.proyecto.model.Proyecto.EstadoProyecto;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Tabla resumen mensual que alimenta el Dashboard. Se mantiene de forma
+ * incremental desde los servicios de escritura (ver DashboardRollupService).
+ *
+ * Hay dos tipos de fila:
+ * - Fila de proyecto (empleadoId = 0): una por proyecto, ubicada en el mes de
+ * su fecha de inicio (año/mes = 0 si no tiene fecha). Guarda estado y montos.
+ * - Fila de horas (empleadoId > 0): horas y costo de mano de obra de un
+ * empleado en un proyecto, agrupadas por el mes en que se trabajaron.
+ */
+@Entity
+@Table(name = "dashboard_rollup_mensual")
+@IdClass(DashboardRollupId.class)
+public class DashboardRollup {
+
+    public static final long FILA_PROYECTO = 0L;
+
+    @Id
+    @Column(name = "id_empresa")
+    private Long empresaId;
+
+    @Id
+    @Column(name = "anio")
+    private Integer anio;
+
+    @Id
+    @Column(name = "mes")
+    private Integer mes;
+
+    @Id
+    @Column(name = "id_proyecto")
+    private Long proyectoId;
+
+    @Id
+    @Column(name = "id_empleado")
+    private Long empleadoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_proyecto")
+    private EstadoProyecto estadoProyecto;
+
+    @Column(name = "total_proyectos", nullable = false)
+    private Integer totalProyectos;
+
+    @Column(name = "monto_recibido", nullable = false)
+    private BigDecimal montoRecibido;
+
+    @Column(name = "costo_materiales", nullable = false)
+    private BigDecimal costoMateriales;
+
+    @Column(name = "otros_gastos", nullable = false)
+    private BigDecimal otrosGastos;
+
+    @Column(name = "costo_mano_de_obra", nullable = false)
+    private BigDecimal costoManoDeObra;
+
+    @Column(name = "horas", nullable = false)
+    private BigDecimal horas;
+
+    @Column(name = "registros", nullable = false)
+    private Integer registros;
+
+    public DashboardRollup() {
+    }
+
+    // Getters (la tabla solo se escribe con consultas nativas del repositorio)
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+
+    public Integer getAnio() {
+        return anio;
+    }
+
+    public Integer getMes() {
+        return mes;
+    }
+
+    public Long getProyectoId() {
+        return proyectoId;
+    }
+
+    public Long getEmpleadoId() {
+        return empleadoId;
+    }
+
+    public EstadoProyecto getEstadoProyecto() {
+        return estadoProyecto;
+    }
+
+    public Integer getTotalProyectos() {
+        return totalProyectos;
+    }
+
+    public BigDecimal getMontoRecibido() {
+        return montoRecibido;
+    }
+
+    public BigDecimal getCostoMateriales() {
+        return costoMateriales;
+    }
+
+    public BigDecimal getOtrosGastos() {
+        return otrosGastos;
+    }
+
+    public BigDecimal getCostoManoDeObra() {
+        return costoManoDeObra;
+    }
+
+    public BigDecimal getHoras() {
+        return horas;
+    }
+
+    public Integer getRegistros() {
+        return registros;
+    }
+}
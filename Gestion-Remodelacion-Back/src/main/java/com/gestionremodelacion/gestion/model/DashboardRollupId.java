@@ -0,0 +1,49 @@
+package com.gestionremodelacion.gestion.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Llave compuesta de {@link DashboardRollup}: (empresa, año, mes, proyecto,
+ * empleado).
+ */
+public class DashboardRollupId implements Serializable {
+
+    private Long empresaId;
+    private Integer anio;
+    private Integer mes;
+    private Long proyectoId;
+    private Long empleadoId;
+
+    public DashboardRollupId() {
+    }
+
+    public DashboardRollupId(Long empresaId, Integer anio, Integer mes, Long proyectoId, Long empleadoId) {
+        this.empresaId = empresaId;
+        this.anio = anio;
+        this.mes = mes;
+        this.proyectoId = proyectoId;
+        this.empleadoId = empleadoId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DashboardRollupId)) {
+            return false;
+        }
+        DashboardRollupId that = (DashboardRollupId) o;
+        return Objects.equals(empresaId, that.empresaId)
+                && Objects.equals(anio, that.anio)
+                && Objects.equals(mes, that.mes)
+                && Objects.equals(proyectoId, that.proyectoId)
+                && Objects.equals(empleadoId, that.empleadoId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(empresaId, anio, mes, proyectoId, empleadoId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.gestionremodelacion.gestion.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Token de acceso revocado. Solo se guarda el SHA-256 del token y cuándo
+ * vence; después de esa fecha la fila ya no sirve y se borra.
+ */
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_digest", nullable = false, unique = true, columnDefinition = "BINARY(32)")
+    private byte[] tokenDigest;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    protected RevokedToken() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public byte[] getTokenDigest() {
+        return tokenDigest;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+}
@@ -53,6 +53,10 @@ public class User {
     @Column(nullable = false)
     private boolean enabled = true;
 
+    // Se incrementa al cambiar roles, permisos, estado o contraseña; invalida los JWT emitidos antes
+    @Column(name = "security_version", nullable = false)
+    private long securityVersion = 0;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "id_empresa", nullable = true)
     private Empresa empresa;
@@ -135,4 +139,12 @@ public class User {
         this.empleados = empleado;
     }
 
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
+
+    public void setSecurityVersion(long securityVersion) {
+        this.securityVersion = securityVersion;
+    }
+
 }
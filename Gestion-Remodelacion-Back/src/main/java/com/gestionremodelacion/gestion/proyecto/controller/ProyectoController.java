@@ -1,14 +1,11 @@
 package com.gestionremodelacion.gestion.proyecto.controller;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,24 +14,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.gestionremodelacion.gestion.dto.response.ApiResponse;
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
 import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
 import com.gestionremodelacion.gestion.export.ExportType;
-import com.gestionremodelacion.gestion.export.ExporterService;
-import com.gestionremodelacion.gestion.model.User;
+import com.gestionremodelacion.gestion.export.ExportResultCache;
+import com.gestionremodelacion.gestion.export.job.ExportRecurso;
 import com.gestionremodelacion.gestion.proyecto.dto.request.ProyectoRequest;
 import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoDropdownResponse;
-import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoExcelDTO;
-import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoPdfDTO;
 import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoResponse;
 import com.gestionremodelacion.gestion.proyecto.service.ProyectoService;
 import com.gestionremodelacion.gestion.security.annotations.RequiresPlan;
-import com.gestionremodelacion.gestion.service.user.UserService;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
 
 import jakarta.validation.Valid;
 
@@ -43,14 +40,14 @@ import jakarta.validation.Valid;
 public class ProyectoController {
 
     private final ProyectoService proyectoService;
-    private final ExporterService exporterService;
-    private final UserService userService;
+    private final ExportResultCache exportResultCache;
+    private final TenantContextService tenantContextService;
 
-    public ProyectoController(ProyectoService proyectoService, ExporterService exporterService,
-            UserService userService) {
+    public ProyectoController(ProyectoService proyectoService, ExportResultCache exportResultCache,
+            TenantContextService tenantContextService) {
         this.proyectoService = proyectoService;
-        this.exporterService = exporterService;
-        this.userService = userService;
+        this.exportResultCache = exportResultCache;
+        this.tenantContextService = tenantContextService;
     }
 
     @GetMapping
@@ -109,29 +106,24 @@ public class ProyectoController {
     @GetMapping("/export/excel")
     @PreAuthorize("hasAuthority('EXPORT_EXCEL')")
     @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
-    public ResponseEntity<byte[]> exportProyectosToExcel(
+    public ResponseEntity<StreamingResponseBody> exportProyectosToExcel(
             @RequestParam(name = "filter", required = false) String filter,
-            @RequestParam(name = "sort", required = false) String sort) throws IOException {
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        User currentUser = userService.getCurrentUser();
-        Empresa empresa = currentUser.getEmpresa();
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
 
-        List<ProyectoExcelDTO> proyectos = proyectoService.findProyectosForExcelExport(filter, sort);
-
-        // CAMBIO AQUÍ: Usamos .export() pasando el tipo EXCEL
-        ByteArrayOutputStream excelStream = exporterService.export(
+        return exportResultCache.export(
+                ExportRecurso.PROYECTOS,
                 ExportType.EXCEL,
-                proyectos,
-                "Reporte de Proyectos",
-                empresa
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                null,
+                () -> proyectoService.streamProyectosForExcelExport(empresaId, filter, sort)
         );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Reporte_Proyectos.xlsx");
-        headers.setContentType(
-                MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-
-        return ResponseEntity.ok().headers(headers).body(excelStream.toByteArray());
     }
 
     /**
@@ -140,32 +132,50 @@ public class ProyectoController {
     @GetMapping("/export/pdf")
     @PreAuthorize("hasAuthority('EXPORT_PDF')")
     @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
-    // Nota: Ya no necesitamos lanzar DocumentException aquí porque el Service lo envuelve en RuntimeException
-    public ResponseEntity<byte[]> exportProyectosToPdf(
+    public ResponseEntity<StreamingResponseBody> exportProyectosToPdf(
             @RequestParam(name = "filter", required = false) String filter,
-            @RequestParam(name = "sort", required = false) String sort) throws IOException {
-
-        User currentUser = userService.getCurrentUser();
-        Empresa empresa = currentUser.getEmpresa();
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        List<ProyectoPdfDTO> proyectos = proyectoService.findProyectosForPdfExport(filter, sort);
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
 
-        if (proyectos.isEmpty()) {
-            return ResponseEntity.noContent().build();
-        }
-
-        // CAMBIO AQUÍ: Usamos .export() pasando el tipo PDF
-        ByteArrayOutputStream pdfStream = exporterService.export(
+        return exportResultCache.export(
+                ExportRecurso.PROYECTOS,
                 ExportType.PDF,
-                proyectos,
-                "Reporte de Proyectos",
-                empresa
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                null,
+                () -> proyectoService.streamProyectosForPdfExport(empresaId, filter, sort)
         );
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Reporte_Proyectos.pdf");
-        headers.setContentType(MediaType.APPLICATION_PDF);
-
-        return ResponseEntity.ok().headers(headers).body(pdfStream.toByteArray());
+    /**
+     * Endpoint para exportar a CSV (mismas columnas que el Excel).
+     */
+    @GetMapping("/export/csv")
+    @PreAuthorize("hasAuthority('EXPORT_EXCEL')")
+    @RequiresPlan({PlanSuscripcion.NEGOCIOS, PlanSuscripcion.PROFESIONAL})
+    public ResponseEntity<StreamingResponseBody> exportProyectosToCsv(
+            @RequestParam(name = "filter", required = false) String filter,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        Empresa empresa = tenantContextService.currentEmpresa();
+        Long empresaId = empresa.getId();
+
+        return exportResultCache.export(
+                ExportRecurso.PROYECTOS,
+                ExportType.CSV,
+                empresa,
+                filter,
+                sort,
+                ifNoneMatch,
+                acceptEncoding,
+                () -> proyectoService.streamProyectosForExcelExport(empresaId, filter, sort)
+        );
     }
 }
@@ -0,0 +1,33 @@
+package com.gestionremodelacion.gestion.proyecto.dto.response;
+
+import java.math.BigDecimal;
+
+import com.gestionremodelacion.gestion.util.MathUtils;
+
+/**
+ * Proyección con los cuatro totales financieros de un conjunto de proyectos.
+ * Se llena con una sola consulta agregada (un solo recorrido de la tabla) en
+ * lugar de una consulta SUM por columna.
+ */
+public record ProyectoFinancialTotals(
+        BigDecimal montoRecibido,
+        BigDecimal costoMateriales,
+        BigDecimal otrosGastos,
+        BigDecimal costoManoDeObra) {
+
+    // SUM devuelve null cuando no hay filas, normalizamos a cero aquí
+    public ProyectoFinancialTotals {
+        montoRecibido = MathUtils.getOrDefault(montoRecibido);
+        costoMateriales = MathUtils.getOrDefault(costoMateriales);
+        otrosGastos = MathUtils.getOrDefault(otrosGastos);
+        costoManoDeObra = MathUtils.getOrDefault(costoManoDeObra);
+    }
+
+    public static ProyectoFinancialTotals empty() {
+        return new ProyectoFinancialTotals(null, null, null, null);
+    }
+
+    public BigDecimal balance() {
+        return montoRecibido.subtract(costoMateriales).subtract(otrosGastos).subtract(costoManoDeObra);
+    }
+}
@@ -1,14 +1,23 @@
 package com.gestionremodelacion.gestion.proyecto.dto.response;
 
-import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
 
+import com.gestionremodelacion.gestion.export.ExportColumn;
 import com.gestionremodelacion.gestion.export.Exportable;
 import com.gestionremodelacion.gestion.proyecto.model.Proyecto;
 
 public class ProyectoPdfDTO implements Exportable {
 
+    public static final List<ExportColumn> COLUMNS = List.of(
+            ExportColumn.texto("Nombre del Proyecto"),
+            ExportColumn.texto("Cliente"),
+            ExportColumn.texto("Responsable"),
+            ExportColumn.texto("Estado"),
+            ExportColumn.fecha("Fecha de Inicio"),
+            ExportColumn.fecha("Fecha Fin Estimada"),
+            ExportColumn.moneda("Monto Contrato"));
+
     private final Proyecto proyecto;
 
     public ProyectoPdfDTO(Proyecto proyecto) {
@@ -16,36 +25,27 @@ public class ProyectoPdfDTO implements Exportable {
     }
 
     @Override
-    public List<String> getExportHeaders() {
-        return Arrays.asList(
-                "Nombre del Proyecto", "Cliente", "Responsable",
-                "Estado", "Fecha de Inicio", "Fecha Fin Estimada", "Monto Contrato"
-        );
+    public List<ExportColumn> getExportColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public List<List<String>> getExportData() {
-        // Formateamos las fechas y manejamos posibles nulos
-        String fechaInicio = proyecto.getFechaInicio() != null
-                ? proyecto.getFechaInicio().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) : "N/A";
-
-        String fechaFinEstimada = proyecto.getFechaFinEstimada() != null
-                ? proyecto.getFechaFinEstimada().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) : "N/A";
-
+    public List<List<Object>> getExportData() {
+        // Nombres de entidades relacionadas, en caso de no tenerlos, se muestra "N/A"
         String clienteNombre = proyecto.getCliente() != null
                 ? proyecto.getCliente().getNombreCliente() : "N/A";
 
         String empleadoNombre = proyecto.getEmpleadoResponsable() != null
                 ? proyecto.getEmpleadoResponsable().getNombreCompleto() : "N/A";
 
-        return Arrays.asList(Arrays.asList(
+        return List.of(Arrays.asList(
                 proyecto.getNombreProyecto(),
                 clienteNombre,
                 empleadoNombre,
-                proyecto.getEstado().toString(),
-                fechaInicio,
-                fechaFinEstimada,
-                proyecto.getMontoContrato().toString()
+                proyecto.getEstado() != null ? proyecto.getEstado().toString() : "N/A",
+                proyecto.getFechaInicio(),
+                proyecto.getFechaFinEstimada(),
+                proyecto.getMontoContrato()
         ));
     }
 }
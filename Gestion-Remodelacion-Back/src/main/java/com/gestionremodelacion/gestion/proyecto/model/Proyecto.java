@@ -89,7 +89,8 @@ public class Proyecto {
     @Column(name = "otros_gastos_directos_consolidado", nullable = true)
     private BigDecimal otrosGastosDirectosConsolidado;
 
-    @Column(name = "costo_mano_de_obra", nullable = true)
+    // Lo mantiene HorasTrabajadasService con UPDATE atómicos; guardar la entidad no lo sobrescribe
+    @Column(name = "costo_mano_de_obra", nullable = true, updatable = false)
     private BigDecimal costoManoDeObra;
 
     @Column(name = "progreso_porcentaje", nullable = false)
@@ -1,25 +1,36 @@
 package com.gestionremodelacion.gestion.proyecto.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page; // Importar Page
 import org.springframework.data.domain.Pageable; // Importar Pageable
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.gestionremodelacion.gestion.export.ExporterService;
 import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoResponse;
 import com.gestionremodelacion.gestion.proyecto.model.Proyecto;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ProyectoRepository extends JpaRepository<Proyecto, Long> {
 
     Optional<Proyecto> findByIdAndEmpresaId(Long proyectoId, Long empresaId);
 
+    List<Proyecto> findByIdInAndEmpresaId(Collection<Long> ids, Long empresaId);
+
     List<Proyecto> findByEmpresaId(Long empresaId);
 
     boolean existsByIdAndEmpresaId(Long id, Long empresaId);
@@ -49,92 +60,85 @@ public interface ProyectoRepository extends JpaRepository<Proyecto, Long> {
     Page<ProyectoResponse> findByFilterWithDetails(@Param("empresaId") Long empresaId,
             @Param("filter") String filter, Pageable pageable);
 
+    // Búsqueda FULLTEXT por nombre de proyecto, cliente o responsable; :termino viene de FullTextSearch.
+    // Cada MATCH va en su propia subconsulta de ids para que MySQL la resuelva con su índice FULLTEXT;
+    // con los tres MATCH unidos por OR sobre el JOIN no puede usar ninguno y recorre todos los proyectos.
+    @Query("SELECT new com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoResponse("
+            + "p.id, p.cliente.id, p.cliente.nombreCliente, p.nombreProyecto, p.descripcion, "
+            + "p.direccionPropiedad, p.estado, p.fechaInicio, p.fechaFinEstimada, "
+            + "p.fechaFinalizacionReal, p.empleadoResponsable.id, COALESCE(p.empleadoResponsable.nombreCompleto, 'No asignado'), "
+            + "p.montoContrato, p.montoRecibido, p.fechaUltimoPagoRecibido, "
+            + "p.costoMaterialesConsolidado, p.otrosGastosDirectosConsolidado,p.costoManoDeObra, "
+            + "p.progresoPorcentaje, p.notasProyecto, p.fechaCreacion) "
+            + "FROM Proyecto p LEFT JOIN p.cliente c LEFT JOIN p.empleadoResponsable e WHERE p.empresa.id = :empresaId AND ("
+            + "p.id IN (SELECT pm.id FROM Proyecto pm WHERE pm.empresa.id = :empresaId "
+            + "AND function('fts_match1', pm.nombreProyecto, :termino) > 0) OR "
+            + "c.id IN (SELECT cm.id FROM Cliente cm WHERE cm.empresa.id = :empresaId "
+            + "AND function('fts_match1', cm.nombreCliente, :termino) > 0) OR "
+            + "e.id IN (SELECT em.id FROM Empleado em WHERE em.empresa.id = :empresaId "
+            + "AND function('fts_match1', em.nombreCompleto, :termino) > 0))")
+    Page<ProyectoResponse> findByFullTextWithDetails(@Param("empresaId") Long empresaId,
+            @Param("termino") String termino, Pageable pageable);
+
     /**
      * Consulta para exportación que devuelve la entidad completa, ya que el DTO
-     * de exportación necesita el objeto completo para mapear.
+     * de exportación necesita el objeto completo para mapear. Se lee como
+     * Stream, así que debe consumirse dentro de una transacción.
      */
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExporterService.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
     @Query("SELECT p FROM Proyecto p JOIN FETCH p.cliente c LEFT JOIN FETCH p.empleadoResponsable e "
             + "WHERE p.empresa.id = :empresaId AND (:filter IS NULL OR "
             + "LOWER(p.nombreProyecto) LIKE LOWER(CONCAT('%', :filter, '%')) OR "
             + "LOWER(c.nombreCliente) LIKE LOWER(CONCAT('%', :filter, '%')) OR "
             + "LOWER(e.nombreCompleto) LIKE LOWER(CONCAT('%', :filter, '%')))")
-    List<Proyecto> findByFilterForExport(@Param("empresaId") Long empresaId, @Param("filter") String filter,
+    Stream<Proyecto> streamForExport(@Param("empresaId") Long empresaId, @Param("filter") String filter,
             Sort sort);
 
     /* ======================================================================= */
  /* MÉTODOS EXCLUSIVOS PARA DASHBOARDSERVICE */
+ /* (Las métricas agregadas se leen de DashboardRollupRepository) */
  /* ======================================================================= */
-    @Query("SELECT DISTINCT YEAR(p.fechaInicio) FROM Proyecto p WHERE p.empresa.id = :empresaId ORDER BY YEAR(p.fechaInicio) DESC")
-    List<Integer> findDistinctYearsByEmpresaId(@Param("empresaId") Long empresaId);
-
     @Query("SELECT p.id, p.nombreProyecto FROM Proyecto p WHERE p.empresa.id = :empresaId AND "
-            + "YEAR(p.fechaInicio) = :year AND (:month is null OR MONTH(p.fechaInicio) = :month)")
-    List<Object[]> findProyectosByYearAndMonth(@Param("empresaId") Long empresaId, @Param("year") Integer year,
-            @Param("month") Integer month);
-
-    // --- Consultas filtradas por AÑO (Corregidas con empresaId) ---
-    @Query("SELECT SUM(p.costoManoDeObra) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year")
-    BigDecimal sumCostoManoDeObraByYear(@Param("empresaId") Long empresaId, @Param("year") int year);
-
-    @Query("SELECT COUNT(p) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year")
-    Long countByYear(@Param("empresaId") Long empresaId, @Param("year") int year);
-
-    @Query("SELECT SUM(p.montoRecibido) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year")
-    BigDecimal sumMontoRecibidoByYear(@Param("empresaId") Long empresaId, @Param("year") int year);
-
-    @Query("SELECT SUM(p.costoMaterialesConsolidado) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year")
-    BigDecimal sumCostoMaterialesConsolidadoByYear(@Param("empresaId") Long empresaId, @Param("year") int year);
-
-    @Query("SELECT SUM(p.otrosGastosDirectosConsolidado) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year")
-    BigDecimal sumOtrosGastosDirectosConsolidadoByYear(@Param("empresaId") Long empresaId, @Param("year") int year);
+            + "p.fechaInicio >= :desde AND p.fechaInicio < :hasta")
+    List<Object[]> findProyectosByFechaInicioRange(@Param("empresaId") Long empresaId,
+            @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
 
-    @Query("SELECT p.estado, COUNT(p) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year GROUP BY p.estado")
-    List<Object[]> countProyectosByEstadoByYear(@Param("empresaId") Long empresaId, @Param("year") int year);
+    // --- Costo de mano de obra ---
+    // La columna no se escribe desde la entidad (updatable = false); solo con estas sentencias.
 
-    // --- Consultas filtradas por AÑO Y MES (Corregidas con empresaId) ---
-    @Query("SELECT SUM(p.costoManoDeObra) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year AND MONTH(p.fechaInicio) = :month")
-    BigDecimal sumCostoManoDeObraByYearAndMonth(@Param("empresaId") Long empresaId, @Param("year") int year,
-            @Param("month") int month);
-
-    @Query("SELECT COUNT(p) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year AND MONTH(p.fechaInicio) = :month")
-    Long countByYearAndMonth(@Param("empresaId") Long empresaId, @Param("year") int year,
-            @Param("month") int month);
-
-    @Query("SELECT SUM(p.montoRecibido) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year AND MONTH(p.fechaInicio) = :month")
-    BigDecimal sumMontoRecibidoByYearAndMonth(@Param("empresaId") Long empresaId, @Param("year") int year,
-            @Param("month") int month);
-
-    @Query("SELECT SUM(p.costoMaterialesConsolidado) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year AND MONTH(p.fechaInicio) = :month")
-    BigDecimal sumCostoMaterialesConsolidadoByYearAndMonth(@Param("empresaId") Long empresaId,
-            @Param("year") int year, @Param("month") int month);
-
-    @Query("SELECT SUM(p.otrosGastosDirectosConsolidado) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year AND MONTH(p.fechaInicio) = :month")
-    BigDecimal sumOtrosGastosDirectosConsolidadoByYearAndMonth(@Param("empresaId") Long empresaId,
-            @Param("year") int year, @Param("month") int month);
-
-    @Query("SELECT p.estado, COUNT(p) FROM Proyecto p WHERE p.empresa.id = :empresaId AND YEAR(p.fechaInicio) = :year AND MONTH(p.fechaInicio) = :month GROUP BY p.estado")
-    List<Object[]> countProyectosByEstadoByYearAndMonth(@Param("empresaId") Long empresaId, @Param("year") int year,
-            @Param("month") int month);
-
-    // --- Consultas filtradas por ID de Proyecto (Corregidas con empresaId para
-    // doble seguridad) ---
-    @Query("SELECT SUM(p.costoManoDeObra) FROM Proyecto p WHERE p.id = :projectId AND p.empresa.id = :empresaId")
-    BigDecimal sumCostoManoDeObraByProjectId(@Param("projectId") Long projectId,
-            @Param("empresaId") Long empresaId);
-
-    @Query("SELECT SUM(p.montoRecibido) FROM Proyecto p WHERE p.id = :projectId AND p.empresa.id = :empresaId")
-    BigDecimal sumMontoRecibidoByProjectId(@Param("projectId") Long projectId, @Param("empresaId") Long empresaId);
-
-    @Query("SELECT SUM(p.costoMaterialesConsolidado) FROM Proyecto p WHERE p.id = :projectId AND p.empresa.id = :empresaId")
-    BigDecimal sumCostoMaterialesConsolidadoByProjectId(@Param("projectId") Long projectId,
-            @Param("empresaId") Long empresaId);
-
-    @Query("SELECT SUM(p.otrosGastosDirectosConsolidado) FROM Proyecto p WHERE p.id = :projectId AND p.empresa.id = :empresaId")
-    BigDecimal sumOtrosGastosDirectosConsolidadoByProjectId(@Param("projectId") Long projectId,
-            @Param("empresaId") Long empresaId);
+    /**
+     * Suma (o resta, con delta negativo) el costo de un registro de horas al
+     * proyecto. Es atómico en la BD, así dos altas concurrentes no se pisan.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE proyectos SET costo_mano_de_obra = COALESCE(costo_mano_de_obra, 0) + :delta "
+            + "WHERE id = :proyectoId AND id_empresa = :empresaId", nativeQuery = true)
+    int incrementCostoManoDeObra(@Param("empresaId") Long empresaId, @Param("proyectoId") Long proyectoId,
+            @Param("delta") BigDecimal delta);
 
-    @Query("SELECT p.estado, COUNT(p) FROM Proyecto p WHERE p.id = :projectId AND p.empresa.id = :empresaId GROUP BY p.estado")
-    List<Object[]> countProyectosByEstadoByProjectId(@Param("projectId") Long projectId,
-            @Param("empresaId") Long empresaId);
+    /**
+     * Proyectos de la empresa cuyo costo guardado no coincide con la suma de sus
+     * horas. Cada fila es [id, costoGuardado, costoCalculado]. Cada registro se
+     * redondea a centavos antes de sumar, igual que los ajustes incrementales.
+     */
+    @Query(value = "SELECT p.id, COALESCE(p.costo_mano_de_obra, 0), "
+            + "COALESCE(SUM(ROUND(h.horas * h.costo_por_hora_actual, 2)), 0) "
+            + "FROM proyectos p LEFT JOIN horas_trabajadas h ON h.id_proyecto = p.id AND h.id_empresa = p.id_empresa "
+            + "WHERE p.id_empresa = :empresaId "
+            + "GROUP BY p.id, p.costo_mano_de_obra "
+            + "HAVING COALESCE(p.costo_mano_de_obra, 0) <> "
+            + "COALESCE(SUM(ROUND(h.horas * h.costo_por_hora_actual, 2)), 0)", nativeQuery = true)
+    List<Object[]> findCostoManoDeObraDescuadrado(@Param("empresaId") Long empresaId);
 
+    /**
+     * Recalcula el costo del proyecto desde sus horas en una sola sentencia, para
+     * no perder un ajuste concurrente entre la lectura y la escritura.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE proyectos p SET p.costo_mano_de_obra = ("
+            + "SELECT COALESCE(SUM(ROUND(h.horas * h.costo_por_hora_actual, 2)), 0) FROM horas_trabajadas h "
+            + "WHERE h.id_proyecto = p.id AND h.id_empresa = p.id_empresa) "
+            + "WHERE p.id = :proyectoId AND p.id_empresa = :empresaId", nativeQuery = true)
+    int recalcularCostoManoDeObra(@Param("empresaId") Long empresaId, @Param("proyectoId") Long proyectoId);
 }
@@ -6,7 +6,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -21,7 +23,6 @@ import com.gestionremodelacion.gestion.exception.BusinessRuleException;
 import com.gestionremodelacion.gestion.exception.ErrorCatalog;
 import com.gestionremodelacion.gestion.exception.ResourceNotFoundException;
 import com.gestionremodelacion.gestion.mapper.ProyectoMapper;
-import com.gestionremodelacion.gestion.model.User;
 import com.gestionremodelacion.gestion.proyecto.dto.request.ProyectoRequest;
 import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoDropdownResponse;
 import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoExcelDTO;
@@ -29,47 +30,60 @@ import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoPdfDTO;
 import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoResponse;
 import com.gestionremodelacion.gestion.proyecto.model.Proyecto;
 import com.gestionremodelacion.gestion.proyecto.repository.ProyectoRepository;
+import com.gestionremodelacion.gestion.search.FullTextSearch;
 import com.gestionremodelacion.gestion.security.service.AuthorizationService;
-import com.gestionremodelacion.gestion.service.user.UserService;
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent.Seccion;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardDataChangedEvent;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardRollupService;
 
 @Service
 public class ProyectoService {
 
     private final ProyectoRepository proyectoRepository;
     private final ProyectoMapper proyectoMapper;
-    private final UserService userService;
+    private final TenantContextService tenantContextService;
     private final ClienteRepository clienteRepository;
     private final EmpleadoRepository empleadoRepository;
     private final AuthorizationService authService;
+    private final DashboardRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final String PERMISO_CREATE_ALL = "PROYECTO_CREATE_ALL";
+    private final int permisoCreateAll;
 
     public ProyectoService(ProyectoRepository proyectoRepository, ProyectoMapper proyectoMapper,
-            UserService userService, ClienteRepository clienteRepository, EmpleadoRepository empleadoRepository,
-            AuthorizationService authService) {
+            TenantContextService tenantContextService, ClienteRepository clienteRepository,
+            EmpleadoRepository empleadoRepository,
+            AuthorizationService authService, DashboardRollupService rollupService,
+            ApplicationEventPublisher eventPublisher) {
         this.proyectoRepository = proyectoRepository;
         this.proyectoMapper = proyectoMapper;
-        this.userService = userService;
+        this.tenantContextService = tenantContextService;
         this.clienteRepository = clienteRepository;
         this.empleadoRepository = empleadoRepository;
         this.authService = authService;
+        this.permisoCreateAll = authService.permissionId(PERMISO_CREATE_ALL);
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public List<ProyectoDropdownResponse> findProyectosDropdown() {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         List<Proyecto> proyectos;
 
         // Si tiene permiso de crear todo (Admin/Manager), ve todos los proyectos de la
         // empresa
-        if (authService.hasPermission(currentUser, PERMISO_CREATE_ALL)) {
+        if (authService.hasPermission(tenant, permisoCreateAll)) {
             proyectos = proyectoRepository.findByEmpresaId(empresaId);
         } else {
-            Empleado empleado = currentUser.getEmpleado();
-            if (empleado != null) {
-                proyectos = proyectoRepository.findProyectosForEmpleado(empresaId, empleado.getId());
+            Long empleadoId = tenant.empleadoId();
+            if (empleadoId != null) {
+                proyectos = proyectoRepository.findProyectosForEmpleado(empresaId, empleadoId);
             } else {
                 proyectos = Collections.emptyList();
             }
@@ -82,8 +96,14 @@ public class ProyectoService {
 
     @Transactional(readOnly = true)
     public Page<ProyectoResponse> getAllProyectos(Pageable pageable, String filter) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
+
+        // Índice FULLTEXT si el término lo permite; LIKE para términos muy cortos
+        String termino = FullTextSearch.toBooleanQuery(filter);
+        if (termino != null) {
+            return proyectoRepository.findByFullTextWithDetails(empresaId, termino, pageable);
+        }
 
         String effectiveFilter = (filter != null && !filter.trim().isEmpty()) ? filter.trim().toLowerCase() : null;
 
@@ -92,8 +112,8 @@ public class ProyectoService {
 
     @Transactional(readOnly = true)
     public ProyectoResponse getProyectoById(Long id) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         return proyectoRepository.findByIdAndEmpresaId(id, empresaId)
                 .map(proyectoMapper::toProyectoResponse)
@@ -102,8 +122,8 @@ public class ProyectoService {
 
     @Transactional
     public ProyectoResponse createProyecto(ProyectoRequest proyectoRequest) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         Cliente cliente = clienteRepository.findByIdAndEmpresaId(proyectoRequest.getIdCliente(), empresaId)
                 .orElseThrow(() -> new BusinessRuleException(
@@ -120,7 +140,7 @@ public class ProyectoService {
         // incluyendo montoRecibido, costoMateriales, etc.
         Proyecto proyecto = proyectoMapper.toProyecto(proyectoRequest);
         // 2. Asigna las entidades relacionadas
-        proyecto.setEmpresa(currentUser.getEmpresa());
+        proyecto.setEmpresa(tenantContextService.empresaReference());
         proyecto.setCliente(cliente);
         proyecto.setEmpleadoResponsable(empleadoResponsable);
 
@@ -142,14 +162,17 @@ public class ProyectoService {
         proyecto.setCostoManoDeObra(BigDecimal.ZERO);
 
         Proyecto savedProyecto = proyectoRepository.save(proyecto);
+        rollupService.refreshProyecto(empresaId, savedProyecto.getId());
+        eventPublisher.publishEvent(new DashboardDataChangedEvent(empresaId, Seccion.PROYECTOS, savedProyecto.getId(),
+                savedProyecto.getFechaInicio()));
         return proyectoMapper.toProyectoResponse(savedProyecto);
     }
 
     @Transactional
     public ProyectoResponse updateProyecto(Long id, ProyectoRequest proyectoRequest) {
 
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         Proyecto proyecto = proyectoRepository.findByIdAndEmpresaId(id, empresaId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCatalog.PROJECT_NOT_FOUND.getKey()));
@@ -172,13 +195,16 @@ public class ProyectoService {
         asignarEquipoDeTrabajo(proyecto, proyectoRequest.getIdsEmpleadosAsignados(), empresaId);
 
         Proyecto updatedProyecto = proyectoRepository.save(proyecto);
+        rollupService.refreshProyecto(empresaId, updatedProyecto.getId());
+        eventPublisher.publishEvent(new DashboardDataChangedEvent(empresaId, Seccion.PROYECTOS,
+                updatedProyecto.getId(), updatedProyecto.getFechaInicio()));
         return proyectoMapper.toProyectoResponse(updatedProyecto);
     }
 
     @Transactional
     public void deleteProyecto(Long id) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         // 1. Verificar si el proyecto pertenece a la empresa actual
         if (!proyectoRepository.existsByIdAndEmpresaId(id, empresaId)) {
@@ -187,6 +213,8 @@ public class ProyectoService {
 
         // 7. Si no hay dependencias, proceder a eliminar
         proyectoRepository.deleteById(id);
+        rollupService.removeProyecto(empresaId, id);
+        eventPublisher.publishEvent(new DashboardDataChangedEvent(empresaId, Seccion.PROYECTOS, id, null));
     }
 
     private void asignarEquipoDeTrabajo(Proyecto proyecto, Set<Long> idsEmpleados, Long empresaId) {
@@ -213,11 +241,8 @@ public class ProyectoService {
 
     }
 
-    @Transactional
-    private List<Proyecto> findAllProyectosForExport(String filter, String sort) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
-
+    // El Stream debe consumirse dentro de la transacción que abre ExporterService
+    private Stream<Proyecto> streamProyectosForExport(Long empresaId, String filter, String sort) {
         Sort sortObj = Sort.by(Sort.Direction.ASC, "nombreProyecto");
         if (sort != null && !sort.isEmpty()) {
             String[] sortParts = sort.split(",");
@@ -229,25 +254,18 @@ public class ProyectoService {
             }
         }
 
-        return (filter != null && !filter.trim().isEmpty())
-                ? proyectoRepository.findByFilterForExport(empresaId, filter, sortObj)
-                : proyectoRepository.findAll(sortObj);
+        String effectiveFilter = (filter != null && !filter.trim().isEmpty()) ? filter.trim() : null;
+        return proyectoRepository.streamForExport(empresaId, effectiveFilter, sortObj);
     }
 
     @Transactional(readOnly = true)
-    public List<ProyectoPdfDTO> findProyectosForPdfExport(String filter, String sort) {
-        List<Proyecto> proyectos = findAllProyectosForExport(filter, sort);
-        return proyectos.stream()
-                .map(ProyectoPdfDTO::new)
-                .collect(Collectors.toList());
+    public Stream<ProyectoPdfDTO> streamProyectosForPdfExport(Long empresaId, String filter, String sort) {
+        return streamProyectosForExport(empresaId, filter, sort).map(ProyectoPdfDTO::new);
     }
 
     @Transactional(readOnly = true)
-    public List<ProyectoExcelDTO> findProyectosForExcelExport(String filter, String sort) {
-        List<Proyecto> proyectos = findAllProyectosForExport(filter, sort);
-        return proyectos.stream()
-                .map(ProyectoExcelDTO::new)
-                .collect(Collectors.toList());
+    public Stream<ProyectoExcelDTO> streamProyectosForExcelExport(Long empresaId, String filter, String sort) {
+        return streamProyectosForExport(empresaId, filter, sort).map(ProyectoExcelDTO::new);
     }
 
 }
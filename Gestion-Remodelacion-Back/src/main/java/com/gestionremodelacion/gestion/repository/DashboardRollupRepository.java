@@ -0,0 +1,198 @@
+package com.gestionremodelacion.gestion.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.gestionremodelacion.gestion.dto.response.dashboard.EmpleadoProyectoHoras;
+import com.gestionremodelacion.gestion.dto.response.dashboard.EstadoProyectoCount;
+import com.gestionremodelacion.gestion.dto.response.dashboard.ProyectoHoras;
+import com.gestionremodelacion.gestion.dto.response.dashboard.RolCount;
+import com.gestionremodelacion.gestion.dto.response.dashboard.TendenciaHorasMes;
+import com.gestionremodelacion.gestion.dto.response.dashboard.TendenciaProyectosMes;
+import com.gestionremodelacion.gestion.model.DashboardRollup;
+import com.gestionremodelacion.gestion.model.DashboardRollupId;
+import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoFinancialTotals;
+
+@Repository
+public interface DashboardRollupRepository extends JpaRepository<DashboardRollup, DashboardRollupId> {
+
+    /* ======================================================================= */
+    /* MANTENIMIENTO (DashboardRollupService) */
+    /* ======================================================================= */
+    // Las escrituras son nativas: se recalcula una llave concreta desde las tablas origen
+    // con DELETE + INSERT ... SELECT, así una llave sin datos simplemente desaparece.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM dashboard_rollup_mensual WHERE id_empresa = :empresaId AND anio = :anio "
+            + "AND mes = :mes AND id_proyecto = :proyectoId AND id_empleado = :empleadoId", nativeQuery = true)
+    int deleteHorasBucket(@Param("empresaId") Long empresaId, @Param("anio") int anio, @Param("mes") int mes,
+            @Param("proyectoId") Long proyectoId, @Param("empleadoId") Long empleadoId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO dashboard_rollup_mensual (id_empresa, anio, mes, id_proyecto, id_empleado, "
+            + "estado_proyecto, total_proyectos, monto_recibido, costo_materiales, otros_gastos, "
+            + "costo_mano_de_obra, horas, registros) "
+            + "SELECT h.id_empresa, YEAR(h.fecha), MONTH(h.fecha), h.id_proyecto, h.id_empleado, "
+            + "NULL, 0, 0, 0, 0, SUM(h.horas * COALESCE(h.costo_por_hora_actual, 0)), SUM(h.horas), COUNT(*) "
+            + "FROM horas_trabajadas h WHERE h.id_empresa = :empresaId AND h.id_proyecto = :proyectoId "
+            + "AND h.id_empleado = :empleadoId AND h.fecha >= :desde AND h.fecha < :hasta "
+            + "GROUP BY h.id_empresa, YEAR(h.fecha), MONTH(h.fecha), h.id_proyecto, h.id_empleado", nativeQuery = true)
+    int insertHorasBucket(@Param("empresaId") Long empresaId, @Param("proyectoId") Long proyectoId,
+            @Param("empleadoId") Long empleadoId, @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM dashboard_rollup_mensual WHERE id_empresa = :empresaId "
+            + "AND id_proyecto = :proyectoId AND id_empleado = 0", nativeQuery = true)
+    int deleteFilaProyecto(@Param("empresaId") Long empresaId, @Param("proyectoId") Long proyectoId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO dashboard_rollup_mensual (id_empresa, anio, mes, id_proyecto, id_empleado, "
+            + "estado_proyecto, total_proyectos, monto_recibido, costo_materiales, otros_gastos, "
+            + "costo_mano_de_obra, horas, registros) "
+            + "SELECT p.id_empresa, COALESCE(YEAR(p.fecha_inicio), 0), COALESCE(MONTH(p.fecha_inicio), 0), p.id, 0, "
+            + "p.estado, 1, COALESCE(p.monto_recibido, 0), COALESCE(p.costo_materiales_consolidado, 0), "
+            + "COALESCE(p.otros_gastos_directos_consolidado, 0), COALESCE(p.costo_mano_de_obra, 0), 0, 0 "
+            + "FROM proyectos p WHERE p.id_empresa = :empresaId AND p.id = :proyectoId", nativeQuery = true)
+    int insertFilaProyecto(@Param("empresaId") Long empresaId, @Param("proyectoId") Long proyectoId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM dashboard_rollup_mensual WHERE id_empresa = :empresaId "
+            + "AND id_proyecto = :proyectoId", nativeQuery = true)
+    int deleteByProyecto(@Param("empresaId") Long empresaId, @Param("proyectoId") Long proyectoId);
+
+    // --- Reconstrucción completa de una empresa ---
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM dashboard_rollup_mensual WHERE id_empresa = :empresaId", nativeQuery = true)
+    int deleteByEmpresa(@Param("empresaId") Long empresaId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO dashboard_rollup_mensual (id_empresa, anio, mes, id_proyecto, id_empleado, "
+            + "estado_proyecto, total_proyectos, monto_recibido, costo_materiales, otros_gastos, "
+            + "costo_mano_de_obra, horas, registros) "
+            + "SELECT h.id_empresa, YEAR(h.fecha), MONTH(h.fecha), h.id_proyecto, h.id_empleado, "
+            + "NULL, 0, 0, 0, 0, SUM(h.horas * COALESCE(h.costo_por_hora_actual, 0)), SUM(h.horas), COUNT(*) "
+            + "FROM horas_trabajadas h WHERE h.id_empresa = :empresaId "
+            + "GROUP BY h.id_empresa, YEAR(h.fecha), MONTH(h.fecha), h.id_proyecto, h.id_empleado", nativeQuery = true)
+    int insertHorasByEmpresa(@Param("empresaId") Long empresaId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO dashboard_rollup_mensual (id_empresa, anio, mes, id_proyecto, id_empleado, "
+            + "estado_proyecto, total_proyectos, monto_recibido, costo_materiales, otros_gastos, "
+            + "costo_mano_de_obra, horas, registros) "
+            + "SELECT p.id_empresa, COALESCE(YEAR(p.fecha_inicio), 0), COALESCE(MONTH(p.fecha_inicio), 0), p.id, 0, "
+            + "p.estado, 1, COALESCE(p.monto_recibido, 0), COALESCE(p.costo_materiales_consolidado, 0), "
+            + "COALESCE(p.otros_gastos_directos_consolidado, 0), COALESCE(p.costo_mano_de_obra, 0), 0, 0 "
+            + "FROM proyectos p WHERE p.id_empresa = :empresaId", nativeQuery = true)
+    int insertProyectosByEmpresa(@Param("empresaId") Long empresaId);
+
+    /* ======================================================================= */
+    /* LECTURAS PARA LOS SERVICIOS DE MÉTRICAS DEL DASHBOARD */
+    /* ======================================================================= */
+    @Query("SELECT DISTINCT r.anio FROM DashboardRollup r WHERE r.empresaId = :empresaId "
+            + "AND r.empleadoId = 0 AND r.anio > 0 ORDER BY r.anio DESC")
+    List<Integer> findDistinctYearsByEmpresaId(@Param("empresaId") Long empresaId);
+
+    // --- Filas de proyecto (empleadoId = 0): conteos, estados y montos ---
+    @Query("SELECT COALESCE(SUM(r.totalProyectos), 0) FROM DashboardRollup r WHERE r.empresaId = :empresaId "
+            + "AND r.empleadoId = 0 AND r.anio = :year AND (:month IS NULL OR r.mes = :month)")
+    Long countProyectos(@Param("empresaId") Long empresaId, @Param("year") int year,
+            @Param("month") Integer month);
+
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.EstadoProyectoCount(r.estadoProyecto, SUM(r.totalProyectos)) "
+            + "FROM DashboardRollup r WHERE r.empresaId = :empresaId "
+            + "AND r.empleadoId = 0 AND r.anio = :year AND (:month IS NULL OR r.mes = :month) "
+            + "GROUP BY r.estadoProyecto")
+    List<EstadoProyectoCount> countProyectosByEstado(@Param("empresaId") Long empresaId, @Param("year") int year,
+            @Param("month") Integer month);
+
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.EstadoProyectoCount(r.estadoProyecto, SUM(r.totalProyectos)) "
+            + "FROM DashboardRollup r WHERE r.empresaId = :empresaId "
+            + "AND r.empleadoId = 0 AND r.proyectoId = :projectId GROUP BY r.estadoProyecto")
+    List<EstadoProyectoCount> countProyectosByEstadoByProjectId(@Param("empresaId") Long empresaId,
+            @Param("projectId") Long projectId);
+
+    @Query("SELECT new com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoFinancialTotals("
+            + "SUM(r.montoRecibido), SUM(r.costoMateriales), SUM(r.otrosGastos), SUM(r.costoManoDeObra)) "
+            + "FROM DashboardRollup r WHERE r.empresaId = :empresaId AND r.empleadoId = 0 "
+            + "AND r.anio = :year AND (:month IS NULL OR r.mes = :month)")
+    ProyectoFinancialTotals sumFinancialTotals(@Param("empresaId") Long empresaId, @Param("year") int year,
+            @Param("month") Integer month);
+
+    @Query("SELECT new com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoFinancialTotals("
+            + "SUM(r.montoRecibido), SUM(r.costoMateriales), SUM(r.otrosGastos), SUM(r.costoManoDeObra)) "
+            + "FROM DashboardRollup r WHERE r.empresaId = :empresaId AND r.empleadoId = 0 "
+            + "AND r.proyectoId = :projectId")
+    ProyectoFinancialTotals sumFinancialTotalsByProjectId(@Param("empresaId") Long empresaId,
+            @Param("projectId") Long projectId);
+
+    // --- Tendencia mensual: un GROUP BY por tipo de fila ---
+    // El rango llega como claves anio*100+mes; el filtro por anio permite usar la PK
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.TendenciaProyectosMes(r.anio, r.mes, SUM(r.totalProyectos), "
+            + "SUM(r.montoRecibido), SUM(r.costoMateriales), SUM(r.otrosGastos)) "
+            + "FROM DashboardRollup r WHERE r.empresaId = :empresaId AND r.empleadoId = 0 "
+            + "AND r.anio BETWEEN :anioDesde AND :anioHasta AND (r.anio * 100 + r.mes) BETWEEN :desde AND :hasta "
+            + "GROUP BY r.anio, r.mes")
+    List<TendenciaProyectosMes> sumProyectosByMes(@Param("empresaId") Long empresaId,
+            @Param("anioDesde") int anioDesde, @Param("anioHasta") int anioHasta,
+            @Param("desde") int desde, @Param("hasta") int hasta);
+
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.TendenciaHorasMes(r.anio, r.mes, SUM(r.horas), SUM(r.costoManoDeObra)) "
+            + "FROM DashboardRollup r WHERE r.empresaId = :empresaId AND r.empleadoId <> 0 "
+            + "AND r.anio BETWEEN :anioDesde AND :anioHasta AND (r.anio * 100 + r.mes) BETWEEN :desde AND :hasta "
+            + "GROUP BY r.anio, r.mes")
+    List<TendenciaHorasMes> sumHorasByMes(@Param("empresaId") Long empresaId,
+            @Param("anioDesde") int anioDesde, @Param("anioHasta") int anioHasta,
+            @Param("desde") int desde, @Param("hasta") int hasta);
+
+    // --- Filas de horas (empleadoId > 0) ---
+    // Empleados por rol: se cuenta por el mes en que se trabajaron las horas
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.RolCount(e.rolCargo, COUNT(DISTINCT e.id)) "
+            + "FROM DashboardRollup r JOIN Empleado e ON e.id = r.empleadoId "
+            + "WHERE r.empresaId = :empresaId AND r.empleadoId <> 0 AND r.anio = :year "
+            + "AND (:month IS NULL OR r.mes = :month) GROUP BY e.rolCargo")
+    List<RolCount> countEmpleadosByRol(@Param("empresaId") Long empresaId, @Param("year") int year,
+            @Param("month") Integer month);
+
+    // Horas por proyecto: se filtra por la fecha de inicio del proyecto (igual que antes)
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.ProyectoHoras(p.id, p.nombreProyecto, SUM(r.horas)) "
+            + "FROM DashboardRollup r JOIN Proyecto p ON p.id = r.proyectoId "
+            + "WHERE r.empresaId = :empresaId AND r.empleadoId <> 0 "
+            + "AND p.fechaInicio >= :desde AND p.fechaInicio < :hasta GROUP BY p.id, p.nombreProyecto")
+    List<ProyectoHoras> sumHorasByProyecto(@Param("empresaId") Long empresaId, @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta);
+
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.EmpleadoProyectoHoras("
+            + "e.id, e.nombreCompleto, p.id, p.nombreProyecto, SUM(r.horas), SUM(r.costoManoDeObra)) "
+            + "FROM DashboardRollup r JOIN Empleado e ON e.id = r.empleadoId JOIN Proyecto p ON p.id = r.proyectoId "
+            + "WHERE r.empresaId = :empresaId AND r.empleadoId <> 0 "
+            + "AND p.fechaInicio >= :desde AND p.fechaInicio < :hasta "
+            + "GROUP BY e.id, e.nombreCompleto, p.id, p.nombreProyecto")
+    List<EmpleadoProyectoHoras> sumHorasByEmpleadoAndProyecto(@Param("empresaId") Long empresaId,
+            @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.RolCount(e.rolCargo, COUNT(DISTINCT e.id)) "
+            + "FROM DashboardRollup r JOIN Empleado e ON e.id = r.empleadoId "
+            + "WHERE r.empresaId = :empresaId AND r.empleadoId <> 0 AND r.proyectoId = :projectId GROUP BY e.rolCargo")
+    List<RolCount> countEmpleadosByRolByProjectId(@Param("empresaId") Long empresaId,
+            @Param("projectId") Long projectId);
+
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.ProyectoHoras(p.id, p.nombreProyecto, SUM(r.horas)) "
+            + "FROM DashboardRollup r JOIN Proyecto p ON p.id = r.proyectoId "
+            + "WHERE r.empresaId = :empresaId AND r.empleadoId <> 0 AND r.proyectoId = :projectId "
+            + "GROUP BY p.id, p.nombreProyecto")
+    List<ProyectoHoras> sumHorasByProyectoByProjectId(@Param("empresaId") Long empresaId,
+            @Param("projectId") Long projectId);
+
+    @Query("SELECT new com.gestionremodelacion.gestion.dto.response.dashboard.EmpleadoProyectoHoras("
+            + "e.id, e.nombreCompleto, p.id, p.nombreProyecto, SUM(r.horas), SUM(r.costoManoDeObra)) "
+            + "FROM DashboardRollup r JOIN Empleado e ON e.id = r.empleadoId JOIN Proyecto p ON p.id = r.proyectoId "
+            + "WHERE r.empresaId = :empresaId AND r.empleadoId <> 0 AND r.proyectoId = :projectId "
+            + "GROUP BY e.id, e.nombreCompleto, p.id, p.nombreProyecto")
+    List<EmpleadoProyectoHoras> sumHorasByEmpleadoAndProyectoByProjectId(@Param("empresaId") Long empresaId,
+            @Param("projectId") Long projectId);
+}
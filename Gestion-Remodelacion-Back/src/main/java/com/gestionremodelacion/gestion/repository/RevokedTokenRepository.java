@@ -0,0 +1,41 @@
+package com.gestionremodelacion.gestion.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.gestionremodelacion.gestion.model.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // Revocar dos veces el mismo token no es un error: se conserva la fila existente
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO revoked_tokens (token_digest, expires_at, revoked_at) "
+            + "VALUES (:digest, :expiresAt, :revokedAt) "
+            + "ON DUPLICATE KEY UPDATE expires_at = GREATEST(expires_at, VALUES(expires_at))", nativeQuery = true)
+    int revoke(@Param("digest") byte[] digest, @Param("expiresAt") Instant expiresAt,
+            @Param("revokedAt") Instant revokedAt);
+
+    boolean existsByTokenDigestAndExpiresAtAfter(byte[] tokenDigest, Instant now);
+
+    // Revocaciones nuevas que siguen vigentes (ver TokenBlacklistService.refresh)
+    List<RevokedToken> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant desde, Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :limite")
+    int deleteExpired(@Param("limite") Instant limite);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.tokenDigest = :digest")
+    int deleteByDigest(@Param("digest") byte[] digest);
+}
@@ -6,12 +6,15 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestionremodelacion.gestion.model.Role;
 import com.gestionremodelacion.gestion.model.User;
+import com.gestionremodelacion.gestion.security.service.UserSecurityState;
+import com.gestionremodelacion.gestion.security.service.UserTenantView;
 
 /**
  * Repositorio para la entidad User que proporciona operaciones CRUD y consultas
@@ -52,6 +55,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
                         "(:filter IS NULL OR LOWER(u.username) LIKE LOWER(CONCAT('%', :filter, '%')))")
         Page<User> findAllWithFilter(@Param("filter") String filter, Pageable pageable);
 
+        // Variantes con el índice FULLTEXT ft_users_username; :termino viene de FullTextSearch
+        @Query("SELECT u FROM User u " +
+                        "WHERE u.empresa.id = :empresaId " +
+                        "AND NOT EXISTS (SELECT r2 FROM u.roles r2 WHERE r2.name = 'ROLE_SUPER_ADMIN') " +
+                        "AND function('fts_match1', u.username, :termino) > 0")
+        Page<User> findByEmpresaIdAndFullTextExcludingSuperAdmin(
+                        @Param("empresaId") Long empresaId,
+                        @Param("termino") String termino,
+                        Pageable pageable);
+
+        @Query("SELECT u FROM User u WHERE function('fts_match1', u.username, :termino) > 0")
+        Page<User> findAllWithFullText(@Param("termino") String termino, Pageable pageable);
+
         boolean existsByIdAndEmpresaId(Long id, Long empresaId);
 
         boolean existsByEmpresaId(Long empresaId);
@@ -60,4 +76,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
         List<User> findByRolesContaining(Role role);
 
+        // Estado mínimo para validar un JWT sin cargar roles ni permisos (ver UserSecurityStateService)
+        @Query("SELECT new com.gestionremodelacion.gestion.security.service.UserSecurityState(" +
+                        "u.id, u.enabled, u.securityVersion) FROM User u WHERE u.username = :username")
+        Optional<UserSecurityState> findSecurityStateByUsername(@Param("username") String username);
+
+        // Una sola consulta por petición para el TenantContext (ver TenantContextService)
+        @Query("SELECT new com.gestionremodelacion.gestion.security.service.UserTenantView(" +
+                        "u.id, u.username, e.id, e.plan, e.estadoSuscripcion, emp.id) " +
+                        "FROM User u LEFT JOIN u.empresa e LEFT JOIN u.empleados emp WHERE u.username = :username")
+        Optional<UserTenantView> findTenantViewByUsername(@Param("username") String username);
+
+        // flushAutomatically: los cambios pendientes se escriben antes del UPDATE masivo
+        @Modifying(flushAutomatically = true)
+        @Query("UPDATE User u SET u.securityVersion = u.securityVersion + 1 WHERE :role MEMBER OF u.roles")
+        int incrementSecurityVersionByRole(@Param("role") Role role);
+
 }
@@ -0,0 +1,31 @@
+package com.gestionremodelacion.gestion.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra en Hibernate las funciones de búsqueda FULLTEXT de MySQL para poder
+ * usarlas desde JPQL, ej. {@code function('fts_match2', h.nombreEmpleado,
+ * h.nombreProyecto, :termino) > 0}.
+ *
+ * MySQL exige que las columnas del MATCH sean exactamente las de un índice
+ * FULLTEXT (ver V14__Add_fulltext_search_indexes.sql). Se registra por
+ * META-INF/services.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Double> relevancia = functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.DOUBLE);
+
+        functionContributions.getFunctionRegistry().registerPattern("fts_match1",
+                "match(?1) against(?2 in boolean mode)", relevancia);
+        functionContributions.getFunctionRegistry().registerPattern("fts_match2",
+                "match(?1, ?2) against(?3 in boolean mode)", relevancia);
+        functionContributions.getFunctionRegistry().registerPattern("fts_match3",
+                "match(?1, ?2, ?3) against(?4 in boolean mode)", relevancia);
+    }
+}
@@ -0,0 +1,70 @@
+package com.gestionremodelacion.gestion.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Traduce el texto del buscador a una consulta FULLTEXT en modo booleano.
+ *
+ * Los índices usan el parser ngram (tokens de 2 caracteres, el valor por
+ * defecto de ngram_token_size), por lo que cada palabra se busca como frase:
+ * "pere" se convierte en la secuencia de n-gramas "pe","er","re" y coincide
+ * dentro de "Pérez" igual que el LIKE '%pere%' anterior. Una palabra de un solo
+ * carácter no genera n-gramas; en ese caso se usa el LIKE de siempre.
+ */
+public final class FullTextSearch {
+
+    // Debe coincidir con ngram_token_size del servidor MySQL
+    public static final int NGRAM_TOKEN_SIZE = 2;
+
+    // Dentro de una frase entre comillas el único carácter especial es la comilla;
+    // el resto (guiones de teléfonos, @ de correos) es parte del texto buscado
+    private static final char COMILLA = '"';
+
+    private FullTextSearch() {
+    }
+
+    /**
+     * Devuelve el término para AGAINST(... IN BOOLEAN MODE), o null si el filtro
+     * está vacío o tiene palabras demasiado cortas y debe usarse el LIKE.
+     */
+    public static String toBooleanQuery(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return null;
+        }
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : filter.trim().split("\\s+")) {
+            String limpia = limpiar(palabra);
+            if (limpia.isEmpty()) {
+                continue;
+            }
+            if (limpia.length() < NGRAM_TOKEN_SIZE) {
+                return null;
+            }
+            palabras.add(limpia);
+        }
+        if (palabras.isEmpty()) {
+            return null;
+        }
+        // Todas las palabras deben aparecer (+), cada una como frase de n-gramas
+        StringBuilder consulta = new StringBuilder();
+        for (String palabra : palabras) {
+            if (consulta.length() > 0) {
+                consulta.append(' ');
+            }
+            consulta.append("+\"").append(palabra).append('"');
+        }
+        return consulta.toString();
+    }
+
+    private static String limpiar(String palabra) {
+        StringBuilder limpia = new StringBuilder(palabra.length());
+        for (int i = 0; i < palabra.length(); i++) {
+            char c = palabra.charAt(i);
+            if (c != COMILLA) {
+                limpia.append(c);
+            }
+        }
+        return limpia.toString();
+    }
+}
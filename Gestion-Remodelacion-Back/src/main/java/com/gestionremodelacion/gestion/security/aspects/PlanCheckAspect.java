@@ -9,12 +9,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
 
-import com.gestionremodelacion.gestion.empresa.model.Empresa;
-import com.gestionremodelacion.gestion.empresa.model.Empresa.EstadoSuscripcion;
 import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
-import com.gestionremodelacion.gestion.model.User;
 import com.gestionremodelacion.gestion.security.annotations.RequiresPlan;
-import com.gestionremodelacion.gestion.service.user.UserService;
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
 
 /**
  * Un Aspecto que intercepta las llamadas a los métodos anotados
@@ -27,7 +25,7 @@ import com.gestionremodelacion.gestion.service.user.UserService;
 public class PlanCheckAspect {
 
     @Autowired
-    private UserService userService; // Inyectamos un servicio para obtener los datos del usuario logueado.
+    private TenantContextService tenantContextService; // Datos del usuario logueado, resueltos una vez por petición.
 
     /**
      * Este es el "Advice" (consejo). Se ejecutará ANTES (@Before) de cualquier
@@ -45,17 +43,14 @@ public class PlanCheckAspect {
     public void checkPlan(JoinPoint joinPoint, RequiresPlan requiresPlan) {
 
         // Paso 1: Obtener la información de la empresa del usuario que hace la
-        // petición.
-        // Asumimos que tienes un método en tu UserService que devuelve el usuario
-        // autenticado
-        // desde el SecurityContext de Spring.
-        User currentUser = userService.getCurrentUser();
-        Empresa empresa = currentUser.getEmpresa();
+        // petición. El TenantContext ya trae el plan y el estado de la suscripción,
+        // así que no se carga el usuario ni su empresa.
+        TenantContext tenant = tenantContextService.current();
 
         // Paso 2: Realizar la primera validación crítica: ¿La suscripción está activa?
         // Si el estado no es ACTIVA (podría ser VENCIDA o CANCELADA), se niega el
         // acceso inmediatamente.
-        if (empresa.getEstadoSuscripcion() != EstadoSuscripcion.ACTIVA) {
+        if (!tenant.isSuscripcionActiva()) {
             throw new AccessDeniedException("Tu suscripción no está activa. Por favor, verifica tu método de pago.");
         }
 
@@ -65,7 +60,7 @@ public class PlanCheckAspect {
         PlanSuscripcion[] planesPermitidos = requiresPlan.value();
 
         // Paso 4: Obtener el plan actual de la empresa.
-        PlanSuscripcion planActual = empresa.getPlan();
+        PlanSuscripcion planActual = tenant.plan();
 
         // Paso 5: Verificar si el plan actual del usuario está en la lista de planes
         // permitidos.
@@ -1,6 +1,8 @@
 package com.gestionremodelacion.gestion.security.jwt;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,9 +16,13 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.gestionremodelacion.gestion.config.JwtProperties;
 import com.gestionremodelacion.gestion.security.exception.TokenRefreshException;
+import com.gestionremodelacion.gestion.security.service.UserSecurityStateService;
 import com.gestionremodelacion.gestion.service.auth.TokenBlacklistService;
+import com.google.common.hash.HashCode;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,22 +31,38 @@ import jakarta.servlet.http.HttpServletResponse;
 /**
  * Filtro JWT mejorado con: - Manejo de errores robusto - Validación de token
  * revocado - Logging detallado
+ *
+ * Con jwt.stateless-principal=true el usuario autenticado se arma con los
+ * claims del token (JwtUserPrincipal) y de la BD solo se consulta, con caché,
+ * si el usuario sigue activo y si su versión de seguridad coincide con la del
+ * token. Con false se carga el usuario completo en cada petición.
+ *
+ * El token se verifica una sola vez por petición; los claims quedan en el
+ * atributo {@link #VERIFIED_CLAIMS_ATTRIBUTE} para quien los necesite después.
  */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    public static final String VERIFIED_CLAIMS_ATTRIBUTE = JwtAuthFilter.class.getName() + ".CLAIMS";
+
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final UserSecurityStateService userSecurityStateService;
+    private final JwtProperties jwtProperties;
     // agregar un logger
     private final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
     public JwtAuthFilter(JwtUtils jwtUtils,
             UserDetailsService userDetailsService,
-            TokenBlacklistService tokenBlacklistService) {
+            TokenBlacklistService tokenBlacklistService,
+            UserSecurityStateService userSecurityStateService,
+            JwtProperties jwtProperties) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.userSecurityStateService = userSecurityStateService;
+        this.jwtProperties = jwtProperties;
     }
 
     @Override
@@ -51,25 +73,27 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         try {
             String jwt = parseJwt(request);
-            // 1. Validar token de acceso
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                logger.info("Procesando JWT: " + jwt.substring(0, 10) + "...");
+            // 1. Validar token de acceso (una sola verificación de firma por petición)
+            // El SHA-256 del token se calcula una vez: sirve para la caché de claims y para la blacklist
+            HashCode digest = jwt != null ? JwtUtils.digest(jwt) : null;
+            Optional<Claims> verified = jwt != null ? jwtUtils.safeExtractAllClaims(jwt, digest) : Optional.empty();
+            if (verified.isPresent()) {
+                Claims claims = verified.get();
+                logger.debug("Procesando JWT de {}", claims.getSubject());
                 // Verificar si el access token está en la blacklist
-                if (tokenBlacklistService.isBlacklisted(jwt)) {
-                    logger.warn("Error: Token en blacklist" + jwt);
+                Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+                if (tokenBlacklistService.isBlacklisted(digest, expiresAt)) {
+                    logger.warn("Error: Token en blacklist para {}", claims.getSubject());
                     throw new TokenRefreshException(jwt, "Token de acceso revocado");
                 }
 
-                // 2. Valida usuario y carga detalles
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // 2. Valida usuario y arma la autenticación
+                UsernamePasswordAuthenticationToken authentication = jwtProperties.isStatelessPrincipal()
+                        ? authenticationFromClaims(claims, jwt)
+                        : authenticationFromDatabase(claims);
+                request.setAttribute(VERIFIED_CLAIMS_ATTRIBUTE, claims);
 
                 // 3. Establecer autenticación
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
@@ -81,6 +105,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     }
 
+    /**
+     * Usuario armado con los claims. El token se rechaza si el usuario ya no
+     * existe, está desactivado o cambiaron sus roles o permisos desde que se
+     * emitió (versión de seguridad distinta).
+     */
+    private UsernamePasswordAuthenticationToken authenticationFromClaims(Claims claims, String jwt) {
+        JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(claims);
+        if (!userSecurityStateService.isCurrent(principal.getUsername(), principal.getSecurityVersion())) {
+            throw new TokenRefreshException(jwt, "Token emitido antes de un cambio en el usuario");
+        }
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private UsernamePasswordAuthenticationToken authenticationFromDatabase(Claims claims) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         return (headerAuth != null && headerAuth.startsWith("Bearer "))
@@ -0,0 +1,138 @@
+package com.gestionremodelacion.gestion.security.jwt;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Usuario autenticado armado solo con los claims de un JWT ya verificado, sin
+ * consultar la BD. Lo usa JwtAuthFilter cuando jwt.stateless-principal=true;
+ * getName() devuelve el username, así que authentication.getName() sigue
+ * funcionando igual que con UserDetailsImpl.
+ *
+ * Las autoridades son las mismas que arma UserDetailsImpl: roles (con prefijo
+ * "ROLE_") más permisos.
+ */
+public final class JwtUserPrincipal implements Principal {
+
+    private final Long id;
+    private final String username;
+    private final Long empresaId;
+    private final String plan;
+    private final String nombreEmpresa;
+    private final long securityVersion;
+    private final List<String> roles;
+    private final List<String> permissions;
+    private final List<GrantedAuthority> authorities;
+
+    private JwtUserPrincipal(Long id, String username, Long empresaId, String plan, String nombreEmpresa,
+            long securityVersion, List<String> roles, List<String> permissions) {
+        this.id = id;
+        this.username = username;
+        this.empresaId = empresaId;
+        this.plan = plan;
+        this.nombreEmpresa = nombreEmpresa;
+        this.securityVersion = securityVersion;
+        this.roles = roles;
+        this.permissions = permissions;
+
+        List<GrantedAuthority> todas = new ArrayList<>(roles.size() + permissions.size());
+        roles.forEach(role -> todas.add(new SimpleGrantedAuthority(role)));
+        permissions.forEach(permission -> todas.add(new SimpleGrantedAuthority(permission)));
+        this.authorities = Collections.unmodifiableList(todas);
+    }
+
+    public static JwtUserPrincipal fromClaims(Claims claims) {
+        return new JwtUserPrincipal(
+                longClaim(claims, JwtUtils.CLAIM_USER_ID),
+                claims.getSubject(),
+                longClaim(claims, JwtUtils.CLAIM_EMPRESA_ID),
+                claims.get(JwtUtils.CLAIM_PLAN, String.class),
+                claims.get(JwtUtils.CLAIM_NOMBRE_EMPRESA, String.class),
+                securityVersion(claims),
+                stringList(claims, JwtUtils.CLAIM_ROLES),
+                stringList(claims, JwtUtils.CLAIM_AUTHORITIES));
+    }
+
+    /**
+     * Versión de seguridad con la que se emitió el token. Los tokens anteriores
+     * a este claim cuentan como versión 0.
+     */
+    public static long securityVersion(Claims claims) {
+        Long version = longClaim(claims, JwtUtils.CLAIM_SECURITY_VERSION);
+        return version != null ? version : 0L;
+    }
+
+    // Jackson deserializa los números pequeños como Integer y los grandes como Long
+    private static Long longClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static List<String> stringList(Claims claims, String name) {
+        Object value = claims.get(name);
+        if (!(value instanceof Collection<?> values)) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(values.size());
+        for (Object item : values) {
+            if (item != null) {
+                result.add(item.toString());
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public String getNombreEmpresa() {
+        return nombreEmpresa;
+    }
+
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public List<String> getPermissions() {
+        return permissions;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
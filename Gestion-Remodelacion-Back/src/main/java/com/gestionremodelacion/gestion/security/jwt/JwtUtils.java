@@ -1,9 +1,11 @@
 package com.gestionremodelacion.gestion.security.jwt;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -17,9 +19,14 @@ import org.springframework.util.StringUtils;
 import com.gestionremodelacion.gestion.config.JwtProperties;
 import com.gestionremodelacion.gestion.empresa.model.Empresa;
 import com.gestionremodelacion.gestion.service.impl.UserDetailsImpl;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -31,17 +38,41 @@ import jakarta.annotation.PostConstruct;
  * Utilidades JWT mejoradas con: - Métodos para claims personalizados -
  * Validación de token robusta - Manejo de expiración - Generación de tokens con
  * metadata
+ *
+ * La llave y el parser se crean una sola vez en {@link #init()}, después de
+ * validar la clave secreta. Los claims de los tokens ya verificados se guardan
+ * en una caché acotada, indexada por el SHA-256 del token ({@link #digest}):
+ * un mismo token usado en varias peticiones solo se verifica (firma HMAC y
+ * JSON) la primera vez. Una entrada deja de usarse al llegar el "exp" del
+ * token. Quien ya calculó el digest (JwtAuthFilter) lo reutiliza para la
+ * caché y para la blacklist.
  */
 @Component
 public class JwtUtils {
 
+    // Claims propios del token; JwtUserPrincipal los lee para armar el usuario autenticado
+    public static final String CLAIM_AUTHORITIES = "authorities";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_SECURITY_VERSION = "ver";
+    public static final String CLAIM_EMPRESA_ID = "empresaId";
+    public static final String CLAIM_PLAN = "plan";
+    public static final String CLAIM_NOMBRE_EMPRESA = "nombreEmpresa";
+
     private final JwtProperties jwtProperties;
     private Key key;
+    private JwtParser parser;
+    // Claims de tokens con firma válida; no se deben modificar, se comparten entre peticiones
+    private final Cache<HashCode, Claims> verificados;
     private final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
     public JwtUtils(JwtProperties jwtProperties) {
         this.jwtProperties = jwtProperties;
-        this.key = Keys.hmacShaKeyFor(jwtProperties.getSecretKey().getBytes());
+        // Ningún token vive más que expirationMs; el "exp" de cada uno se revisa al leerlo
+        this.verificados = CacheBuilder.newBuilder()
+                .maximumSize(jwtProperties.getVerifiedCacheMaxEntries())
+                .expireAfterWrite(Math.max(1, jwtProperties.getExpirationMs()), TimeUnit.MILLISECONDS)
+                .build();
     }
 
     @PostConstruct
@@ -53,6 +84,7 @@ public class JwtUtils {
                     "Verifica la propiedad 'jwt.secret' y la conexión con Secret Manager.");
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateJwtToken(Authentication authentication) {
@@ -76,6 +108,8 @@ public class JwtUtils {
 
         return buildToken(
                 userPrincipal.getUsername(),
+                userPrincipal.getId(),
+                userPrincipal.getSecurityVersion(),
                 permissions,
                 roles,
                 empresaId,
@@ -83,34 +117,36 @@ public class JwtUtils {
                 nombreEmpresa);
     }
 
-    public String generateTokenFromUsername(String username, List<String> permissions, List<String> roles,
-            Empresa empresa) {
+    public String generateTokenFromUsername(String username, Long userId, long securityVersion,
+            List<String> permissions, List<String> roles, Empresa empresa) {
         // Hacemos la misma verificación aquí
         Long empresaId = (empresa != null) ? empresa.getId() : null;
         String plan = (empresa != null) ? empresa.getPlan().toString() : null;
         String nombreEmpresa = (empresa != null) ? empresa.getNombreEmpresa() : null;
-        return buildToken(username, permissions, roles, empresaId, plan, nombreEmpresa);
+        return buildToken(username, userId, securityVersion, permissions, roles, empresaId, plan, nombreEmpresa);
     }
 
-    private String buildToken(String subject, List<String> permissions, List<String> roles, Long empresaId,
-            String plan, String nombreEmpresa) {
+    private String buildToken(String subject, Long userId, long securityVersion, List<String> permissions,
+            List<String> roles, Long empresaId, String plan, String nombreEmpresa) {
         var builder = Jwts.builder()
                 .setSubject(subject)
                 .setIssuer(jwtProperties.getIssuer())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpirationMs()))
-                .claim("authorities", permissions)
-                .claim("roles", roles);
+                .claim(CLAIM_AUTHORITIES, permissions)
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_SECURITY_VERSION, securityVersion);
 
         // Añadimos los claims de la empresa solo si no son nulos
         if (empresaId != null) {
-            builder.claim("empresaId", empresaId);
+            builder.claim(CLAIM_EMPRESA_ID, empresaId);
         }
         if (plan != null) {
-            builder.claim("plan", plan);
+            builder.claim(CLAIM_PLAN, plan);
         }
         if (nombreEmpresa != null) {
-            builder.claim("nombreEmpresa", nombreEmpresa);
+            builder.claim(CLAIM_NOMBRE_EMPRESA, nombreEmpresa);
         }
 
         return builder.signWith(key).compact();
@@ -127,7 +163,7 @@ public class JwtUtils {
 
     public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
+            extractAllClaims(authToken);
             return true;
         } catch (ExpiredJwtException | MalformedJwtException | UnsupportedJwtException | SignatureException
                 | IllegalArgumentException e) {
@@ -135,12 +171,37 @@ public class JwtUtils {
         }
     }
 
+    /**
+     * Claims del token verificado. Lanza las mismas excepciones que el parser
+     * de jjwt si el token no es válido o ya venció.
+     */
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        if (!StringUtils.hasText(token)) {
+            throw new IllegalArgumentException("El token JWT no puede estar vacío");
+        }
+        return extractAllClaims(token, digest(token));
+    }
+
+    /**
+     * Igual que {@link #extractAllClaims(String)}, con el digest del token ya
+     * calculado por quien llama.
+     */
+    public Claims extractAllClaims(String token, HashCode digest) {
+        if (!StringUtils.hasText(token)) {
+            throw new IllegalArgumentException("El token JWT no puede estar vacío");
+        }
+        Claims cached = verificados.getIfPresent(digest);
+        if (cached != null) {
+            Date expiration = cached.getExpiration();
+            if (expiration == null || expiration.getTime() > System.currentTimeMillis()) {
+                return cached;
+            }
+            // Venció: se descarta y el parser lanza ExpiredJwtException como antes
+            verificados.invalidate(digest);
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        verificados.put(digest, claims);
+        return claims;
     }
 
     // Método para obtener la fecha de expiración de un token caducado
@@ -182,4 +243,19 @@ public class JwtUtils {
         }
     }
 
+    public Optional<Claims> safeExtractAllClaims(String token, HashCode digest) {
+        try {
+            return Optional.of(extractAllClaims(token, digest));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * SHA-256 del token: llave de la caché de claims y de la blacklist.
+     */
+    public static HashCode digest(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+    }
+
 }
@@ -2,42 +2,63 @@ package com.gestionremodelacion.gestion.security.service;
 
 import org.springframework.stereotype.Service;
 
-import com.gestionremodelacion.gestion.empleado.model.Empleado;
-import com.gestionremodelacion.gestion.model.User;
 import com.gestionremodelacion.gestion.proyecto.model.Proyecto;
 
+/**
+ * Validaciones de permisos sobre el {@link TenantContext} de la petición: no
+ * recorre los roles ni los permisos de la entidad User, así que no dispara
+ * cargas perezosas.
+ *
+ * Los servicios que revisan un permiso en cada llamada resuelven su id una
+ * vez con {@link #permissionId(String)}; la validación queda en un bit.
+ */
 @Service
 public class AuthorizationService {
 
-    private static final String ROLE_SUPER_ADMIN = "ROLE_SUPER_ADMIN";
-    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+    private final PermissionIndex permissionIndex;
+    private final int permisoProyectoReadAll;
+    private final int permisoEmpleadoReadAll;
+
+    public AuthorizationService(PermissionIndex permissionIndex) {
+        this.permissionIndex = permissionIndex;
+        this.permisoProyectoReadAll = permissionIndex.idOf("PROYECTO_READ_ALL");
+        this.permisoEmpleadoReadAll = permissionIndex.idOf("EMPLEADO_READ_ALL");
+    }
+
+    /**
+     * Id del permiso para usar con {@link #hasPermission(TenantContext, int)}.
+     */
+    public int permissionId(String permissionName) {
+        return permissionIndex.idOf(permissionName);
+    }
 
     /**
      * Verifica si el usuario tiene un permiso específico (GENÉRICO). Incluye la
      * lógica de "Super Admin lo puede todo".
      */
-    public boolean hasPermission(User user, String permissionName) {
-        if (user == null || user.getRoles() == null) {
+    public boolean hasPermission(TenantContext context, String permissionName) {
+        return hasPermission(context, permissionIndex.idOf(permissionName));
+    }
+
+    public boolean hasPermission(TenantContext context, int permissionId) {
+        if (context == null) {
             return false;
         }
 
         // 1. Bypass para Super Admin
-        if (isSuperAdmin(user)) {
+        if (context.isSuperAdmin()) {
             return true;
         }
 
         // 2. Verificación estándar de permisos
-        return user.getRoles().stream()
-                .flatMap(role -> role.getPermissions().stream())
-                .anyMatch(permission -> permission.getName().equals(permissionName));
+        return context.hasPermission(permissionId);
     }
 
     /**
      * Verifica si es Super Admin (Reutilizable).
      */
-    public boolean isSuperAdmin(User user) {
-        return user.getRoles().stream()
-                .anyMatch(role -> ROLE_SUPER_ADMIN.equals(role.getName()) || "SUPER_ADMIN".equals(role.getName()));
+    public boolean isSuperAdmin(TenantContext context) {
+        return context.isSuperAdmin();
     }
 
     // ==========================================
@@ -47,21 +68,21 @@ public class AuthorizationService {
      * Valida si un usuario tiene acceso a un PROYECTO específico. Regla: Es
      * Admin O es el Responsable O es parte del Equipo.
      */
-    public boolean canAccessProyecto(User user, Proyecto proyecto) {
-        if (hasPermission(user, "PROYECTO_READ_ALL") || isSuperAdmin(user)) {
+    public boolean canAccessProyecto(TenantContext context, Proyecto proyecto) {
+        if (hasPermission(context, permisoProyectoReadAll)) {
             return true;
         }
 
-        Empleado empleado = user.getEmpleado();
-        if (empleado == null) {
+        Long empleadoId = context.empleadoId();
+        if (empleadoId == null) {
             return false;
         }
 
         boolean esResponsable = proyecto.getEmpleadoResponsable() != null
-                && proyecto.getEmpleadoResponsable().getId().equals(empleado.getId());
+                && proyecto.getEmpleadoResponsable().getId().equals(empleadoId);
 
         boolean esEquipo = proyecto.getEquipoAsignado().stream()
-                .anyMatch(e -> e.getId().equals(empleado.getId()));
+                .anyMatch(e -> e.getId().equals(empleadoId));
 
         return esResponsable || esEquipo;
     }
@@ -70,11 +91,11 @@ public class AuthorizationService {
      * Valida si un usuario puede ver/editar un EMPLEADO específico. Regla: Es
      * Admin O es el mismo empleado.
      */
-    public boolean canAccessEmpleado(User user, Long targetEmpleadoId) {
-        if (hasPermission(user, "EMPLEADO_READ_ALL") || isSuperAdmin(user)) {
+    public boolean canAccessEmpleado(TenantContext context, Long targetEmpleadoId) {
+        if (hasPermission(context, permisoEmpleadoReadAll)) {
             return true;
         }
-        return user.getEmpleado() != null && user.getEmpleado().getId().equals(targetEmpleadoId);
+        return context.empleadoId() != null && context.empleadoId().equals(targetEmpleadoId);
     }
 
 }
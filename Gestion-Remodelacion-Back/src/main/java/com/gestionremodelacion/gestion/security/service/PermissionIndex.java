@@ -0,0 +1,43 @@
+package com.gestionremodelacion.gestion.security.service;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Asigna a cada permiso (por nombre) un id entero denso para guardar los
+ * permisos de un usuario como bits en lugar de un conjunto de textos.
+ *
+ * Los servicios resuelven los ids de sus permisos al crearse (ver
+ * {@link AuthorizationService#permissionId(String)}); un permiso nuevo recibe
+ * id la primera vez que aparece. Los ids nunca se reasignan, así que crear,
+ * editar o borrar roles y permisos no invalida ninguna máscara ya armada.
+ */
+@Component
+public class PermissionIndex {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger siguiente = new AtomicInteger();
+
+    public int idOf(String permissionName) {
+        return ids.computeIfAbsent(permissionName, name -> siguiente.getAndIncrement());
+    }
+
+    /**
+     * Máscara con los permisos de la colección. Los roles (prefijo "ROLE_")
+     * no son permisos y se ignoran.
+     */
+    public PermissionMask maskOf(Collection<String> authorities) {
+        BitSet bits = new BitSet(siguiente.get());
+        for (String authority : authorities) {
+            if (!authority.startsWith("ROLE_")) {
+                bits.set(idOf(authority));
+            }
+        }
+        return PermissionMask.of(bits);
+    }
+}
@@ -0,0 +1,25 @@
+package com.gestionremodelacion.gestion.security.service;
+
+import java.util.BitSet;
+
+/**
+ * Permisos de un usuario como bits, indexados por {@link PermissionIndex}.
+ * Inmutable: revisar un permiso es una sola operación sobre un long.
+ */
+public final class PermissionMask {
+
+    private final long[] words;
+
+    private PermissionMask(long[] words) {
+        this.words = words;
+    }
+
+    static PermissionMask of(BitSet bits) {
+        return new PermissionMask(bits.toLongArray());
+    }
+
+    public boolean has(int permissionId) {
+        int word = permissionId >>> 6;
+        return word < words.length && (words[word] & (1L << permissionId)) != 0;
+    }
+}
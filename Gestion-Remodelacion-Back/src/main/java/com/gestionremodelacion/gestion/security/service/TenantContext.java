@@ -0,0 +1,30 @@
+package com.gestionremodelacion.gestion.security.service;
+
+import com.gestionremodelacion.gestion.empresa.model.Empresa.EstadoSuscripcion;
+import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
+
+/**
+ * Lo que los servicios necesitan saber del usuario autenticado: su empresa, el
+ * plan y estado de la suscripción, el empleado vinculado y sus permisos. Los
+ * permisos vienen como bits ({@link PermissionMask}) y si es Super Admin ya
+ * viene resuelto, para que las validaciones no comparen textos. Es inmutable y no
+ * depende de la sesión de Hibernate, así que se puede usar en cualquier
+ * transacción de la petición. Se obtiene con {@link TenantContextService#current()}.
+ */
+public record TenantContext(Long userId, String username, Long empresaId, PlanSuscripcion plan,
+        EstadoSuscripcion estadoSuscripcion, Long empleadoId, PermissionMask permissions, boolean superAdmin) {
+
+    public static final String ROLE_SUPER_ADMIN = "ROLE_SUPER_ADMIN";
+
+    public boolean hasPermission(int permissionId) {
+        return permissions.has(permissionId);
+    }
+
+    public boolean isSuperAdmin() {
+        return superAdmin;
+    }
+
+    public boolean isSuscripcionActiva() {
+        return estadoSuscripcion == EstadoSuscripcion.ACTIVA;
+    }
+}
@@ -0,0 +1,160 @@
+package com.gestionremodelacion.gestion.security.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
+import com.gestionremodelacion.gestion.empresa.repository.EmpresaRepository;
+import com.gestionremodelacion.gestion.exception.ErrorCatalog;
+import com.gestionremodelacion.gestion.exception.ResourceNotFoundException;
+import com.gestionremodelacion.gestion.repository.UserRepository;
+import com.gestionremodelacion.gestion.security.jwt.JwtUserPrincipal;
+import com.gestionremodelacion.gestion.service.impl.UserDetailsImpl;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Resuelve el {@link TenantContext} del usuario autenticado una sola vez por
+ * petición: la primera llamada lo lee de la BD (una consulta con proyección) y
+ * lo guarda como atributo de la petición; el resto de servicios, el aspecto
+ * de planes y las validaciones de permisos lo reutilizan.
+ *
+ * Las autoridades salen de la autenticación que armó JwtAuthFilter, que ya
+ * comprobó que siguen vigentes. Fuera de una petición (hilos de exportación,
+ * tareas programadas) no hay dónde guardarlo y se resuelve en cada llamada.
+ * Si la petición cambia al propio usuario, el contexto sigue mostrando los
+ * datos con los que empezó.
+ *
+ * La máscara de permisos se arma una vez por usuario y versión de seguridad:
+ * cualquier cambio en sus roles o en los permisos de esos roles sube la
+ * versión, así que una máscara guardada nunca queda vieja y en cada petición
+ * solo se busca en la caché.
+ */
+@Service
+public class TenantContextService {
+
+    private static final String ATTRIBUTE = TenantContextService.class.getName() + ".CONTEXT";
+    private static final int MAX_PERMISOS = 10_000;
+
+    private final UserRepository userRepository;
+    private final EmpresaRepository empresaRepository;
+    private final PermissionIndex permissionIndex;
+    // (usuario, versión de seguridad) -> permisos ya armados; una versión nueva usa otra llave
+    private final Cache<VersionUsuario, Permisos> permisos = CacheBuilder.newBuilder()
+            .maximumSize(MAX_PERMISOS)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    public TenantContextService(UserRepository userRepository, EmpresaRepository empresaRepository,
+            PermissionIndex permissionIndex) {
+        this.userRepository = userRepository;
+        this.empresaRepository = empresaRepository;
+        this.permissionIndex = permissionIndex;
+    }
+
+    public TenantContext current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new IllegalStateException(ErrorCatalog.NO_AUTHENTICATED_USER.getKey());
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof TenantContext cached
+                && cached.username().equals(authentication.getName())) {
+            return cached;
+        }
+
+        TenantContext context = resolve(authentication);
+        if (request != null) {
+            request.setAttribute(ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
+        }
+        return context;
+    }
+
+    /**
+     * Referencia a la empresa del usuario para asignarla a una entidad nueva.
+     * No consulta la BD: Hibernate solo necesita el id para la llave foránea.
+     */
+    public Empresa empresaReference() {
+        return empresaRepository.getReferenceById(requireEmpresaId());
+    }
+
+    /**
+     * La empresa del usuario con todos sus datos (nombre, teléfono, logo), para
+     * los reportes.
+     */
+    public Empresa currentEmpresa() {
+        return empresaRepository.findById(requireEmpresaId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCatalog.COMPANY_NOT_FOUND.getKey()));
+    }
+
+    private Long requireEmpresaId() {
+        Long empresaId = current().empresaId();
+        if (empresaId == null) {
+            throw new ResourceNotFoundException(ErrorCatalog.COMPANY_NOT_FOUND.getKey());
+        }
+        return empresaId;
+    }
+
+    private TenantContext resolve(Authentication authentication) {
+        UserTenantView view = userRepository.findTenantViewByUsername(authentication.getName())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        ErrorCatalog.AUTHENTICATED_USER_NOT_FOUND.getKey()));
+        Permisos permisosUsuario = permisosDe(authentication);
+        return new TenantContext(view.userId(), view.username(), view.empresaId(), view.plan(),
+                view.estadoSuscripcion(), view.empleadoId(), permisosUsuario.mask(), permisosUsuario.superAdmin());
+    }
+
+    private Permisos permisosDe(Authentication authentication) {
+        Long version = securityVersionOf(authentication.getPrincipal());
+        if (version == null) {
+            return armarPermisos(authentication);
+        }
+        VersionUsuario llave = new VersionUsuario(authentication.getName(), version);
+        Permisos cached = permisos.getIfPresent(llave);
+        if (cached == null) {
+            // Dos peticiones simultáneas pueden armarla a la vez; el resultado es el mismo
+            cached = armarPermisos(authentication);
+            permisos.put(llave, cached);
+        }
+        return cached;
+    }
+
+    private Permisos armarPermisos(Authentication authentication) {
+        List<String> authorities = new ArrayList<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        return new Permisos(permissionIndex.maskOf(authorities),
+                authorities.contains(TenantContext.ROLE_SUPER_ADMIN));
+    }
+
+    // Versión de seguridad con la que se armó la autenticación; null si el principal no la trae
+    private static Long securityVersionOf(Object principal) {
+        if (principal instanceof JwtUserPrincipal jwtPrincipal) {
+            return jwtPrincipal.getSecurityVersion();
+        }
+        if (principal instanceof UserDetailsImpl userDetails) {
+            return userDetails.getSecurityVersion();
+        }
+        return null;
+    }
+
+    private record VersionUsuario(String username, long securityVersion) {
+
+    }
+
+    private record Permisos(PermissionMask mask, boolean superAdmin) {
+
+    }
+}
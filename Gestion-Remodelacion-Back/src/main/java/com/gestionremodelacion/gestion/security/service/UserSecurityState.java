@@ -0,0 +1,9 @@
+package com.gestionremodelacion.gestion.security.service;
+
+/**
+ * Lo mínimo que hace falta leer de la BD para aceptar un JWT sin cargar el
+ * usuario completo: si sigue activo y su versión de seguridad actual.
+ */
+public record UserSecurityState(Long id, boolean enabled, long securityVersion) {
+
+}
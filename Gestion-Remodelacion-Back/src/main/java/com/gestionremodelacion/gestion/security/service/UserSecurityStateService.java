@@ -0,0 +1,110 @@
+package com.gestionremodelacion.gestion.security.service;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gestionremodelacion.gestion.config.JwtProperties;
+import com.gestionremodelacion.gestion.model.Role;
+import com.gestionremodelacion.gestion.model.User;
+import com.gestionremodelacion.gestion.repository.UserRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Versión de seguridad de los usuarios: decide si un JWT sigue vigente sin
+ * cargar el usuario con sus roles y permisos.
+ *
+ * Cada cambio que afecta lo que dice el token (roles, permisos de un rol,
+ * estado, contraseña, username) incrementa la versión del usuario en la BD; un
+ * token emitido con otra versión se rechaza y el cliente debe renovarlo con su
+ * refresh token, que se emite con los datos actuales.
+ *
+ * El estado se cachea unos segundos (jwt.user-state-cache-seconds) para no
+ * consultar la BD en cada petición. En esta instancia la caché se descarta al
+ * confirmar el cambio; en otras, el cambio se nota al vencer la entrada.
+ */
+@Service
+public class UserSecurityStateService {
+
+    private static final long MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+    // Optional.empty() recuerda también que el usuario ya no existe
+    private final Cache<String, Optional<UserSecurityState>> estados;
+
+    public UserSecurityStateService(UserRepository userRepository, JwtProperties jwtProperties) {
+        this.userRepository = userRepository;
+        this.estados = CacheBuilder.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(jwtProperties.getUserStateCacheSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Indica si un token del usuario emitido con {@code tokenVersion} sigue
+     * vigente: el usuario existe, está activo y su versión no cambió.
+     */
+    public boolean isCurrent(String username, long tokenVersion) {
+        return getState(username)
+                .map(state -> state.enabled() && state.securityVersion() == tokenVersion)
+                .orElse(false);
+    }
+
+    public Optional<UserSecurityState> getState(String username) {
+        try {
+            return estados.get(username, () -> userRepository.findSecurityStateByUsername(username));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Invalida los tokens emitidos para el usuario. Se modifica la entidad (no
+     * un UPDATE aparte) para que el guardado posterior no pise la versión.
+     */
+    public void bump(User user) {
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
+        invalidateAfterCommit(user.getUsername());
+    }
+
+    /**
+     * Invalida los tokens de todos los usuarios que tienen el rol (ej. cambian
+     * sus permisos).
+     */
+    public void bumpUsersWithRole(Role role) {
+        userRepository.incrementSecurityVersionByRole(role);
+        runAfterCommit(estados::invalidateAll);
+    }
+
+    /**
+     * Descarta el estado cacheado del usuario (ej. al eliminarlo o cambiar su
+     * username) cuando se confirme la transacción.
+     */
+    public void invalidateAfterCommit(String username) {
+        if (username != null) {
+            runAfterCommit(() -> estados.invalidate(username));
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.gestionremodelacion.gestion.security.service;
+
+import com.gestionremodelacion.gestion.empresa.model.Empresa.EstadoSuscripcion;
+import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
+
+/**
+ * Datos del usuario que arman su {@link TenantContext}, leídos en una sola
+ * consulta (sin cargar la entidad ni sus relaciones).
+ */
+public record UserTenantView(Long userId, String username, Long empresaId, PlanSuscripcion plan,
+        EstadoSuscripcion estadoSuscripcion, Long empleadoId) {
+
+}
@@ -149,6 +149,8 @@ public class AuthService {
 
         String newJwtToken = jwtUtils.generateTokenFromUsername(
                 user.getUsername(),
+                user.getId(),
+                user.getSecurityVersion(),
                 permissions,
                 roles,
                 empresa);
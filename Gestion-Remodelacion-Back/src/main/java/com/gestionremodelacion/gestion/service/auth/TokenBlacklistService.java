@@ -1,16 +1,26 @@
 package com.gestionremodelacion.gestion.service.auth;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.gestionremodelacion.gestion.config.JwtProperties;
+import com.gestionremodelacion.gestion.model.RevokedToken;
+import com.gestionremodelacion.gestion.repository.RevokedTokenRepository;
 import com.gestionremodelacion.gestion.security.jwt.JwtUtils;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashCode;
+
+import jakarta.annotation.PostConstruct;
 
 /**
  * Servicio para manejar tokens revocados (blacklist).
@@ -18,58 +28,140 @@ import com.gestionremodelacion.gestion.security.jwt.JwtUtils;
  * Usado por: - JwtAuthFilter para verificar tokens revocados - AuthService
  * durante el logout
  *
- * Características: - Almacenamiento en memoria con ConcurrentHashMap para
- * thread-safety - Limpieza periódica de tokens expirados - Métodos para agregar
- * y verificar tokens
+ * Las revocaciones se guardan en la tabla revoked_tokens (SHA-256 del token y
+ * su vencimiento), así que un logout en una instancia vale para todas y
+ * sobrevive a los reinicios. Cada instancia tiene además filtros de Bloom en
+ * memoria, uno por intervalo de vencimiento (jwt.revocation-bucket-minutes),
+ * que se completan leyendo solo las filas nuevas de la tabla. La respuesta
+ * habitual ("no está revocado") sale del filtro sin ir a la BD; solo un
+ * positivo se confirma con una consulta.
+ *
+ * Los filtros de un intervalo ya vencido se descartan completos, y en la BD
+ * se borra por rango de expires_at; ningún token se vuelve a parsear.
  */
 @Service
 public class TokenBlacklistService {
 
     private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
-    private final ConcurrentMap<String, Instant> blacklist = new ConcurrentHashMap<>();
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // Al releer la tabla se repite este margen: cubre transacciones que confirmaron tarde y relojes desfasados
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
     private final JwtUtils jwtUtils;
+    private final long bucketMillis;
+    private final int expectedPerBucket;
+    // Intervalo de vencimiento (epoch ms / bucketMillis) -> digests revocados que vencen en él
+    private final ConcurrentNavigableMap<Long, BloomFilter<byte[]>> buckets = new ConcurrentSkipListMap<>();
+    private volatile Instant ultimaLectura = Instant.EPOCH;
 
-    public TokenBlacklistService(JwtUtils jwtUtils) {
+    public TokenBlacklistService(RevokedTokenRepository revokedTokenRepository, JwtUtils jwtUtils,
+            JwtProperties jwtProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
         this.jwtUtils = jwtUtils;
+        this.bucketMillis = Math.max(1, jwtProperties.getRevocationBucketMinutes()) * 60_000L;
+        this.expectedPerBucket = Math.max(100, jwtProperties.getRevocationExpectedPerBucket());
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
     }
 
     /**
      * Añade un token a la blacklist con su fecha de expiración
-     *
-     * Área crítica: Manejo concurrente del mapa
      */
     public void blacklistToken(String token, Instant expiryDate) {
-        if (jwtUtils.validateJwtToken(token)) {
-            blacklist.put(token, expiryDate);
-            logger.debug("Token añadido a blacklist: {}", token.substring(token.length() - 6));
+        if (expiryDate == null || !jwtUtils.validateJwtToken(token)) {
+            return;
         }
+        byte[] digest = digest(token);
+        revokedTokenRepository.revoke(digest, expiryDate, Instant.now());
+        // Esta instancia lo ve de inmediato; las demás en su siguiente lectura
+        bucketFor(expiryDate).put(digest);
+        logger.debug("Token añadido a blacklist: {}", token.substring(token.length() - 6));
     }
 
     /**
-     * Verifica si un token está en la blacklist
-     *
-     * Área crítica: Verificación atómica de existencia y expiración
+     * Verifica si un token está en la blacklist. {@code expiresAt} es el
+     * vencimiento del token (claim "exp") e indica en qué filtro buscarlo.
      */
-    public boolean isBlacklisted(String token) {
-        Instant expiry = blacklist.get(token);
-        return expiry != null && expiry.isAfter(Instant.now());
+    public boolean isBlacklisted(String token, Instant expiresAt) {
+        return isBlacklisted(JwtUtils.digest(token), expiresAt);
     }
 
     /**
-     * Limpieza programada de tokens expirados
-     *
-     * Se ejecuta cada hora para mantener el mapa limpio
+     * Igual que {@link #isBlacklisted(String, Instant)}, con el SHA-256 del
+     * token ya calculado ({@link JwtUtils#digest(String)}).
      */
-    @Scheduled(fixedRate = 3600000) // Cada hora
-    public void cleanExpiredTokens() {
+    public boolean isBlacklisted(HashCode tokenDigest, Instant expiresAt) {
         Instant now = Instant.now();
-        blacklist.entrySet().removeIf(entry
-                -> jwtUtils.getExpirationDateFromToken(entry.getKey()).before(Date.from(now))
-        );
+        byte[] digest = tokenDigest.asBytes();
+        if (expiresAt != null) {
+            if (!expiresAt.isAfter(now)) {
+                return false;
+            }
+            BloomFilter<byte[]> bucket = buckets.get(bucketOf(expiresAt));
+            if (bucket == null || !bucket.mightContain(digest)) {
+                return false;
+            }
+        }
+        // Positivo del filtro (o token sin "exp"): se confirma con la tabla
+        return revokedTokenRepository.existsByTokenDigestAndExpiresAtAfter(digest, now);
+    }
+
+    /**
+     * Lee las revocaciones hechas desde la última lectura (en esta u otra
+     * instancia) y descarta los filtros cuyo intervalo ya venció.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation-refresh-ms:5000}",
+            initialDelayString = "${jwt.revocation-refresh-ms:5000}")
+    public void refresh() {
+        Instant inicio = Instant.now();
+        try {
+            List<RevokedToken> nuevos = revokedTokenRepository
+                    .findByRevokedAtGreaterThanEqualAndExpiresAtAfter(ultimaLectura.minus(REFRESH_OVERLAP), inicio);
+            for (RevokedToken revocado : nuevos) {
+                bucketFor(revocado.getExpiresAt()).put(revocado.getTokenDigest());
+            }
+            ultimaLectura = inicio;
+        } catch (DataAccessException e) {
+            // Se reintenta en la siguiente ejecución desde la misma marca
+            logger.warn("No se pudieron leer los tokens revocados: {}", e.getMessage());
+        }
+        // Un intervalo k cubre [k, k + 1) * bucketMillis: los anteriores al actual ya vencieron
+        buckets.headMap(bucketOf(inicio)).clear();
     }
 
+    /**
+     * Limpieza programada de tokens expirados: un DELETE por rango de
+     * expires_at (indexado), sin leer los tokens.
+     */
+    @Scheduled(fixedDelayString = "${jwt.blacklist-cleanup-interval:3600000}")
+    public void cleanExpiredTokens() {
+        int borrados = revokedTokenRepository.deleteExpired(Instant.now());
+        logger.debug("Tokens revocados vencidos eliminados: {}", borrados);
+    }
+
+    /**
+     * Quita la revocación de la tabla. El filtro local no admite borrados: el
+     * token seguirá dando positivo ahí, pero la consulta de confirmación ya
+     * no lo encuentra.
+     */
     public void removeFromBlacklist(String token) {
-        blacklist.remove(token);
+        revokedTokenRepository.deleteByDigest(digest(token));
+    }
+
+    private BloomFilter<byte[]> bucketFor(Instant expiresAt) {
+        return buckets.computeIfAbsent(bucketOf(expiresAt),
+                k -> BloomFilter.create(Funnels.byteArrayFunnel(), expectedPerBucket, FALSE_POSITIVE_RATE));
     }
 
+    private long bucketOf(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), bucketMillis);
+    }
+
+    private static byte[] digest(String token) {
+        return JwtUtils.digest(token).asBytes();
+    }
 }
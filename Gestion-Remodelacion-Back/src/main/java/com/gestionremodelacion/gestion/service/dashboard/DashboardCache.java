@@ -0,0 +1,182 @@
+package com.gestionremodelacion.gestion.service.dashboard;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gestionremodelacion.gestion.config.DashboardProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Caché acotada de resultados del Dashboard, aislada por empresa.
+ *
+ * Cada empresa tiene un contador de versión que forma parte de la llave. Una
+ * escritura en la empresa solo incrementa su versión: las entradas viejas dejan
+ * de ser alcanzables y salen solas por tamaño o TTL, sin tocar las de otras
+ * empresas. Las métricas (hits, misses, evictions) se publican en el actuator
+ * como "cache.*" con tag cache=dashboard.
+ */
+@Component
+public class DashboardCache {
+
+    private final Cache<CacheKey, Object> cache;
+    private final Map<Long, AtomicLong> versiones = new ConcurrentHashMap<>();
+    // Cálculos en curso del get con predicado: las peticiones simultáneas de la misma llave esperan este
+    private final Map<CacheKey, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+
+    public DashboardCache(DashboardProperties properties, MeterRegistry meterRegistry) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getCacheMaxSize())
+                .expireAfterWrite(properties.getCacheTtlMinutes(), TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "dashboard");
+    }
+
+    /**
+     * Devuelve el valor cacheado para la llave o lo calcula con el loader.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String tipo, Long empresaId, Integer year, Integer month, Long projectId, Supplier<T> loader) {
+        CacheKey key = new CacheKey(tipo, empresaId, version(empresaId), year, month, projectId);
+        try {
+            return (T) cache.get(key, loader::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // Propagamos la excepción original del loader (ej. ResourceNotFoundException)
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Igual que {@link #get}, pero solo guarda el valor calculado si cumple
+     * {@code cacheable} (ej. no guardar respuestas parciales).
+     *
+     * Como en {@link #get}, una sola petición calcula cada llave: las que
+     * llegan mientras tanto esperan y reciben el mismo resultado (o la misma
+     * excepción), aunque no se haya guardado por no cumplir {@code cacheable}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String tipo, Long empresaId, Integer year, Integer month, Long projectId, Supplier<T> loader,
+            Predicate<T> cacheable) {
+        CacheKey key = new CacheKey(tipo, empresaId, version(empresaId), year, month, projectId);
+        T cached = (T) cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Object> calculo = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enCurso.putIfAbsent(key, calculo);
+        if (existente != null) {
+            return (T) await(existente);
+        }
+        try {
+            // Otra petición pudo terminar y guardarlo entre la primera lectura y el registro
+            T value = (T) cache.getIfPresent(key);
+            if (value == null) {
+                value = loader.get();
+                if (value != null && cacheable.test(value)) {
+                    cache.put(key, value);
+                }
+            }
+            calculo.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            calculo.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(key, calculo);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> calculo) {
+        try {
+            return calculo.join();
+        } catch (CompletionException e) {
+            // Propagamos la excepción original del loader, igual que la petición que lo ejecutó
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Invalida todas las entradas de una empresa. Si hay una transacción activa
+     * el cambio de versión se aplica después del commit, así una lectura
+     * concurrente no puede guardar datos previos al commit con la versión
+     * nueva.
+     */
+    public void invalidateEmpresa(Long empresaId) {
+        if (empresaId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpVersion(empresaId);
+                }
+            });
+        } else {
+            bumpVersion(empresaId);
+        }
+    }
+
+    /**
+     * Los servicios de escritura publican el evento; aquí se aplica tras el
+     * commit (o de inmediato si no hay transacción). Se ejecuta antes que la
+     * notificación a los dashboards conectados para que relean datos nuevos.
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DashboardDataChangedEvent event) {
+        if (event.empresaId() != null) {
+            bumpVersion(event.empresaId());
+        }
+    }
+
+    // Versión actual de los datos de la empresa (cambia con cada escritura)
+    public long version(Long empresaId) {
+        AtomicLong version = versiones.get(empresaId);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * Descarta todas las entradas (ej. tras reconstruir el resumen completo).
+     */
+    public void invalidateAll() {
+        versiones.values().forEach(AtomicLong::incrementAndGet);
+        cache.invalidateAll();
+    }
+
+    private void bumpVersion(Long empresaId) {
+        versiones.computeIfAbsent(empresaId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    private record CacheKey(String tipo, Long empresaId, long version, Integer year, Integer month, Long projectId) {
+
+    }
+}
@@ -0,0 +1,27 @@
+package com.gestionremodelacion.gestion.service.dashboard;
+
+import java.time.LocalDate;
+
+/**
+ * Evento publicado por los servicios de escritura cuando cambian datos que
+ * alimentan el Dashboard de una empresa. Se procesa después del commit:
+ * invalida la caché ({@link DashboardCache}) y notifica a los dashboards
+ * conectados ({@link DashboardStreamService}).
+ *
+ * @param proyectoId proyecto afectado (null si no aplica)
+ * @param fecha fecha del dato afectado, para que el cliente sepa qué mes cambió
+ * (null si no aplica)
+ */
+public record DashboardDataChangedEvent(Long empresaId, Seccion seccion, Long proyectoId, LocalDate fecha) {
+
+    public enum Seccion {
+        HORAS,
+        PROYECTOS,
+        CLIENTES,
+        EMPLEADOS
+    }
+
+    public static DashboardDataChangedEvent of(Long empresaId, Seccion seccion) {
+        return new DashboardDataChangedEvent(empresaId, seccion, null, null);
+    }
+}
@@ -0,0 +1,104 @@
+package com.gestionremodelacion.gestion.service.dashboard;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
+import com.gestionremodelacion.gestion.empresa.repository.EmpresaRepository;
+import com.gestionremodelacion.gestion.horastrabajadas.model.HorasTrabajadas;
+import com.gestionremodelacion.gestion.repository.DashboardRollupRepository;
+import com.gestionremodelacion.gestion.util.DateRange;
+
+/**
+ * Mantiene la tabla resumen mensual del Dashboard (dashboard_rollup_mensual).
+ *
+ * Cada escritura recalcula solo las llaves que tocó (un mes de un empleado en
+ * un proyecto, o la fila de un proyecto), así el costo del Dashboard no crece
+ * con los años de historial de la empresa.
+ */
+@Service
+public class DashboardRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardRollupService.class);
+
+    private final DashboardRollupRepository rollupRepository;
+    private final EmpresaRepository empresaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DashboardRollupService(DashboardRollupRepository rollupRepository, EmpresaRepository empresaRepository,
+            TransactionTemplate transactionTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.empresaRepository = empresaRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Recalcula el bucket (empresa, año, mes, proyecto, empleado) de un registro
+     * de horas. Se llama con el estado anterior y el nuevo cuando un registro
+     * cambia de mes, proyecto o empleado.
+     */
+    @Transactional
+    public void refreshHoras(Long empresaId, Long proyectoId, Long empleadoId, LocalDate fecha) {
+        if (empresaId == null || proyectoId == null || empleadoId == null || fecha == null) {
+            return;
+        }
+        DateRange mes = DateRange.ofMonth(fecha);
+
+        rollupRepository.deleteHorasBucket(empresaId, mes.desde().getYear(), mes.desde().getMonthValue(), proyectoId,
+                empleadoId);
+        rollupRepository.insertHorasBucket(empresaId, proyectoId, empleadoId, mes.desde(), mes.hasta());
+    }
+
+    @Transactional
+    public void refreshHoras(HorasTrabajadas horas) {
+        refreshHoras(horas.getEmpresa().getId(), horas.getProyecto().getId(), horas.getEmpleado().getId(),
+                horas.getFecha());
+    }
+
+    /**
+     * Recalcula la fila del proyecto (estado, montos y costo de mano de obra).
+     */
+    @Transactional
+    public void refreshProyecto(Long empresaId, Long proyectoId) {
+        rollupRepository.deleteFilaProyecto(empresaId, proyectoId);
+        rollupRepository.insertFilaProyecto(empresaId, proyectoId);
+    }
+
+    @Transactional
+    public void removeProyecto(Long empresaId, Long proyectoId) {
+        rollupRepository.deleteByProyecto(empresaId, proyectoId);
+    }
+
+    /**
+     * Regenera por completo el resumen de una empresa desde las tablas origen.
+     */
+    @Transactional
+    public void rebuild(Long empresaId) {
+        rollupRepository.deleteByEmpresa(empresaId);
+        int proyectos = rollupRepository.insertProyectosByEmpresa(empresaId);
+        int buckets = rollupRepository.insertHorasByEmpresa(empresaId);
+        logger.info("Resumen del dashboard reconstruido para empresa {}: {} proyectos, {} buckets de horas",
+                empresaId, proyectos, buckets);
+    }
+
+    /**
+     * Regenera el resumen de todas las empresas. Cada empresa se procesa en su
+     * propia transacción para no mantener bloqueada toda la tabla.
+     */
+    public void rebuildAll() {
+        for (Empresa empresa : empresaRepository.findAll()) {
+            Long empresaId = empresa.getId();
+            try {
+                // La auto-invocación no pasa por el proxy, por eso la transacción es explícita
+                transactionTemplate.executeWithoutResult(status -> rebuild(empresaId));
+            } catch (RuntimeException e) {
+                logger.error("No se pudo reconstruir el resumen del dashboard para empresa {}", empresaId, e);
+            }
+        }
+    }
+}
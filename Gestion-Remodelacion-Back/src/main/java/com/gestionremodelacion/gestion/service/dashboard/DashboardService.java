@@ -1,104 +1,297 @@
 package com.gestionremodelacion.gestion.service.dashboard;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.gestionremodelacion.gestion.cliente.repository.ClienteRepository;
+import com.gestionremodelacion.gestion.config.DashboardProperties;
 import com.gestionremodelacion.gestion.dto.response.DashboardClientesResponse;
 import com.gestionremodelacion.gestion.dto.response.DashboardSummaryResponse;
-import com.gestionremodelacion.gestion.model.User;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardSummaryV2Response;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardTrendResponse;
+import com.gestionremodelacion.gestion.dto.response.dashboard.TendenciaHorasMes;
+import com.gestionremodelacion.gestion.dto.response.dashboard.TendenciaProyectosMes;
+import com.gestionremodelacion.gestion.exception.BusinessRuleException;
+import com.gestionremodelacion.gestion.exception.ErrorCatalog;
 import com.gestionremodelacion.gestion.proyecto.repository.ProyectoRepository;
+import com.gestionremodelacion.gestion.repository.DashboardRollupRepository;
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
+import com.gestionremodelacion.gestion.service.dashboard.metrics.FinanceMetricService.FinancialSummaryDTO;
 import com.gestionremodelacion.gestion.service.dashboard.metrics.FinanceMetricService;
+import com.gestionremodelacion.gestion.service.dashboard.metrics.HumanResourcesMetricService.HRMetricsDTO;
 import com.gestionremodelacion.gestion.service.dashboard.metrics.HumanResourcesMetricService;
+import com.gestionremodelacion.gestion.service.dashboard.metrics.ProjectMetricService.ProjectStatusDTO;
 import com.gestionremodelacion.gestion.service.dashboard.metrics.ProjectMetricService;
-import com.gestionremodelacion.gestion.service.user.UserService;
+import com.gestionremodelacion.gestion.util.DateRange;
+import com.gestionremodelacion.gestion.util.MathUtils;
 
 @Service
 public class DashboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
     private final ProyectoRepository proyectoRepository;
     private final ClienteRepository clienteRepository;
-    private final UserService userService;
+    private final TenantContextService tenantContextService;
     private final ProjectMetricService projectMetricService;
     private final FinanceMetricService financeMetricService;
     private final HumanResourcesMetricService humanResourcesMetricService;
+    private final DashboardRollupRepository rollupRepository;
+    private final DashboardRollupService rollupService;
+    private final DashboardCache dashboardCache;
+    private final AsyncTaskExecutor metricsExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long metricsTimeoutMs;
+    private final int trendMaxMonths;
 
     public DashboardService(
             ProyectoRepository proyectoRepository,
             ClienteRepository clienteRepository,
-            UserService userService,
+            TenantContextService tenantContextService,
             ProjectMetricService projectMetricService,
             FinanceMetricService financeMetricService,
-            HumanResourcesMetricService humanResourcesMetricService) {
+            HumanResourcesMetricService humanResourcesMetricService,
+            DashboardRollupRepository rollupRepository,
+            DashboardRollupService rollupService,
+            DashboardCache dashboardCache,
+            @Qualifier("dashboardMetricsExecutor") AsyncTaskExecutor metricsExecutor,
+            PlatformTransactionManager transactionManager,
+            DashboardProperties dashboardProperties) {
         this.proyectoRepository = proyectoRepository;
         this.clienteRepository = clienteRepository;
-        this.userService = userService;
+        this.tenantContextService = tenantContextService;
         this.projectMetricService = projectMetricService;
         this.financeMetricService = financeMetricService;
         this.humanResourcesMetricService = humanResourcesMetricService;
+        this.rollupRepository = rollupRepository;
+        this.rollupService = rollupService;
+        this.dashboardCache = dashboardCache;
+        this.metricsExecutor = metricsExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.metricsTimeoutMs = dashboardProperties.getMetricsTimeoutMs();
+        // El timeout de la transacción se aplica a cada consulta (query timeout del driver): una
+        // métrica vencida no sigue ocupando el hilo y la conexión aunque nadie espere su resultado
+        this.readOnlyTransaction.setTimeout((int) Math.max(1L, (metricsTimeoutMs + 999) / 1000));
+        this.trendMaxMonths = dashboardProperties.getTrendMaxMonths();
     }
 
     // Método para obtener proyectos por año y mes
     @Transactional(readOnly = true)
     public List<Object[]> getProyectos(Integer year, Integer month) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
-        return proyectoRepository.findProyectosByYearAndMonth(empresaId, year, month);
+        // Sin año no hay rango (la consulta anterior tampoco devolvía filas)
+        if (year == null) {
+            return List.of();
+        }
+        DateRange rango = DateRange.of(year, month);
+        return proyectoRepository.findProyectosByFechaInicioRange(empresaId, rango.desde(), rango.hasta());
     }
 
-    @Transactional(readOnly = true)
+    // Sin transacción propia: cada servicio de métricas abre la suya en el executor,
+    // así el hilo de la petición no retiene una conexión mientras espera.
     public DashboardSummaryResponse getDashboardSummary(Integer year, Integer month, Long projectId) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        return getSummaryData(year, month, projectId).toResponse();
+    }
+
+    // Versión 2: mismo contenido en formato columnar con diccionario de nombres
+    public DashboardSummaryV2Response getDashboardSummaryV2(Integer year, Integer month, Long projectId) {
+        return getSummaryData(year, month, projectId).toV2Response();
+    }
+
+    private DashboardSummaryData getSummaryData(Integer year, Integer month, Long projectId) {
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         int targetYear = (year != null) ? year : LocalDate.now().getYear();
 
-        // Llamada a servicios metricos
-        var projectData = projectMetricService.getProjectStats(empresaId, targetYear, month, projectId);
-
-        // Llama a servicios RRHH
-        var hrData = humanResourcesMetricService.getHRStats(empresaId, targetYear, month, projectId);
-
-        var financeData = financeMetricService.calculateFinancials(empresaId, targetYear, month, projectId);
-
-        return new DashboardSummaryResponse(
-                projectData.total(), // Total Proyectos
-                hrData.empleadosActivos(), // Empleados Activos
-                financeData.balance(), // Balance Financiero
-                financeData.ingresos(), // Monto Recibido
-                financeData.materiales(), // Costo Materiales
-                financeData.otros(), // Otros Gastos
-                hrData.empleadosPorRol(), // Lista: Empleados por Rol
-                hrData.horasPorProyecto(), // Lista: Horas por Proyecto
-                projectData.proyectosPorEstado(), // Lista: Proyectos por Estado
-                hrData.horasPorEmpleadoProyecto(), // Lista: Horas por Empleado/Proyecto
-                financeData.manoObra() // Costo Mano de Obra
-        );
+        // Las respuestas parciales no se cachean para que la siguiente petición reintente
+        return dashboardCache.get("summary", empresaId, targetYear, month, projectId,
+                () -> buildSummaryData(empresaId, targetYear, month, projectId),
+                summary -> !summary.isParcial());
+    }
+
+    private DashboardSummaryData buildSummaryData(Long empresaId, int targetYear, Integer month,
+            Long projectId) {
+        // Los tres servicios son independientes: se lanzan en paralelo y el tiempo
+        // total queda cerca del de la consulta más lenta.
+        var projectFuture = submitMetric(
+                () -> projectMetricService.getProjectStats(empresaId, targetYear, month, projectId));
+        var hrFuture = submitMetric(
+                () -> humanResourcesMetricService.getHRStats(empresaId, targetYear, month, projectId));
+        var financeFuture = submitMetric(
+                () -> financeMetricService.calculateFinancials(empresaId, targetYear, month, projectId));
+
+        // El plazo es común a las tres llamadas (se lanzaron al mismo tiempo)
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(metricsTimeoutMs);
+        List<String> seccionesNoDisponibles = new ArrayList<>();
+
+        var projectData = awaitMetric("proyectos", projectFuture, deadline, seccionesNoDisponibles,
+                ProjectStatusDTO::empty);
+        var hrData = awaitMetric("recursosHumanos", hrFuture, deadline, seccionesNoDisponibles,
+                HRMetricsDTO::empty);
+        var financeData = awaitMetric("finanzas", financeFuture, deadline, seccionesNoDisponibles,
+                FinancialSummaryDTO::empty);
+
+        return new DashboardSummaryData(projectData, hrData, financeData, seccionesNoDisponibles);
+    }
+
+    // Ejecuta un servicio de métricas en el executor dentro de su propia transacción de solo lectura.
+    // submit devuelve un FutureTask: a diferencia de CompletableFuture, cancel(true) interrumpe el hilo.
+    // Con el executor saturado la tarea se rechaza y la sección sale vacía, igual que en un timeout.
+    private <T> Future<T> submitMetric(Supplier<T> metric) {
+        try {
+            return metricsExecutor.submit(() -> readOnlyTransaction.execute(status -> metric.get()));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Espera el resultado hasta el plazo; si falla o se vence, registra la sección y usa el valor vacío
+    private <T> T awaitMetric(String seccion, Future<T> future, long deadline,
+            List<String> seccionesNoDisponibles, Supplier<T> fallback) {
+        try {
+            long remaining = Math.max(0L, deadline - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Métricas de dashboard '{}' excedieron {} ms", seccion, metricsTimeoutMs);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                logger.warn("Métricas de dashboard '{}' rechazadas: executor saturado", seccion);
+            } else {
+                logger.error("Error al calcular métricas de dashboard '{}'", seccion, e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        seccionesNoDisponibles.add(seccion);
+        return fallback.get();
     }
 
     @Transactional(readOnly = true)
     public DashboardClientesResponse getDashboardClientesSummary(Integer year, Integer month) {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
         int targetYear = (year != null) ? year : LocalDate.now().getYear();
 
         // Para este gráfico, siempre queremos los 12 meses del año seleccionado
-        List<Object[]> clientesPorMes = clienteRepository.countClientesByMonthForYearAndEmpresa(empresaId, targetYear);
+        return dashboardCache.get("clientes", empresaId, targetYear, null, null, () -> {
+            DateRange rango = DateRange.of(targetYear, null);
+            List<Object[]> clientesPorMes = clienteRepository.countClientesByMonthForRangeAndEmpresa(empresaId,
+                    rango.desdeInicio(), rango.hastaInicio());
+            return new DashboardClientesResponse(clientesPorMes);
+        });
+    }
+
+    /**
+     * Tendencia mensual entre dos fechas (se incluyen los meses completos que
+     * tocan). Dos consultas agrupadas sobre el resumen mensual, sin importar
+     * cuántos meses abarque; los meses sin datos se devuelven en cero.
+     */
+    @Transactional(readOnly = true)
+    public DashboardTrendResponse getDashboardTrend(LocalDate desde, LocalDate hasta) {
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
 
-        return new DashboardClientesResponse(clientesPorMes);
+        YearMonth mesDesde = YearMonth.from(desde);
+        YearMonth mesHasta = YearMonth.from(hasta);
+        if (mesDesde.isAfter(mesHasta) || mesDesde.until(mesHasta, ChronoUnit.MONTHS) >= trendMaxMonths) {
+            throw new BusinessRuleException(ErrorCatalog.DASHBOARD_INVALID_RANGE.getKey());
+        }
+
+        // La llave usa claves anio*100+mes del rango en lugar de año/mes
+        int claveDesde = claveMes(mesDesde);
+        int claveHasta = claveMes(mesHasta);
+        return dashboardCache.get("trend", empresaId, claveDesde, claveHasta, null,
+                () -> buildTrend(empresaId, mesDesde, mesHasta));
+    }
+
+    private DashboardTrendResponse buildTrend(Long empresaId, YearMonth mesDesde, YearMonth mesHasta) {
+        int claveDesde = claveMes(mesDesde);
+        int claveHasta = claveMes(mesHasta);
+
+        Map<Integer, TendenciaProyectosMes> proyectosPorMes = new HashMap<>();
+        for (TendenciaProyectosMes fila : rollupRepository.sumProyectosByMes(empresaId, mesDesde.getYear(),
+                mesHasta.getYear(), claveDesde, claveHasta)) {
+            proyectosPorMes.put(fila.anio() * 100 + fila.mes(), fila);
+        }
+        Map<Integer, TendenciaHorasMes> horasPorMes = new HashMap<>();
+        for (TendenciaHorasMes fila : rollupRepository.sumHorasByMes(empresaId, mesDesde.getYear(),
+                mesHasta.getYear(), claveDesde, claveHasta)) {
+            horasPorMes.put(fila.anio() * 100 + fila.mes(), fila);
+        }
+
+        // Relleno de huecos: un punto por cada mes del rango
+        List<DashboardTrendResponse.Punto> meses = new ArrayList<>();
+        for (YearMonth mes = mesDesde; !mes.isAfter(mesHasta); mes = mes.plusMonths(1)) {
+            int clave = claveMes(mes);
+            TendenciaProyectosMes proyectos = proyectosPorMes.get(clave);
+            TendenciaHorasMes horas = horasPorMes.get(clave);
+            meses.add(new DashboardTrendResponse.Punto(
+                    mes.getYear(),
+                    mes.getMonthValue(),
+                    proyectos != null && proyectos.totalProyectos() != null ? proyectos.totalProyectos() : 0L,
+                    MathUtils.getOrDefault(proyectos != null ? proyectos.montoRecibido() : null),
+                    MathUtils.getOrDefault(proyectos != null ? proyectos.costoMateriales() : null),
+                    MathUtils.getOrDefault(proyectos != null ? proyectos.otrosGastos() : null),
+                    MathUtils.getOrDefault(horas != null ? horas.costoManoDeObra() : null),
+                    MathUtils.getOrDefault(horas != null ? horas.horas() : null)));
+        }
+        return new DashboardTrendResponse(meses);
+    }
+
+    private static int claveMes(YearMonth mes) {
+        return mes.getYear() * 100 + mes.getMonthValue();
     }
 
     // Nuevo método para obtener solo la lista de años.
     @Transactional(readOnly = true)
     public List<Integer> getAvailableYears() {
-        User currentUser = userService.getCurrentUser();
-        Long empresaId = currentUser.getEmpresa().getId();
+        TenantContext tenant = tenantContextService.current();
+        Long empresaId = tenant.empresaId();
+
+        return dashboardCache.get("years", empresaId, null, null, null,
+                () -> rollupRepository.findDistinctYearsByEmpresaId(empresaId));
+    }
 
-        return proyectoRepository.findDistinctYearsByEmpresaId(empresaId);
+    /**
+     * Regenera el resumen mensual desde las tablas origen. Sin empresaId se
+     * reconstruyen todas las empresas.
+     */
+    public void rebuildRollup(Long empresaId) {
+        if (empresaId != null) {
+            rollupService.rebuild(empresaId);
+            dashboardCache.invalidateEmpresa(empresaId);
+        } else {
+            rollupService.rebuildAll();
+            dashboardCache.invalidateAll();
+        }
     }
 }
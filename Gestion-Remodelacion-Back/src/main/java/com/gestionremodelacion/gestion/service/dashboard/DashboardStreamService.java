@@ -0,0 +1,215 @@
+package com.gestionremodelacion.gestion.service.dashboard;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.gestionremodelacion.gestion.config.DashboardProperties;
+import com.gestionremodelacion.gestion.exception.BusinessRuleException;
+import com.gestionremodelacion.gestion.exception.ErrorCatalog;
+
+/**
+ * Notifica por Server-Sent Events a los dashboards conectados cuando cambian
+ * los datos de su empresa, para que el frontend no tenga que hacer polling.
+ *
+ * Características: - Registro de suscriptores por empresa - Cola acotada por
+ * conexión: si un cliente no consume a tiempo se descarta su cola y se le
+ * envía un único evento "resync" - Heartbeat periódico para mantener viva la
+ * conexión a través de proxies
+ *
+ * El registro de suscriptores y el reparto de eventos son locales a la JVM:
+ * solo se notifica a los clientes conectados a esta instancia (ver las
+ * limitaciones en DashboardStreamController).
+ */
+@Service
+public class DashboardStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    static final String EVENT_DELTA = "dashboard-delta";
+    static final String EVENT_RESYNC = "dashboard-resync";
+
+    private final Map<Long, Set<Subscriber>> suscriptores = new ConcurrentHashMap<>();
+    private final DashboardCache dashboardCache;
+    private final TaskExecutor streamExecutor;
+    private final DashboardProperties properties;
+
+    public DashboardStreamService(DashboardCache dashboardCache,
+            @Qualifier("dashboardStreamExecutor") TaskExecutor streamExecutor,
+            DashboardProperties properties) {
+        this.dashboardCache = dashboardCache;
+        this.streamExecutor = streamExecutor;
+        this.properties = properties;
+    }
+
+    /**
+     * Registra una nueva conexión SSE para la empresa.
+     */
+    public SseEmitter subscribe(Long empresaId) {
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeoutMs());
+        Subscriber subscriber = new Subscriber(empresaId, emitter);
+
+        // Alta atómica para no competir con remove() cuando se vacía el registro de la empresa
+        suscriptores.compute(empresaId, (id, empresaSubs) -> {
+            Set<Subscriber> subs = empresaSubs != null ? empresaSubs : ConcurrentHashMap.newKeySet();
+            if (subs.size() >= properties.getStreamMaxSubscribersPerEmpresa()) {
+                throw new BusinessRuleException(ErrorCatalog.DASHBOARD_STREAM_LIMIT.getKey());
+            }
+            subs.add(subscriber);
+            return subs;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // Primer evento con la versión actual: el cliente sabe desde dónde parte
+        enqueue(subscriber, new DashboardDelta(null, null, null, null, dashboardCache.version(empresaId)));
+        return emitter;
+    }
+
+    /**
+     * Se ejecuta después del commit y después de invalidar la caché, así el
+     * cliente que relea el resumen obtiene los datos nuevos.
+     */
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DashboardDataChangedEvent event) {
+        Set<Subscriber> empresaSubs = suscriptores.get(event.empresaId());
+        if (empresaSubs == null || empresaSubs.isEmpty()) {
+            return;
+        }
+        LocalDate fecha = event.fecha();
+        DashboardDelta delta = new DashboardDelta(
+                event.seccion(),
+                event.proyectoId(),
+                fecha != null ? fecha.getYear() : null,
+                fecha != null ? fecha.getMonthValue() : null,
+                dashboardCache.version(event.empresaId()));
+        empresaSubs.forEach(subscriber -> enqueue(subscriber, delta));
+    }
+
+    /**
+     * Heartbeat: comentario SSE vacío para que proxies y balanceadores no
+     * cierren conexiones inactivas, y para detectar clientes desconectados.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream-heartbeat-ms:20000}")
+    public void heartbeat() {
+        suscriptores.values().forEach(empresaSubs -> empresaSubs.forEach(subscriber -> enqueue(subscriber, null)));
+    }
+
+    private void enqueue(Subscriber subscriber, DashboardDelta delta) {
+        if (!subscriber.offer(delta, properties.getStreamMaxPendingEvents())) {
+            logger.debug("Cola SSE llena para empresa {}, se envía resync", subscriber.empresaId);
+        }
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                streamExecutor.execute(() -> drain(subscriber));
+            } catch (TaskRejectedException e) {
+                // El executor está saturado; se reintentará con el siguiente evento o heartbeat
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    // Envía todo lo pendiente de un suscriptor; solo un hilo a la vez por conexión
+    private void drain(Subscriber subscriber) {
+        try {
+            Object item;
+            while ((item = subscriber.poll()) != null) {
+                if (item == Subscriber.HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (item == Subscriber.RESYNC) {
+                    subscriber.emitter.send(SseEmitter.event().name(EVENT_RESYNC)
+                            .data(new DashboardDelta(null, null, null, null,
+                                    dashboardCache.version(subscriber.empresaId))));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().name(EVENT_DELTA).data(item));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado o emitter ya completado
+            subscriber.emitter.completeWithError(e);
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        // Un evento pudo llegar justo después de vaciar la cola
+        if (!subscriber.isEmpty() && subscriber.sending.compareAndSet(false, true)) {
+            try {
+                streamExecutor.execute(() -> drain(subscriber));
+            } catch (TaskRejectedException e) {
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        suscriptores.computeIfPresent(subscriber.empresaId, (id, empresaSubs) -> {
+            empresaSubs.remove(subscriber);
+            return empresaSubs.isEmpty() ? null : empresaSubs;
+        });
+    }
+
+    /**
+     * Cambio compacto que recibe el frontend. Indica qué sección cambió y, si
+     * aplica, el proyecto y el mes afectados; el cliente solo vuelve a pedir el
+     * resumen si el cambio cae dentro de su filtro actual.
+     */
+    public record DashboardDelta(DashboardDataChangedEvent.Seccion seccion, Long proyectoId, Integer anio,
+            Integer mes, long version) {
+
+    }
+
+    private static final class Subscriber {
+
+        static final Object HEARTBEAT = new Object();
+        static final Object RESYNC = new Object();
+
+        final Long empresaId;
+        final SseEmitter emitter;
+        final Deque<Object> pendientes = new ArrayDeque<>();
+        final AtomicBoolean sending = new AtomicBoolean();
+
+        Subscriber(Long empresaId, SseEmitter emitter) {
+            this.empresaId = empresaId;
+            this.emitter = emitter;
+        }
+
+        // Devuelve false si la cola estaba llena y se reemplazó por un resync
+        synchronized boolean offer(DashboardDelta delta, int maxPendientes) {
+            if (pendientes.size() >= maxPendientes) {
+                pendientes.clear();
+                pendientes.add(RESYNC);
+                return false;
+            }
+            pendientes.add(delta != null ? delta : HEARTBEAT);
+            return true;
+        }
+
+        synchronized Object poll() {
+            return pendientes.poll();
+        }
+
+        synchronized boolean isEmpty() {
+            return pendientes.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.gestionremodelacion.gestion.service.dashboard;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gestionremodelacion.gestion.dto.response.DashboardSummaryResponse;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardSummaryV2Response;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardSummaryV2Response.ConteoColumnas;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardSummaryV2Response.Diccionario;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardSummaryV2Response.HorasEmpleadoProyectoColumnas;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardSummaryV2Response.HorasProyectoColumnas;
+import com.gestionremodelacion.gestion.dto.response.dashboard.DashboardSummaryV2Response.Totales;
+import com.gestionremodelacion.gestion.dto.response.dashboard.EmpleadoProyectoHoras;
+import com.gestionremodelacion.gestion.dto.response.dashboard.EstadoProyectoCount;
+import com.gestionremodelacion.gestion.dto.response.dashboard.ProyectoHoras;
+import com.gestionremodelacion.gestion.dto.response.dashboard.RolCount;
+import com.gestionremodelacion.gestion.service.dashboard.metrics.FinanceMetricService.FinancialSummaryDTO;
+import com.gestionremodelacion.gestion.service.dashboard.metrics.HumanResourcesMetricService.HRMetricsDTO;
+import com.gestionremodelacion.gestion.service.dashboard.metrics.ProjectMetricService.ProjectStatusDTO;
+
+/**
+ * Resultado tipado de los servicios de métricas. Es lo que se guarda en la
+ * caché; de aquí se arma la respuesta v1 (filas Object[]) o la v2 (columnar).
+ */
+public record DashboardSummaryData(
+        ProjectStatusDTO proyectos,
+        HRMetricsDTO recursosHumanos,
+        FinancialSummaryDTO finanzas,
+        List<String> seccionesNoDisponibles) {
+
+    public boolean isParcial() {
+        return !seccionesNoDisponibles.isEmpty();
+    }
+
+    // Respuesta v1: mantiene la estructura List<Object[]> que espera el frontend actual
+    public DashboardSummaryResponse toResponse() {
+        // v1 agrupaba las horas por nombre de proyecto
+        Map<String, BigDecimal> horasPorNombre = new LinkedHashMap<>();
+        for (ProyectoHoras fila : recursosHumanos.horasPorProyecto()) {
+            horasPorNombre.merge(fila.nombreProyecto(), fila.horas(), BigDecimal::add);
+        }
+        List<Object[]> horasPorProyecto = horasPorNombre.entrySet().stream()
+                .map(entry -> new Object[] { entry.getKey(), entry.getValue() })
+                .toList();
+
+        return new DashboardSummaryResponse(
+                proyectos.total(), // Total Proyectos
+                recursosHumanos.empleadosActivos(), // Empleados Activos
+                finanzas.balance(), // Balance Financiero
+                finanzas.ingresos(), // Monto Recibido
+                finanzas.materiales(), // Costo Materiales
+                finanzas.otros(), // Otros Gastos
+                // Lista: Empleados por Rol
+                recursosHumanos.empleadosPorRol().stream().map(RolCount::toRow).toList(),
+                horasPorProyecto, // Lista: Horas por Proyecto
+                // Lista: Proyectos por Estado
+                proyectos.proyectosPorEstado().stream().map(EstadoProyectoCount::toRow).toList(),
+                // Lista: Horas por Empleado/Proyecto
+                recursosHumanos.horasPorEmpleadoProyecto().stream().map(EmpleadoProyectoHoras::toRow).toList(),
+                finanzas.manoObra(), // Costo Mano de Obra
+                seccionesNoDisponibles // Secciones que fallaron o excedieron el tiempo
+        );
+    }
+
+    // Respuesta v2: arreglos paralelos y diccionarios de nombres
+    public DashboardSummaryV2Response toV2Response() {
+        DiccionarioBuilder proyectosDic = new DiccionarioBuilder();
+        DiccionarioBuilder empleadosDic = new DiccionarioBuilder();
+
+        List<EstadoProyectoCount> estados = proyectos.proyectosPorEstado();
+        String[] estadoEtiquetas = new String[estados.size()];
+        long[] estadoTotales = new long[estados.size()];
+        for (int i = 0; i < estados.size(); i++) {
+            EstadoProyectoCount fila = estados.get(i);
+            estadoEtiquetas[i] = fila.estado() != null ? fila.estado().name() : null;
+            estadoTotales[i] = fila.total() != null ? fila.total() : 0L;
+        }
+
+        List<RolCount> roles = recursosHumanos.empleadosPorRol();
+        String[] rolEtiquetas = new String[roles.size()];
+        long[] rolTotales = new long[roles.size()];
+        for (int i = 0; i < roles.size(); i++) {
+            RolCount fila = roles.get(i);
+            rolEtiquetas[i] = fila.rol();
+            rolTotales[i] = fila.total() != null ? fila.total() : 0L;
+        }
+
+        List<ProyectoHoras> porProyecto = recursosHumanos.horasPorProyecto();
+        int[] hpProyecto = new int[porProyecto.size()];
+        BigDecimal[] hpHoras = new BigDecimal[porProyecto.size()];
+        for (int i = 0; i < porProyecto.size(); i++) {
+            ProyectoHoras fila = porProyecto.get(i);
+            hpProyecto[i] = proyectosDic.indexOf(fila.proyectoId(), fila.nombreProyecto());
+            hpHoras[i] = fila.horas();
+        }
+
+        List<EmpleadoProyectoHoras> porEmpleado = recursosHumanos.horasPorEmpleadoProyecto();
+        int[] heEmpleado = new int[porEmpleado.size()];
+        int[] heProyecto = new int[porEmpleado.size()];
+        BigDecimal[] heHoras = new BigDecimal[porEmpleado.size()];
+        BigDecimal[] heCosto = new BigDecimal[porEmpleado.size()];
+        for (int i = 0; i < porEmpleado.size(); i++) {
+            EmpleadoProyectoHoras fila = porEmpleado.get(i);
+            heEmpleado[i] = empleadosDic.indexOf(fila.empleadoId(), fila.nombreEmpleado());
+            heProyecto[i] = proyectosDic.indexOf(fila.proyectoId(), fila.nombreProyecto());
+            heHoras[i] = fila.horas();
+            heCosto[i] = fila.costo();
+        }
+
+        Totales totales = new Totales(
+                proyectos.total(),
+                recursosHumanos.empleadosActivos() != null ? recursosHumanos.empleadosActivos() : 0L,
+                finanzas.balance(),
+                finanzas.ingresos(),
+                finanzas.materiales(),
+                finanzas.otros(),
+                finanzas.manoObra());
+
+        return new DashboardSummaryV2Response(
+                DashboardSummaryV2Response.VERSION,
+                totales,
+                proyectosDic.build(),
+                empleadosDic.build(),
+                new ConteoColumnas(estadoEtiquetas, estadoTotales),
+                new ConteoColumnas(rolEtiquetas, rolTotales),
+                new HorasProyectoColumnas(hpProyecto, hpHoras),
+                new HorasEmpleadoProyectoColumnas(heEmpleado, heProyecto, heHoras, heCosto),
+                seccionesNoDisponibles);
+    }
+
+    // Asigna a cada id un índice estable en el orden en que aparece
+    private static final class DiccionarioBuilder {
+
+        private final Map<Long, Integer> indices = new LinkedHashMap<>();
+        private final Map<Long, String> nombres = new LinkedHashMap<>();
+
+        int indexOf(Long id, String nombre) {
+            Integer index = indices.get(id);
+            if (index == null) {
+                index = indices.size();
+                indices.put(id, index);
+                nombres.put(id, nombre);
+            }
+            return index;
+        }
+
+        Diccionario build() {
+            long[] ids = new long[indices.size()];
+            String[] valores = new String[indices.size()];
+            int i = 0;
+            for (Map.Entry<Long, String> entry : nombres.entrySet()) {
+                ids[i] = entry.getKey();
+                valores[i] = entry.getValue();
+                i++;
+            }
+            return new Diccionario(ids, valores);
+        }
+    }
+}
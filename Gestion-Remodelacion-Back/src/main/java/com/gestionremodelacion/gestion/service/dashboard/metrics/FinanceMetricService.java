@@ -4,44 +4,31 @@ import java.math.BigDecimal;
 
 import org.springframework.stereotype.Service;
 
-import com.gestionremodelacion.gestion.proyecto.repository.ProyectoRepository;
-import com.gestionremodelacion.gestion.util.MathUtils;
+import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoFinancialTotals;
+import com.gestionremodelacion.gestion.repository.DashboardRollupRepository;
+import com.gestionremodelacion.gestion.util.DateRange;
 
 @Service
 public class FinanceMetricService {
 
-    private final ProyectoRepository proyectoRepository;
+    private final DashboardRollupRepository rollupRepository;
 
-    public FinanceMetricService(ProyectoRepository proyectoRepository) {
-        this.proyectoRepository = proyectoRepository;
+    public FinanceMetricService(DashboardRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
     }
 
     public FinancialSummaryDTO calculateFinancials(Long empresaId, int year, Integer month, Long projectId) {
-        BigDecimal montoRecibido;
-        BigDecimal costoMateriales;
-        BigDecimal otrosGastos;
-        BigDecimal costoManoDeObra;
+        // Una sola consulta agregada por alcance sobre las filas de proyecto del resumen mensual
+        ProyectoFinancialTotals totals;
 
         if (projectId != null) {
-            montoRecibido = MathUtils.getOrDefault(proyectoRepository.sumMontoRecibidoByProjectId(projectId, empresaId));
-            costoMateriales = MathUtils.getOrDefault(proyectoRepository.sumCostoMaterialesConsolidadoByProjectId(projectId, empresaId));
-            otrosGastos = MathUtils.getOrDefault(proyectoRepository.sumOtrosGastosDirectosConsolidadoByProjectId(projectId, empresaId));
-            costoManoDeObra = MathUtils.getOrDefault(proyectoRepository.sumCostoManoDeObraByProjectId(projectId, empresaId));
-        } else if (month != null && month > 0) {
-            montoRecibido = MathUtils.getOrDefault(proyectoRepository.sumMontoRecibidoByYearAndMonth(empresaId, year, month));
-            costoMateriales = MathUtils.getOrDefault(proyectoRepository.sumCostoMaterialesConsolidadoByYearAndMonth(empresaId, year, month));
-            otrosGastos = MathUtils.getOrDefault(proyectoRepository.sumOtrosGastosDirectosConsolidadoByYearAndMonth(empresaId, year, month));
-            costoManoDeObra = MathUtils.getOrDefault(proyectoRepository.sumCostoManoDeObraByYearAndMonth(empresaId, year, month));
+            totals = rollupRepository.sumFinancialTotalsByProjectId(empresaId, projectId);
         } else {
-            montoRecibido = MathUtils.getOrDefault(proyectoRepository.sumMontoRecibidoByYear(empresaId, year));
-            costoMateriales = MathUtils.getOrDefault(proyectoRepository.sumCostoMaterialesConsolidadoByYear(empresaId, year));
-            otrosGastos = MathUtils.getOrDefault(proyectoRepository.sumOtrosGastosDirectosConsolidadoByYear(empresaId, year));
-            costoManoDeObra = MathUtils.getOrDefault(proyectoRepository.sumCostoManoDeObraByYear(empresaId, year));
+            Integer mes = DateRange.mes(month);
+            totals = rollupRepository.sumFinancialTotals(empresaId, year, mes);
         }
 
-        BigDecimal balance = montoRecibido.subtract(costoMateriales).subtract(otrosGastos).subtract(costoManoDeObra);
-
-        return new FinancialSummaryDTO(balance, montoRecibido, costoMateriales, otrosGastos, costoManoDeObra);
+        return FinancialSummaryDTO.from(totals != null ? totals : ProyectoFinancialTotals.empty());
     }
 
     // DTO Interno (Record de Java 17)
@@ -53,5 +40,17 @@ public class FinanceMetricService {
             BigDecimal manoObra
             ) {
 
+        public static FinancialSummaryDTO from(ProyectoFinancialTotals totals) {
+            return new FinancialSummaryDTO(
+                    totals.balance(),
+                    totals.montoRecibido(),
+                    totals.costoMateriales(),
+                    totals.otrosGastos(),
+                    totals.costoManoDeObra());
+        }
+
+        public static FinancialSummaryDTO empty() {
+            return from(ProyectoFinancialTotals.empty());
+        }
     }
 }
@@ -5,47 +5,48 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.gestionremodelacion.gestion.dto.response.dashboard.EmpleadoProyectoHoras;
+import com.gestionremodelacion.gestion.dto.response.dashboard.ProyectoHoras;
+import com.gestionremodelacion.gestion.dto.response.dashboard.RolCount;
 import com.gestionremodelacion.gestion.empleado.repository.EmpleadoRepository;
-import com.gestionremodelacion.gestion.horastrabajadas.repository.HorasTrabajadasRepository;
+import com.gestionremodelacion.gestion.repository.DashboardRollupRepository;
+import com.gestionremodelacion.gestion.util.DateRange;
 
 @Service
 public class HumanResourcesMetricService {
 
     private final EmpleadoRepository empleadoRepository;
-    private final HorasTrabajadasRepository horasTrabajadasRepository;
+    private final DashboardRollupRepository rollupRepository;
 
     public HumanResourcesMetricService(EmpleadoRepository empleadoRepository,
-            HorasTrabajadasRepository horasTrabajadasRepository) {
+            DashboardRollupRepository rollupRepository) {
         this.empleadoRepository = empleadoRepository;
-        this.horasTrabajadasRepository = horasTrabajadasRepository;
+        this.rollupRepository = rollupRepository;
     }
 
     public HRMetricsDTO getHRStats(Long empresaId, int year, Integer month, Long projectId) {
         // 1. Empleados Activos 
         Long empleadosActivos = empleadoRepository.countByEmpresaIdAndActivo(empresaId);
 
-        List<Object[]> empleadosPorRol;
-        List<Object[]> horasPorProyecto;
-        List<Object[]> horasPorEmpleadoProyecto;
+        List<RolCount> empleadosPorRol;
+        List<ProyectoHoras> horasPorProyecto;
+        List<EmpleadoProyectoHoras> horasPorEmpleadoProyecto;
 
-        // 2. LÓGICA DE FILTRADO 
+        // 2. LÓGICA DE FILTRADO (sobre las filas de horas del resumen mensual)
         // A. Filtro por Proyecto
         if (projectId != null) {
-            horasPorProyecto = horasTrabajadasRepository.sumHorasByProyectoByProjectId(empresaId, projectId);
-            horasPorEmpleadoProyecto = horasTrabajadasRepository.sumHorasByEmpleadoAndProyectoByProjectId(empresaId, projectId);
-            empleadosPorRol = horasTrabajadasRepository.countEmpleadosByRolByProjectId(empresaId, projectId);
+            horasPorProyecto = rollupRepository.sumHorasByProyectoByProjectId(empresaId, projectId);
+            horasPorEmpleadoProyecto = rollupRepository.sumHorasByEmpleadoAndProyectoByProjectId(empresaId, projectId);
+            empleadosPorRol = rollupRepository.countEmpleadosByRolByProjectId(empresaId, projectId);
 
-            // B. Filtro por Mes
-        } else if (month != null && month > 0) {
-            horasPorProyecto = horasTrabajadasRepository.sumHorasByProyectoByYearAndMonth(empresaId, year, month);
-            horasPorEmpleadoProyecto = horasTrabajadasRepository.sumHorasByEmpleadoAndProyectoByYearAndMonth(empresaId, year, month);
-            empleadosPorRol = horasTrabajadasRepository.countEmpleadosByRolByYearAndMonth(empresaId, year, month);
-
-            // C. Filtro por Año (Default)
+            // B. Filtro por Mes / C. Filtro por Año (Default, mes = null)
         } else {
-            horasPorProyecto = horasTrabajadasRepository.sumHorasByProyectoByYear(empresaId, year);
-            horasPorEmpleadoProyecto = horasTrabajadasRepository.sumHorasByEmpleadoAndProyectoByYear(empresaId, year);
-            empleadosPorRol = horasTrabajadasRepository.countEmpleadosByRolByYear(empresaId, year);
+            Integer mes = DateRange.mes(month);
+            DateRange rango = DateRange.of(year, mes);
+            horasPorProyecto = rollupRepository.sumHorasByProyecto(empresaId, rango.desde(), rango.hasta());
+            horasPorEmpleadoProyecto = rollupRepository.sumHorasByEmpleadoAndProyecto(empresaId, rango.desde(),
+                    rango.hasta());
+            empleadosPorRol = rollupRepository.countEmpleadosByRol(empresaId, year, mes);
         }
 
         // Seguridad para evitar nulls en las listas
@@ -62,13 +63,16 @@ public class HumanResourcesMetricService {
         return new HRMetricsDTO(empleadosActivos, empleadosPorRol, horasPorProyecto, horasPorEmpleadoProyecto);
     }
 
-    // DTO Interno que mantiene la estructura List<Object[]> para no romper el Frontend
+    // DTO Interno con filas tipadas; DashboardService las convierte al formato v1 o v2
     public record HRMetricsDTO(
             Long empleadosActivos,
-            List<Object[]> empleadosPorRol,
-            List<Object[]> horasPorProyecto,
-            List<Object[]> horasPorEmpleadoProyecto
+            List<RolCount> empleadosPorRol,
+            List<ProyectoHoras> horasPorProyecto,
+            List<EmpleadoProyectoHoras> horasPorEmpleadoProyecto
             ) {
 
+        public static HRMetricsDTO empty() {
+            return new HRMetricsDTO(0L, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        }
     }
 }
@@ -5,39 +5,35 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
-import com.gestionremodelacion.gestion.proyecto.repository.ProyectoRepository;
+import com.gestionremodelacion.gestion.dto.response.dashboard.EstadoProyectoCount;
+import com.gestionremodelacion.gestion.repository.DashboardRollupRepository;
+import com.gestionremodelacion.gestion.util.DateRange;
 
 @Service
 public class ProjectMetricService {
 
-    private final ProyectoRepository proyectoRepository;
+    private final DashboardRollupRepository rollupRepository;
 
     // Constructor manual (Sin Lombok)
-    public ProjectMetricService(ProyectoRepository proyectoRepository) {
-        this.proyectoRepository = proyectoRepository;
+    public ProjectMetricService(DashboardRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
     }
 
     public ProjectStatusDTO getProjectStats(Long empresaId, int year, Integer month, Long projectId) {
         long totalProyectos;
-        List<Object[]> proyectosPorEstado;
+        List<EstadoProyectoCount> proyectosPorEstado;
 
         // 1. NIVEL: FILTRO POR PROYECTO ESPECÍFICO
         if (projectId != null) {
             totalProyectos = 1L;
-            // Usamos tu método existente que devuelve List<Object[]>
-            proyectosPorEstado = proyectoRepository.countProyectosByEstadoByProjectId(projectId, empresaId);
+            proyectosPorEstado = rollupRepository.countProyectosByEstadoByProjectId(empresaId, projectId);
 
-            // 2. NIVEL: FILTRO POR MES
-        } else if (month != null && month > 0) {
-            totalProyectos = proyectoRepository.countByYearAndMonth(empresaId, year, month);
-            // Usamos tu método existente
-            proyectosPorEstado = proyectoRepository.countProyectosByEstadoByYearAndMonth(empresaId, year, month);
-
-            // 3. NIVEL: FILTRO POR AÑO (DEFAULT)
+            // 2. NIVEL: FILTRO POR MES / 3. NIVEL: FILTRO POR AÑO (DEFAULT)
+            // El resumen mensual resuelve ambos casos; sin mes se suman los 12 meses
         } else {
-            totalProyectos = proyectoRepository.countByYear(empresaId, year);
-            // Usamos tu método existente
-            proyectosPorEstado = proyectoRepository.countProyectosByEstadoByYear(empresaId, year);
+            Integer mes = DateRange.mes(month);
+            totalProyectos = rollupRepository.countProyectos(empresaId, year, mes);
+            proyectosPorEstado = rollupRepository.countProyectosByEstado(empresaId, year, mes);
         }
 
         // Manejo de seguridad: si la lista es nula, devolvemos lista vacía para evitar errores en el DTO
@@ -48,8 +44,10 @@ public class ProjectMetricService {
         return new ProjectStatusDTO(totalProyectos, proyectosPorEstado);
     }
 
-    // DTO ajustado para devolver List<Object[]> tal como lo espera tu DashboardSummaryResponse
-    public record ProjectStatusDTO(long total, List<Object[]> proyectosPorEstado) {
+    public record ProjectStatusDTO(long total, List<EstadoProyectoCount> proyectosPorEstado) {
 
+        public static ProjectStatusDTO empty() {
+            return new ProjectStatusDTO(0L, Collections.emptyList());
+        }
     }
 }
@@ -30,16 +30,19 @@ public class UserDetailsImpl implements UserDetails {
     private final Empresa empresa;
     private final Collection<? extends GrantedAuthority> authorities;
     private final Collection<? extends GrantedAuthority> userRoles;
+    private final long securityVersion;
 
     // Constructor principal
     public UserDetailsImpl(Long id, String username, String password, Empresa empresa,
-            Collection<? extends GrantedAuthority> authorities, Collection<? extends GrantedAuthority> userRoles) {
+            Collection<? extends GrantedAuthority> authorities, Collection<? extends GrantedAuthority> userRoles,
+            long securityVersion) {
         this.id = id;
         this.username = username;
         this.password = password;
         this.empresa = empresa;
         this.authorities = authorities;
         this.userRoles = userRoles;
+        this.securityVersion = securityVersion;
     }
 
     /**
@@ -71,7 +74,8 @@ public class UserDetailsImpl implements UserDetails {
                 user.getPassword(),
                 user.getEmpresa(),
                 authorities,
-                userRoles);
+                userRoles,
+                user.getSecurityVersion());
     }
 
     // Getters y métodos requeridos por UserDetails
@@ -141,4 +145,9 @@ public class UserDetailsImpl implements UserDetails {
     public Empresa getEmpresa() {
         return empresa;
     }
+
+    // Versión de seguridad con la que se emite el JWT (claim "ver")
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
 }
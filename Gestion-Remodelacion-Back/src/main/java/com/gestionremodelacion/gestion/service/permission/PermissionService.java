@@ -17,8 +17,10 @@ import com.gestionremodelacion.gestion.dto.response.PermissionResponse;
 import com.gestionremodelacion.gestion.mapper.PermissionMapper;
 import com.gestionremodelacion.gestion.model.Permission;
 import com.gestionremodelacion.gestion.model.Permission.PermissionScope;
+import com.gestionremodelacion.gestion.model.Role;
 import com.gestionremodelacion.gestion.model.User;
 import com.gestionremodelacion.gestion.repository.PermissionRepository;
+import com.gestionremodelacion.gestion.security.service.UserSecurityStateService;
 import com.gestionremodelacion.gestion.service.user.UserService;
 
 @Service
@@ -27,12 +29,14 @@ public class PermissionService {
     private final PermissionRepository permissionRepository;
     private final PermissionMapper permissionMapper;
     private final UserService userService;
+    private final UserSecurityStateService userSecurityStateService;
 
     public PermissionService(PermissionRepository permissionRepository, PermissionMapper permissionMapper,
-            UserService userService) {
+            UserService userService, UserSecurityStateService userSecurityStateService) {
         this.permissionRepository = permissionRepository;
         this.permissionMapper = permissionMapper;
         this.userService = userService;
+        this.userSecurityStateService = userSecurityStateService;
     }
 
     // Metodo para obtener los permisos para PermissionDropdownResponse
@@ -111,11 +115,20 @@ public class PermissionService {
             throw new IllegalArgumentException("Permission name '" + permissionRequest.getName() + "' already exists.");
         }
 
+        boolean renombrado = !existingPermission.getName().equals(permissionRequest.getName());
         existingPermission.setName(permissionRequest.getName());
         existingPermission.setDescription(permissionRequest.getDescription());
         // Obtener el scope del request y establecerlo en la entidad
         existingPermission.setScope(PermissionScope.valueOf(permissionRequest.getScope()));
         Permission updatedPermission = permissionRepository.save(existingPermission);
+
+        // Los tokens llevan el nombre del permiso: los usuarios de los roles que lo
+        // tienen deben renovarlos para recibir el nombre nuevo
+        if (renombrado && updatedPermission.getRoles() != null) {
+            for (Role role : updatedPermission.getRoles()) {
+                userSecurityStateService.bumpUsersWithRole(role);
+            }
+        }
         return permissionMapper.toPermissionResponse(updatedPermission);
     }
 
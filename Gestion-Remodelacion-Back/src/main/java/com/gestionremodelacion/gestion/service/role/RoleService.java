@@ -27,6 +27,7 @@ import com.gestionremodelacion.gestion.model.User;
 import com.gestionremodelacion.gestion.repository.PermissionRepository;
 import com.gestionremodelacion.gestion.repository.RoleRepository;
 import com.gestionremodelacion.gestion.repository.UserRepository;
+import com.gestionremodelacion.gestion.security.service.UserSecurityStateService;
 import com.gestionremodelacion.gestion.service.user.UserService;
 
 @Service
@@ -37,14 +38,17 @@ public class RoleService {
     private final RoleMapper roleMapper;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final UserSecurityStateService userSecurityStateService;
 
     public RoleService(RoleRepository roleRepository, PermissionRepository permissionRepository, RoleMapper roleMapper,
-            UserRepository userRepository, UserService userService) {
+            UserRepository userRepository, UserService userService,
+            UserSecurityStateService userSecurityStateService) {
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
         this.roleMapper = roleMapper;
         this.userRepository = userRepository;
         this.userService = userService;
+        this.userSecurityStateService = userSecurityStateService;
     }
 
     // Método de ayuda para verificar si el usuario es Super Admin
@@ -180,6 +184,8 @@ public class RoleService {
         existingRole.setPermissions(newPermissions);
         // Guardamos
         Role updatedRole = roleRepository.save(existingRole);
+        // Los tokens de los usuarios con este rol llevan los permisos anteriores
+        userSecurityStateService.bumpUsersWithRole(updatedRole);
         return roleMapper.toRoleResponse(updatedRole);
     }
 
@@ -250,6 +256,7 @@ public class RoleService {
         // Desvincula el rol de todos los usuarios encontrados.
         for (User user : usersWithRole) {
             user.removeRole(roleToDelete);
+            userSecurityStateService.bump(user);
             userRepository.save(user);
         }
 
@@ -28,6 +28,8 @@ import com.gestionremodelacion.gestion.model.User;
 import com.gestionremodelacion.gestion.repository.RefreshTokenRepository;
 import com.gestionremodelacion.gestion.repository.RoleRepository;
 import com.gestionremodelacion.gestion.repository.UserRepository;
+import com.gestionremodelacion.gestion.search.FullTextSearch;
+import com.gestionremodelacion.gestion.security.service.UserSecurityStateService;
 
 /**
  * Servicio para manejar la lógica de negocio relacionada con usuarios.
@@ -42,10 +44,11 @@ public class UserService {
     private final UserMapper userMapper;
     private final EmpresaRepository empresaRepository;
     private final EmpleadoRepository empleadoRepository;
+    private final UserSecurityStateService userSecurityStateService;
 
     public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder,
             UserMapper userMapper, RefreshTokenRepository refreshTokenRepository, EmpresaRepository empresaRepository,
-            EmpleadoRepository empleadoRepository) {
+            EmpleadoRepository empleadoRepository, UserSecurityStateService userSecurityStateService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
@@ -53,6 +56,7 @@ public class UserService {
         this.refreshTokenRepository = refreshTokenRepository;
         this.empresaRepository = empresaRepository;
         this.empleadoRepository = empleadoRepository;
+        this.userSecurityStateService = userSecurityStateService;
     }
 
     @Transactional(readOnly = true)
@@ -62,11 +66,15 @@ public class UserService {
                 .anyMatch(role -> "ROLE_SUPER_ADMIN".equals(role.getName()));
 
         String effectiveFilter = (filter != null && !filter.trim().isEmpty()) ? filter.trim().toLowerCase() : null;
+        // Índice FULLTEXT si el término lo permite; LIKE para términos muy cortos
+        String termino = FullTextSearch.toBooleanQuery(filter);
         Page<User> usersPage;
 
         if (isSuperAdmin) {
             // El SUPER ADMIN ve a todos los usuarios de todas las empresas.
-            usersPage = userRepository.findAllWithFilter(effectiveFilter, pageable);
+            usersPage = termino != null
+                    ? userRepository.findAllWithFullText(termino, pageable)
+                    : userRepository.findAllWithFilter(effectiveFilter, pageable);
         } else {
             // Un ADMIN normal solo ve los usuarios de su propia empresa.
             if (currentUser.getEmpresa() == null) {
@@ -74,8 +82,10 @@ public class UserService {
                 return Page.empty(pageable);
             }
             Long empresaId = currentUser.getEmpresa().getId();
-            usersPage = userRepository.findByEmpresaIdAndFilterExcludingSuperAdmin(empresaId, effectiveFilter,
-                    pageable);
+            usersPage = termino != null
+                    ? userRepository.findByEmpresaIdAndFullTextExcludingSuperAdmin(empresaId, termino, pageable)
+                    : userRepository.findByEmpresaIdAndFilterExcludingSuperAdmin(empresaId, effectiveFilter,
+                            pageable);
         }
 
         return usersPage.map(userMapper::toDto);
@@ -221,6 +231,8 @@ public class UserService {
         }
 
         // 4. Actualizar los campos básicos del usuario
+        // El estado cacheado se indexa por username; el anterior deja de ser válido
+        userSecurityStateService.invalidateAfterCommit(existingUser.getUsername());
         existingUser.setUsername(userRequest.getUsername());
         existingUser.setEnabled(userRequest.isEnabled());
 
@@ -251,7 +263,10 @@ public class UserService {
             existingUser.setEmpresa(empresaAsignada);
         }
 
-        // 8. Guardar y devolver la respuesta
+        // 8. Los tokens emitidos antes del cambio (roles, estado, contraseña) dejan de ser válidos
+        userSecurityStateService.bump(existingUser);
+
+        // 9. Guardar y devolver la respuesta
         User updatedUser = userRepository.save(existingUser);
         return userMapper.toDto(updatedUser);
     }
@@ -298,6 +313,7 @@ public class UserService {
         // cualquier sesión activa.
         refreshTokenRepository.deleteByUser(userToDelete);
         userRepository.delete(userToDelete);
+        userSecurityStateService.invalidateAfterCommit(userToDelete.getUsername());
     }
 
     // MÉTODO PRIVADO PARA CENTRALIZAR LA VALIDACIÓN
@@ -331,6 +347,7 @@ public class UserService {
                 .collect(Collectors.toSet());
 
         existingUser.setRoles(newRoles);
+        userSecurityStateService.bump(existingUser);
         User updatedUser = userRepository.save(existingUser);
         return userMapper.toDto(updatedUser);
     }
@@ -0,0 +1,48 @@
+package com.gestionremodelacion.gestion.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Rango de fechas semiabierto [desde, hasta). Se usa en las consultas en lugar
+ * de YEAR()/MONTH() sobre la columna, para que MySQL pueda usar los índices
+ * por fecha.
+ */
+public record DateRange(LocalDate desde, LocalDate hasta) {
+
+    /**
+     * Rango del año completo, o solo del mes si {@code month} es válido (1-12).
+     * Cualquier otro valor (null, 0, 13...) se toma como el año completo.
+     */
+    public static DateRange of(int year, Integer month) {
+        Integer mes = mes(month);
+        if (mes != null) {
+            LocalDate inicio = LocalDate.of(year, mes, 1);
+            return new DateRange(inicio, inicio.plusMonths(1));
+        }
+        LocalDate inicio = LocalDate.of(year, 1, 1);
+        return new DateRange(inicio, inicio.plusYears(1));
+    }
+
+    /**
+     * Mes del filtro si es válido (1-12); null (año completo) en otro caso.
+     */
+    public static Integer mes(Integer month) {
+        return month != null && month >= 1 && month <= 12 ? month : null;
+    }
+
+    // Rango del mes al que pertenece la fecha
+    public static DateRange ofMonth(LocalDate fecha) {
+        LocalDate inicio = fecha.withDayOfMonth(1);
+        return new DateRange(inicio, inicio.plusMonths(1));
+    }
+
+    // Para columnas DATETIME (ej. fecha_registro)
+    public LocalDateTime desdeInicio() {
+        return desde.atStartOfDay();
+    }
+
+    public LocalDateTime hastaInicio() {
+        return hasta.atStartOfDay();
+    }
+}
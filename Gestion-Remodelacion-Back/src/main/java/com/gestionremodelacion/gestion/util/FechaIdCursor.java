@@ -0,0 +1,45 @@
+package com.gestionremodelacion.gestion.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.gestionremodelacion.gestion.exception.BusinessRuleException;
+import com.gestionremodelacion.gestion.exception.ErrorCatalog;
+
+/**
+ * Posición dentro de un listado ordenado por (fecha DESC, id DESC) para la
+ * paginación por cursor. Se envía al cliente como un token opaco; el cliente
+ * solo lo devuelve tal cual para pedir la siguiente página.
+ */
+public record FechaIdCursor(LocalDate fecha, Long id) {
+
+    // Posición anterior a cualquier registro: la primera página usa la misma consulta que las demás
+    public static final FechaIdCursor INICIO = new FechaIdCursor(LocalDate.of(9999, 12, 31), Long.MAX_VALUE);
+
+    public String encode() {
+        String valor = fecha + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica el token recibido; sin token se empieza desde el inicio.
+     */
+    public static FechaIdCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.indexOf('|');
+            if (separador < 0) {
+                throw new BusinessRuleException(ErrorCatalog.INVALID_CURSOR.getKey());
+            }
+            return new FechaIdCursor(LocalDate.parse(valor.substring(0, separador)),
+                    Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessRuleException(ErrorCatalog.INVALID_CURSOR.getKey());
+        }
+    }
+}
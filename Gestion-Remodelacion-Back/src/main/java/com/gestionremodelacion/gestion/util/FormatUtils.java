@@ -11,6 +11,11 @@ import com.gestionremodelacion.gestion.empleado.model.ModeloDePago;
  */
 public final class FormatUtils {
 
+    // NumberFormat no es thread-safe: una instancia por hilo en lugar de una por llamada.
+    // Se puede cambiar "en", "US" a "es", "MX" para formato mexicano si se desea.
+    private static final ThreadLocal<NumberFormat> CURRENCY_FORMAT = ThreadLocal
+            .withInitial(() -> NumberFormat.getCurrencyInstance(Locale.US));
+
     // Se hace el constructor privado para que la clase no pueda ser instanciada.
     private FormatUtils() {
     }
@@ -27,9 +32,7 @@ public final class FormatUtils {
         if (value == null) {
             return "$0.00";
         }
-        // Se puede cambiar "en", "US" a "es", "MX" para formato mexicano si se desea.
-        NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("en", "US"));
-        return currencyFormatter.format(value);
+        return CURRENCY_FORMAT.get().format(value);
     }
 
     // Método de ayuda para formatear el teléfono
@@ -0,0 +1,39 @@
+-- V11: Tabla resumen mensual para el Dashboard.
+-- Fila de proyecto: id_empleado = 0, ubicada en el mes de fecha_inicio (0/0 si no tiene fecha).
+-- Fila de horas: horas y costo de mano de obra por (mes trabajado, proyecto, empleado).
+
+CREATE TABLE dashboard_rollup_mensual (
+    id_empresa BIGINT NOT NULL,
+    anio INT NOT NULL,
+    mes INT NOT NULL,
+    id_proyecto BIGINT NOT NULL,
+    id_empleado BIGINT NOT NULL,
+    estado_proyecto VARCHAR(50) NULL,
+    total_proyectos INT NOT NULL DEFAULT 0,
+    monto_recibido DECIMAL(38, 2) NOT NULL DEFAULT 0,
+    costo_materiales DECIMAL(38, 2) NOT NULL DEFAULT 0,
+    otros_gastos DECIMAL(38, 2) NOT NULL DEFAULT 0,
+    costo_mano_de_obra DECIMAL(38, 2) NOT NULL DEFAULT 0,
+    horas DECIMAL(38, 2) NOT NULL DEFAULT 0,
+    registros INT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (id_empresa, anio, mes, id_proyecto, id_empleado),
+    INDEX idx_rollup_empresa_proyecto (id_empresa, id_proyecto)
+);
+
+-- Carga inicial desde las tablas origen (equivalente al comando de reconstrucción)
+INSERT INTO dashboard_rollup_mensual (id_empresa, anio, mes, id_proyecto, id_empleado,
+    estado_proyecto, total_proyectos, monto_recibido, costo_materiales, otros_gastos,
+    costo_mano_de_obra, horas, registros)
+SELECT p.id_empresa, COALESCE(YEAR(p.fecha_inicio), 0), COALESCE(MONTH(p.fecha_inicio), 0), p.id, 0,
+    p.estado, 1, COALESCE(p.monto_recibido, 0), COALESCE(p.costo_materiales_consolidado, 0),
+    COALESCE(p.otros_gastos_directos_consolidado, 0), COALESCE(p.costo_mano_de_obra, 0), 0, 0
+FROM proyectos p;
+
+INSERT INTO dashboard_rollup_mensual (id_empresa, anio, mes, id_proyecto, id_empleado,
+    estado_proyecto, total_proyectos, monto_recibido, costo_materiales, otros_gastos,
+    costo_mano_de_obra, horas, registros)
+SELECT h.id_empresa, YEAR(h.fecha), MONTH(h.fecha), h.id_proyecto, h.id_empleado,
+    NULL, 0, 0, 0, 0, SUM(h.horas * COALESCE(h.costo_por_hora_actual, 0)), SUM(h.horas), COUNT(*)
+FROM horas_trabajadas h
+GROUP BY h.id_empresa, YEAR(h.fecha), MONTH(h.fecha), h.id_proyecto, h.id_empleado;
@@ -0,0 +1,13 @@
+-- Índices compuestos (empresa, fecha) para las consultas por rango de fechas.
+-- Las consultas filtran con fecha >= :desde AND fecha < :hasta en lugar de
+-- YEAR()/MONTH(), así MySQL puede recorrer solo el rango de la empresa.
+
+CREATE INDEX idx_proyectos_empresa_fecha_inicio ON proyectos (id_empresa, fecha_inicio);
+
+CREATE INDEX idx_horas_empresa_fecha ON horas_trabajadas (id_empresa, fecha);
+
+CREATE INDEX idx_horas_empresa_proyecto ON horas_trabajadas (id_empresa, id_proyecto);
+
+CREATE INDEX idx_clientes_empresa_fecha_registro ON clientes (id_empresa, fecha_registro);
+
+CREATE INDEX idx_empleados_empresa_fecha_contratacion ON empleados (id_empresa, fecha_contratacion);
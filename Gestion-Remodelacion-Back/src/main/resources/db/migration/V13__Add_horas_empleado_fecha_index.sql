@@ -0,0 +1,5 @@
+-- Índice para el listado por cursor de un trabajador: recorre sus registros
+-- en orden (fecha, id) sin ordenar en memoria. InnoDB agrega el id al final
+-- de cada índice secundario, así que también sirve para el desempate por id.
+
+CREATE INDEX idx_horas_empresa_empleado_fecha ON horas_trabajadas (id_empresa, id_empleado, fecha);
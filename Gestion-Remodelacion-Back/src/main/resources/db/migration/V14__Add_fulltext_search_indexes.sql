@@ -0,0 +1,29 @@
+-- Índices FULLTEXT con parser ngram para los buscadores de los listados.
+-- Reemplazan los LIKE '%texto%', que obligaban a leer todas las filas de la
+-- empresa en cada búsqueda. Las columnas de cada índice deben ser exactamente
+-- las que usa el MATCH() correspondiente en los repositorios.
+--
+-- Sin stopwords: con ngram, MySQL descarta cualquier token que contenga una
+-- stopword (ej. "a"), lo que haría fallar búsquedas de nombres comunes. La
+-- variable se lee al crear el índice, por eso basta con la sesión.
+-- InnoDB solo permite crear un índice FULLTEXT por sentencia.
+
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+-- Horas trabajadas: busca por empleado o proyecto (columnas snapshot)
+ALTER TABLE horas_trabajadas ADD FULLTEXT INDEX ft_horas_busqueda (nombre_empleado, nombre_proyecto) WITH PARSER ngram;
+
+-- Empleados: listado (nombre, cargo y teléfono) y nombre del responsable en proyectos
+ALTER TABLE empleados ADD FULLTEXT INDEX ft_empleados_busqueda (nombre_completo, rol_cargo, telefono_contacto) WITH PARSER ngram;
+
+ALTER TABLE empleados ADD FULLTEXT INDEX ft_empleados_nombre (nombre_completo) WITH PARSER ngram;
+
+-- Proyectos: nombre del proyecto y nombre del cliente
+ALTER TABLE proyectos ADD FULLTEXT INDEX ft_proyectos_nombre (nombre_proyecto) WITH PARSER ngram;
+
+ALTER TABLE clientes ADD FULLTEXT INDEX ft_clientes_nombre (nombre_cliente) WITH PARSER ngram;
+
+-- Usuarios
+ALTER TABLE users ADD FULLTEXT INDEX ft_users_username (username) WITH PARSER ngram;
+
+SET SESSION innodb_ft_enable_stopword = ON;
@@ -0,0 +1,5 @@
+-- Versión de seguridad del usuario: se incrementa cuando cambian sus roles,
+-- los permisos de sus roles, su estado o su contraseña. El JWT la lleva en el
+-- claim "ver" y el filtro rechaza los tokens emitidos con una versión anterior.
+
+ALTER TABLE users ADD COLUMN security_version BIGINT NOT NULL DEFAULT 0;
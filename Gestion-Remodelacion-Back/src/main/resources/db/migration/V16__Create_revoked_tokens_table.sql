@@ -0,0 +1,16 @@
+-- V16: Tokens de acceso revocados (logout), compartidos por todas las instancias.
+-- Se guarda el SHA-256 del token, no el token. Las filas solo sirven hasta que
+-- el token vence; la limpieza periódica borra por rango de expires_at.
+-- revoked_at permite a cada instancia leer solo las revocaciones nuevas.
+
+CREATE TABLE revoked_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token_digest BINARY(32) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_revoked_tokens_digest (token_digest),
+    INDEX idx_revoked_tokens_expires (expires_at),
+    INDEX idx_revoked_tokens_revoked (revoked_at)
+);
@@ -0,0 +1,6 @@
+-- Versión de los datos de la empresa: se incrementa en la misma transacción
+-- que cualquier escritura que cambie sus listados. Forma parte de la llave de
+-- los reportes cacheados (ExportResultCache); al estar en la BD, todas las
+-- instancias ven el cambio en cuanto se confirma.
+
+ALTER TABLE empresas ADD COLUMN data_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,93 @@
+package com.gestionremodelacion.gestion.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+class ColumnWidthEstimatorTest {
+
+    @Test
+    void sinFilasUsaElEncabezadoConElMinimo() throws IOException {
+        ColumnWidthEstimator estimator = new ColumnWidthEstimator(List.of(
+                ExportColumn.texto("Id"),
+                ExportColumn.texto("Nombre del Proyecto")));
+
+        int[] anchos = aplicar(estimator, 2);
+
+        assertThat(anchos[0]).isEqualTo(ancho(8));
+        // 19 caracteres x 1.15 por la negrita = 21.85, redondeado hacia arriba
+        assertThat(anchos[1]).isEqualTo(ancho(22));
+    }
+
+    @Test
+    void unTextoLargoNoPasaDelMaximo() throws IOException {
+        ColumnWidthEstimator estimator = new ColumnWidthEstimator(List.of(ExportColumn.texto("Descripción")));
+        estimator.sample(fila("x".repeat(500)));
+
+        assertThat(aplicar(estimator, 1)[0]).isEqualTo(ancho(80));
+    }
+
+    @Test
+    void elAnchoSugeridoNoSeMide() throws IOException {
+        ColumnWidthEstimator estimator = new ColumnWidthEstimator(List.of(
+                ExportColumn.texto("Notas").withWidth(30)));
+        estimator.sample(fila("x".repeat(60)));
+
+        assertThat(aplicar(estimator, 1)[0]).isEqualTo(ancho(30));
+    }
+
+    @Test
+    void monedaCuentaSimboloSeparadoresYDecimales() throws IOException {
+        ColumnWidthEstimator estimator = new ColumnWidthEstimator(List.of(ExportColumn.moneda("Monto")));
+        // "1234567.89": 10 caracteres + 3 separadores + 4
+        estimator.sample(fila(new BigDecimal("1234567.89")));
+
+        assertThat(aplicar(estimator, 1)[0]).isEqualTo(ancho(17));
+    }
+
+    @Test
+    void despuesDeLasPrimerasMilFilasSoloMideUnaDeCadaDiez() throws IOException {
+        ColumnWidthEstimator estimator = new ColumnWidthEstimator(List.of(ExportColumn.texto("Nombre")));
+        for (int i = 0; i < 1001; i++) {
+            estimator.sample(fila("corto"));
+        }
+        // Fila 1001: fuera de la muestra
+        estimator.sample(fila("x".repeat(40)));
+        assertThat(aplicar(estimator, 1)[0]).isEqualTo(ancho(8));
+
+        for (int i = 1002; i < 1010; i++) {
+            estimator.sample(fila("corto"));
+        }
+        // Fila 1010: dentro de la muestra
+        estimator.sample(fila("x".repeat(40)));
+        assertThat(aplicar(estimator, 1)[0]).isEqualTo(ancho(40));
+    }
+
+    // Unidades de POI: 1/256 del ancho de un carácter; el estimador suma 2 de margen
+    private static int ancho(int chars) {
+        return (chars + 2) * 256;
+    }
+
+    private static List<Object> fila(Object... values) {
+        return Arrays.asList(values);
+    }
+
+    private static int[] aplicar(ColumnWidthEstimator estimator, int columnas) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            estimator.applyTo(sheet);
+            int[] anchos = new int[columnas];
+            for (int col = 0; col < columnas; col++) {
+                anchos[col] = sheet.getColumnWidth(col);
+            }
+            return anchos;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.gestionremodelacion.gestion.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class CsvExportStrategyTest {
+
+    private static final List<ExportColumn> COLUMNS = List.of(
+            ExportColumn.texto("Nombre"),
+            ExportColumn.texto("Teléfono"),
+            ExportColumn.moneda("Saldo"));
+
+    private final CsvExportStrategy strategy = new CsvExportStrategy();
+
+    @Test
+    void sinFilasEscribeElEncabezado() throws IOException {
+        assertThat(write(Stream.empty())).isEqualTo("Nombre,Teléfono,Saldo\r\n");
+    }
+
+    @Test
+    void escapaComasYComillas() throws IOException {
+        String csv = write(Stream.of(fila("Pérez, \"Juan\"", "555 1234", new BigDecimal("10.50"))));
+
+        assertThat(csv).isEqualTo("Nombre,Teléfono,Saldo\r\n\"Pérez, \"\"Juan\"\"\",555 1234,10.50\r\n");
+    }
+
+    @Test
+    void neutralizaTextosQueParecenFormulas() throws IOException {
+        String csv = write(Stream.of(
+                fila("=HYPERLINK(\"http://x\")", "+52 555", null),
+                fila("@SUM(A1)", "-1", null)));
+
+        assertThat(csv).contains("\"'=HYPERLINK(\"\"http://x\"\")\",'+52 555,\r\n");
+        assertThat(csv).contains("'@SUM(A1),'-1,\r\n");
+    }
+
+    @Test
+    void losNumerosNegativosNoSeModifican() throws IOException {
+        String csv = write(Stream.of(fila("Ajuste", null, new BigDecimal("-25.00"))));
+
+        assertThat(csv).contains("Ajuste,,-25.00\r\n");
+    }
+
+    private String write(Stream<? extends Exportable> data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        strategy.writeReport(data, COLUMNS, "Reporte", null, out);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("\uFEFF");
+        return csv.substring(1);
+    }
+
+    private static Exportable fila(Object... values) {
+        return new Exportable() {
+            @Override
+            public List<ExportColumn> getExportColumns() {
+                return COLUMNS;
+            }
+
+            @Override
+            public List<List<Object>> getExportData() {
+                return List.of(Arrays.asList(values));
+            }
+        };
+    }
+}
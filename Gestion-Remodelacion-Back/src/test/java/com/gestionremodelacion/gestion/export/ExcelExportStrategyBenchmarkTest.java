@@ -0,0 +1,111 @@
+package com.gestionremodelacion.gestion.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gestionremodelacion.gestion.config.ExportProperties;
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
+
+/**
+ * Tiempo de la exportación a Excel con el ancho estimado
+ * ({@link ColumnWidthEstimator}) frente a autoSizeColumn exacto, con 10 mil y
+ * 100 mil filas. Solo corre si se pide:
+ *
+ * mvn test -Dtest=ExcelExportStrategyBenchmarkTest -Dbenchmark.excel=true
+ */
+@EnabledIfSystemProperty(named = "benchmark.excel", matches = "true")
+class ExcelExportStrategyBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcelExportStrategyBenchmarkTest.class);
+
+    private static final List<ExportColumn> COLUMNS = List.of(
+            ExportColumn.texto("Nombre del Proyecto"),
+            ExportColumn.texto("Cliente"),
+            ExportColumn.texto("Descripción"),
+            ExportColumn.moneda("Monto"),
+            ExportColumn.porcentaje("Progreso"),
+            ExportColumn.fecha("Inicio"));
+
+    @Test
+    void estimadoFrenteAAutosizeExacto() throws IOException {
+        // Calentamiento: carga de clases de POI y JIT fuera de la medición
+        medir(false, 2_000);
+        medir(true, 2_000);
+
+        for (int filas : new int[] { 10_000, 100_000 }) {
+            long exacto = medir(true, filas);
+            long estimado = medir(false, filas);
+            logger.info("Excel {} filas: autoSizeColumn {} ms, estimado {} ms", filas, exacto, estimado);
+            assertThat(estimado).isLessThan(exacto);
+        }
+    }
+
+    // Milisegundos de writeReport con las filas generadas al vuelo, como las entrega un Stream de JPA
+    private static long medir(boolean exactAutosize, int filas) throws IOException {
+        ExportProperties properties = new ExportProperties();
+        properties.setExcelExactAutosize(exactAutosize);
+        ExcelExportStrategy strategy = new ExcelExportStrategy(properties);
+        CountingOutputStream out = new CountingOutputStream();
+        Stream<Exportable> data = IntStream.range(0, filas).mapToObj(ExcelExportStrategyBenchmarkTest::fila);
+
+        long inicio = System.nanoTime();
+        strategy.writeReport(data, COLUMNS, "Reporte de Proyectos", empresa(), out);
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertThat(out.bytes).isGreaterThan(0);
+        return ms;
+    }
+
+    private static Exportable fila(int i) {
+        List<Object> valores = Arrays.asList("Proyecto " + i, "Cliente " + (i % 500),
+                "Remodelación de cocina y baño, etapa " + (i % 7), new BigDecimal(i).add(new BigDecimal("0.50")),
+                i % 101, LocalDate.of(2024, 1, 1).plusDays(i % 365));
+        return new Exportable() {
+            @Override
+            public List<ExportColumn> getExportColumns() {
+                return COLUMNS;
+            }
+
+            @Override
+            public List<List<Object>> getExportData() {
+                return List.of(valores);
+            }
+        };
+    }
+
+    private static Empresa empresa() {
+        Empresa empresa = new Empresa();
+        empresa.setNombreEmpresa("Remodelaciones de Prueba");
+        return empresa;
+    }
+
+    // Descarta lo escrito pero cuenta los bytes
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.gestionremodelacion.gestion.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class ExportFormatsTest {
+
+    @Test
+    void displayFormateaMonedaConSimboloYMiles() {
+        assertThat(ExportFormats.display(ExportColumn.moneda("Monto"), new BigDecimal("1234567.5")))
+                .isEqualTo("$1,234,567.50");
+        // Otros Number se convierten a BigDecimal
+        assertThat(ExportFormats.display(ExportColumn.moneda("Monto"), 1500)).isEqualTo("$1,500.00");
+    }
+
+    @Test
+    void displayQuitaCerosDeMasEnDecimales() {
+        assertThat(ExportFormats.display(ExportColumn.decimal("Horas"), new BigDecimal("8.50"))).isEqualTo("8.5");
+        assertThat(ExportFormats.display(ExportColumn.decimal("Horas"), new BigDecimal("8.00"))).isEqualTo("8");
+        assertThat(ExportFormats.display(ExportColumn.decimal("Horas"), 2.125)).isEqualTo("2.12");
+    }
+
+    @Test
+    void displayPorcentajeYFecha() {
+        assertThat(ExportFormats.display(ExportColumn.porcentaje("Progreso"), 75)).isEqualTo("75%");
+        assertThat(ExportFormats.display(ExportColumn.fecha("Inicio"), LocalDate.of(2024, 3, 5)))
+                .isEqualTo("2024-03-05");
+        assertThat(ExportFormats.display(ExportColumn.texto("Nombre"), null)).isEqualTo("");
+    }
+
+    @Test
+    void plainNoAgregaSimbolosNiNotacionCientifica() {
+        assertThat(ExportFormats.plain(new BigDecimal("1234567.50"))).isEqualTo("1234567.50");
+        assertThat(ExportFormats.plain(new BigDecimal("1E+3"))).isEqualTo("1000");
+        assertThat(ExportFormats.plain(LocalDate.of(2024, 12, 31))).isEqualTo("2024-12-31");
+        assertThat(ExportFormats.plain(42)).isEqualTo("42");
+        assertThat(ExportFormats.plain(null)).isEqualTo("");
+    }
+
+    @Test
+    void displayEsSeguroEntreHilos() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int base = t * 1000;
+                resultados.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        BigDecimal valor = new BigDecimal(base + i).add(new BigDecimal("0.25"));
+                        String esperado = (base + i) + ".25";
+                        if (!ExportFormats.display(ExportColumn.decimal("Horas"), valor).equals(esperado)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> resultado : resultados) {
+                assertThat(resultado.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.gestionremodelacion.gestion.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.gestionremodelacion.gestion.config.ExportProperties;
+import com.gestionremodelacion.gestion.empresa.model.Empresa;
+import com.gestionremodelacion.gestion.export.logo.CompanyLogoCache;
+import com.sun.management.ThreadMXBean;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PdfExportStrategyTest {
+
+    private static final int FILAS = 50_000;
+    private static final int INICIO_MEDICION = 5_000;
+    private static final int MITAD = (INICIO_MEDICION + FILAS) / 2;
+    // La tabla se escribe por bloques: el costo por fila no debe crecer con las filas ya escritas
+    private static final double MAX_CRECIMIENTO_POR_FILA = 1.5;
+
+    private static final List<ExportColumn> COLUMNS = List.of(
+            ExportColumn.texto("Nombre del Proyecto"),
+            ExportColumn.texto("Cliente"),
+            ExportColumn.moneda("Monto"),
+            ExportColumn.porcentaje("Progreso"),
+            ExportColumn.fecha("Inicio"));
+
+    private final PdfExportStrategy strategy = new PdfExportStrategy(new CompanyLogoCache(
+            url -> {
+                throw new IOException("sin red en pruebas");
+            },
+            new ExportProperties(), new SimpleMeterRegistry()));
+
+    @Test
+    void cincuentaMilFilasNoAcumulanMemoria() throws IOException {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        long hilo = Thread.currentThread().getId();
+        long[] asignados = new long[3];
+        CountingOutputStream out = new CountingOutputStream();
+
+        // Filas generadas al vuelo, como las entrega un Stream de JPA. writeReport corre en este
+        // hilo, así que sus bytes asignados (contador que solo crece) miden el trabajo por fila
+        Stream<Exportable> data = IntStream.range(0, FILAS).mapToObj(i -> {
+            if (i == INICIO_MEDICION) {
+                asignados[0] = threads.getThreadAllocatedBytes(hilo);
+            } else if (i == MITAD) {
+                asignados[1] = threads.getThreadAllocatedBytes(hilo);
+            } else if (i == FILAS - 1) {
+                asignados[2] = threads.getThreadAllocatedBytes(hilo);
+            }
+            return fila(i);
+        });
+
+        strategy.writeReport(data, COLUMNS, "Reporte de Proyectos", empresa(), out);
+
+        assertThat(out.bytes).isGreaterThan(0);
+        // Si cada fila arrastrara las anteriores (tabla completa en memoria, re-layout), la
+        // segunda mitad asignaría bastante más por fila que la primera
+        double porFilaPrimeraMitad = (double) (asignados[1] - asignados[0]) / (MITAD - INICIO_MEDICION);
+        double porFilaSegundaMitad = (double) (asignados[2] - asignados[1]) / (FILAS - 1 - MITAD);
+        assertThat(porFilaSegundaMitad).isLessThan(porFilaPrimeraMitad * MAX_CRECIMIENTO_POR_FILA);
+    }
+
+    @Test
+    void sinFilasGeneraElDocumento() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+
+        strategy.writeReport(Stream.empty(), COLUMNS, "Reporte de Proyectos", empresa(), out);
+
+        assertThat(out.bytes).isGreaterThan(0);
+    }
+
+    private static Exportable fila(int i) {
+        List<Object> valores = Arrays.asList("Proyecto " + i, "Cliente " + (i % 500),
+                new BigDecimal(i).add(new BigDecimal("0.50")), i % 101, LocalDate.of(2024, 1, 1).plusDays(i % 365));
+        return new Exportable() {
+            @Override
+            public List<ExportColumn> getExportColumns() {
+                return COLUMNS;
+            }
+
+            @Override
+            public List<List<Object>> getExportData() {
+                return List.of(valores);
+            }
+        };
+    }
+
+    private static Empresa empresa() {
+        Empresa empresa = new Empresa();
+        empresa.setNombreEmpresa("Remodelaciones de Prueba");
+        empresa.setTelefono("5551234567");
+        return empresa;
+    }
+
+    // Descarta lo escrito (como OutputStream.nullOutputStream) pero cuenta los bytes
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.gestionremodelacion.gestion.horastrabajadas.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.gestionremodelacion.gestion.dto.response.ApiResponse;
+import com.gestionremodelacion.gestion.export.ExportResultCache;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.request.HorasTrabajadasBatchRequest;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.request.HorasTrabajadasRequest;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasBatchResponse;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasBatchResponse.Resultado;
+import com.gestionremodelacion.gestion.horastrabajadas.service.HorasTrabajadasService;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Carga masiva: código de respuesta según haya rechazos y tope de registros
+ * por lote.
+ */
+class HorasTrabajadasControllerTest {
+
+    private final HorasTrabajadasService service = mock(HorasTrabajadasService.class);
+    private final HorasTrabajadasController controller = new HorasTrabajadasController(service,
+            mock(ExportResultCache.class), mock(TenantContextService.class));
+
+    @Test
+    void loteConRechazosRespondeMultiStatusConElDetalle() {
+        HorasTrabajadasBatchRequest lote = lote(2);
+        HorasTrabajadasBatchResponse parcial = new HorasTrabajadasBatchResponse(2, 1, 1,
+                List.of(Resultado.creado(0, 100L), Resultado.rechazado(1, "error.project.invalid")));
+        when(service.createHorasTrabajadasBatch(lote)).thenReturn(parcial);
+
+        ResponseEntity<ApiResponse<HorasTrabajadasBatchResponse>> response = controller
+                .createHorasTrabajadasBatch(lote);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        assertThat(response.getBody().getStatus()).isEqualTo(207);
+        assertThat(response.getBody().getData()).isSameAs(parcial);
+        assertThat(response.getBody().getData().resultados().get(1).error()).isEqualTo("error.project.invalid");
+    }
+
+    @Test
+    void loteSinRechazosRespondeCreated() {
+        HorasTrabajadasBatchRequest lote = lote(1);
+        when(service.createHorasTrabajadasBatch(lote)).thenReturn(new HorasTrabajadasBatchResponse(1, 1, 0,
+                List.of(Resultado.creado(0, 100L))));
+
+        assertThat(controller.createHorasTrabajadasBatch(lote).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    @Test
+    void loteRespetaElTopeDeRegistros() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+
+            assertThat(validator.validate(lote(HorasTrabajadasBatchRequest.MAX_REGISTROS))).isEmpty();
+            assertThat(validator.validate(lote(HorasTrabajadasBatchRequest.MAX_REGISTROS + 1))).hasSize(1);
+            assertThat(validator.validate(lote(0))).hasSize(1);
+        }
+    }
+
+    private static HorasTrabajadasBatchRequest lote(int registros) {
+        HorasTrabajadasBatchRequest lote = new HorasTrabajadasBatchRequest();
+        lote.setRegistros(Collections.nCopies(registros, new HorasTrabajadasRequest()));
+        return lote;
+    }
+}
@@ -0,0 +1,211 @@
+package com.gestionremodelacion.gestion.horastrabajadas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.gestionremodelacion.gestion.empleado.model.Empleado;
+import com.gestionremodelacion.gestion.empleado.repository.EmpleadoRepository;
+import com.gestionremodelacion.gestion.empresa.model.Empresa.EstadoSuscripcion;
+import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
+import com.gestionremodelacion.gestion.exception.ErrorCatalog;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.request.HorasTrabajadasBatchRequest;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.request.HorasTrabajadasRequest;
+import com.gestionremodelacion.gestion.horastrabajadas.dto.response.HorasTrabajadasBatchResponse;
+import com.gestionremodelacion.gestion.horastrabajadas.model.HorasTrabajadas;
+import com.gestionremodelacion.gestion.horastrabajadas.repository.HorasTrabajadasRepository;
+import com.gestionremodelacion.gestion.mapper.HorasTrabajadasMapper;
+import com.gestionremodelacion.gestion.proyecto.model.Proyecto;
+import com.gestionremodelacion.gestion.proyecto.repository.ProyectoRepository;
+import com.gestionremodelacion.gestion.security.service.AuthorizationService;
+import com.gestionremodelacion.gestion.security.service.TenantContext;
+import com.gestionremodelacion.gestion.security.service.TenantContextService;
+import com.gestionremodelacion.gestion.service.dashboard.DashboardRollupService;
+
+import jakarta.validation.Validator;
+
+/**
+ * Diferencias de costo de mano de obra que el servicio aplica al proyecto en
+ * alta, edición (mismo proyecto o reasignación) y baja. Cada diferencia debe
+ * venir redondeada a centavos, igual que la conciliación.
+ */
+class HorasTrabajadasServiceTest {
+
+    private static final Long EMPRESA_ID = 1L;
+    private static final Long PROYECTO_A = 10L;
+    private static final Long PROYECTO_B = 20L;
+    private static final Long EMPLEADO_ID = 5L;
+
+    private HorasTrabajadasRepository horasTrabajadasRepository;
+    private HorasTrabajadasMapper horasTrabajadasMapper;
+    private EmpleadoRepository empleadoRepository;
+    private ProyectoRepository proyectoRepository;
+    private TenantContextService tenantContextService;
+    private AuthorizationService authService;
+    private HorasTrabajadasService service;
+
+    private Empleado empleado;
+    private Proyecto proyectoA;
+    private Proyecto proyectoB;
+
+    @BeforeEach
+    void setUp() {
+        horasTrabajadasRepository = mock(HorasTrabajadasRepository.class);
+        horasTrabajadasMapper = mock(HorasTrabajadasMapper.class);
+        empleadoRepository = mock(EmpleadoRepository.class);
+        proyectoRepository = mock(ProyectoRepository.class);
+        tenantContextService = mock(TenantContextService.class);
+        authService = mock(AuthorizationService.class);
+
+        TenantContext tenant = new TenantContext(1L, "admin", EMPRESA_ID, PlanSuscripcion.NEGOCIOS,
+                EstadoSuscripcion.ACTIVA, null, null, false);
+        when(tenantContextService.current()).thenReturn(tenant);
+        when(authService.hasPermission(eq(tenant), anyInt())).thenReturn(true);
+
+        empleado = new Empleado();
+        empleado.setId(EMPLEADO_ID);
+        empleado.setCostoPorHora(new BigDecimal("15.00"));
+        proyectoA = proyecto(PROYECTO_A);
+        proyectoB = proyecto(PROYECTO_B);
+        when(empleadoRepository.findByIdAndEmpresaId(EMPLEADO_ID, EMPRESA_ID)).thenReturn(Optional.of(empleado));
+        when(proyectoRepository.findByIdAndEmpresaId(PROYECTO_A, EMPRESA_ID)).thenReturn(Optional.of(proyectoA));
+        when(proyectoRepository.findByIdAndEmpresaId(PROYECTO_B, EMPRESA_ID)).thenReturn(Optional.of(proyectoB));
+        when(horasTrabajadasMapper.toHorasTrabajadas(any())).thenAnswer(inv -> {
+            HorasTrabajadas nuevo = new HorasTrabajadas();
+            nuevo.setFecha(((HorasTrabajadasRequest) inv.getArgument(0)).getFecha());
+            return nuevo;
+        });
+        when(horasTrabajadasRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service = new HorasTrabajadasService(horasTrabajadasRepository, horasTrabajadasMapper, empleadoRepository,
+                proyectoRepository, tenantContextService, authService, mock(DashboardRollupService.class),
+                mock(ApplicationEventPublisher.class), mock(Validator.class));
+    }
+
+    @Test
+    void costoDeRedondeaCadaRegistroACentavos() {
+        // 1.333 h x 15.00 = 19.995 -> 20.00
+        assertThat(HorasTrabajadasService.costoDe(registro(proyectoA, "1.333", "15.00")))
+                .isEqualTo(new BigDecimal("20.00"));
+        assertThat(HorasTrabajadasService.costoDe(registro(proyectoA, null, "15.00")))
+                .isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void altaSumaElCostoRedondeadoAlProyecto() {
+        service.createHorasTrabajadas(request(PROYECTO_A, "1.333"));
+
+        verify(proyectoRepository).incrementCostoManoDeObra(EMPRESA_ID, PROYECTO_A, new BigDecimal("20.00"));
+    }
+
+    @Test
+    void edicionEnElMismoProyectoAplicaSoloLaDiferencia() {
+        HorasTrabajadas existente = existente(proyectoA, "1.333", "15.00"); // 20.00
+        service.updateHorasTrabajadas(99L, request(PROYECTO_A, "2.667")); // 40.005 -> 40.01
+
+        verify(proyectoRepository).incrementCostoManoDeObra(EMPRESA_ID, PROYECTO_A, new BigDecimal("20.01"));
+        assertThat(existente.getHoras()).isEqualTo(new BigDecimal("2.667"));
+    }
+
+    @Test
+    void edicionSinCambioDeCostoNoTocaElProyecto() {
+        existente(proyectoA, "1.333", "15.00");
+        service.updateHorasTrabajadas(99L, request(PROYECTO_A, "1.333"));
+
+        verify(proyectoRepository, never()).incrementCostoManoDeObra(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void reasignacionRestaDelProyectoAnteriorYSumaAlNuevo() {
+        existente(proyectoA, "1.333", "15.00"); // 20.00
+        service.updateHorasTrabajadas(99L, request(PROYECTO_B, "0.333")); // 4.995 -> 5.00
+
+        verify(proyectoRepository).incrementCostoManoDeObra(EMPRESA_ID, PROYECTO_A, new BigDecimal("-20.00"));
+        verify(proyectoRepository).incrementCostoManoDeObra(EMPRESA_ID, PROYECTO_B, new BigDecimal("5.00"));
+    }
+
+    @Test
+    void bajaRestaElCostoRedondeadoDelProyecto() {
+        HorasTrabajadas existente = existente(proyectoA, "1.333", "15.00");
+        service.deleteHorasTrabajadas(99L);
+
+        verify(horasTrabajadasRepository).delete(existente);
+        verify(proyectoRepository).incrementCostoManoDeObra(EMPRESA_ID, PROYECTO_A, new BigDecimal("-20.00"));
+    }
+
+    @Test
+    void loteConRegistroInvalidoCreaLosValidosYReportaElRechazo() {
+        when(empleadoRepository.findByIdInAndEmpresaId(any(), eq(EMPRESA_ID))).thenReturn(List.of(empleado));
+        when(proyectoRepository.findByIdInAndEmpresaId(any(), eq(EMPRESA_ID))).thenReturn(List.of(proyectoA));
+        doAnswer(inv -> {
+            List<HorasTrabajadas> registros = inv.getArgument(0);
+            for (int i = 0; i < registros.size(); i++) {
+                registros.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(horasTrabajadasRepository).insertBatch(any());
+
+        HorasTrabajadasBatchRequest lote = new HorasTrabajadasBatchRequest();
+        lote.setRegistros(List.of(request(PROYECTO_A, "1.333"), request(999L, "2"), request(PROYECTO_A, "2.667")));
+        HorasTrabajadasBatchResponse response = service.createHorasTrabajadasBatch(lote);
+
+        assertThat(response.total()).isEqualTo(3);
+        assertThat(response.creados()).isEqualTo(2);
+        assertThat(response.rechazados()).isEqualTo(1);
+        assertThat(response.resultados().get(0).id()).isEqualTo(100L);
+        assertThat(response.resultados().get(1).id()).isNull();
+        assertThat(response.resultados().get(1).error()).isEqualTo(ErrorCatalog.INVALID_PROJECT_FOR_COMPANY.getKey());
+        assertThat(response.resultados().get(2).id()).isEqualTo(101L);
+        // Un solo ajuste por proyecto con la suma de los costos ya redondeados: 20.00 + 40.01
+        verify(proyectoRepository).incrementCostoManoDeObra(EMPRESA_ID, PROYECTO_A, new BigDecimal("60.01"));
+    }
+
+    private HorasTrabajadas existente(Proyecto proyecto, String horas, String costoPorHora) {
+        HorasTrabajadas existente = registro(proyecto, horas, costoPorHora);
+        existente.setId(99L);
+        when(horasTrabajadasRepository.findByIdAndEmpresaId(99L, EMPRESA_ID)).thenReturn(Optional.of(existente));
+        return existente;
+    }
+
+    private HorasTrabajadas registro(Proyecto proyecto, String horas, String costoPorHora) {
+        HorasTrabajadas registro = new HorasTrabajadas();
+        registro.setEmpleado(empleado);
+        registro.setProyecto(proyecto);
+        registro.setFecha(LocalDate.of(2026, 3, 15));
+        registro.setHoras(horas != null ? new BigDecimal(horas) : null);
+        registro.setCostoPorHoraActual(new BigDecimal(costoPorHora));
+        return registro;
+    }
+
+    private static HorasTrabajadasRequest request(Long proyectoId, String horas) {
+        HorasTrabajadasRequest request = new HorasTrabajadasRequest();
+        request.setIdEmpleado(EMPLEADO_ID);
+        request.setIdProyecto(proyectoId);
+        request.setFecha(LocalDate.of(2026, 3, 15));
+        request.setCantidad(new BigDecimal(horas));
+        request.setUnidad("horas");
+        return request;
+    }
+
+    private static Proyecto proyecto(Long id) {
+        Proyecto proyecto = new Proyecto();
+        proyecto.setId(id);
+        return proyecto;
+    }
+}
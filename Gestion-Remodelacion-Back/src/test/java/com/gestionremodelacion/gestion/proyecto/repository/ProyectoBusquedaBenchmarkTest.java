@@ -0,0 +1,78 @@
+package com.gestionremodelacion.gestion.proyecto.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.gestionremodelacion.gestion.proyecto.dto.response.ProyectoResponse;
+import com.gestionremodelacion.gestion.search.FullTextSearch;
+
+/**
+ * Compara el buscador de proyectos con LIKE (findByFilterWithDetails) contra
+ * la versión FULLTEXT (findByFullTextWithDetails) llamando al repositorio, así
+ * se mide el SQL que genera Hibernate (página y conteo). Necesita una BD MySQL
+ * ya migrada y con datos; solo corre si se indica, por ejemplo:
+ *
+ * mvn test -Dtest=ProyectoBusquedaBenchmarkTest
+ * -Dbenchmark.jdbc-url=jdbc:mysql://localhost:3306/gestion -Dbenchmark.user=root
+ * -Dbenchmark.password=... -Dbenchmark.empresa-id=1 -Dbenchmark.termino=garcia
+ */
+@DataJpaTest(properties = { "spring.flyway.enabled=false", "spring.jpa.show-sql=false",
+        "spring.cloud.bootstrap.enabled=false" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+class ProyectoBusquedaBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProyectoBusquedaBenchmarkTest.class);
+    private static final int CALENTAMIENTO = 20;
+    private static final int REPETICIONES = 200;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("benchmark.jdbc-url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("benchmark.user", "root"));
+        registry.add("spring.datasource.password", () -> System.getProperty("benchmark.password", ""));
+    }
+
+    @Test
+    void fullTextFrenteALike() {
+        long empresaId = Long.getLong("benchmark.empresa-id", 1L);
+        String filtro = System.getProperty("benchmark.termino", "garcia");
+        String termino = FullTextSearch.toBooleanQuery(filtro);
+        assertThat(termino).as("el término debe poder ir por FULLTEXT").isNotNull();
+        Pageable pagina = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id"));
+
+        double msLike = medir(() -> proyectoRepository.findByFilterWithDetails(empresaId, filtro, pagina));
+        double msFullText = medir(() -> proyectoRepository.findByFullTextWithDetails(empresaId, termino, pagina));
+        logger.info("Búsqueda de proyectos '{}': LIKE {} ms, FULLTEXT {} ms por consulta", filtro,
+                String.format("%.2f", msLike), String.format("%.2f", msFullText));
+    }
+
+    private static double medir(Supplier<Page<ProyectoResponse>> busqueda) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            busqueda.get();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICIONES; i++) {
+            busqueda.get();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / REPETICIONES;
+    }
+}
@@ -0,0 +1,43 @@
+package com.gestionremodelacion.gestion.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FullTextSearchTest {
+
+    @Test
+    void filtroVacioUsaLike() {
+        assertThat(FullTextSearch.toBooleanQuery(null)).isNull();
+        assertThat(FullTextSearch.toBooleanQuery("   ")).isNull();
+    }
+
+    @Test
+    void cadaPalabraEsUnaFraseObligatoria() {
+        assertThat(FullTextSearch.toBooleanQuery("  juan   pérez ")).isEqualTo("+\"juan\" +\"pérez\"");
+    }
+
+    @Test
+    void palabraDeUnCaracterUsaLike() {
+        assertThat(FullTextSearch.toBooleanQuery("a")).isNull();
+        assertThat(FullTextSearch.toBooleanQuery("casa a")).isNull();
+    }
+
+    @Test
+    void conservaGuionesDeTelefonos() {
+        assertThat(FullTextSearch.toBooleanQuery("555-1234")).isEqualTo("+\"555-1234\"");
+    }
+
+    @Test
+    void conservaCaracteresDeCorreosYNombres() {
+        assertThat(FullTextSearch.toBooleanQuery("ana.lopez@mail.com")).isEqualTo("+\"ana.lopez@mail.com\"");
+        assertThat(FullTextSearch.toBooleanQuery("García-Márquez")).isEqualTo("+\"García-Márquez\"");
+        assertThat(FullTextSearch.toBooleanQuery("(obra)*")).isEqualTo("+\"(obra)*\"");
+    }
+
+    @Test
+    void quitaLasComillasParaNoCerrarLaFrase() {
+        assertThat(FullTextSearch.toBooleanQuery("\"casa\" azul")).isEqualTo("+\"casa\" +\"azul\"");
+        assertThat(FullTextSearch.toBooleanQuery("\"\" casa")).isEqualTo("+\"casa\"");
+    }
+}
@@ -0,0 +1,123 @@
+package com.gestionremodelacion.gestion.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gestionremodelacion.gestion.config.JwtProperties;
+import com.google.common.hash.HashCode;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Arranque de JwtUtils y caché de claims por digest. El benchmark de
+ * rendimiento solo corre si se pide:
+ *
+ * mvn test -Dtest=JwtUtilsTest -Dbenchmark.jwt=true
+ */
+class JwtUtilsTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtilsTest.class);
+    private static final String SECRET = "clave-de-prueba-con-al-menos-treinta-y-dos-bytes-para-hs256";
+
+    @Test
+    void sinClaveSecretaElConstructorNoFallaYInitLaRechaza() {
+        JwtUtils jwtUtils = new JwtUtils(properties(null));
+
+        assertThatThrownBy(jwtUtils::init).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void elDigestCalculadoAfueraUsaLaMismaEntradaDeCache() {
+        JwtUtils jwtUtils = jwtUtils();
+        String token = token(jwtUtils, "ana");
+
+        Claims verificados = jwtUtils.extractAllClaims(token);
+        HashCode digest = JwtUtils.digest(token);
+
+        assertThat(jwtUtils.extractAllClaims(token, digest)).isSameAs(verificados);
+        assertThat(verificados.getSubject()).isEqualTo("ana");
+    }
+
+    @Test
+    void tokenAlteradoNoSeValida() {
+        JwtUtils jwtUtils = jwtUtils();
+        String token = token(jwtUtils, "ana");
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(jwtUtils.validateJwtToken(token)).isTrue();
+        assertThat(jwtUtils.validateJwtToken(alterado)).isFalse();
+        assertThat(jwtUtils.safeExtractAllClaims(alterado, JwtUtils.digest(alterado))).isEmpty();
+    }
+
+    /**
+     * Peticiones por segundo del camino del filtro: verificación completa
+     * (token nuevo), token en caché hasheándolo dos veces (caché y blacklist)
+     * y token en caché con un solo digest compartido.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.jwt", matches = "true")
+    void benchmarkVerificacionDeTokens() {
+        JwtUtils jwtUtils = jwtUtils();
+        int repeticiones = Integer.getInteger("benchmark.jwt.repeticiones", 200_000);
+        List<String> nuevos = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            nuevos.add(token(jwtUtils, "usuario" + i));
+        }
+        String frecuente = token(jwtUtils, "frecuente");
+
+        long inicio = System.nanoTime();
+        for (String token : nuevos) {
+            jwtUtils.extractAllClaims(token);
+        }
+        reportar("verificación completa", nuevos.size(), System.nanoTime() - inicio);
+
+        for (int ronda = 0; ronda < 2; ronda++) {
+            inicio = System.nanoTime();
+            for (int i = 0; i < repeticiones; i++) {
+                jwtUtils.extractAllClaims(frecuente);
+                JwtUtils.digest(frecuente); // el que antes calculaba la blacklist por su cuenta
+            }
+            reportar("caché, dos digests", repeticiones, System.nanoTime() - inicio);
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < repeticiones; i++) {
+                jwtUtils.extractAllClaims(frecuente, JwtUtils.digest(frecuente));
+            }
+            reportar("caché, un digest", repeticiones, System.nanoTime() - inicio);
+        }
+    }
+
+    private static void reportar(String caso, int operaciones, long nanos) {
+        logger.info("{}: {} ops en {} ms ({} ops/s)", caso, operaciones, TimeUnit.NANOSECONDS.toMillis(nanos),
+                operaciones * 1_000_000_000L / Math.max(1, nanos));
+    }
+
+    private static String token(JwtUtils jwtUtils, String username) {
+        return jwtUtils.generateTokenFromUsername(username, 1L, 0L, List.of("PROYECTO_READ"),
+                List.of("ROLE_ADMIN"), null);
+    }
+
+    private static JwtUtils jwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils(properties(SECRET));
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    private static JwtProperties properties(String secret) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecretKey(secret);
+        properties.setIssuer("gestion-test");
+        properties.setExpirationMs(TimeUnit.HOURS.toMillis(1));
+        properties.setVerifiedCacheMaxEntries(50_000);
+        return properties;
+    }
+}
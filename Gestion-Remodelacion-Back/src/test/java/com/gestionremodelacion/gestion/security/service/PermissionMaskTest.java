@@ -0,0 +1,121 @@
+package com.gestionremodelacion.gestion.security.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * El microbenchmark solo corre si se pide:
+ *
+ * mvn test -Dtest=PermissionMaskTest -Dbenchmark.permisos=true
+ */
+class PermissionMaskTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionMaskTest.class);
+
+    @Test
+    void reconoceSoloLosBitsEncendidos() {
+        BitSet bits = new BitSet();
+        bits.set(0);
+        bits.set(63);
+        bits.set(64);
+        bits.set(130);
+        PermissionMask mask = PermissionMask.of(bits);
+
+        assertThat(mask.has(0)).isTrue();
+        assertThat(mask.has(63)).isTrue();
+        assertThat(mask.has(64)).isTrue();
+        assertThat(mask.has(130)).isTrue();
+        assertThat(mask.has(1)).isFalse();
+        assertThat(mask.has(65)).isFalse();
+    }
+
+    @Test
+    void idsFueraDeLaMascaraNoEstan() {
+        BitSet bits = new BitSet();
+        bits.set(3);
+        PermissionMask mask = PermissionMask.of(bits);
+
+        // El bit 67 cae en la posición 3 de la segunda palabra, que la máscara no tiene
+        assertThat(mask.has(67)).isFalse();
+        assertThat(mask.has(10_000)).isFalse();
+        assertThat(PermissionMask.of(new BitSet()).has(0)).isFalse();
+    }
+
+    @Test
+    void indexAsignaIdsEstables() {
+        PermissionIndex index = new PermissionIndex();
+        int clienteRead = index.idOf("CLIENTE_READ");
+        int clienteCreate = index.idOf("CLIENTE_CREATE");
+
+        assertThat(clienteRead).isNotEqualTo(clienteCreate);
+        assertThat(index.idOf("CLIENTE_READ")).isEqualTo(clienteRead);
+    }
+
+    @Test
+    void maskOfIgnoraLosRoles() {
+        PermissionIndex index = new PermissionIndex();
+        PermissionMask mask = index.maskOf(List.of("ROLE_ADMIN", "PROYECTO_READ"));
+
+        assertThat(mask.has(index.idOf("PROYECTO_READ"))).isTrue();
+        assertThat(mask.has(index.idOf("ROLE_ADMIN"))).isFalse();
+        // Un permiso que aparece después recibe un id nuevo que la máscara vieja no tiene
+        assertThat(mask.has(index.idOf("PROYECTO_DELETE"))).isFalse();
+    }
+
+    /**
+     * Costo por petición de revisar 5 permisos: el camino anterior (armar el
+     * Set de textos con un stream y buscar cada nombre) contra la máscara ya
+     * armada (un bit por revisión).
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.permisos", matches = "true")
+    void benchmarkMascaraContraSetDeTextos() {
+        PermissionIndex index = new PermissionIndex();
+        List<String> authorities = new ArrayList<>();
+        authorities.add("ROLE_ADMIN");
+        for (int i = 0; i < 60; i++) {
+            authorities.add("PERMISO_" + i + "_READ");
+        }
+        List<String> revisados = List.of("PERMISO_3_READ", "PERMISO_17_READ", "PERMISO_42_READ",
+                "PERMISO_59_READ", "PERMISO_99_READ");
+        int[] ids = revisados.stream().mapToInt(index::idOf).toArray();
+        PermissionMask mask = index.maskOf(authorities);
+        int repeticiones = Integer.getInteger("benchmark.permisos.repeticiones", 2_000_000);
+
+        for (int ronda = 0; ronda < 2; ronda++) {
+            long encontrados = 0;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < repeticiones; i++) {
+                Set<String> set = authorities.stream().collect(Collectors.toSet());
+                for (String permiso : revisados) {
+                    encontrados += set.contains(permiso) ? 1 : 0;
+                }
+            }
+            reportar("stream + Set", repeticiones, System.nanoTime() - inicio, encontrados);
+
+            encontrados = 0;
+            inicio = System.nanoTime();
+            for (int i = 0; i < repeticiones; i++) {
+                for (int id : ids) {
+                    encontrados += mask.has(id) ? 1 : 0;
+                }
+            }
+            reportar("máscara", repeticiones, System.nanoTime() - inicio, encontrados);
+        }
+    }
+
+    private static void reportar(String caso, int peticiones, long nanos, long encontrados) {
+        // encontrados se imprime para que el JIT no descarte el ciclo
+        logger.info("{}: {} ns por petición ({} coincidencias)", caso, nanos / peticiones, encontrados);
+    }
+}
@@ -0,0 +1,84 @@
+package com.gestionremodelacion.gestion.security.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.gestionremodelacion.gestion.empresa.model.Empresa.EstadoSuscripcion;
+import com.gestionremodelacion.gestion.empresa.model.Empresa.PlanSuscripcion;
+import com.gestionremodelacion.gestion.empresa.repository.EmpresaRepository;
+import com.gestionremodelacion.gestion.repository.UserRepository;
+
+/**
+ * El contexto del usuario se lee de la BD una sola vez por petición.
+ */
+class TenantContextServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PermissionIndex permissionIndex = new PermissionIndex();
+    private final TenantContextService service = new TenantContextService(userRepository,
+            mock(EmpresaRepository.class), permissionIndex);
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findTenantViewByUsername("ana")).thenReturn(Optional.of(new UserTenantView(7L, "ana",
+                1L, PlanSuscripcion.NEGOCIOS, EstadoSuscripcion.ACTIVA, 3L)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("ana", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("PROYECTO_READ"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void variasLlamadasEnUnaPeticionConsultanUnaSolaVez() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        TenantContext primero = service.current();
+        TenantContext segundo = service.current();
+        service.current();
+
+        assertThat(segundo).isSameAs(primero);
+        assertThat(primero.empresaId()).isEqualTo(1L);
+        assertThat(primero.empleadoId()).isEqualTo(3L);
+        assertThat(primero.hasPermission(permissionIndex.idOf("PROYECTO_READ"))).isTrue();
+        assertThat(primero.isSuperAdmin()).isFalse();
+        verify(userRepository, times(1)).findTenantViewByUsername("ana");
+    }
+
+    @Test
+    void cadaPeticionResuelveSuPropioContexto() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        service.current();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        service.current();
+
+        verify(userRepository, times(2)).findTenantViewByUsername("ana");
+    }
+
+    @Test
+    void fueraDeUnaPeticionSeResuelveEnCadaLlamada() {
+        service.current();
+        service.current();
+
+        verify(userRepository, times(2)).findTenantViewByUsername("ana");
+    }
+}
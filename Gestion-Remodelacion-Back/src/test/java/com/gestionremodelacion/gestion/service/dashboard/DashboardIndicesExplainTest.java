@@ -0,0 +1,109 @@
+package com.gestionremodelacion.gestion.service.dashboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Comprueba con EXPLAIN que las consultas por rango de fechas del Dashboard
+ * usan los índices (empresa, fecha) de V12. Necesita una BD MySQL ya migrada
+ * y con datos (con tablas casi vacías el optimizador prefiere recorrerlas
+ * completas), por ejemplo:
+ *
+ * mvn test -Dtest=DashboardIndicesExplainTest
+ * -Dbenchmark.jdbc-url=jdbc:mysql://localhost:3306/gestion -Dbenchmark.user=root
+ * -Dbenchmark.password=... -Dbenchmark.empresa-id=1
+ *
+ * Las consultas son el SQL que genera Hibernate para
+ * ProyectoRepository.findProyectosByFechaInicioRange,
+ * ClienteRepository.countClientesByMonthForRangeAndEmpresa y countByRangeAndEmpresa
+ * y EmpleadoRepository.countByEmpresaIdAndFechaContratacionRange.
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+class DashboardIndicesExplainTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardIndicesExplainTest.class);
+
+    private static final String PROYECTOS_SQL = "SELECT p.id, p.nombre_proyecto FROM proyectos p "
+            + "WHERE p.id_empresa = ? AND p.fecha_inicio >= ? AND p.fecha_inicio < ?";
+
+    private static final String CLIENTES_POR_MES_SQL = "SELECT YEAR(c.fecha_registro) AS anio, "
+            + "MONTH(c.fecha_registro) AS mes, COUNT(c.id) FROM clientes c "
+            + "WHERE c.id_empresa = ? AND c.fecha_registro >= ? AND c.fecha_registro < ? "
+            + "GROUP BY anio, mes ORDER BY anio, mes";
+
+    private static final String CLIENTES_SQL = "SELECT COUNT(c.id) FROM clientes c "
+            + "WHERE c.id_empresa = ? AND c.fecha_registro >= ? AND c.fecha_registro < ?";
+
+    private static final String CONTRATACIONES_SQL = "SELECT COUNT(e.id) FROM empleados e "
+            + "WHERE e.id_empresa = ? AND e.fecha_contratacion >= ? AND e.fecha_contratacion < ?";
+
+    private final long empresaId = Long.getLong("benchmark.empresa-id", 1L);
+    private final LocalDate desde = LocalDate.now().withDayOfYear(1);
+    private final LocalDate hasta = desde.plusYears(1);
+    private Connection conn;
+
+    @BeforeEach
+    void conectar() throws SQLException {
+        conn = DriverManager.getConnection(System.getProperty("benchmark.jdbc-url"),
+                System.getProperty("benchmark.user", "root"), System.getProperty("benchmark.password", ""));
+    }
+
+    @AfterEach
+    void cerrar() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void proyectosPorFechaDeInicio() throws SQLException {
+        assertThat(indiceElegido(PROYECTOS_SQL, Date.valueOf(desde), Date.valueOf(hasta)))
+                .isEqualTo("idx_proyectos_empresa_fecha_inicio");
+    }
+
+    @Test
+    void clientesPorFechaDeRegistro() throws SQLException {
+        Timestamp desdeInicio = Timestamp.valueOf(desde.atStartOfDay());
+        Timestamp hastaInicio = Timestamp.valueOf(hasta.atStartOfDay());
+
+        assertThat(indiceElegido(CLIENTES_POR_MES_SQL, desdeInicio, hastaInicio))
+                .isEqualTo("idx_clientes_empresa_fecha_registro");
+        assertThat(indiceElegido(CLIENTES_SQL, desdeInicio, hastaInicio))
+                .isEqualTo("idx_clientes_empresa_fecha_registro");
+    }
+
+    @Test
+    void empleadosPorFechaDeContratacion() throws SQLException {
+        assertThat(indiceElegido(CONTRATACIONES_SQL, Date.valueOf(desde), Date.valueOf(hasta)))
+                .isEqualTo("idx_empleados_empresa_fecha_contratacion");
+    }
+
+    // Columna "key" del EXPLAIN: el índice que el optimizador eligió para la tabla
+    private String indiceElegido(String sql, Object desdeParam, Object hastaParam) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + sql)) {
+            ps.setLong(1, empresaId);
+            ps.setObject(2, desdeParam);
+            ps.setObject(3, hastaParam);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertThat(rs.next()).isTrue();
+                String key = rs.getString("key");
+                logger.info("EXPLAIN {} -> type={}, key={}, rows={}", sql, rs.getString("type"), key,
+                        rs.getString("rows"));
+                return key;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.gestionremodelacion.gestion.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class DateRangeTest {
+
+    @Test
+    void mesValidoDaElRangoDelMes() {
+        DateRange rango = DateRange.of(2024, 2);
+
+        assertThat(rango.desde()).isEqualTo(LocalDate.of(2024, 2, 1));
+        assertThat(rango.hasta()).isEqualTo(LocalDate.of(2024, 3, 1));
+    }
+
+    @Test
+    void diciembreTerminaEnEneroDelAnioSiguiente() {
+        DateRange rango = DateRange.of(2024, 12);
+
+        assertThat(rango.desde()).isEqualTo(LocalDate.of(2024, 12, 1));
+        assertThat(rango.hasta()).isEqualTo(LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    void sinMesDaElAnioCompleto() {
+        assertThat(DateRange.of(2024, null)).isEqualTo(anio(2024));
+        assertThat(DateRange.of(2024, 0)).isEqualTo(anio(2024));
+    }
+
+    @Test
+    void mesFueraDeRangoDaElAnioCompleto() {
+        assertThat(DateRange.of(2024, 13)).isEqualTo(anio(2024));
+        assertThat(DateRange.of(2024, -1)).isEqualTo(anio(2024));
+        assertThat(DateRange.of(2024, Integer.MAX_VALUE)).isEqualTo(anio(2024));
+    }
+
+    @Test
+    void mesSoloDevuelveMesesValidos() {
+        assertThat(DateRange.mes(1)).isEqualTo(1);
+        assertThat(DateRange.mes(12)).isEqualTo(12);
+        assertThat(DateRange.mes(0)).isNull();
+        assertThat(DateRange.mes(13)).isNull();
+        assertThat(DateRange.mes(null)).isNull();
+    }
+
+    @Test
+    void ofMonthUsaElMesDeLaFecha() {
+        DateRange rango = DateRange.ofMonth(LocalDate.of(2024, 2, 29));
+
+        assertThat(rango).isEqualTo(new DateRange(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    void limitesParaColumnasDateTime() {
+        DateRange rango = DateRange.of(2024, 5);
+
+        assertThat(rango.desdeInicio()).isEqualTo(LocalDateTime.of(2024, 5, 1, 0, 0));
+        assertThat(rango.hastaInicio()).isEqualTo(LocalDateTime.of(2024, 6, 1, 0, 0));
+    }
+
+    private static DateRange anio(int year) {
+        return new DateRange(LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+    }
+}
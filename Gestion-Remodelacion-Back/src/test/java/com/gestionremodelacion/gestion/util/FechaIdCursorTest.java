@@ -0,0 +1,63 @@
+package com.gestionremodelacion.gestion.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.gestionremodelacion.gestion.exception.BusinessRuleException;
+import com.gestionremodelacion.gestion.exception.ErrorCatalog;
+
+class FechaIdCursorTest {
+
+    @Test
+    void encodeYDecodeSonInversos() {
+        FechaIdCursor cursor = new FechaIdCursor(LocalDate.of(2024, 3, 15), 42L);
+
+        assertThat(FechaIdCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void elTokenEsSeguroParaUrls() {
+        String token = new FechaIdCursor(LocalDate.of(2024, 3, 15), Long.MAX_VALUE).encode();
+
+        assertThat(token.matches("[A-Za-z0-9_-]+")).isTrue();
+    }
+
+    @Test
+    void sinTokenEmpiezaDesdeElInicio() {
+        assertThat(FechaIdCursor.decode(null)).isSameAs(FechaIdCursor.INICIO);
+        assertThat(FechaIdCursor.decode("")).isSameAs(FechaIdCursor.INICIO);
+        assertThat(FechaIdCursor.decode("  ")).isSameAs(FechaIdCursor.INICIO);
+    }
+
+    @Test
+    void tokenQueNoEsBase64EsCursorInvalido() {
+        assertInvalido("no es base64!");
+    }
+
+    @Test
+    void tokenSinSeparadorEsCursorInvalido() {
+        assertInvalido(token("2024-03-15"));
+    }
+
+    @Test
+    void fechaOIdMalFormadosSonCursorInvalido() {
+        assertInvalido(token("2024-13-45|1"));
+        assertInvalido(token("2024-03-15|abc"));
+    }
+
+    private static void assertInvalido(String token) {
+        assertThatThrownBy(() -> FechaIdCursor.decode(token))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessage(ErrorCatalog.INVALID_CURSOR.getKey());
+    }
+
+    private static String token(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}